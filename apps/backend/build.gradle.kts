@@ -29,9 +29,13 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-aop")
+    implementation("org.springframework.boot:spring-boot-starter-websocket")
 
-    // PostgreSQL
-    runtimeOnly("org.postgresql:postgresql")
+    // STOMP broker relay (app.seminar.broker.mode: relay)
+    implementation("io.projectreactor.netty:reactor-netty")
+
+    // PostgreSQL (LISTEN/NOTIFY API is used by the cluster broker bus)
+    implementation("org.postgresql:postgresql")
 
     // JWT
     implementation("io.jsonwebtoken:jjwt-api:0.12.3")
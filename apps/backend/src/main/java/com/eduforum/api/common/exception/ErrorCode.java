@@ -65,6 +65,7 @@ public enum ErrorCode {
     // Chat
     CHAT_MESSAGE_NOT_FOUND(HttpStatus.NOT_FOUND, "CH001", "채팅 메시지를 찾을 수 없습니다"),
     CHAT_DISABLED(HttpStatus.BAD_REQUEST, "CH002", "채팅이 비활성화되어 있습니다"),
+    CHAT_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "CH003", "채팅 처리량이 많습니다. 잠시 후 다시 시도해주세요"),
 
     // Screen Share
     SCREEN_SHARE_NOT_ALLOWED(HttpStatus.FORBIDDEN, "SS001", "화면 공유 권한이 없습니다"),
@@ -105,6 +106,7 @@ public enum ErrorCode {
     CODE_EXECUTION_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "CE002", "코드 실행에 실패했습니다"),
     COMPILATION_ERROR(HttpStatus.BAD_REQUEST, "CE003", "컴파일 오류가 발생했습니다"),
     TEST_CASE_NOT_FOUND(HttpStatus.NOT_FOUND, "CE004", "테스트 케이스를 찾을 수 없습니다"),
+    CODE_EXECUTION_QUEUE_FULL(HttpStatus.TOO_MANY_REQUESTS, "CE005", "코드 실행 대기열이 가득 찼습니다"),
 
     // Assessment - Plagiarism
     PLAGIARISM_REPORT_NOT_FOUND(HttpStatus.NOT_FOUND, "PG001", "표절 검사 보고서를 찾을 수 없습니다"),
@@ -148,6 +150,7 @@ public enum ErrorCode {
     NETWORK_NODE_NOT_FOUND(HttpStatus.NOT_FOUND, "AN013", "네트워크 노드를 찾을 수 없습니다"),
     NETWORK_ANALYSIS_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "AN014", "네트워크 분석에 실패했습니다"),
     CLUSTER_NOT_FOUND(HttpStatus.NOT_FOUND, "AN015", "학생 클러스터를 찾을 수 없습니다"),
+    EXPORT_FORMAT_NOT_SUPPORTED(HttpStatus.BAD_REQUEST, "AN016", "지원하지 않는 내보내기 형식입니다"),
 
     // Email
     EMAIL_SEND_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "EM001", "이메일 발송에 실패했습니다"),
@@ -0,0 +1,56 @@
+package com.eduforum.api.common.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 동기화 유틸리티 클래스
+ *
+ * 기능:
+ * - 커밋 후 실행 (메모리 캐시 반영, 브로드캐스트, 작업 큐 등록)
+ * - 롤백 시 실행 (선점한 메모리 상태 되돌리기)
+ *
+ * 활성 트랜잭션이 없으면 afterCommit 작업은 즉시 실행되고 onRollback 작업은 무시된다.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TransactionUtil {
+
+    /**
+     * 현재 트랜잭션이 커밋된 후 작업 실행
+     *
+     * @param action 실행할 작업
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되지 않고 끝나면 작업 실행
+     *
+     * @param action 실행할 작업
+     */
+    public static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
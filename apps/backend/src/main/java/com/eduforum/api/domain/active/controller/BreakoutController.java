@@ -70,12 +70,12 @@ public class BreakoutController {
 
     @PostMapping("/seminars/{roomId}/breakouts/assign")
     @Operation(summary = "참여자 배정", description = "분반에 참여자를 배정합니다")
-    public ResponseEntity<ApiResponse<Void>> assignParticipants(
+    public ResponseEntity<ApiResponse<BreakoutAssignmentResponse>> assignParticipants(
             @Parameter(hidden = true) @RequestHeader("X-User-Id") Long userId,
             @PathVariable Long roomId,
             @Valid @RequestBody AssignParticipantsRequest request) {
-        breakoutService.assignParticipants(userId, roomId, request);
-        return ResponseEntity.ok(ApiResponse.success("참여자가 배정되었습니다", null));
+        BreakoutAssignmentResponse response = breakoutService.assignParticipants(userId, roomId, request);
+        return ResponseEntity.ok(ApiResponse.success("참여자가 배정되었습니다", response));
     }
 
     @PostMapping("/breakouts/{breakoutId}/start")
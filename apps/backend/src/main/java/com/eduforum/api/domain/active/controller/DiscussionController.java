@@ -83,11 +83,14 @@ public class DiscussionController {
     }
 
     @GetMapping("/seminars/{roomId}/threads")
-    @Operation(summary = "토론 스레드 목록", description = "세미나의 모든 토론 스레드를 조회합니다")
-    public ResponseEntity<ApiResponse<List<ThreadResponse>>> getThreads(
-            @PathVariable Long roomId) {
-        List<ThreadResponse> responses = discussionService.getThreads(roomId);
-        return ResponseEntity.ok(ApiResponse.success(responses));
+    @Operation(summary = "토론 스레드 목록",
+        description = "세미나의 최상위 토론 스레드를 최신순으로 조회합니다 (답글 수, 최신 답글 미리보기 포함, 커서 페이지네이션)")
+    public ResponseEntity<ApiResponse<ThreadPageResponse>> getThreads(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        ThreadPageResponse response = discussionService.getThreads(roomId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @GetMapping("/threads/{threadId}")
@@ -98,6 +101,16 @@ public class DiscussionController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/threads/{threadId}/replies")
+    @Operation(summary = "답글 목록", description = "토론 스레드의 답글을 최신순으로 조회합니다 (커서 페이지네이션)")
+    public ResponseEntity<ApiResponse<ThreadPageResponse>> getReplies(
+            @PathVariable Long threadId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        ThreadPageResponse response = discussionService.getReplies(threadId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PostMapping("/threads/{threadId}/replies")
     @Operation(summary = "토론 스레드 답글", description = "토론 스레드에 답글을 작성합니다")
     public ResponseEntity<ApiResponse<ThreadResponse>> replyToThread(
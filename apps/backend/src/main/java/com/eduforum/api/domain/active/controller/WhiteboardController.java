@@ -59,6 +59,39 @@ public class WhiteboardController {
         return ResponseEntity.ok(ApiResponse.success("화이트보드가 저장되었습니다", response));
     }
 
+    @GetMapping("/whiteboards/{whiteboardId}/sync")
+    @Operation(summary = "화이트보드 동기화", description = "참여 시 현재 요소 목록을, 최근 연결이 끊겼던 경우 afterSeq 이후의 작업만 반환합니다")
+    public ResponseEntity<ApiResponse<WhiteboardSyncResponse>> syncWhiteboard(
+            @PathVariable Long whiteboardId,
+            @RequestParam(required = false) Long afterSeq) {
+        WhiteboardSyncResponse response = whiteboardService.syncWhiteboard(whiteboardId, afterSeq);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/whiteboards/{whiteboardId}/viewport")
+    @Operation(summary = "영역 요소 조회", description = "지정한 영역과 겹치는 요소를 z-index 순으로 페이지 단위로 조회합니다")
+    public ResponseEntity<ApiResponse<WhiteboardViewportResponse>> getViewport(
+            @PathVariable Long whiteboardId,
+            @RequestParam double x,
+            @RequestParam double y,
+            @RequestParam double width,
+            @RequestParam double height,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "200") int size) {
+        WhiteboardViewportResponse response = whiteboardService.getViewport(whiteboardId, x, y, width, height, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/whiteboards/{whiteboardId}/operations")
+    @Operation(summary = "요소 작업 적용", description = "요소 추가/수정/삭제/초기화 작업을 적용하고 참여자에게 전송합니다")
+    public ResponseEntity<ApiResponse<WhiteboardOperationMessage>> applyOperation(
+            @Parameter(hidden = true) @RequestHeader("X-User-Id") Long userId,
+            @PathVariable Long whiteboardId,
+            @Valid @RequestBody WhiteboardOperationRequest request) {
+        WhiteboardOperationMessage response = whiteboardService.applyOperation(userId, whiteboardId, request);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PostMapping("/whiteboards/{whiteboardId}/elements")
     @Operation(summary = "요소 추가", description = "화이트보드에 요소를 추가합니다")
     public ResponseEntity<ApiResponse<Void>> addElement(
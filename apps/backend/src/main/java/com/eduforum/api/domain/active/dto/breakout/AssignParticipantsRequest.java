@@ -25,4 +25,7 @@ public class AssignParticipantsRequest {
 
     // For MANUAL assignment: Map of breakout room ID -> List of user IDs
     private Map<Long, List<Long>> manualAssignments;
+
+    // For RANDOM assignment: shuffle seed, generated when absent
+    private Long seed;
 }
@@ -0,0 +1,20 @@
+package com.eduforum.api.domain.active.dto.breakout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sent to a participant moved into a breakout room
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BreakoutAssignmentMessage {
+
+    private Long breakoutRoomId;
+    private String name;
+    private String meetingUrl;
+}
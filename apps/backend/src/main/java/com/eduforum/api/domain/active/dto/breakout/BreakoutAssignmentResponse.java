@@ -0,0 +1,23 @@
+package com.eduforum.api.domain.active.dto.breakout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BreakoutAssignmentResponse {
+
+    private Integer assignedCount;
+    // Breakout room ID -> members after the assignment
+    private Map<Long, Integer> participantCounts;
+    // Requested participants who were already in one of the seminar's breakout rooms
+    private List<Long> alreadyAssignedUserIds;
+    private Long seed;
+}
@@ -0,0 +1,19 @@
+package com.eduforum.api.domain.active.dto.discussion;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadPageResponse {
+
+    private List<ThreadResponse> threads;
+    // Pass as cursor to get the next page; null on the last page
+    private String nextCursor;
+}
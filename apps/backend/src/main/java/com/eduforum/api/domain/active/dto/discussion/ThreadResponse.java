@@ -22,6 +22,21 @@ public class ThreadResponse {
     private String content;
     private Boolean isPinned;
     private Long replyCount;
+    // Newest reply, only filled in thread listings
+    private ReplyPreview latestReply;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReplyPreview {
+        private Long id;
+        private Long creatorId;
+        private String creatorName;
+        // First characters of the reply content
+        private String content;
+        private OffsetDateTime createdAt;
+    }
 }
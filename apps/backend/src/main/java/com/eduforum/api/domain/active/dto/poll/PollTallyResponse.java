@@ -0,0 +1,19 @@
+package com.eduforum.api.domain.active.dto.poll;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PollTallyResponse {
+
+    private Long pollId;
+    private Long totalResponses;
+    private Map<Long, Long> optionCounts;
+}
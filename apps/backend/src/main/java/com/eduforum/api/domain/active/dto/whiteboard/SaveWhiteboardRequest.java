@@ -1,5 +1,6 @@
 package com.eduforum.api.domain.active.dto.whiteboard;
 
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +15,7 @@ import java.util.Map;
 @AllArgsConstructor
 public class SaveWhiteboardRequest {
 
-    private List<WhiteboardElementDto> elements;
+    private List<@Valid WhiteboardElementDto> elements;
     private Map<String, Object> canvasSettings;
     private Boolean clearExisting;
 }
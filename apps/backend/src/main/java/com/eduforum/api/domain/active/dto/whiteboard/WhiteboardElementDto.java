@@ -1,6 +1,9 @@
 package com.eduforum.api.domain.active.dto.whiteboard;
 
 import com.eduforum.api.domain.active.entity.WhiteboardTool;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -22,14 +25,28 @@ public class WhiteboardElementDto {
     @NotNull(message = "Element type is required")
     private WhiteboardTool type;
 
+    // Coordinates and sizes are limited to the canvas range of WhiteboardSpatialIndex
     @NotNull(message = "X coordinate is required")
+    @DecimalMin(value = "-1000000000", message = "X coordinate is outside the canvas")
+    @DecimalMax(value = "1000000000", message = "X coordinate is outside the canvas")
     private Double x;
 
     @NotNull(message = "Y coordinate is required")
+    @DecimalMin(value = "-1000000000", message = "Y coordinate is outside the canvas")
+    @DecimalMax(value = "1000000000", message = "Y coordinate is outside the canvas")
     private Double y;
 
+    @DecimalMin(value = "-1000000000", message = "Width is outside the canvas")
+    @DecimalMax(value = "1000000000", message = "Width is outside the canvas")
     private Double width;
+
+    @DecimalMin(value = "-1000000000", message = "Height is outside the canvas")
+    @DecimalMax(value = "1000000000", message = "Height is outside the canvas")
     private Double height;
 
+    // Stacking order; assigned on top of the board when omitted
+    @JsonProperty("zIndex")
+    private Integer zIndex;
+
     private Map<String, Object> properties;
 }
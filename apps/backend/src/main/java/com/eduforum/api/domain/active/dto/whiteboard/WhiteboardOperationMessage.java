@@ -0,0 +1,27 @@
+package com.eduforum.api.domain.active.dto.whiteboard;
+
+import com.eduforum.api.domain.active.entity.WhiteboardOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Operation applied to a whiteboard, in board order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhiteboardOperationMessage {
+
+    private Long whiteboardId;
+    private Long seq;
+    private WhiteboardOperationType type;
+    private String elementId;
+    private WhiteboardElementDto element;
+    private Long userId;
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.eduforum.api.domain.active.dto.whiteboard;
+
+import com.eduforum.api.domain.active.entity.WhiteboardOperationType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhiteboardOperationRequest {
+
+    // Target board; required over WebSocket, taken from the path over REST
+    private Long whiteboardId;
+
+    @NotNull(message = "Operation type is required")
+    private WhiteboardOperationType type;
+
+    // Element ID for REMOVE; ADD and UPDATE use element.elementId
+    private String elementId;
+
+    @Valid
+    private WhiteboardElementDto element;
+}
@@ -0,0 +1,24 @@
+package com.eduforum.api.domain.active.dto.whiteboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Whiteboard state for a joining client: either the full element list as of seq, or
+ * (when elements is null) only the operations after the client's last seen seq
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhiteboardSyncResponse {
+
+    private Long whiteboardId;
+    private Long seq;
+    private List<WhiteboardElementDto> elements;
+    private List<WhiteboardOperationMessage> operations;
+}
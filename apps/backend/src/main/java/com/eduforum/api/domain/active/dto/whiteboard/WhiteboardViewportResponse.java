@@ -0,0 +1,24 @@
+package com.eduforum.api.domain.active.dto.whiteboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the elements intersecting a viewport, bottom-most first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhiteboardViewportResponse {
+
+    private Long whiteboardId;
+    private Long seq;
+    private List<WhiteboardElementDto> elements;
+    // Pass as cursor to get the next page; null on the last page
+    private String nextCursor;
+}
@@ -4,7 +4,8 @@ package com.eduforum.api.domain.active.entity;
  * Assignment method for breakout rooms
  */
 public enum AssignmentMethod {
-    RANDOM,    // Random distribution
-    MANUAL,    // Manually assigned by professor
-    BALANCED   // Balanced by certain criteria (e.g., skill level)
+    RANDOM,       // Random distribution
+    MANUAL,       // Manually assigned by professor
+    BALANCED,     // Even room sizes in the given order
+    SKILL_MIXED   // Even room sizes with skill levels and clusters spread across rooms
 }
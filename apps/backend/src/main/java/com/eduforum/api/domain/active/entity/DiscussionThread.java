@@ -30,6 +30,11 @@ public class DiscussionThread extends BaseEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Null for top-level threads
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_thread_id")
+    private DiscussionThread parentThread;
+
     @Column(nullable = false, length = 200)
     private String title;
 
@@ -44,6 +49,15 @@ public class DiscussionThread extends BaseEntity {
     @Builder.Default
     private Integer upvoteCount = 0;
 
+    @Column(name = "is_pinned", nullable = false)
+    @Builder.Default
+    private Boolean isPinned = false;
+
+    // Maintained with DiscussionThreadRepository.adjustReplyCount, not through the entity
+    @Column(name = "reply_count", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Integer replyCount = 0;
+
     // Helper methods
     public void resolve() {
         this.isResolved = true;
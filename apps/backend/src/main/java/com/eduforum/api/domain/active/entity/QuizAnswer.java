@@ -7,10 +7,10 @@ import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
-import java.util.Map;
+import java.util.List;
 
 /**
- * Quiz answer entity - represents a student's answers to a quiz
+ * Quiz answer entity - represents a student's graded answer to one quiz question
  */
 @Entity
 @Table(schema = "active", name = "quiz_answers")
@@ -33,12 +33,20 @@ public class QuizAnswer extends BaseEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "question_id")
+    private Question question;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(nullable = false, columnDefinition = "jsonb")
-    private Map<Long, Object> answers; // Map of questionId -> answer
+    private List<String> answers;
+
+    @Column(name = "is_correct", nullable = false)
+    @Builder.Default
+    private Boolean isCorrect = false;
 
     @Column(name = "score")
-    private Integer score;
+    private Integer pointsEarned;
 
     @Column(name = "max_score")
     private Integer maxScore;
@@ -51,13 +59,8 @@ public class QuizAnswer extends BaseEntity {
     private java.time.OffsetDateTime submittedAt;
 
     // Helper methods
-    public void calculateScore(int score, int maxScore) {
-        this.score = score;
-        this.maxScore = maxScore;
-    }
-
     public Double getPercentage() {
         if (maxScore == null || maxScore == 0) return null;
-        return (score * 100.0) / maxScore;
+        return (pointsEarned * 100.0) / maxScore;
     }
 }
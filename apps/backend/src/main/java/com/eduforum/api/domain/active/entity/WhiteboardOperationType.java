@@ -0,0 +1,11 @@
+package com.eduforum.api.domain.active.entity;
+
+/**
+ * Whiteboard element operation type
+ */
+public enum WhiteboardOperationType {
+    ADD,     // Add an element (replaces an element with the same ID)
+    UPDATE,  // Replace an existing element
+    REMOVE,  // Remove an element
+    CLEAR    // Remove every element
+}
@@ -20,4 +20,9 @@ public interface BreakoutParticipantRepository extends JpaRepository<BreakoutPar
 
     @Query("SELECT COUNT(bp) FROM BreakoutParticipant bp WHERE bp.breakoutRoom.id = :breakoutRoomId AND bp.leftAt IS NULL")
     Long countActiveByBreakoutRoomId(Long breakoutRoomId);
+
+    @Query("SELECT COUNT(bp) FROM BreakoutParticipant bp WHERE bp.breakoutRoom.id = :breakoutRoomId AND bp.deletedAt IS NULL")
+    Long countByBreakoutRoomId(Long breakoutRoomId);
+
+    boolean existsByBreakoutRoomIdAndUserId(Long breakoutRoomId, Long userId);
 }
@@ -19,6 +19,9 @@ public interface BreakoutRoomRepository extends JpaRepository<BreakoutRoom, Long
     @Query("SELECT br FROM BreakoutRoom br WHERE br.deletedAt IS NULL AND br.id = :id")
     Optional<BreakoutRoom> findByIdAndNotDeleted(Long id);
 
+    @Query("SELECT br FROM BreakoutRoom br WHERE br.deletedAt IS NULL AND br.seminarRoom.id = :seminarRoomId ORDER BY br.id")
+    List<BreakoutRoom> findBySeminarRoomIdAndNotDeleted(Long seminarRoomId);
+
     @Query("SELECT COUNT(br) FROM BreakoutRoom br WHERE br.seminarRoom.id = :seminarRoomId AND br.status = 'ACTIVE'")
     Long countActiveBySeminarRoomId(Long seminarRoomId);
 }
@@ -2,7 +2,9 @@ package com.eduforum.api.domain.active.repository;
 
 import com.eduforum.api.domain.active.entity.DiscussionThread;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +19,8 @@ public interface DiscussionThreadRepository extends JpaRepository<DiscussionThre
 
     @Query("SELECT dt FROM DiscussionThread dt WHERE dt.deletedAt IS NULL AND dt.id = :id")
     Optional<DiscussionThread> findByIdAndNotDeleted(Long id);
+
+    @Modifying
+    @Query("UPDATE DiscussionThread dt SET dt.replyCount = dt.replyCount + :delta WHERE dt.id = :id AND dt.replyCount + :delta >= 0")
+    int adjustReplyCount(@Param("id") Long id, @Param("delta") int delta);
 }
@@ -19,4 +19,7 @@ public interface PollResponseRepository extends JpaRepository<PollResponse, Long
     Long countByPollId(Long pollId);
 
     boolean existsByPollIdAndUserId(Long pollId, Long userId);
+
+    @Query("SELECT pr.textResponse FROM PollResponse pr WHERE pr.poll.id = :pollId AND pr.textResponse IS NOT NULL")
+    List<String> findTextResponsesByPollId(Long pollId);
 }
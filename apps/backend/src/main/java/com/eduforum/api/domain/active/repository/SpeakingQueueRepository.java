@@ -20,7 +20,4 @@ public interface SpeakingQueueRepository extends JpaRepository<SpeakingQueue, Lo
 
     @Query("SELECT sq FROM SpeakingQueue sq WHERE sq.room.id = :roomId AND sq.status = 'WAITING' ORDER BY sq.queuePosition ASC")
     List<SpeakingQueue> findWaitingByRoomId(Long roomId);
-
-    @Query("SELECT MAX(sq.queuePosition) FROM SpeakingQueue sq WHERE sq.room.id = :roomId")
-    Optional<Integer> findMaxQueuePositionByRoomId(Long roomId);
 }
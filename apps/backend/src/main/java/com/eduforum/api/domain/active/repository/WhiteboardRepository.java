@@ -15,4 +15,7 @@ public interface WhiteboardRepository extends JpaRepository<Whiteboard, Long> {
 
     @Query("SELECT w FROM Whiteboard w WHERE w.deletedAt IS NULL AND w.id = :id")
     Optional<Whiteboard> findByIdAndNotDeleted(Long id);
+
+    @Query("SELECT w FROM Whiteboard w WHERE w.deletedAt IS NULL AND w.room.id = :roomId ORDER BY w.id")
+    List<Whiteboard> findByRoomIdAndNotDeleted(Long roomId);
 }
@@ -0,0 +1,237 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.active.entity.AssignmentMethod;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Plans breakout room assignments in memory.
+ * <ul>
+ *   <li>BALANCED: participants in the given order, each into the room with the fewest members
+ *       that still has capacity (a heap on the room counters).</li>
+ *   <li>RANDOM: participants shuffled with the seed, then placed as BALANCED.</li>
+ *   <li>MANUAL: the professor's mapping, validated against the rooms and their capacity; users
+ *       who are not candidates (not requested or already seated) are skipped.</li>
+ *   <li>SKILL_MIXED: strongest participants first; each goes to the smallest room, ties broken
+ *       by fewest members of the participant's cluster and then by lowest skill total, so every
+ *       room gets a similar spread of skill and a mix of clusters.</li>
+ * </ul>
+ * Rooms start from their current member counts, so repeated assignments keep topping up the
+ * smallest rooms. O(n log r) for BALANCED and RANDOM, O(n * r) for SKILL_MIXED.
+ */
+@Component
+public class BreakoutAssigner {
+
+    public Plan assign(AssignmentMethod method, List<Room> rooms, List<Candidate> candidates,
+                       Map<Long, List<Long>> manualAssignments, long seed) {
+        if (rooms.isEmpty()) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "No breakout rooms to assign to");
+        }
+        if (method == AssignmentMethod.MANUAL) {
+            return assignManually(rooms, candidates, manualAssignments);
+        }
+
+        long free = 0;
+        for (Room room : rooms) {
+            free += room.getFreeSeats();
+        }
+        if (free < candidates.size()) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
+                "Not enough breakout room capacity for " + candidates.size() + " participants");
+        }
+
+        List<Candidate> ordered = new ArrayList<>(candidates);
+        return switch (method) {
+            case RANDOM -> {
+                shuffle(ordered, new SplittableRandom(seed));
+                yield assignBalanced(rooms, ordered);
+            }
+            case BALANCED -> assignBalanced(rooms, ordered);
+            case SKILL_MIXED -> assignSkillMixed(rooms, ordered);
+            default -> throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Invalid assignment method");
+        };
+    }
+
+    private static Plan assignBalanced(List<Room> rooms, List<Candidate> ordered) {
+        int[] counts = currentCounts(rooms);
+        PriorityQueue<Integer> smallest = new PriorityQueue<>(
+            Comparator.<Integer>comparingInt(i -> counts[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < rooms.size(); i++) {
+            if (rooms.get(i).getFreeSeats() > 0) {
+                smallest.add(i);
+            }
+        }
+
+        List<Move> moves = new ArrayList<>(ordered.size());
+        for (Candidate candidate : ordered) {
+            int i = smallest.poll();
+            moves.add(new Move(candidate.getUserId(), rooms.get(i).getRoomId()));
+            counts[i]++;
+            if (counts[i] < rooms.get(i).getCapacity()) {
+                smallest.add(i);
+            }
+        }
+        return new Plan(moves, counts(rooms, counts));
+    }
+
+    private static Plan assignSkillMixed(List<Room> rooms, List<Candidate> ordered) {
+        ordered.sort(Comparator.comparingDouble(Candidate::getSkill).reversed()
+            .thenComparing(Candidate::getUserId));
+
+        int[] counts = currentCounts(rooms);
+        double[] skillTotals = new double[rooms.size()];
+        List<Map<Long, Integer>> clusterCounts = new ArrayList<>(rooms.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            clusterCounts.add(new HashMap<>());
+        }
+
+        List<Move> moves = new ArrayList<>(ordered.size());
+        for (Candidate candidate : ordered) {
+            int best = -1;
+            int bestCluster = 0;
+            for (int i = 0; i < rooms.size(); i++) {
+                if (counts[i] >= rooms.get(i).getCapacity()) {
+                    continue;
+                }
+                int cluster = candidate.getClusterId() == null ? 0
+                    : clusterCounts.get(i).getOrDefault(candidate.getClusterId(), 0);
+                if (best < 0 || counts[i] < counts[best]
+                        || (counts[i] == counts[best] && (cluster < bestCluster
+                            || (cluster == bestCluster && skillTotals[i] < skillTotals[best])))) {
+                    best = i;
+                    bestCluster = cluster;
+                }
+            }
+
+            moves.add(new Move(candidate.getUserId(), rooms.get(best).getRoomId()));
+            counts[best]++;
+            skillTotals[best] += candidate.getSkill();
+            if (candidate.getClusterId() != null) {
+                clusterCounts.get(best).merge(candidate.getClusterId(), 1, Integer::sum);
+            }
+        }
+        return new Plan(moves, counts(rooms, counts));
+    }
+
+    private static Plan assignManually(List<Room> rooms, List<Candidate> candidates,
+                                       Map<Long, List<Long>> manualAssignments) {
+        if (manualAssignments == null || manualAssignments.isEmpty()) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
+                "Manual assignments are required for manual assignment method");
+        }
+
+        Map<Long, Integer> roomIndex = new HashMap<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            roomIndex.put(rooms.get(i).getRoomId(), i);
+        }
+        Set<Long> participants = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            participants.add(candidate.getUserId());
+        }
+
+        int[] counts = currentCounts(rooms);
+        Set<Long> assigned = new HashSet<>();
+        List<Move> moves = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> entry : manualAssignments.entrySet()) {
+            Integer i = roomIndex.get(entry.getKey());
+            if (i == null) {
+                throw new BusinessException(ErrorCode.ENTITY_NOT_FOUND, "Breakout room " + entry.getKey() + " not found");
+            }
+            for (Long userId : entry.getValue()) {
+                if (!participants.contains(userId)) {
+                    continue;
+                }
+                if (!assigned.add(userId)) {
+                    throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
+                        "User " + userId + " is assigned to more than one room");
+                }
+                if (counts[i] >= rooms.get(i).getCapacity()) {
+                    throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
+                        "Breakout room " + entry.getKey() + " is over capacity");
+                }
+                counts[i]++;
+                moves.add(new Move(userId, entry.getKey()));
+            }
+        }
+        return new Plan(moves, counts(rooms, counts));
+    }
+
+    private static int[] currentCounts(List<Room> rooms) {
+        int[] counts = new int[rooms.size()];
+        for (int i = 0; i < rooms.size(); i++) {
+            counts[i] = rooms.get(i).getMemberCount();
+        }
+        return counts;
+    }
+
+    private static Map<Long, Integer> counts(List<Room> rooms, int[] counts) {
+        Map<Long, Integer> result = new HashMap<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            result.put(rooms.get(i).getRoomId(), counts[i]);
+        }
+        return result;
+    }
+
+    private static <T> void shuffle(List<T> values, SplittableRandom random) {
+        for (int i = values.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            T tmp = values.get(i);
+            values.set(i, values.get(j));
+            values.set(j, tmp);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Room {
+        private final Long roomId;
+        // Null for unlimited rooms
+        private final Integer maxParticipants;
+        private final int memberCount;
+
+        int getCapacity() {
+            return maxParticipants != null ? maxParticipants : Integer.MAX_VALUE;
+        }
+
+        long getFreeSeats() {
+            return Math.max(0L, (long) getCapacity() - memberCount);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Candidate {
+        private final Long userId;
+        private final double skill;
+        // Null when the participant is not in any cluster
+        private final Long clusterId;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Move {
+        private final Long userId;
+        private final Long roomId;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Plan {
+        private final List<Move> moves;
+        // Members per room after the plan is applied
+        private final Map<Long, Integer> participantCounts;
+    }
+}
@@ -2,20 +2,29 @@ package com.eduforum.api.domain.active.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.TransactionUtil;
 import com.eduforum.api.domain.active.dto.breakout.*;
 import com.eduforum.api.domain.active.entity.*;
 import com.eduforum.api.domain.active.repository.*;
+import com.eduforum.api.domain.analytics.entity.StudentCluster;
+import com.eduforum.api.domain.analytics.repository.StudentClusterRepository;
 import com.eduforum.api.domain.auth.entity.User;
 import com.eduforum.api.domain.auth.repository.UserRepository;
 import com.eduforum.api.domain.seminar.entity.SeminarRoom;
+import com.eduforum.api.domain.seminar.entity.WebSocketEventType;
 import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
+import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,10 +33,33 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BreakoutService {
 
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_USERS_SQL =
+        "SELECT id FROM auth.users WHERE id = ANY(?)";
+    private static final String SELECT_MEMBERS_SQL =
+        "SELECT breakout_room_id, user_id FROM active.breakout_participants " +
+        "WHERE breakout_room_id = ANY(?) AND deleted_at IS NULL";
+    private static final String CLEAR_MEMBERS_SQL =
+        "DELETE FROM active.breakout_participants WHERE breakout_room_id = ANY(?)";
+    private static final String INSERT_PARTICIPANT_SQL =
+        "INSERT INTO active.breakout_participants (breakout_room_id, user_id, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?) ON CONFLICT (breakout_room_id, user_id) DO UPDATE " +
+        "SET deleted_at = NULL, joined_at = NULL, left_at = NULL, updated_at = EXCLUDED.updated_at";
+    private static final String SELECT_COURSE_SQL =
+        "SELECT s.course_id FROM seminar.rooms r JOIN course.sessions s ON s.id = r.session_id WHERE r.id = ?";
+    private static final String SELECT_SKILL_SQL =
+        "SELECT student_id, total_score FROM assessment.participation_scores " +
+        "WHERE course_id = ? AND student_id = ANY(?)";
+
     private final BreakoutRoomRepository breakoutRoomRepository;
     private final BreakoutParticipantRepository breakoutParticipantRepository;
     private final SeminarRoomRepository seminarRoomRepository;
     private final UserRepository userRepository;
+    private final StudentClusterRepository studentClusterRepository;
+    private final BreakoutAssigner breakoutAssigner;
+    private final WebSocketEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public BreakoutResponse createBreakoutRoom(Long userId, Long seminarRoomId, CreateBreakoutRequest request) {
@@ -92,111 +124,127 @@ public class BreakoutService {
         breakoutRoomRepository.save(breakoutRoom);
     }
 
+    /**
+     * Plan the whole assignment in memory, write it with one batch insert and notify
+     * every moved participant once the transaction commits
+     */
     @Transactional
-    public void assignParticipants(Long userId, Long seminarRoomId, AssignParticipantsRequest request) {
+    public BreakoutAssignmentResponse assignParticipants(Long userId, Long seminarRoomId, AssignParticipantsRequest request) {
         log.info("Assigning participants to breakout rooms for seminar {}", seminarRoomId);
 
         List<BreakoutRoom> breakoutRooms = breakoutRoomRepository.findBySeminarRoomIdAndNotDeleted(seminarRoomId);
-        List<User> participants = userRepository.findAllById(request.getParticipantIds());
-
-        if (participants.size() != request.getParticipantIds().size()) {
+        Long[] roomIds = breakoutRooms.stream().map(BreakoutRoom::getId).toArray(Long[]::new);
+        Long[] participantIds = new LinkedHashSet<>(request.getParticipantIds()).toArray(new Long[0]);
+
+        List<Long> knownUsers = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_USERS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", participantIds));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+        if (knownUsers.size() != participantIds.length) {
             throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Some participant IDs are invalid");
         }
 
-        // Clear existing assignments if requested
+        // Clear existing assignments if requested; otherwise seated users keep their rooms
+        Map<Long, Integer> memberCounts = new HashMap<>();
+        Set<Long> seated = new HashSet<>();
         if (request.getClearExisting() != null && request.getClearExisting()) {
-            breakoutParticipantRepository.deleteByBreakoutRoomIn(breakoutRooms);
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(CLEAR_MEMBERS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", roomIds));
+                return ps;
+            });
+        } else {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_MEMBERS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", roomIds));
+                return ps;
+            }, rs -> {
+                memberCounts.merge(rs.getLong("breakout_room_id"), 1, Integer::sum);
+                seated.add(rs.getLong("user_id"));
+            });
         }
 
         AssignmentMethod method = request.getAssignmentMethod() != null
             ? request.getAssignmentMethod()
             : AssignmentMethod.RANDOM;
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
 
-        switch (method) {
-            case RANDOM -> assignRandomly(breakoutRooms, participants);
-            case BALANCED -> assignBalanced(breakoutRooms, participants);
-            case MANUAL -> assignManually(breakoutRooms, participants, request.getManualAssignments());
-            default -> throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Invalid assignment method");
+        List<Long> alreadyAssigned = new ArrayList<>();
+        List<Long> unseated = new ArrayList<>();
+        for (Long participantId : participantIds) {
+            (seated.contains(participantId) ? alreadyAssigned : unseated).add(participantId);
         }
 
-        log.info("Assigned {} participants to {} breakout rooms", participants.size(), breakoutRooms.size());
-    }
-
-    private void assignRandomly(List<BreakoutRoom> rooms, List<User> participants) {
-        List<User> shuffled = new ArrayList<>(participants);
-        Collections.shuffle(shuffled);
-
-        int roomIndex = 0;
-        for (User user : shuffled) {
-            BreakoutRoom room = rooms.get(roomIndex % rooms.size());
-
-            // Check max participants
-            if (room.getMaxParticipants() != null) {
-                long currentCount = breakoutParticipantRepository.countByBreakoutRoomId(room.getId());
-                if (currentCount >= room.getMaxParticipants()) {
-                    roomIndex++;
-                    room = rooms.get(roomIndex % rooms.size());
-                }
+        List<BreakoutAssigner.Room> rooms = breakoutRooms.stream()
+            .map(room -> new BreakoutAssigner.Room(room.getId(), room.getMaxParticipants(),
+                memberCounts.getOrDefault(room.getId(), 0)))
+            .collect(Collectors.toList());
+        BreakoutAssigner.Plan plan = breakoutAssigner.assign(method, rooms,
+            candidates(seminarRoomId, unseated, method), request.getManualAssignments(), seed);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Timestamp timestamp = Timestamp.from(now.toInstant());
+        jdbcTemplate.batchUpdate(INSERT_PARTICIPANT_SQL, plan.getMoves(), BATCH_SIZE, (ps, move) -> {
+            ps.setLong(1, move.getRoomId());
+            ps.setLong(2, move.getUserId());
+            ps.setTimestamp(3, timestamp);
+            ps.setTimestamp(4, timestamp);
+        });
+
+        Map<Long, BreakoutAssignmentMessage> messages = breakoutRooms.stream()
+            .collect(Collectors.toMap(BreakoutRoom::getId, room -> BreakoutAssignmentMessage.builder()
+                .breakoutRoomId(room.getId())
+                .name(room.getName())
+                .meetingUrl(room.getMeetingUrl())
+                .build()));
+        TransactionUtil.afterCommit(() -> {
+            for (BreakoutAssigner.Move move : plan.getMoves()) {
+                eventPublisher.sendToUser(move.getUserId(), WebSocketEventType.BREAKOUT_ASSIGNED, seminarRoomId,
+                    messages.get(move.getRoomId()));
             }
-
-            BreakoutParticipant participant = BreakoutParticipant.builder()
-                .breakoutRoom(room)
-                .user(user)
-                .build();
-
-            breakoutParticipantRepository.save(participant);
-            roomIndex++;
-        }
+        });
+
+        log.info("Assigned {} participants to {} breakout rooms ({}, seed {})",
+            plan.getMoves().size(), breakoutRooms.size(), method, seed);
+        return BreakoutAssignmentResponse.builder()
+            .assignedCount(plan.getMoves().size())
+            .participantCounts(plan.getParticipantCounts())
+            .alreadyAssignedUserIds(alreadyAssigned)
+            .seed(seed)
+            .build();
     }
 
-    private void assignBalanced(List<BreakoutRoom> rooms, List<User> participants) {
-        // For balanced assignment, distribute evenly
-        int participantsPerRoom = participants.size() / rooms.size();
-        int remainder = participants.size() % rooms.size();
-
-        int participantIndex = 0;
-        for (int i = 0; i < rooms.size(); i++) {
-            BreakoutRoom room = rooms.get(i);
-            int count = participantsPerRoom + (i < remainder ? 1 : 0);
-
-            for (int j = 0; j < count && participantIndex < participants.size(); j++) {
-                User user = participants.get(participantIndex++);
-                BreakoutParticipant participant = BreakoutParticipant.builder()
-                    .breakoutRoom(room)
-                    .user(user)
-                    .build();
-
-                breakoutParticipantRepository.save(participant);
+    /**
+     * Assignment candidates; SKILL_MIXED also loads participation scores and clusters of the
+     * seminar's course
+     */
+    private List<BreakoutAssigner.Candidate> candidates(Long seminarRoomId, List<Long> userIds, AssignmentMethod method) {
+        Map<Long, Double> skill = new HashMap<>();
+        Map<Long, Long> clusterOf = new HashMap<>();
+        if (method == AssignmentMethod.SKILL_MIXED && !userIds.isEmpty()) {
+            Long courseId = jdbcTemplate.queryForObject(SELECT_COURSE_SQL, Long.class, seminarRoomId);
+            Long[] ids = userIds.toArray(new Long[0]);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SKILL_SQL);
+                ps.setLong(1, courseId);
+                ps.setArray(2, con.createArrayOf("bigint", ids));
+                return ps;
+            }, rs -> {
+                skill.put(rs.getLong("student_id"), rs.getDouble("total_score"));
+            });
+            for (StudentCluster cluster : studentClusterRepository.findByCourseIdOrderByClusterNumberAsc(courseId)) {
+                for (Long memberId : cluster.getMemberIds()) {
+                    clusterOf.put(memberId, cluster.getId());
+                }
             }
         }
-    }
 
-    private void assignManually(List<BreakoutRoom> rooms, List<User> participants,
-                                Map<Long, List<Long>> manualAssignments) {
-        if (manualAssignments == null || manualAssignments.isEmpty()) {
-            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
-                "Manual assignments are required for manual assignment method");
-        }
-
-        for (Map.Entry<Long, List<Long>> entry : manualAssignments.entrySet()) {
-            Long roomId = entry.getKey();
-            List<Long> userIds = entry.getValue();
-
-            BreakoutRoom room = breakoutRoomRepository.findById(roomId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-            for (Long userId : userIds) {
-                User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-
-                BreakoutParticipant participant = BreakoutParticipant.builder()
-                    .breakoutRoom(room)
-                    .user(user)
-                    .build();
-
-                breakoutParticipantRepository.save(participant);
-            }
+        List<BreakoutAssigner.Candidate> candidates = new ArrayList<>(userIds.size());
+        for (Long id : userIds) {
+            candidates.add(new BreakoutAssigner.Candidate(id, skill.getOrDefault(id, 0.0), clusterOf.get(id)));
         }
+        return candidates;
     }
 
     @Transactional
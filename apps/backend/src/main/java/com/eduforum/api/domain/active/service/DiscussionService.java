@@ -11,13 +11,16 @@ import com.eduforum.api.domain.seminar.entity.SeminarRoom;
 import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.HashMap;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,134 +29,71 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DiscussionService {
 
-    private final SpeakingQueueRepository speakingQueueRepository;
+    private static final int MAX_THREAD_PAGE_SIZE = 200;
+    private static final int REPLY_PREVIEW_LENGTH = 200;
+
+    private static final String ROOM_THREADS_FILTER = "t.room_id = ? AND t.parent_thread_id IS NULL";
+    private static final String THREAD_REPLIES_FILTER = "t.parent_thread_id = ?";
+    private static final String AFTER_CURSOR = " AND (t.created_at, t.id) < (?, ?)";
+    // %s: filter, then the optional keyset condition
+    private static final String THREAD_PAGE_SQL =
+        "SELECT t.id, t.room_id, t.user_id, u.first_name || ' ' || u.last_name AS creator_name, t.parent_thread_id, " +
+        "t.title, t.content, t.is_pinned, t.reply_count, t.created_at, t.updated_at, " +
+        "r.id AS reply_id, r.user_id AS reply_user_id, ru.first_name || ' ' || ru.last_name AS reply_creator_name, " +
+        "LEFT(r.content, " + REPLY_PREVIEW_LENGTH + ") AS reply_content, r.created_at AS reply_created_at " +
+        "FROM active.discussion_threads t " +
+        "JOIN auth.users u ON u.id = t.user_id " +
+        "LEFT JOIN LATERAL (SELECT id, user_id, content, created_at FROM active.discussion_threads " +
+        "    WHERE parent_thread_id = t.id AND deleted_at IS NULL ORDER BY created_at DESC, id DESC LIMIT 1) r ON TRUE " +
+        "LEFT JOIN auth.users ru ON ru.id = r.user_id " +
+        "WHERE %s AND t.deleted_at IS NULL%s " +
+        "ORDER BY t.created_at DESC, t.id DESC LIMIT ?";
+
+    private final SpeakingQueueEngine speakingQueueEngine;
     private final DiscussionThreadRepository discussionThreadRepository;
     private final SeminarRoomRepository seminarRoomRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    @Transactional
+    /**
+     * Positions are handed out under the room's row lock and the entry is written before this returns
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SpeakingQueueResponse joinSpeakingQueue(Long userId, Long seminarRoomId, JoinQueueRequest request) {
         log.info("User {} joining speaking queue for seminar {}", userId, seminarRoomId);
 
-        SeminarRoom seminarRoom = seminarRoomRepository.findById(seminarRoomId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-
-        // Check if user is already in queue
-        boolean exists = speakingQueueRepository.existsByRoomIdAndUserIdAndStatus(
-            seminarRoomId, userId, SpeakingStatus.WAITING);
-
-        if (exists) {
-            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Already in speaking queue");
-        }
-
-        // Get next queue position
-        Integer maxPosition = speakingQueueRepository.findMaxQueuePositionByRoomId(seminarRoomId);
-        int nextPosition = (maxPosition != null ? maxPosition : 0) + 1;
-
-        SpeakingQueue queueEntry = SpeakingQueue.builder()
-            .room(seminarRoom)
-            .user(user)
-            .status(SpeakingStatus.WAITING)
-            .queuePosition(nextPosition)
-            .build();
-
-        queueEntry = speakingQueueRepository.save(queueEntry);
-        log.info("User {} joined queue at position {}", userId, nextPosition);
+        RoomSpeakingQueue.Entry queueEntry = speakingQueueEngine.join(seminarRoomId, userId);
+        log.info("User {} joined queue at position {}", userId, queueEntry.getPosition());
         return mapToQueueResponse(queueEntry);
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void leaveSpeakingQueue(Long userId, Long queueId) {
-        SpeakingQueue queueEntry = speakingQueueRepository.findById(queueId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-        if (!queueEntry.getUser().getId().equals(userId)) {
-            throw new BusinessException(ErrorCode.ACCESS_DENIED);
-        }
-
-        if (queueEntry.isSpeaking()) {
-            queueEntry.finish();
-            speakingQueueRepository.save(queueEntry);
-        } else {
-            speakingQueueRepository.delete(queueEntry);
-        }
-
+        speakingQueueEngine.leave(queueId, userId);
         log.info("User {} left speaking queue", userId);
     }
 
+    /**
+     * The current speaker followed by the waiting users in queue order
+     */
     public List<SpeakingQueueResponse> getSpeakingQueue(Long seminarRoomId) {
-        return speakingQueueRepository.findByRoomIdOrderByQueuePositionAsc(seminarRoomId).stream()
+        return speakingQueueEngine.entries(seminarRoomId).stream()
             .map(this::mapToQueueResponse)
             .collect(Collectors.toList());
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SpeakingQueueResponse grantSpeakingTurn(Long professorId, Long queueId) {
-        SpeakingQueue queueEntry = speakingQueueRepository.findById(queueId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-        if (!queueEntry.isWaiting()) {
-            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Queue entry is not in waiting state");
-        }
-
-        // Finish any currently speaking user
-        List<SpeakingQueue> currentlySpeaking = speakingQueueRepository
-            .findByRoomIdAndStatus(queueEntry.getRoom().getId(), SpeakingStatus.SPEAKING);
+        // Finishes the current speaker's turn in the same step
+        RoomSpeakingQueue.Entry queueEntry = speakingQueueEngine.grant(queueId);
 
-        for (SpeakingQueue speaking : currentlySpeaking) {
-            speaking.finish();
-            speakingQueueRepository.save(speaking);
-        }
-
-        // Grant turn to requested user
-        queueEntry.grant();
-        queueEntry = speakingQueueRepository.save(queueEntry);
-
-        log.info("Granted speaking turn to user {}", queueEntry.getUser().getId());
+        log.info("Granted speaking turn to user {}", queueEntry.getUserId());
         return mapToQueueResponse(queueEntry);
     }
 
     public ParticipationStatsResponse getParticipationStats(Long seminarRoomId) {
-        List<SpeakingQueue> allEntries = speakingQueueRepository.findByRoomId(seminarRoomId);
-
-        // Calculate stats per user
-        Map<Long, ParticipationStatsResponse.UserStats> userStatsMap = new HashMap<>();
-
-        for (SpeakingQueue entry : allEntries) {
-            Long userId = entry.getUser().getId();
-            String userName = entry.getUser().getName();
-
-            userStatsMap.putIfAbsent(userId, ParticipationStatsResponse.UserStats.builder()
-                .userId(userId)
-                .userName(userName)
-                .speakingCount(0)
-                .totalSpeakingSeconds(0)
-                .averageSpeakingSeconds(0.0)
-                .build());
-
-            ParticipationStatsResponse.UserStats stats = userStatsMap.get(userId);
-
-            if (entry.getSpeakingDurationSeconds() != null) {
-                stats.setSpeakingCount(stats.getSpeakingCount() + 1);
-                stats.setTotalSpeakingSeconds(stats.getTotalSpeakingSeconds() + entry.getSpeakingDurationSeconds());
-            }
-        }
-
-        // Calculate averages
-        for (ParticipationStatsResponse.UserStats stats : userStatsMap.values()) {
-            if (stats.getSpeakingCount() > 0) {
-                stats.setAverageSpeakingSeconds(
-                    (double) stats.getTotalSpeakingSeconds() / stats.getSpeakingCount()
-                );
-            }
-        }
-
-        List<ParticipationStatsResponse.UserStats> userStatsList = userStatsMap.values().stream()
-            .sorted((a, b) -> Integer.compare(b.getTotalSpeakingSeconds(), a.getTotalSpeakingSeconds()))
-            .collect(Collectors.toList());
+        // Kept up to date per user as turns finish
+        List<ParticipationStatsResponse.UserStats> userStatsList = speakingQueueEngine.stats(seminarRoomId);
 
         int totalSpeakingSeconds = userStatsList.stream()
             .mapToInt(ParticipationStatsResponse.UserStats::getTotalSpeakingSeconds)
@@ -161,7 +101,7 @@ public class DiscussionService {
 
         return ParticipationStatsResponse.builder()
             .seminarRoomId(seminarRoomId)
-            .totalParticipants(userStatsMap.size())
+            .totalParticipants(userStatsList.size())
             .totalSpeakingSeconds(totalSpeakingSeconds)
             .userStats(userStatsList)
             .build();
@@ -179,7 +119,7 @@ public class DiscussionService {
 
         DiscussionThread thread = DiscussionThread.builder()
             .room(seminarRoom)
-            .creator(creator)
+            .user(creator)
             .title(request.getTitle())
             .content(request.getContent())
             .isPinned(request.getIsPinned() != null ? request.getIsPinned() : false)
@@ -190,10 +130,19 @@ public class DiscussionService {
         return mapToThreadResponse(thread);
     }
 
-    public List<ThreadResponse> getThreads(Long seminarRoomId) {
-        return discussionThreadRepository.findByRoomIdAndNotDeletedOrderByCreatedAtDesc(seminarRoomId).stream()
-            .map(this::mapToThreadResponse)
-            .collect(Collectors.toList());
+    /**
+     * One page of a room's top-level threads, newest first, with reply counts and the latest
+     * reply of each thread read in a single query
+     */
+    public ThreadPageResponse getThreads(Long seminarRoomId, String cursor, int size) {
+        return threadPage(ROOM_THREADS_FILTER, seminarRoomId, cursor, size);
+    }
+
+    /**
+     * One page of a thread's replies, newest first
+     */
+    public ThreadPageResponse getReplies(Long threadId, String cursor, int size) {
+        return threadPage(THREAD_REPLIES_FILTER, threadId, cursor, size);
     }
 
     public ThreadResponse getThread(Long threadId) {
@@ -212,7 +161,7 @@ public class DiscussionService {
 
         DiscussionThread reply = DiscussionThread.builder()
             .room(parentThread.getRoom())
-            .creator(creator)
+            .user(creator)
             .parentThread(parentThread)
             .title(request.getTitle())
             .content(request.getContent())
@@ -220,6 +169,7 @@ public class DiscussionService {
             .build();
 
         reply = discussionThreadRepository.save(reply);
+        discussionThreadRepository.adjustReplyCount(threadId, 1);
         log.info("Created reply to thread {}", threadId);
         return mapToThreadResponse(reply);
     }
@@ -229,43 +179,105 @@ public class DiscussionService {
         DiscussionThread thread = discussionThreadRepository.findByIdAndNotDeleted(threadId)
             .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
 
-        if (!thread.getCreator().getId().equals(userId)) {
+        if (!thread.getUser().getId().equals(userId)) {
             throw new BusinessException(ErrorCode.ACCESS_DENIED);
         }
 
         thread.delete();
         discussionThreadRepository.save(thread);
+        if (thread.getParentThread() != null) {
+            discussionThreadRepository.adjustReplyCount(thread.getParentThread().getId(), -1);
+        }
         log.info("Deleted thread {}", threadId);
     }
 
-    private SpeakingQueueResponse mapToQueueResponse(SpeakingQueue queueEntry) {
+    private ThreadPageResponse threadPage(String filter, Long filterId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_THREAD_PAGE_SIZE));
+        List<Object> args = new ArrayList<>();
+        args.add(filterId);
+        String keyset = "";
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf(':');
+            try {
+                long micros = Long.parseLong(cursor.substring(0, Math.max(separator, 0)));
+                Instant createdAt = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    Math.floorMod(micros, 1_000_000L) * 1_000L);
+                args.add(createdAt.atOffset(ZoneOffset.UTC));
+                args.add(Long.parseLong(cursor.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Invalid cursor");
+            }
+            keyset = AFTER_CURSOR;
+        }
+        // One extra row tells whether another page follows
+        args.add(limit + 1);
+
+        List<ThreadResponse> threads = jdbcTemplate.query(String.format(THREAD_PAGE_SQL, filter, keyset),
+            (rs, rowNum) -> {
+                long replyId = rs.getLong("reply_id");
+                ThreadResponse.ReplyPreview latestReply = rs.wasNull() ? null : ThreadResponse.ReplyPreview.builder()
+                    .id(replyId)
+                    .creatorId(rs.getLong("reply_user_id"))
+                    .creatorName(rs.getString("reply_creator_name"))
+                    .content(rs.getString("reply_content"))
+                    .createdAt(rs.getObject("reply_created_at", OffsetDateTime.class))
+                    .build();
+                return ThreadResponse.builder()
+                    .id(rs.getLong("id"))
+                    .roomId(rs.getLong("room_id"))
+                    .creatorId(rs.getLong("user_id"))
+                    .creatorName(rs.getString("creator_name"))
+                    .parentThreadId(rs.getObject("parent_thread_id", Long.class))
+                    .title(rs.getString("title"))
+                    .content(rs.getString("content"))
+                    .isPinned(rs.getBoolean("is_pinned"))
+                    .replyCount(rs.getLong("reply_count"))
+                    .latestReply(latestReply)
+                    .createdAt(rs.getObject("created_at", OffsetDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", OffsetDateTime.class))
+                    .build();
+            },
+            args.toArray());
+
+        String nextCursor = null;
+        if (threads.size() > limit) {
+            threads = new ArrayList<>(threads.subList(0, limit));
+            ThreadResponse last = threads.get(limit - 1);
+            Instant createdAt = last.getCreatedAt().toInstant();
+            nextCursor = (createdAt.getEpochSecond() * 1_000_000L + createdAt.getNano() / 1_000L) + ":" + last.getId();
+        }
+        return ThreadPageResponse.builder()
+            .threads(threads)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    private SpeakingQueueResponse mapToQueueResponse(RoomSpeakingQueue.Entry queueEntry) {
         return SpeakingQueueResponse.builder()
             .id(queueEntry.getId())
-            .roomId(queueEntry.getRoom().getId())
-            .userId(queueEntry.getUser().getId())
-            .userName(queueEntry.getUser().getName())
+            .roomId(queueEntry.getRoomId())
+            .userId(queueEntry.getUserId())
+            .userName(queueEntry.getUserName())
             .status(queueEntry.getStatus())
-            .queuePosition(queueEntry.getQueuePosition())
+            .queuePosition(queueEntry.getPosition())
             .grantedAt(queueEntry.getGrantedAt())
             .finishedAt(queueEntry.getFinishedAt())
-            .speakingDurationSeconds(queueEntry.getSpeakingDurationSeconds())
+            .speakingDurationSeconds(queueEntry.getDurationSeconds())
             .createdAt(queueEntry.getCreatedAt())
             .build();
     }
 
     private ThreadResponse mapToThreadResponse(DiscussionThread thread) {
-        Long replyCount = discussionThreadRepository.countByParentThreadId(thread.getId());
-
         return ThreadResponse.builder()
             .id(thread.getId())
             .roomId(thread.getRoom().getId())
-            .creatorId(thread.getCreator().getId())
-            .creatorName(thread.getCreator().getName())
+            .creatorId(thread.getUser().getId())
+            .creatorName(thread.getUser().getFullName())
             .parentThreadId(thread.getParentThread() != null ? thread.getParentThread().getId() : null)
             .title(thread.getTitle())
             .content(thread.getContent())
             .isPinned(thread.getIsPinned())
-            .replyCount(replyCount)
+            .replyCount(thread.getReplyCount() != null ? thread.getReplyCount().longValue() : 0L)
             .createdAt(thread.getCreatedAt())
             .updatedAt(thread.getUpdatedAt())
             .build();
@@ -0,0 +1,74 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responders of active polls, so repeated submissions are rejected without a query.
+ * A poll's responder set is seeded from poll_responses when it is activated (or first
+ * used on this node) and dropped when it is closed. The set is only a fast path: the
+ * UNIQUE(poll_id, user_id) constraint stays authoritative for responses taken by other
+ * nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PollResponderGuard {
+
+    private static final String RESPONDERS_SQL =
+        "SELECT user_id FROM active.poll_responses WHERE poll_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Set<Long>> responders = new ConcurrentHashMap<>();
+
+    /**
+     * Start tracking a poll once the activating transaction commits
+     */
+    public void open(Long pollId) {
+        TransactionUtil.afterCommit(() -> responders.put(pollId, seed(pollId)));
+    }
+
+    /**
+     * Stop tracking a poll once the closing transaction commits
+     */
+    public void close(Long pollId) {
+        TransactionUtil.afterCommit(() -> responders.remove(pollId));
+    }
+
+    /**
+     * Claim the user's response to the poll.
+     * Returns false when the user already responded; otherwise the claim holds unless the
+     * surrounding transaction rolls back.
+     */
+    public boolean claim(Long pollId, Long userId) {
+        Set<Long> users = responders.get(pollId);
+        if (users == null) {
+            // Query outside the map's bin lock; a racing seed of the same poll wins or loses whole
+            Set<Long> seeded = seed(pollId);
+            users = responders.putIfAbsent(pollId, seeded);
+            if (users == null) {
+                users = seeded;
+            }
+        }
+        if (!users.add(userId)) {
+            return false;
+        }
+        TransactionUtil.onRollback(() -> users.remove(userId));
+        return true;
+    }
+
+    private Set<Long> seed(Long pollId) {
+        Set<Long> users = ConcurrentHashMap.newKeySet();
+        users.addAll(jdbcTemplate.queryForList(RESPONDERS_SQL, Long.class, pollId));
+        log.debug("Seeded {} responders of poll {}", users.size(), pollId);
+        return users;
+    }
+}
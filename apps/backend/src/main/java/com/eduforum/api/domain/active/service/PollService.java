@@ -2,15 +2,18 @@ package com.eduforum.api.domain.active.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.JsonUtil;
 import com.eduforum.api.domain.active.dto.poll.*;
 import com.eduforum.api.domain.active.entity.*;
 import com.eduforum.api.domain.active.repository.*;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
 import com.eduforum.api.domain.auth.entity.User;
 import com.eduforum.api.domain.auth.repository.UserRepository;
 import com.eduforum.api.domain.course.entity.Course;
 import com.eduforum.api.domain.course.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,11 +27,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PollService {
 
+    private static final String INSERT_RESPONSE_SQL =
+        "INSERT INTO active.poll_responses (poll_id, user_id, selected_option_ids, text_response) " +
+        "VALUES (?, ?, ?::jsonb, ?) ON CONFLICT (poll_id, user_id) DO NOTHING";
+
     private final PollRepository pollRepository;
     private final PollOptionRepository pollOptionRepository;
     private final PollResponseRepository pollResponseRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final PollTallyAggregator pollTallyAggregator;
+    private final PollResponderGuard pollResponderGuard;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public PollResponse createPoll(Long userId, PollCreateRequest request) {
@@ -115,6 +126,8 @@ public class PollService {
 
         poll.delete();
         pollRepository.save(poll);
+        pollTallyAggregator.close(pollId);
+        pollResponderGuard.close(pollId);
     }
 
     @Transactional
@@ -128,6 +141,8 @@ public class PollService {
 
         poll.activate();
         poll = pollRepository.save(poll);
+        pollTallyAggregator.open(pollId);
+        pollResponderGuard.open(pollId);
         return mapToResponse(poll);
     }
 
@@ -142,6 +157,8 @@ public class PollService {
 
         poll.close();
         poll = pollRepository.save(poll);
+        pollTallyAggregator.close(pollId);
+        pollResponderGuard.close(pollId);
         return mapToResponse(poll);
     }
 
@@ -154,36 +171,31 @@ public class PollService {
             throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Poll is not active");
         }
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        List<Long> selectedOptionIds = request.getSelectedOptionIds() != null
+            ? request.getSelectedOptionIds()
+            : List.of();
 
-        // Check if already responded
-        if (pollResponseRepository.existsByPollIdAndUserId(pollId, userId)) {
-            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Already responded to this poll");
+        // Double-taps are rejected in memory; the unique constraint catches the rest
+        if (!pollResponderGuard.claim(pollId, userId)
+                || jdbcTemplate.update(INSERT_RESPONSE_SQL, pollId, userId,
+                    JsonUtil.toJson(selectedOptionIds), request.getTextResponse()) == 0) {
+            throw new BusinessException(ErrorCode.POLL_ALREADY_RESPONDED);
         }
 
-        PollResponse response = PollResponse.builder()
-            .poll(poll)
-            .user(user)
-            .selectedOptionIds(request.getSelectedOptionIds())
-            .textResponse(request.getTextResponse())
-            .build();
-
-        pollResponseRepository.save(response);
+        pollTallyAggregator.record(pollId, request.getSelectedOptionIds());
+        liveSessionAggregator.recordPollResponse(poll.getCourse().getId());
     }
 
     public PollResultsResponse getResults(Long pollId) {
         Poll poll = pollRepository.findByIdAndNotDeleted(pollId)
             .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
 
-        List<PollResponse> responses = pollResponseRepository.findByPollId(pollId);
-        Long totalResponses = (long) responses.size();
+        PollTallyAggregator.Counts counts = pollTallyAggregator.counts(pollId, poll.isActive());
+        Long totalResponses = counts.getTotalResponses();
 
         List<PollResultsResponse.OptionResult> optionResults = poll.getOptions().stream()
             .map(option -> {
-                long count = responses.stream()
-                    .filter(r -> r.getSelectedOptionIds() != null && r.getSelectedOptionIds().contains(option.getId()))
-                    .count();
+                long count = counts.getVotes(option.getId());
                 double percentage = totalResponses > 0 ? (count * 100.0 / totalResponses) : 0;
 
                 return PollResultsResponse.OptionResult.builder()
@@ -195,10 +207,10 @@ public class PollService {
             })
             .collect(Collectors.toList());
 
-        List<String> textResponses = responses.stream()
-            .filter(r -> r.getTextResponse() != null)
-            .map(PollResponse::getTextResponse)
-            .collect(Collectors.toList());
+        // Only free-text polls have text responses worth loading
+        List<String> textResponses = poll.getType() == PollType.OPEN_ENDED || poll.getType() == PollType.WORD_CLOUD
+            ? pollResponseRepository.findTextResponsesByPollId(pollId)
+            : List.of();
 
         return PollResultsResponse.builder()
             .pollId(poll.getId())
@@ -210,22 +222,17 @@ public class PollService {
     }
 
     private PollResponse mapToResponse(Poll poll) {
-        Long responseCount = pollResponseRepository.countByPollId(poll.getId());
+        PollTallyAggregator.Counts counts = pollTallyAggregator.counts(poll.getId(), poll.isActive());
+        Long responseCount = counts.getTotalResponses();
 
         List<PollOptionResponse> options = poll.getOptions().stream()
-            .map(opt -> {
-                Long optResponseCount = pollResponseRepository.findByPollId(poll.getId()).stream()
-                    .filter(r -> r.getSelectedOptionIds() != null && r.getSelectedOptionIds().contains(opt.getId()))
-                    .count();
-
-                return PollOptionResponse.builder()
-                    .id(opt.getId())
-                    .text(opt.getText())
-                    .order(opt.getOrder())
-                    .isCorrect(opt.getIsCorrect())
-                    .responseCount(optResponseCount)
-                    .build();
-            })
+            .map(opt -> PollOptionResponse.builder()
+                .id(opt.getId())
+                .text(opt.getText())
+                .order(opt.getOrder())
+                .isCorrect(opt.getIsCorrect())
+                .responseCount(counts.getVotes(opt.getId()))
+                .build())
             .collect(Collectors.toList());
 
         return PollResponse.builder()
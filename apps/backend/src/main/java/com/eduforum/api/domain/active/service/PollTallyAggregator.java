@@ -0,0 +1,224 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.util.TransactionUtil;
+import com.eduforum.api.domain.active.dto.poll.PollTallyResponse;
+import com.eduforum.api.domain.seminar.entity.WebSocketEventType;
+import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live vote counters of active polls.
+ * A poll's tally is seeded from poll_responses when it is activated (or first used on
+ * this node), incremented as responses commit, and pushed to the poll's subscribers at
+ * most once per broadcast interval. Tallies are reseeded every {@link #RESEED_INTERVAL_MS}
+ * so responses taken by other nodes are folded in. Closed polls are remembered for
+ * {@link #CLOSED_RETENTION_MS} so a response committing after the close cannot reseed them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PollTallyAggregator {
+
+    private static final long RESEED_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long CLOSED_RETENTION_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final String COUNT_RESPONSES_SQL =
+        "SELECT COUNT(*) FROM active.poll_responses WHERE poll_id = ? AND deleted_at IS NULL";
+    private static final String COUNT_OPTIONS_SQL =
+        "SELECT option_id::bigint AS option_id, COUNT(*) AS votes " +
+        "FROM active.poll_responses r, jsonb_array_elements_text(r.selected_option_ids) AS option_id " +
+        "WHERE r.poll_id = ? AND r.deleted_at IS NULL GROUP BY option_id";
+    private static final String ACTIVE_ROOMS_SQL =
+        "SELECT room_id FROM active.poll_sessions WHERE poll_id = ? AND ended_at IS NULL AND deleted_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketEventPublisher eventPublisher;
+
+    private final Map<Long, Tally> tallies = new ConcurrentHashMap<>();
+    private final Map<Long, Long> closedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Start counting a poll once the activating transaction commits
+     */
+    public void open(Long pollId) {
+        TransactionUtil.afterCommit(() -> {
+            closedAt.remove(pollId);
+            tallies.put(pollId, seed(pollId));
+        });
+    }
+
+    /**
+     * Push the final tally and stop counting once the closing transaction commits
+     */
+    public void close(Long pollId) {
+        TransactionUtil.afterCommit(() -> {
+            closedAt.put(pollId, System.currentTimeMillis());
+            Tally tally = tallies.remove(pollId);
+            if (tally != null) {
+                broadcast(pollId, tally);
+            }
+        });
+    }
+
+    /**
+     * Count a response once its transaction commits
+     */
+    public void record(Long pollId, List<Long> selectedOptionIds) {
+        TransactionUtil.afterCommit(() -> {
+            Tally tally = tallies.get(pollId);
+            if (tally == null) {
+                // Seeding after the commit already includes this response
+                if (!closedAt.containsKey(pollId)) {
+                    install(pollId, seed(pollId));
+                }
+                return;
+            }
+            tally.add(selectedOptionIds);
+        });
+    }
+
+    /**
+     * Current counts; active polls are served from (and if needed seed) the live tally,
+     * other polls are aggregated in the database
+     */
+    public Counts counts(Long pollId, boolean active) {
+        Tally tally = tallies.get(pollId);
+        if (tally == null) {
+            if (!active || closedAt.containsKey(pollId)) {
+                return load(pollId);
+            }
+            tally = install(pollId, seed(pollId));
+        }
+        return tally.snapshot();
+    }
+
+    /**
+     * Push every tally that changed since the last push, reseeding stale ones first
+     */
+    @Scheduled(fixedRateString = "${app.poll.tally-broadcast-ms:500}")
+    public void broadcastChanged() {
+        long now = System.currentTimeMillis();
+        closedAt.values().removeIf(closed -> now - closed >= CLOSED_RETENTION_MS);
+        tallies.forEach((pollId, tally) -> {
+            try {
+                Tally current = tally;
+                if (now - tally.seededAt >= RESEED_INTERVAL_MS) {
+                    current = seed(pollId);
+                    if (!tallies.replace(pollId, tally, current)) {
+                        return;
+                    }
+                    current.dirty.set(tally.dirty.get() || current.total.get() != tally.total.get());
+                }
+                if (current.dirty.getAndSet(false)) {
+                    broadcast(pollId, current);
+                }
+            } catch (Exception e) {
+                log.error("Failed to broadcast tally of poll {}", pollId, e);
+            }
+        });
+    }
+
+    private void broadcast(Long pollId, Tally tally) {
+        Counts counts = tally.snapshot();
+        PollTallyResponse update = PollTallyResponse.builder()
+            .pollId(pollId)
+            .totalResponses(counts.getTotalResponses())
+            .optionCounts(counts.getOptionCounts())
+            .build();
+
+        messagingTemplate.convertAndSend("/topic/polls/" + pollId, update);
+        for (Long roomId : tally.roomIds) {
+            eventPublisher.broadcastToRoom(roomId, WebSocketEventType.POLL_TALLY, null, update);
+        }
+    }
+
+    /**
+     * Keep a freshly seeded tally unless another one won the race or the poll closed
+     * while it was being seeded
+     */
+    private Tally install(Long pollId, Tally seeded) {
+        Tally existing = tallies.putIfAbsent(pollId, seeded);
+        if (existing != null) {
+            return existing;
+        }
+        if (closedAt.containsKey(pollId)) {
+            tallies.remove(pollId, seeded);
+        }
+        return seeded;
+    }
+
+    private Tally seed(Long pollId) {
+        Counts counts = load(pollId);
+        List<Long> roomIds = jdbcTemplate.queryForList(ACTIVE_ROOMS_SQL, Long.class, pollId);
+        return new Tally(counts, roomIds);
+    }
+
+    private Counts load(Long pollId) {
+        Long total = jdbcTemplate.queryForObject(COUNT_RESPONSES_SQL, Long.class, pollId);
+        Map<Long, Long> optionCounts = new HashMap<>();
+        jdbcTemplate.query(COUNT_OPTIONS_SQL,
+            rs -> {
+                optionCounts.put(rs.getLong("option_id"), rs.getLong("votes"));
+            },
+            pollId);
+        return new Counts(total != null ? total : 0L, optionCounts);
+    }
+
+    private static final class Tally {
+        private final AtomicLong total;
+        private final Map<Long, LongAdder> optionCounts = new ConcurrentHashMap<>();
+        private final List<Long> roomIds;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final long seededAt = System.currentTimeMillis();
+
+        private Tally(Counts counts, List<Long> roomIds) {
+            this.total = new AtomicLong(counts.getTotalResponses());
+            this.roomIds = roomIds;
+            counts.getOptionCounts().forEach((optionId, votes) ->
+                optionCounts.computeIfAbsent(optionId, id -> new LongAdder()).add(votes));
+        }
+
+        private void add(List<Long> selectedOptionIds) {
+            if (selectedOptionIds != null) {
+                for (Long optionId : selectedOptionIds) {
+                    optionCounts.computeIfAbsent(optionId, id -> new LongAdder()).increment();
+                }
+            }
+            total.incrementAndGet();
+            dirty.set(true);
+        }
+
+        private Counts snapshot() {
+            Map<Long, Long> counts = new HashMap<>();
+            optionCounts.forEach((optionId, votes) -> counts.put(optionId, votes.sum()));
+            return new Counts(total.get(), counts);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Counts {
+        private final long totalResponses;
+        private final Map<Long, Long> optionCounts;
+
+        public long getVotes(Long optionId) {
+            return optionCounts.getOrDefault(optionId, 0L);
+        }
+    }
+}
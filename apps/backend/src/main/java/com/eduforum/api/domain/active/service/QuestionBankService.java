@@ -2,6 +2,7 @@ package com.eduforum.api.domain.active.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.TransactionUtil;
 import com.eduforum.api.domain.active.dto.quiz.*;
 import com.eduforum.api.domain.active.entity.*;
 import com.eduforum.api.domain.active.repository.*;
@@ -30,6 +31,7 @@ public class QuestionBankService {
     private final QuestionTagRepository questionTagRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final QuizQuestionCache quizQuestionCache;
     private final ObjectMapper objectMapper;
 
     @Transactional
@@ -115,6 +117,7 @@ public class QuestionBankService {
         }
 
         question = questionRepository.save(question);
+        evictAfterCommit(questionId);
         return mapToResponse(question);
     }
 
@@ -129,6 +132,7 @@ public class QuestionBankService {
 
         question.delete();
         questionRepository.save(question);
+        evictAfterCommit(questionId);
     }
 
     public List<QuestionTagResponse> getAllTags(Long courseId) {
@@ -220,6 +224,14 @@ public class QuestionBankService {
         }
     }
 
+    /**
+     * Running quizzes grade from cached answer keys; drop them once the change is visible
+     * so a reload cannot pick up the old row. New questions are in no cached quiz yet.
+     */
+    private void evictAfterCommit(Long questionId) {
+        TransactionUtil.afterCommit(() -> quizQuestionCache.evictQuestion(questionId));
+    }
+
     private QuestionResponse mapToResponse(Question question) {
         return QuestionResponse.builder()
             .id(question.getId())
@@ -0,0 +1,114 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.domain.active.entity.Question;
+import com.eduforum.api.domain.active.entity.Quiz;
+import com.eduforum.api.domain.active.repository.QuestionRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answer keys of running quizzes, so a submission burst at the end of a quiz grades
+ * in memory instead of loading every question per answer.
+ * Keys are loaded once per quiz and evicted once a start, stop, edit or delete of the
+ * quiz commits on this node, and when one of its questions is edited or deleted on this
+ * node; they also expire after {@link #MAX_AGE_MS} so edits made elsewhere are picked up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuizQuestionCache {
+
+    private static final long MAX_AGE_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final QuestionRepository questionRepository;
+    private final Map<Long, CachedQuiz> quizzes = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Answer keys of the quiz's questions by question ID
+     */
+    public Map<Long, AnswerKey> get(Quiz quiz) {
+        CachedQuiz cached = quizzes.get(quiz.getId());
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < MAX_AGE_MS) {
+            return cached.keys;
+        }
+        long loadVersion = version.get();
+        CachedQuiz loaded = new CachedQuiz(load(quiz.getQuestionIds()));
+        // A quiz or question evicted while loading may have been read before its change; don't keep it
+        if (version.get() == loadVersion) {
+            quizzes.put(quiz.getId(), loaded);
+        }
+        return loaded.keys;
+    }
+
+    public void evict(Long quizId) {
+        version.incrementAndGet();
+        quizzes.remove(quizId);
+    }
+
+    /**
+     * Drop every cached quiz that holds the question's answer key
+     */
+    public void evictQuestion(Long questionId) {
+        version.incrementAndGet();
+        quizzes.values().removeIf(cached -> cached.keys.containsKey(questionId));
+    }
+
+    private Map<Long, AnswerKey> load(List<Long> questionIds) {
+        if (questionIds == null || questionIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, AnswerKey> keys = questionRepository.findByIdInAndNotDeleted(questionIds).stream()
+            .map(AnswerKey::new)
+            .collect(Collectors.toUnmodifiableMap(AnswerKey::getQuestionId, Function.identity()));
+        log.debug("Cached {} answer keys", keys.size());
+        return keys;
+    }
+
+    private static final class CachedQuiz {
+        private final Map<Long, AnswerKey> keys;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private CachedQuiz(Map<Long, AnswerKey> keys) {
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Immutable grading view of a question
+     */
+    @Getter
+    public static class AnswerKey {
+        private final Long questionId;
+        private final int points;
+        private final Set<String> correctAnswers;
+        private final Set<String> options;
+
+        private AnswerKey(Question question) {
+            this.questionId = question.getId();
+            this.points = question.getPoints() != null ? question.getPoints() : 0;
+            this.correctAnswers = question.getCorrectAnswers() != null
+                ? Set.copyOf(question.getCorrectAnswers()) : Set.of();
+            this.options = question.getOptions() != null ? Set.copyOf(question.getOptions()) : Set.of();
+        }
+
+        /**
+         * Correct when the answer set equals the key; questions without a key are never correct
+         */
+        public boolean isCorrect(List<String> answers) {
+            return !correctAnswers.isEmpty() && answers != null && correctAnswers.equals(new HashSet<>(answers));
+        }
+    }
+}
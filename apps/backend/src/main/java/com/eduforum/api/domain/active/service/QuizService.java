@@ -2,18 +2,24 @@ package com.eduforum.api.domain.active.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.JsonUtil;
+import com.eduforum.api.common.util.TransactionUtil;
 import com.eduforum.api.domain.active.dto.quiz.*;
 import com.eduforum.api.domain.active.entity.*;
 import com.eduforum.api.domain.active.repository.*;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
+import com.eduforum.api.domain.assessment.service.AutoGradingService;
 import com.eduforum.api.domain.auth.entity.User;
 import com.eduforum.api.domain.auth.repository.UserRepository;
 import com.eduforum.api.domain.course.entity.Course;
 import com.eduforum.api.domain.course.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,12 +30,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class QuizService {
 
+    private static final String INSERT_ANSWER_SQL =
+        "INSERT INTO active.quiz_answers (session_id, user_id, question_id, answers, is_correct, " +
+        "score, max_score, auto_graded, submitted_at) VALUES (?, ?, ?, ?::jsonb, ?, ?, ?, TRUE, ?)";
+
     private final QuizRepository quizRepository;
     private final QuizSessionRepository quizSessionRepository;
     private final QuizAnswerRepository quizAnswerRepository;
     private final QuestionRepository questionRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final AutoGradingService autoGradingService;
+    private final QuizQuestionCache quizQuestionCache;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public QuizResponse createQuiz(Long userId, QuizCreateRequest request) {
@@ -102,6 +116,7 @@ public class QuizService {
         quiz.setSettings(request.getSettings());
 
         quiz = quizRepository.save(quiz);
+        TransactionUtil.afterCommit(() -> quizQuestionCache.evict(quizId));
         return mapToResponse(quiz);
     }
 
@@ -116,6 +131,7 @@ public class QuizService {
 
         quiz.delete();
         quizRepository.save(quiz);
+        TransactionUtil.afterCommit(() -> quizQuestionCache.evict(quizId));
     }
 
     @Transactional
@@ -129,6 +145,7 @@ public class QuizService {
 
         quiz.activate();
         quiz = quizRepository.save(quiz);
+        TransactionUtil.afterCommit(() -> quizQuestionCache.evict(quizId));
 
         log.info("Started quiz {}", quiz.getId());
         return mapToResponse(quiz);
@@ -145,6 +162,7 @@ public class QuizService {
 
         quiz.complete();
         quiz = quizRepository.save(quiz);
+        TransactionUtil.afterCommit(() -> quizQuestionCache.evict(quizId));
 
         log.info("Stopped quiz {}", quiz.getId());
         return mapToResponse(quiz);
@@ -159,12 +177,13 @@ public class QuizService {
             throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Quiz is not active");
         }
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        Map<Long, QuizQuestionCache.AnswerKey> answerKeys = quizQuestionCache.get(quiz);
 
         // Check if user has already started a session
         QuizSession session = quizSessionRepository.findByQuizIdAndUserId(quizId, userId)
             .orElseGet(() -> {
+                User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
                 QuizSession newSession = QuizSession.builder()
                     .quiz(quiz)
                     .user(user)
@@ -173,6 +192,10 @@ public class QuizService {
                 return quizSessionRepository.save(newSession);
             });
 
+        if (session.getSubmittedAt() != null) {
+            throw new BusinessException(ErrorCode.QUIZ_ALREADY_SUBMITTED);
+        }
+
         // Check time limit
         if (quiz.getTimeLimitMinutes() != null) {
             OffsetDateTime deadline = session.getStartedAt().plusMinutes(quiz.getTimeLimitMinutes());
@@ -181,39 +204,47 @@ public class QuizService {
             }
         }
 
-        // Save answers
+        // Grade all answers in memory against the cached answer keys
+        OffsetDateTime submittedAt = OffsetDateTime.now();
+        List<Object[]> rows = new ArrayList<>(request.getAnswers().size());
+        List<AutoGradingService.ItemResult> itemResults = new ArrayList<>(request.getAnswers().size());
+        Set<Long> answered = new HashSet<>();
+        int totalScore = 0;
         for (QuizSubmitRequest.QuestionAnswer qa : request.getAnswers()) {
-            Question question = questionRepository.findById(qa.getQuestionId())
-                .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-            // Calculate if answer is correct
-            boolean isCorrect = false;
-            int pointsEarned = 0;
-
-            if (question.getCorrectAnswers() != null && !question.getCorrectAnswers().isEmpty()) {
-                Set<String> correctSet = new HashSet<>(question.getCorrectAnswers());
-                Set<String> answerSet = new HashSet<>(qa.getAnswers());
-                isCorrect = correctSet.equals(answerSet);
-                if (isCorrect) {
-                    pointsEarned = question.getPoints();
-                }
+            QuizQuestionCache.AnswerKey key = answerKeys.get(qa.getQuestionId());
+            if (key == null) {
+                throw new BusinessException(ErrorCode.QUESTION_NOT_FOUND,
+                    "Question " + qa.getQuestionId() + " is not part of this quiz");
             }
+            if (!answered.add(key.getQuestionId())) {
+                throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
+                    "Question " + qa.getQuestionId() + " is answered more than once");
+            }
+
+            List<String> answers = qa.getAnswers() != null ? qa.getAnswers() : List.of();
+            boolean isCorrect = key.isCorrect(answers);
+            int pointsEarned = isCorrect ? key.getPoints() : 0;
+            totalScore += pointsEarned;
 
-            QuizAnswer answer = QuizAnswer.builder()
-                .session(session)
-                .question(question)
-                .answers(qa.getAnswers())
-                .isCorrect(isCorrect)
-                .pointsEarned(pointsEarned)
-                .build();
+            rows.add(new Object[]{
+                session.getId(), userId, key.getQuestionId(), JsonUtil.toJson(answers),
+                isCorrect, pointsEarned, key.getPoints(), Timestamp.from(submittedAt.toInstant())
+            });
 
-            quizAnswerRepository.save(answer);
+            List<String> selectedOptions = answers.stream()
+                .filter(key.getOptions()::contains)
+                .collect(Collectors.toList());
+            itemResults.add(new AutoGradingService.ItemResult(key.getQuestionId(), isCorrect, pointsEarned, selectedOptions));
         }
 
+        jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, rows);
+
         // Update session
-        session.setSubmittedAt(OffsetDateTime.now());
-        session.calculateScore();
+        session.setSubmittedAt(submittedAt);
+        session.setTotalScore(totalScore);
         quizSessionRepository.save(session);
+        autoGradingService.recordQuizSubmission(quizId, itemResults);
+        liveSessionAggregator.recordQuizAttempt(quiz.getCourse().getId());
 
         log.info("User {} submitted quiz {}", userId, quizId);
     }
@@ -0,0 +1,305 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.active.dto.discussion.ParticipationStatsResponse;
+import com.eduforum.api.domain.active.entity.SpeakingStatus;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory speaking queue of one seminar room.
+ * Waiting entries are kept in position order with the current speaker alongside, and
+ * speaking time is accumulated per user as turns finish, so reads never scan the history.
+ * Every changed entry is recorded for the engine to write. Not thread-safe; the engine
+ * serializes access per room.
+ */
+public class RoomSpeakingQueue {
+
+    @Getter
+    private final Long roomId;
+    private final Map<Long, Entry> waiting = new LinkedHashMap<>();
+    private final Map<Long, Entry> waitingByUser = new HashMap<>();
+    private final Map<Long, UserStats> stats = new LinkedHashMap<>();
+    private final List<Entry> changes = new ArrayList<>();
+    @Getter
+    private Entry speaking;
+    private int lastPosition;
+    // Room version in active.speaking_queue_rooms this state corresponds to
+    private long version;
+    private long lastActivity = System.currentTimeMillis();
+    private boolean evicted;
+
+    /**
+     * @param lastPosition highest queue position already handed out in the room
+     */
+    public RoomSpeakingQueue(Long roomId, int lastPosition) {
+        this.roomId = roomId;
+        this.lastPosition = lastPosition;
+    }
+
+    /**
+     * Load a WAITING or SPEAKING entry saved earlier; entries must be restored in position order
+     */
+    void restore(Entry entry) {
+        if (entry.status == SpeakingStatus.SPEAKING) {
+            speaking = entry;
+        } else {
+            waiting.put(entry.id, entry);
+            waitingByUser.put(entry.userId, entry);
+        }
+        lastPosition = Math.max(lastPosition, entry.position);
+    }
+
+    /**
+     * Load a user's totals from the saved history
+     */
+    void restoreStats(Long userId, String userName, int entries, int speakingCount, int totalSeconds) {
+        UserStats userStats = new UserStats(userName);
+        userStats.entries = entries;
+        userStats.speakingCount = speakingCount;
+        userStats.totalSeconds = totalSeconds;
+        stats.put(userId, userStats);
+    }
+
+    /**
+     * Append the user at the next position
+     */
+    public Entry join(Long id, Long userId, String userName, OffsetDateTime now) {
+        if (waitingByUser.containsKey(userId)) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Already in speaking queue");
+        }
+        Entry entry = new Entry(id, roomId, userId, userName, ++lastPosition, now);
+        waiting.put(id, entry);
+        waitingByUser.put(userId, entry);
+        stats.computeIfAbsent(userId, key -> new UserStats(userName)).entries++;
+        return changed(entry);
+    }
+
+    /**
+     * A waiting user leaves the queue; a speaking user finishes their turn
+     */
+    public Entry leave(Long entryId, Long userId, OffsetDateTime now) {
+        Entry entry = find(entryId);
+        if (entry == null) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Queue entry is no longer active");
+        }
+        if (!entry.userId.equals(userId)) {
+            throw new BusinessException(ErrorCode.ACCESS_DENIED);
+        }
+
+        if (entry == speaking) {
+            finishSpeaker(now);
+            return entry;
+        }
+        removeWaiting(entry);
+        entry.deletedAt = now;
+        entry.updatedAt = now;
+        UserStats userStats = stats.get(userId);
+        if (userStats != null) {
+            userStats.entries--;
+        }
+        return changed(entry);
+    }
+
+    /**
+     * Give the floor to a waiting entry, finishing the current speaker's turn
+     */
+    public Entry grant(Long entryId, OffsetDateTime now) {
+        Entry entry = waiting.get(entryId);
+        if (entry == null) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Queue entry is not in waiting state");
+        }
+        if (speaking != null) {
+            finishSpeaker(now);
+        }
+        removeWaiting(entry);
+        entry.status = SpeakingStatus.SPEAKING;
+        entry.grantedAt = now;
+        entry.updatedAt = now;
+        speaking = entry;
+        return changed(entry);
+    }
+
+    public Entry find(Long entryId) {
+        if (speaking != null && speaking.id.equals(entryId)) {
+            return speaking;
+        }
+        return waiting.get(entryId);
+    }
+
+    /**
+     * The current speaker followed by the waiting entries in position order
+     */
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(waiting.size() + 1);
+        if (speaking != null) {
+            entries.add(speaking);
+        }
+        entries.addAll(waiting.values());
+        return entries;
+    }
+
+    /**
+     * Per-user totals, most speaking time first
+     */
+    public List<ParticipationStatsResponse.UserStats> stats() {
+        List<ParticipationStatsResponse.UserStats> result = new ArrayList<>(stats.size());
+        stats.forEach((userId, userStats) -> {
+            if (userStats.entries > 0) {
+                result.add(ParticipationStatsResponse.UserStats.builder()
+                    .userId(userId)
+                    .userName(userStats.userName)
+                    .speakingCount(userStats.speakingCount)
+                    .totalSpeakingSeconds(userStats.totalSeconds)
+                    .averageSpeakingSeconds(userStats.speakingCount > 0
+                        ? (double) userStats.totalSeconds / userStats.speakingCount
+                        : 0.0)
+                    .build());
+            }
+        });
+        result.sort(Comparator.comparing(ParticipationStatsResponse.UserStats::getTotalSpeakingSeconds).reversed());
+        return result;
+    }
+
+    /**
+     * Cached display name of a user who has queued in the room before, or null
+     */
+    public String userName(Long userId) {
+        UserStats userStats = stats.get(userId);
+        return userStats != null ? userStats.userName : null;
+    }
+
+    /**
+     * Entries changed since the last call, as copies safe to hand to another thread
+     */
+    List<Entry> drainChanges() {
+        List<Entry> drained = new ArrayList<>(changes.size());
+        for (Entry entry : changes) {
+            drained.add(entry.copy());
+        }
+        changes.clear();
+        return drained;
+    }
+
+    int getLastPosition() {
+        return lastPosition;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    boolean evictIfIdle(long idleSince) {
+        if (!evicted && lastActivity < idleSince) {
+            evicted = true;
+        }
+        return evicted;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void evict() {
+        evicted = true;
+    }
+
+    private void finishSpeaker(OffsetDateTime now) {
+        Entry entry = speaking;
+        speaking = null;
+        entry.status = SpeakingStatus.FINISHED;
+        entry.finishedAt = now;
+        entry.updatedAt = now;
+        if (entry.grantedAt != null) {
+            entry.durationSeconds = (int) Duration.between(entry.grantedAt, now).getSeconds();
+            UserStats userStats = stats.computeIfAbsent(entry.userId, key -> new UserStats(entry.userName));
+            userStats.speakingCount++;
+            userStats.totalSeconds += entry.durationSeconds;
+        }
+        changed(entry);
+    }
+
+    private void removeWaiting(Entry entry) {
+        waiting.remove(entry.id);
+        waitingByUser.remove(entry.userId);
+    }
+
+    private Entry changed(Entry entry) {
+        changes.add(entry);
+        lastActivity = System.currentTimeMillis();
+        return entry;
+    }
+
+    private static class UserStats {
+        private final String userName;
+        // Queue entries that were not withdrawn while waiting
+        private int entries;
+        private int speakingCount;
+        private int totalSeconds;
+
+        private UserStats(String userName) {
+            this.userName = userName;
+        }
+    }
+
+    /**
+     * One row of active.speaking_queue
+     */
+    @Getter
+    public static class Entry {
+        private final Long id;
+        private final Long roomId;
+        private final Long userId;
+        private final String userName;
+        private final int position;
+        private final OffsetDateTime createdAt;
+        private SpeakingStatus status = SpeakingStatus.WAITING;
+        private OffsetDateTime grantedAt;
+        private OffsetDateTime finishedAt;
+        private Integer durationSeconds;
+        private OffsetDateTime updatedAt;
+        private OffsetDateTime deletedAt;
+
+        Entry(Long id, Long roomId, Long userId, String userName, int position, OffsetDateTime createdAt) {
+            this.id = id;
+            this.roomId = roomId;
+            this.userId = userId;
+            this.userName = userName;
+            this.position = position;
+            this.createdAt = createdAt;
+            this.updatedAt = createdAt;
+        }
+
+        static Entry restored(Long id, Long roomId, Long userId, String userName, int position,
+                              SpeakingStatus status, OffsetDateTime grantedAt, OffsetDateTime createdAt) {
+            Entry entry = new Entry(id, roomId, userId, userName, position, createdAt);
+            entry.status = status;
+            entry.grantedAt = grantedAt;
+            return entry;
+        }
+
+        Entry copy() {
+            Entry copy = new Entry(id, roomId, userId, userName, position, createdAt);
+            copy.status = status;
+            copy.grantedAt = grantedAt;
+            copy.finishedAt = finishedAt;
+            copy.durationSeconds = durationSeconds;
+            copy.updatedAt = updatedAt;
+            copy.deletedAt = deletedAt;
+            return copy;
+        }
+    }
+}
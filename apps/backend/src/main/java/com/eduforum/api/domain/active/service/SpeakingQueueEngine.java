@@ -0,0 +1,342 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.active.dto.discussion.ParticipationStatsResponse;
+import com.eduforum.api.domain.active.entity.SpeakingStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Live speaking queues kept in memory.
+ * Returned entries are copies, so callers can map them outside the room's monitor.
+ * <ul>
+ *   <li>A room's queue is loaded on first use from its WAITING/SPEAKING rows, with the
+ *       per-user speaking totals aggregated once from the history.</li>
+ *   <li>Every join, leave and grant bumps the room's row in speaking_queue_rooms and writes the
+ *       changed entries in one short transaction. The row lock serializes the room across
+ *       nodes and hands out queue positions; entry IDs are reserved from the table's sequence
+ *       in blocks.</li>
+ *   <li>The room's version tells whether another node changed the queue since it was loaded
+ *       here; a stale queue is reloaded before it is changed or read.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SpeakingQueueEngine {
+
+    private static final long IDLE_EVICT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String ROOM_EXISTS_SQL =
+        "SELECT COUNT(*) FROM seminar.rooms WHERE id = ?";
+    private static final String USER_NAME_SQL =
+        "SELECT first_name || ' ' || last_name FROM auth.users WHERE id = ?";
+    private static final String ENTRY_ROOM_SQL =
+        "SELECT room_id FROM active.speaking_queue WHERE id = ? AND deleted_at IS NULL";
+    private static final String ROOM_VERSION_SQL =
+        "SELECT version FROM active.speaking_queue_rooms WHERE room_id = ?";
+    private static final String ROOM_STATE_SQL =
+        "SELECT version, last_position FROM active.speaking_queue_rooms WHERE room_id = ?";
+    // Locks the room's row until the change commits; a room without a row starts at version 1
+    private static final String BUMP_ROOM_SQL =
+        "INSERT INTO active.speaking_queue_rooms (room_id, version, last_position) VALUES (?, 1, ?) " +
+        "ON CONFLICT (room_id) DO UPDATE SET version = speaking_queue_rooms.version + 1, " +
+        "last_position = speaking_queue_rooms.last_position + EXCLUDED.last_position " +
+        "RETURNING version, last_position";
+    private static final String LOAD_ENTRIES_SQL =
+        "SELECT sq.id, sq.user_id, u.first_name || ' ' || u.last_name AS user_name, sq.status, " +
+        "sq.queue_position, sq.granted_at, sq.created_at " +
+        "FROM active.speaking_queue sq JOIN auth.users u ON u.id = sq.user_id " +
+        "WHERE sq.room_id = ? AND sq.status IN ('WAITING', 'SPEAKING') AND sq.deleted_at IS NULL " +
+        "ORDER BY sq.queue_position, sq.id";
+    private static final String LOAD_STATS_SQL =
+        "SELECT sq.user_id, MAX(u.first_name || ' ' || u.last_name) AS user_name, COUNT(*) AS entries, " +
+        "COUNT(sq.speaking_duration_seconds) AS speaking_count, " +
+        "COALESCE(SUM(sq.speaking_duration_seconds), 0) AS total_seconds " +
+        "FROM active.speaking_queue sq JOIN auth.users u ON u.id = sq.user_id " +
+        "WHERE sq.room_id = ? AND sq.deleted_at IS NULL GROUP BY sq.user_id";
+    private static final String NEXT_IDS_SQL =
+        "SELECT nextval('active.speaking_queue_id_seq') FROM generate_series(1, ?)";
+    private static final String UPSERT_ENTRY_SQL =
+        "INSERT INTO active.speaking_queue (id, room_id, user_id, status, queue_position, granted_at, finished_at, " +
+        "speaking_duration_seconds, created_at, updated_at, deleted_at) " +
+        "VALUES (?, ?, ?, ?::active.speaking_status, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET status = EXCLUDED.status, granted_at = EXCLUDED.granted_at, " +
+        "finished_at = EXCLUDED.finished_at, speaking_duration_seconds = EXCLUDED.speaking_duration_seconds, " +
+        "updated_at = EXCLUDED.updated_at, deleted_at = EXCLUDED.deleted_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    private final Map<Long, RoomSpeakingQueue> rooms = new ConcurrentHashMap<>();
+    // Live entry ID -> room, so grant/leave by entry ID skip the lookup query
+    private final Map<Long, Long> entryRooms = new ConcurrentHashMap<>();
+    private final Deque<Long> reservedIds = new ArrayDeque<>();
+
+    public SpeakingQueueEngine(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Changes commit on their own, also when made from a caller's read-only transaction
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public RoomSpeakingQueue.Entry join(Long roomId, Long userId) {
+        String cachedName = withRoom(roomId, false, queue -> queue.userName(userId));
+        String userName = cachedName != null ? cachedName : loadUserName(userId);
+        Long id = nextId();
+        return change(roomId, 1, queue -> {
+            RoomSpeakingQueue.Entry entry = queue.join(id, userId, userName, OffsetDateTime.now());
+            entryRooms.put(id, roomId);
+            return entry.copy();
+        });
+    }
+
+    public RoomSpeakingQueue.Entry leave(Long entryId, Long userId) {
+        return change(roomOf(entryId), 0, queue -> {
+            RoomSpeakingQueue.Entry entry = queue.leave(entryId, userId, OffsetDateTime.now());
+            entryRooms.remove(entryId);
+            return entry.copy();
+        });
+    }
+
+    public RoomSpeakingQueue.Entry grant(Long entryId) {
+        return change(roomOf(entryId), 0, queue -> {
+            RoomSpeakingQueue.Entry speaker = queue.getSpeaking();
+            RoomSpeakingQueue.Entry entry = queue.grant(entryId, OffsetDateTime.now());
+            if (speaker != null) {
+                entryRooms.remove(speaker.getId());
+            }
+            return entry.copy();
+        });
+    }
+
+    public List<RoomSpeakingQueue.Entry> entries(Long roomId) {
+        return withRoom(roomId, true, queue -> queue.entries().stream()
+            .map(RoomSpeakingQueue.Entry::copy)
+            .collect(Collectors.toList()));
+    }
+
+    public List<ParticipationStatsResponse.UserStats> stats(Long roomId) {
+        return withRoom(roomId, true, RoomSpeakingQueue::stats);
+    }
+
+    /**
+     * Drop rooms nobody has touched for a while; they are reloaded from the table on next use
+     */
+    @Scheduled(fixedDelayString = "${app.speaking-queue.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - IDLE_EVICT_MS;
+        rooms.forEach((roomId, queue) -> {
+            synchronized (queue) {
+                if (queue.evictIfIdle(idleSince)) {
+                    rooms.remove(roomId, queue);
+                    queue.entries().forEach(entry -> entryRooms.remove(entry.getId()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Run the action on the loaded queue; with refresh, a queue another node has changed
+     * is reloaded first
+     */
+    private <T> T withRoom(Long roomId, boolean refresh, Function<RoomSpeakingQueue, T> action) {
+        while (true) {
+            RoomSpeakingQueue queue = rooms.get(roomId);
+            if (queue == null) {
+                // Loaded outside the map's bin lock; a racing load of the same room is discarded
+                RoomSpeakingQueue loaded = load(roomId);
+                queue = rooms.putIfAbsent(roomId, loaded);
+                if (queue == null) {
+                    queue = loaded;
+                }
+            }
+            synchronized (queue) {
+                if (!queue.isEvicted()) {
+                    if (refresh && queue.getVersion() != roomVersion(roomId)) {
+                        replace(queue, load(roomId));
+                        continue;
+                    }
+                    return action.apply(queue);
+                }
+            }
+            // Evicted between lookup and lock; the next lookup loads a fresh copy
+        }
+    }
+
+    /**
+     * Apply a change to the room and write the changed entries in one transaction.
+     * The bumped version shows whether this node's copy is current; if not, the change is
+     * made on a copy reloaded under the room's row lock, which then replaces it.
+     */
+    private <T> T change(Long roomId, int positions, Function<RoomSpeakingQueue, T> action) {
+        return withRoom(roomId, false, queue -> {
+            RoomSpeakingQueue[] target = {queue};
+            try {
+                T result = writeTemplate.execute(status -> {
+                    long[] room = bump(roomId, positions);
+                    if (room[0] != queue.getVersion() + 1) {
+                        target[0] = load(roomId, room[0] - 1, (int) room[1] - positions);
+                    }
+                    T changed = action.apply(target[0]);
+                    if (target[0].getLastPosition() != room[1]) {
+                        throw new IllegalStateException("Speaking queue of room " + roomId + " is out of step");
+                    }
+                    write(target[0].drainChanges());
+                    target[0].setVersion(room[0]);
+                    return changed;
+                });
+                if (target[0] != queue) {
+                    replace(queue, target[0]);
+                }
+                return result;
+            } catch (BusinessException e) {
+                // Rejected before anything changed; the rollback also undid the bump
+                throw e;
+            } catch (RuntimeException e) {
+                // Memory may be ahead of the rolled-back rows; the next use reloads the room
+                queue.evict();
+                rooms.remove(roomId, queue);
+                throw e;
+            }
+        });
+    }
+
+    private void replace(RoomSpeakingQueue stale, RoomSpeakingQueue fresh) {
+        stale.evict();
+        rooms.replace(stale.getRoomId(), stale, fresh);
+    }
+
+    /**
+     * Bump the room's version and reserve positions; returns the new version and last position
+     */
+    private long[] bump(Long roomId, int positions) {
+        return jdbcTemplate.queryForObject(BUMP_ROOM_SQL,
+            (rs, rowNum) -> new long[]{rs.getLong("version"), rs.getLong("last_position")},
+            roomId, positions);
+    }
+
+    private long roomVersion(Long roomId) {
+        List<Long> versions = jdbcTemplate.queryForList(ROOM_VERSION_SQL, Long.class, roomId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    private void write(List<RoomSpeakingQueue.Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (RoomSpeakingQueue.Entry entry : entries) {
+            rows.add(new Object[]{
+                entry.getId(),
+                entry.getRoomId(),
+                entry.getUserId(),
+                entry.getStatus().name(),
+                entry.getPosition(),
+                timestamp(entry.getGrantedAt()),
+                timestamp(entry.getFinishedAt()),
+                entry.getDurationSeconds(),
+                timestamp(entry.getCreatedAt()),
+                timestamp(entry.getUpdatedAt()),
+                timestamp(entry.getDeletedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ENTRY_SQL, rows);
+        log.debug("Wrote {} speaking queue entries", rows.size());
+    }
+
+    private Long roomOf(Long entryId) {
+        Long roomId = entryRooms.get(entryId);
+        if (roomId != null) {
+            return roomId;
+        }
+        List<Long> found = jdbcTemplate.queryForList(ENTRY_ROOM_SQL, Long.class, entryId);
+        if (found.isEmpty()) {
+            throw new BusinessException(ErrorCode.ENTITY_NOT_FOUND);
+        }
+        return found.get(0);
+    }
+
+    private RoomSpeakingQueue load(Long roomId) {
+        Integer exists = jdbcTemplate.queryForObject(ROOM_EXISTS_SQL, Integer.class, roomId);
+        if (exists == null || exists == 0) {
+            throw new BusinessException(ErrorCode.ENTITY_NOT_FOUND);
+        }
+
+        // Read before the entries, so a change in between makes this copy look stale rather than current
+        long[] room = jdbcTemplate.query(ROOM_STATE_SQL,
+            rs -> rs.next() ? new long[]{rs.getLong("version"), rs.getLong("last_position")} : new long[]{0, 0},
+            roomId);
+        return load(roomId, room[0], (int) room[1]);
+    }
+
+    private RoomSpeakingQueue load(Long roomId, long version, int lastPosition) {
+        RoomSpeakingQueue queue = new RoomSpeakingQueue(roomId, lastPosition);
+        queue.setVersion(version);
+        jdbcTemplate.query(LOAD_ENTRIES_SQL,
+            rs -> {
+                RoomSpeakingQueue.Entry entry = RoomSpeakingQueue.Entry.restored(
+                    rs.getLong("id"),
+                    roomId,
+                    rs.getLong("user_id"),
+                    rs.getString("user_name"),
+                    rs.getInt("queue_position"),
+                    SpeakingStatus.valueOf(rs.getString("status")),
+                    rs.getObject("granted_at", OffsetDateTime.class),
+                    rs.getObject("created_at", OffsetDateTime.class));
+                queue.restore(entry);
+                entryRooms.put(entry.getId(), roomId);
+            },
+            roomId);
+        jdbcTemplate.query(LOAD_STATS_SQL,
+            rs -> {
+                queue.restoreStats(rs.getLong("user_id"), rs.getString("user_name"), rs.getInt("entries"),
+                    rs.getInt("speaking_count"), rs.getInt("total_seconds"));
+            },
+            roomId);
+        log.debug("Loaded speaking queue of room {} at version {} ({} live entries)",
+            roomId, version, queue.entries().size());
+        return queue;
+    }
+
+    private String loadUserName(Long userId) {
+        List<String> names = jdbcTemplate.queryForList(USER_NAME_SQL, String.class, userId);
+        if (names.isEmpty()) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
+        }
+        return names.get(0);
+    }
+
+    /**
+     * Reserve an entry ID from the table's sequence. IDs are fetched in blocks
+     * so the common case is an in-memory pop.
+     */
+    private synchronized Long nextId() {
+        if (reservedIds.isEmpty()) {
+            reservedIds.addAll(jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, ID_BLOCK_SIZE));
+        }
+        return reservedIds.poll();
+    }
+
+    private static Timestamp timestamp(OffsetDateTime value) {
+        return value != null ? Timestamp.from(value.toInstant()) : null;
+    }
+}
@@ -0,0 +1,386 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardElementDto;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationMessage;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationRequest;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardSyncResponse;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardViewportResponse;
+import com.eduforum.api.domain.active.entity.WhiteboardOperationType;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory state of a live whiteboard.
+ * Operations are numbered with the board's gap-free database sequence and applied
+ * strictly in seq order, so every node and every client that applies them in seq order
+ * converges on the same elements. The most recent {@link #TAIL_SIZE} operations are kept for clients
+ * catching up after a short disconnect, and element bounds are kept in a
+ * {@link WhiteboardSpatialIndex} for viewport queries.
+ */
+public class WhiteboardBoard {
+
+    static final int TAIL_SIZE = 500;
+
+    private static final Comparator<WhiteboardElementDto> STACKING_ORDER =
+        Comparator.comparing(WhiteboardElementDto::getZIndex).thenComparing(WhiteboardElementDto::getElementId);
+
+    @Getter
+    private final Long whiteboardId;
+    private final Map<String, WhiteboardElementDto> elements = new LinkedHashMap<>();
+    private final Deque<WhiteboardOperationMessage> tail = new ArrayDeque<>();
+    private final WhiteboardSpatialIndex index = new WhiteboardSpatialIndex();
+    private long seq;
+    private long snapshotSeq;
+    private int nextZIndex;
+    private long lastActivity = System.currentTimeMillis();
+    private boolean evicted;
+
+    /**
+     * @param snapshot elements as of snapshotSeq
+     */
+    public WhiteboardBoard(Long whiteboardId, List<WhiteboardElementDto> snapshot, long snapshotSeq) {
+        this.whiteboardId = whiteboardId;
+        this.seq = snapshotSeq;
+        this.snapshotSeq = snapshotSeq;
+        for (WhiteboardElementDto element : snapshot) {
+            put(element);
+        }
+    }
+
+    /**
+     * Validate a client operation against the current elements and build it without a seq;
+     * the board is unchanged until the numbered operation is committed
+     */
+    public synchronized WhiteboardOperationMessage prepare(Long userId, WhiteboardOperationRequest request) {
+        return draft().prepare(userId, List.of(request)).get(0);
+    }
+
+    /**
+     * Start preparing operations that will be committed in one go after the board's current ones
+     */
+    synchronized Draft draft() {
+        return new Draft(null);
+    }
+
+    private WhiteboardOperationMessage prepare(Long userId, WhiteboardOperationRequest request, Draft draft) {
+        WhiteboardOperationMessage operation = WhiteboardOperationMessage.builder()
+            .whiteboardId(whiteboardId)
+            .type(request.getType())
+            .userId(userId)
+            .createdAt(OffsetDateTime.now())
+            .build();
+
+        switch (request.getType()) {
+            case ADD, UPDATE -> {
+                WhiteboardElementDto element = request.getElement();
+                if (element == null || element.getElementId() == null) {
+                    throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Element is required");
+                }
+                if (!onCanvas(element)) {
+                    throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Element is outside the canvas");
+                }
+                WhiteboardElementDto existing = draft.get(element.getElementId());
+                if (existing == null && request.getType() == WhiteboardOperationType.UPDATE) {
+                    throw new BusinessException(ErrorCode.ENTITY_NOT_FOUND, "Element not found");
+                }
+                WhiteboardElementDto stored = copy(element);
+                if (stored.getZIndex() == null) {
+                    stored.setZIndex(existing != null ? existing.getZIndex() : draft.nextZIndex);
+                }
+                operation.setElementId(stored.getElementId());
+                operation.setElement(stored);
+            }
+            case REMOVE -> {
+                String elementId = request.getElementId() != null ? request.getElementId()
+                    : request.getElement() != null ? request.getElement().getElementId() : null;
+                if (elementId == null || draft.get(elementId) == null) {
+                    throw new BusinessException(ErrorCode.ENTITY_NOT_FOUND, "Element not found");
+                }
+                operation.setElementId(elementId);
+            }
+            case CLEAR -> {
+            }
+            default -> throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Unknown operation type");
+        }
+        return operation;
+    }
+
+    /**
+     * Apply a prepared operation that was numbered as the board's next operation
+     */
+    public synchronized void commit(WhiteboardOperationMessage operation) {
+        if (operation.getSeq() != seq + 1) {
+            throw new IllegalStateException("Operation " + operation.getSeq() + " does not follow " + seq);
+        }
+        append(operation);
+        lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Apply an operation read from the log; operations already covered are skipped.
+     * Returns false when the operation does not follow the board's seq, i.e. the log was
+     * trimmed past this board and it must be reloaded from the snapshot.
+     */
+    synchronized boolean replay(WhiteboardOperationMessage operation) {
+        if (operation.getSeq() <= seq) {
+            return true;
+        }
+        if (operation.getSeq() != seq + 1) {
+            return false;
+        }
+        append(operation);
+        return true;
+    }
+
+    /**
+     * Current elements in stacking order
+     */
+    public synchronized List<WhiteboardElementDto> elements() {
+        List<WhiteboardElementDto> result = new ArrayList<>(elements.values());
+        result.sort(STACKING_ORDER);
+        return result;
+    }
+
+    /**
+     * Operations after the given seq when they are still in the tail, otherwise the full state
+     */
+    public synchronized WhiteboardSyncResponse sync(Long afterSeq) {
+        long oldest = tail.isEmpty() ? seq + 1 : tail.getFirst().getSeq();
+        if (afterSeq != null && afterSeq <= seq && afterSeq >= oldest - 1) {
+            List<WhiteboardOperationMessage> operations = new ArrayList<>();
+            for (WhiteboardOperationMessage operation : tail) {
+                if (operation.getSeq() > afterSeq) {
+                    operations.add(operation);
+                }
+            }
+            return WhiteboardSyncResponse.builder()
+                .whiteboardId(whiteboardId)
+                .seq(seq)
+                .operations(operations)
+                .build();
+        }
+        return WhiteboardSyncResponse.builder()
+            .whiteboardId(whiteboardId)
+            .seq(seq)
+            .elements(elements())
+            .operations(List.of())
+            .build();
+    }
+
+    /**
+     * Elements intersecting the rectangle, ordered by (zIndex, elementId) and paged after the cursor
+     */
+    public synchronized WhiteboardViewportResponse viewport(double minX, double minY, double maxX, double maxY,
+                                                            String cursor, int limit) {
+        int afterZIndex = Integer.MIN_VALUE;
+        String afterElementId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf(':');
+            try {
+                afterZIndex = Integer.parseInt(cursor.substring(0, Math.max(separator, 0)));
+            } catch (NumberFormatException e) {
+                throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Invalid cursor");
+            }
+            afterElementId = cursor.substring(separator + 1);
+        }
+
+        List<WhiteboardElementDto> matches = new ArrayList<>();
+        for (String elementId : index.query(minX, minY, maxX, maxY)) {
+            WhiteboardElementDto element = elements.get(elementId);
+            int order = Integer.compare(element.getZIndex(), afterZIndex);
+            if (order > 0 || (order == 0 && (afterElementId == null || elementId.compareTo(afterElementId) > 0))) {
+                matches.add(element);
+            }
+        }
+        matches.sort(STACKING_ORDER);
+
+        List<WhiteboardElementDto> page = matches.size() > limit ? matches.subList(0, limit) : matches;
+        String nextCursor = null;
+        if (matches.size() > limit) {
+            WhiteboardElementDto last = page.get(page.size() - 1);
+            nextCursor = last.getZIndex() + ":" + last.getElementId();
+        }
+        return WhiteboardViewportResponse.builder()
+            .whiteboardId(whiteboardId)
+            .seq(seq)
+            .elements(new ArrayList<>(page))
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    public synchronized long getSeq() {
+        return seq;
+    }
+
+    synchronized boolean needsSnapshot() {
+        return seq > snapshotSeq;
+    }
+
+    synchronized void markSnapshot(long snapshotSeq) {
+        this.snapshotSeq = Math.max(this.snapshotSeq, snapshotSeq);
+    }
+
+    /**
+     * Mark the board evicted when it is fully snapshotted and idle; evicted boards reject
+     * further use so a fresh copy is loaded instead
+     */
+    synchronized boolean evictIfIdle(long idleSince) {
+        if (!evicted && seq == snapshotSeq && lastActivity < idleSince) {
+            evicted = true;
+        }
+        return evicted;
+    }
+
+    synchronized void evict() {
+        evicted = true;
+    }
+
+    synchronized boolean isEvicted() {
+        return evicted;
+    }
+
+    private void append(WhiteboardOperationMessage operation) {
+        mutate(operation);
+        tail.addLast(operation);
+        if (tail.size() > TAIL_SIZE) {
+            tail.removeFirst();
+        }
+    }
+
+    private void mutate(WhiteboardOperationMessage operation) {
+        switch (operation.getType()) {
+            case ADD, UPDATE -> put(operation.getElement());
+            case REMOVE -> {
+                elements.remove(operation.getElementId());
+                index.remove(operation.getElementId());
+            }
+            case CLEAR -> {
+                elements.clear();
+                index.clear();
+            }
+        }
+        seq = operation.getSeq();
+    }
+
+    private void put(WhiteboardElementDto element) {
+        if (element.getZIndex() == null) {
+            element.setZIndex(nextZIndex);
+        }
+        nextZIndex = Math.max(nextZIndex, element.getZIndex() + 1);
+        elements.put(element.getElementId(), element);
+
+        double x = coordinate(element.getX());
+        double y = coordinate(element.getY());
+        double width = coordinate(element.getWidth());
+        double height = coordinate(element.getHeight());
+        index.put(element.getElementId(),
+            Math.min(x, x + width), Math.min(y, y + height), Math.max(x, x + width), Math.max(y, y + height));
+    }
+
+    private static boolean onCanvas(WhiteboardElementDto element) {
+        return onCanvas(element.getX()) && onCanvas(element.getY())
+            && onCanvas(element.getWidth()) && onCanvas(element.getHeight());
+    }
+
+    private static boolean onCanvas(Double value) {
+        // Also false for NaN and infinities
+        return value == null || Math.abs(value) <= WhiteboardSpatialIndex.MAX_COORDINATE;
+    }
+
+    private static double coordinate(Double value) {
+        return value != null && Double.isFinite(value) ? value : 0.0;
+    }
+
+    private static WhiteboardElementDto copy(WhiteboardElementDto element) {
+        return WhiteboardElementDto.builder()
+            .elementId(element.getElementId())
+            .type(element.getType())
+            .x(element.getX())
+            .y(element.getY())
+            .width(element.getWidth())
+            .height(element.getHeight())
+            .zIndex(element.getZIndex())
+            .properties(element.getProperties() != null ? element.getProperties() : Map.of())
+            .build();
+    }
+
+    /**
+     * The elements as the operations prepared so far will leave them, kept as changes over
+     * the board. A group of operations is validated on a child draft and merged only when
+     * every operation in it is valid, so a rejected group leaves the draft unchanged.
+     */
+    final class Draft {
+
+        private final Draft parent;
+        // A null value marks a removed element
+        private final Map<String, WhiteboardElementDto> changed = new HashMap<>();
+        private boolean cleared;
+        private int nextZIndex;
+
+        private Draft(Draft parent) {
+            this.parent = parent;
+            this.nextZIndex = parent != null ? parent.nextZIndex : WhiteboardBoard.this.nextZIndex;
+        }
+
+        /**
+         * Build the group's operations without seqs, each validated against the ones before it
+         */
+        List<WhiteboardOperationMessage> prepare(Long userId, List<WhiteboardOperationRequest> requests) {
+            synchronized (WhiteboardBoard.this) {
+                Draft group = new Draft(this);
+                List<WhiteboardOperationMessage> operations = new ArrayList<>(requests.size());
+                for (WhiteboardOperationRequest request : requests) {
+                    WhiteboardOperationMessage operation = WhiteboardBoard.this.prepare(userId, request, group);
+                    group.apply(operation);
+                    operations.add(operation);
+                }
+                merge(group);
+                return operations;
+            }
+        }
+
+        private WhiteboardElementDto get(String elementId) {
+            if (changed.containsKey(elementId)) {
+                return changed.get(elementId);
+            }
+            if (cleared) {
+                return null;
+            }
+            return parent != null ? parent.get(elementId) : elements.get(elementId);
+        }
+
+        private void apply(WhiteboardOperationMessage operation) {
+            switch (operation.getType()) {
+                case ADD, UPDATE -> {
+                    changed.put(operation.getElementId(), operation.getElement());
+                    nextZIndex = Math.max(nextZIndex, operation.getElement().getZIndex() + 1);
+                }
+                case REMOVE -> changed.put(operation.getElementId(), null);
+                case CLEAR -> {
+                    changed.clear();
+                    cleared = true;
+                }
+            }
+        }
+
+        private void merge(Draft group) {
+            if (group.cleared) {
+                changed.clear();
+                cleared = true;
+            }
+            changed.putAll(group.changed);
+            nextZIndex = group.nextZIndex;
+        }
+    }
+}
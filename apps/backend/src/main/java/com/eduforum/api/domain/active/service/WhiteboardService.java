@@ -2,6 +2,7 @@ package com.eduforum.api.domain.active.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.TransactionUtil;
 import com.eduforum.api.domain.active.dto.whiteboard.*;
 import com.eduforum.api.domain.active.entity.*;
 import com.eduforum.api.domain.active.repository.*;
@@ -10,10 +11,13 @@ import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,8 +26,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class WhiteboardService {
 
+    private static final int MAX_VIEWPORT_PAGE_SIZE = 1000;
+
     private final WhiteboardRepository whiteboardRepository;
-    private final WhiteboardElementRepository whiteboardElementRepository;
+    private final WhiteboardSyncEngine whiteboardSyncEngine;
     private final SeminarRoomRepository seminarRoomRepository;
 
     @Transactional
@@ -45,114 +51,142 @@ public class WhiteboardService {
 
         whiteboard = whiteboardRepository.save(whiteboard);
         log.info("Created whiteboard {}", whiteboard.getId());
-        return mapToResponse(whiteboard);
+        return mapToResponse(whiteboard, List.of());
     }
 
     public WhiteboardResponse getWhiteboard(Long whiteboardId) {
         Whiteboard whiteboard = whiteboardRepository.findByIdAndNotDeleted(whiteboardId)
             .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-        return mapToResponse(whiteboard);
+        return mapToResponse(whiteboard, whiteboardSyncEngine.elements(whiteboardId));
     }
 
     public List<WhiteboardResponse> getWhiteboardsBySeminar(Long seminarRoomId) {
         return whiteboardRepository.findByRoomIdAndNotDeleted(seminarRoomId).stream()
-            .map(this::mapToResponse)
+            .map(whiteboard -> mapToResponse(whiteboard, whiteboardSyncEngine.elements(whiteboard.getId())))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Apply a saved board as operations; clearExisting replaces the board instead of merging.
+     * The operations are logged as one group together with the canvas settings, and applied
+     * to the live board once that commits; the response carries the resulting elements.
+     */
     @Transactional
     public WhiteboardResponse saveWhiteboardState(Long userId, Long whiteboardId, SaveWhiteboardRequest request) {
         Whiteboard whiteboard = whiteboardRepository.findByIdAndNotDeleted(whiteboardId)
             .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
 
-        // Clear existing elements if this is a full save
+        List<WhiteboardOperationRequest> operations = new ArrayList<>();
         if (request.getClearExisting() != null && request.getClearExisting()) {
-            whiteboard.clearElements();
-            whiteboardElementRepository.deleteByWhiteboardId(whiteboardId);
+            operations.add(WhiteboardOperationRequest.builder()
+                .type(WhiteboardOperationType.CLEAR)
+                .build());
         }
-
-        // Add new elements
         if (request.getElements() != null) {
             for (WhiteboardElementDto dto : request.getElements()) {
-                WhiteboardElement element = WhiteboardElement.builder()
-                    .whiteboard(whiteboard)
-                    .elementId(dto.getElementId())
-                    .type(dto.getType())
-                    .x(dto.getX())
-                    .y(dto.getY())
-                    .width(dto.getWidth())
-                    .height(dto.getHeight())
-                    .properties(dto.getProperties() != null ? dto.getProperties() : Map.of())
-                    .build();
-
-                whiteboard.addElement(element);
+                operations.add(WhiteboardOperationRequest.builder()
+                    .type(WhiteboardOperationType.ADD)
+                    .element(dto)
+                    .build());
             }
         }
+        if (!operations.isEmpty()) {
+            // All or nothing: an invalid element rejects the save and rolls back the canvas settings too
+            whiteboardSyncEngine.applyAll(whiteboardId, userId, operations);
+        }
 
         // Update canvas settings if provided
         if (request.getCanvasSettings() != null) {
             whiteboard.setCanvasSettings(request.getCanvasSettings());
+            whiteboard = whiteboardRepository.save(whiteboard);
         }
 
-        whiteboard = whiteboardRepository.save(whiteboard);
-        log.info("Saved whiteboard state for {}", whiteboardId);
-        return mapToResponse(whiteboard);
+        WhiteboardResponse response = mapToResponse(whiteboard, null);
+        TransactionUtil.afterCommit(() -> {
+            response.setElements(whiteboardSyncEngine.elements(whiteboardId));
+            log.info("Saved whiteboard state for {}", whiteboardId);
+        });
+        return response;
     }
 
-    @Transactional
-    public void addElement(Long whiteboardId, WhiteboardElementDto dto) {
-        Whiteboard whiteboard = whiteboardRepository.findByIdAndNotDeleted(whiteboardId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
+    /**
+     * Apply an element operation to the live board and wait until it is logged with the
+     * board's next batch and broadcast to the board's subscribers
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public WhiteboardOperationMessage applyOperation(Long userId, Long whiteboardId, WhiteboardOperationRequest request) {
+        if (request.getType() == null) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Operation type is required");
+        }
+        return whiteboardSyncEngine.apply(whiteboardId, userId, request);
+    }
 
-        WhiteboardElement element = WhiteboardElement.builder()
-            .whiteboard(whiteboard)
-            .elementId(dto.getElementId())
-            .type(dto.getType())
-            .x(dto.getX())
-            .y(dto.getY())
-            .width(dto.getWidth())
-            .height(dto.getHeight())
-            .properties(dto.getProperties() != null ? dto.getProperties() : Map.of())
-            .build();
+    /**
+     * Queue an element operation for the board's next batch without waiting for it
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<WhiteboardOperationMessage> submitOperation(Long userId, Long whiteboardId,
+                                                                         WhiteboardOperationRequest request) {
+        if (request.getType() == null) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Operation type is required");
+        }
+        return whiteboardSyncEngine.submit(whiteboardId, userId, request);
+    }
 
-        whiteboard.addElement(element);
-        whiteboardRepository.save(whiteboard);
+    /**
+     * Board state for a joining client: the full element list, or only the operations
+     * after afterSeq when the client was connected recently
+     */
+    public WhiteboardSyncResponse syncWhiteboard(Long whiteboardId, Long afterSeq) {
+        return whiteboardSyncEngine.sync(whiteboardId, afterSeq);
     }
 
-    @Transactional
-    public void updateElement(Long whiteboardId, String elementId, WhiteboardElementDto dto) {
-        WhiteboardElement element = whiteboardElementRepository
-            .findByWhiteboardIdAndElementId(whiteboardId, elementId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
+    /**
+     * Elements intersecting the viewport rectangle, bottom-most first, one page at a time
+     */
+    public WhiteboardViewportResponse getViewport(Long whiteboardId, double x, double y, double width, double height,
+                                                  String cursor, int size) {
+        if (!Double.isFinite(x) || !Double.isFinite(y) || !Double.isFinite(width) || !Double.isFinite(height)
+                || width < 0 || height < 0
+                || Math.abs(x) > WhiteboardSpatialIndex.MAX_COORDINATE || Math.abs(y) > WhiteboardSpatialIndex.MAX_COORDINATE
+                || width > 2 * WhiteboardSpatialIndex.MAX_COORDINATE || height > 2 * WhiteboardSpatialIndex.MAX_COORDINATE) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Invalid viewport");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_VIEWPORT_PAGE_SIZE));
+        return whiteboardSyncEngine.viewport(whiteboardId, x, y, x + width, y + height, cursor, limit);
+    }
 
-        element.setType(dto.getType());
-        element.setX(dto.getX());
-        element.setY(dto.getY());
-        element.setWidth(dto.getWidth());
-        element.setHeight(dto.getHeight());
-        element.setProperties(dto.getProperties() != null ? dto.getProperties() : Map.of());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void addElement(Long whiteboardId, WhiteboardElementDto dto) {
+        applyOperation(null, whiteboardId, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.ADD)
+            .element(dto)
+            .build());
+    }
 
-        whiteboardElementRepository.save(element);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void updateElement(Long whiteboardId, String elementId, WhiteboardElementDto dto) {
+        dto.setElementId(elementId);
+        applyOperation(null, whiteboardId, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.UPDATE)
+            .element(dto)
+            .build());
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeElement(Long whiteboardId, String elementId) {
-        WhiteboardElement element = whiteboardElementRepository
-            .findByWhiteboardIdAndElementId(whiteboardId, elementId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-        whiteboardElementRepository.delete(element);
+        applyOperation(null, whiteboardId, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.REMOVE)
+            .elementId(elementId)
+            .build());
         log.info("Removed element {} from whiteboard {}", elementId, whiteboardId);
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void clearWhiteboard(Long userId, Long whiteboardId) {
-        Whiteboard whiteboard = whiteboardRepository.findByIdAndNotDeleted(whiteboardId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND));
-
-        whiteboard.clearElements();
-        whiteboardElementRepository.deleteByWhiteboardId(whiteboardId);
-        whiteboardRepository.save(whiteboard);
+        applyOperation(userId, whiteboardId, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.CLEAR)
+            .build());
 
         log.info("Cleared whiteboard {}", whiteboardId);
     }
@@ -164,6 +198,7 @@ public class WhiteboardService {
 
         whiteboard.delete();
         whiteboardRepository.save(whiteboard);
+        TransactionUtil.afterCommit(() -> whiteboardSyncEngine.discard(whiteboardId));
         log.info("Deleted whiteboard {}", whiteboardId);
     }
 
@@ -177,19 +212,7 @@ public class WhiteboardService {
         return "data:image/png;base64,placeholder";
     }
 
-    private WhiteboardResponse mapToResponse(Whiteboard whiteboard) {
-        List<WhiteboardElementDto> elements = whiteboard.getElements().stream()
-            .map(element -> WhiteboardElementDto.builder()
-                .elementId(element.getElementId())
-                .type(element.getType())
-                .x(element.getX())
-                .y(element.getY())
-                .width(element.getWidth())
-                .height(element.getHeight())
-                .properties(element.getProperties())
-                .build())
-            .collect(Collectors.toList());
-
+    private WhiteboardResponse mapToResponse(Whiteboard whiteboard, List<WhiteboardElementDto> elements) {
         return WhiteboardResponse.builder()
             .id(whiteboard.getId())
             .roomId(whiteboard.getRoom().getId())
@@ -0,0 +1,134 @@
+package com.eduforum.api.domain.active.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Uniform grid over element bounding boxes.
+ * Each element is registered in every {@link #CELL_SIZE}-unit cell its box overlaps; boxes
+ * spanning more than {@link #MAX_CELLS_PER_ELEMENT} cells (page-sized shapes, long strokes)
+ * are kept in a separate list that every query checks. A query visits only the cells under
+ * the rectangle, or falls back to a scan when the rectangle covers more cells than there
+ * are elements. Cell indices are taken from coordinates clamped to {@link #MAX_COORDINATE},
+ * so they always fit an int. Not thread-safe; the owning board serializes access.
+ */
+public class WhiteboardSpatialIndex {
+
+    static final double CELL_SIZE = 256.0;
+    static final int MAX_CELLS_PER_ELEMENT = 64;
+    // Largest canvas coordinate the board accepts
+    static final double MAX_COORDINATE = 1_000_000_000.0;
+
+    private final Map<String, double[]> bounds = new HashMap<>();
+    private final Map<Long, Set<String>> cells = new HashMap<>();
+    private final Set<String> oversized = new HashSet<>();
+
+    /**
+     * Add or move an element
+     */
+    public void put(String elementId, double minX, double minY, double maxX, double maxY) {
+        remove(elementId);
+        double[] box = {minX, minY, maxX, maxY};
+        bounds.put(elementId, box);
+        if (cellCount(box) > MAX_CELLS_PER_ELEMENT) {
+            oversized.add(elementId);
+            return;
+        }
+        forEachCell(box, key -> cells.computeIfAbsent(key, k -> new HashSet<>()).add(elementId));
+    }
+
+    public void remove(String elementId) {
+        double[] box = bounds.remove(elementId);
+        if (box == null) {
+            return;
+        }
+        if (!oversized.remove(elementId)) {
+            forEachCell(box, key -> {
+                Set<String> ids = cells.get(key);
+                if (ids != null) {
+                    ids.remove(elementId);
+                    if (ids.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        bounds.clear();
+        cells.clear();
+        oversized.clear();
+    }
+
+    public int size() {
+        return bounds.size();
+    }
+
+    /**
+     * IDs of the elements whose box intersects the rectangle (edges inclusive)
+     */
+    public List<String> query(double minX, double minY, double maxX, double maxY) {
+        double[] area = {minX, minY, maxX, maxY};
+        List<String> result = new ArrayList<>();
+        if (cellCount(area) > bounds.size()) {
+            bounds.forEach((elementId, box) -> {
+                if (intersects(box, area)) {
+                    result.add(elementId);
+                }
+            });
+            return result;
+        }
+
+        Set<String> seen = new LinkedHashSet<>();
+        forEachCell(area, key -> {
+            Set<String> ids = cells.get(key);
+            if (ids != null) {
+                seen.addAll(ids);
+            }
+        });
+        seen.addAll(oversized);
+        for (String elementId : seen) {
+            if (intersects(bounds.get(elementId), area)) {
+                result.add(elementId);
+            }
+        }
+        return result;
+    }
+
+    private static boolean intersects(double[] box, double[] area) {
+        return box[0] <= area[2] && box[2] >= area[0] && box[1] <= area[3] && box[3] >= area[1];
+    }
+
+    private static double cellCount(double[] box) {
+        double columns = (double) cell(box[2]) - cell(box[0]) + 1;
+        double rows = (double) cell(box[3]) - cell(box[1]) + 1;
+        return columns * rows;
+    }
+
+    private static void forEachCell(double[] box, LongConsumer action) {
+        int minColumn = cell(box[0]);
+        int maxColumn = cell(box[2]);
+        int minRow = cell(box[1]);
+        int maxRow = cell(box[3]);
+        for (int column = minColumn; column <= maxColumn; column++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                action.accept(((long) column << 32) | (row & 0xFFFFFFFFL));
+            }
+        }
+    }
+
+    /**
+     * Clamping keeps boxes beyond the canvas in its edge cells; the exact box test still decides
+     */
+    private static int cell(double coordinate) {
+        double clamped = Math.max(-MAX_COORDINATE, Math.min(MAX_COORDINATE, coordinate));
+        return (int) Math.floor(clamped / CELL_SIZE);
+    }
+}
@@ -0,0 +1,512 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.JsonUtil;
+import com.eduforum.api.common.util.TransactionUtil;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardElementDto;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationMessage;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationRequest;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardSyncResponse;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardViewportResponse;
+import com.eduforum.api.domain.active.entity.WhiteboardOperationType;
+import com.eduforum.api.domain.active.entity.WhiteboardTool;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Live whiteboards kept in memory.
+ * <ul>
+ *   <li>A board is loaded on first use from its snapshot plus the operations logged after
+ *       it (boards without a snapshot are imported from whiteboard_elements).</li>
+ *   <li>Operations are queued per board and logged in batches: each flush takes the board's
+ *       row lock once, numbers the batch after whiteboards.op_seq and inserts it in one
+ *       statement batch, so every node draws from the same gap-free sequence and a stroke
+ *       no longer costs a transaction of its own. Only once the batch has committed are its
+ *       operations applied to the in-memory board and pushed to
+ *       {@code /topic/whiteboards/{id}}.</li>
+ *   <li>Operations submitted together (a saved board) are validated, logged and applied as
+ *       one group, or rejected as a whole.</li>
+ *   <li>Operations taken by other nodes are replayed from the log before a batch is numbered
+ *       and before the board is read; a board whose missing operations were already trimmed
+ *       is reloaded from the snapshot.</li>
+ *   <li>The compactor writes each changed board as a jsonb snapshot and trims the log up to
+ *       it; boards that are fully snapshotted and idle are dropped from memory.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class WhiteboardSyncEngine {
+
+    private static final long IDLE_EVICT_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long AWAIT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final String LOAD_SNAPSHOT_SQL =
+        "SELECT snapshot, snapshot_seq FROM active.whiteboards WHERE id = ? AND deleted_at IS NULL";
+    private static final String LOAD_ELEMENTS_SQL =
+        "SELECT id, tool, data, z_index FROM active.whiteboard_elements " +
+        "WHERE whiteboard_id = ? AND deleted_at IS NULL ORDER BY z_index, id";
+    private static final String LOAD_OPERATIONS_SQL =
+        "SELECT seq, user_id, op_type, element_id, payload, created_at FROM active.whiteboard_operations " +
+        "WHERE whiteboard_id = ? AND seq > ? AND seq < ? ORDER BY seq";
+    // Held until the batch commits, so numbering is serialized across nodes
+    private static final String LOCK_BOARD_SQL =
+        "SELECT op_seq FROM active.whiteboards WHERE id = ? AND deleted_at IS NULL FOR UPDATE";
+    private static final String SET_OP_SEQ_SQL =
+        "UPDATE active.whiteboards SET op_seq = ? WHERE id = ?";
+    private static final String INSERT_OPERATION_SQL =
+        "INSERT INTO active.whiteboard_operations (whiteboard_id, seq, user_id, op_type, element_id, payload, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?::jsonb, ?)";
+    private static final String SAVE_SNAPSHOT_SQL =
+        "UPDATE active.whiteboards SET snapshot = ?::jsonb, snapshot_seq = ?, snapshot_at = ?, updated_at = ? " +
+        "WHERE id = ? AND snapshot_seq < ?";
+    private static final String TRIM_OPERATIONS_SQL =
+        "DELETE FROM active.whiteboard_operations WHERE whiteboard_id = ? AND seq <= ?";
+
+    private static final TypeReference<WhiteboardElementDto> ELEMENT = new TypeReference<>() {};
+    private static final TypeReference<List<WhiteboardElementDto>> ELEMENT_LIST = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> PROPERTIES = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    private final Map<Long, WhiteboardBoard> boards = new ConcurrentHashMap<>();
+    private final Map<Long, Queue<PendingGroup>> pending = new ConcurrentHashMap<>();
+
+    public WhiteboardSyncEngine(JdbcTemplate jdbcTemplate, SimpMessagingTemplate messagingTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messagingTemplate = messagingTemplate;
+        // Batches commit on their own, whatever thread flushes them
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Queue an operation for the board's next batch; the result completes once it is logged
+     * and applied, or fails when it no longer validates at that point
+     */
+    public CompletableFuture<WhiteboardOperationMessage> submit(Long whiteboardId, Long userId,
+                                                                WhiteboardOperationRequest request) {
+        PendingGroup group = new PendingGroup(userId, List.of(request));
+        // Under the map's bin lock, so a queue is never dropped while an operation is added to it
+        pending.compute(whiteboardId, (id, queue) -> {
+            Queue<PendingGroup> target = queue != null ? queue : new ConcurrentLinkedQueue<>();
+            target.add(group);
+            return target;
+        });
+        return group.result.thenApply(operations -> operations.get(0));
+    }
+
+    /**
+     * Queue an operation and wait until its batch is logged
+     */
+    public WhiteboardOperationMessage apply(Long whiteboardId, Long userId, WhiteboardOperationRequest request) {
+        return await(submit(whiteboardId, userId, request));
+    }
+
+    /**
+     * Log operations as one group in the caller's transaction; the board's row lock is held
+     * until that transaction ends, and the operations are applied and broadcast only after
+     * it commits. One invalid operation rejects the group before anything is written.
+     */
+    public List<WhiteboardOperationMessage> applyAll(Long whiteboardId, Long userId,
+                                                     List<WhiteboardOperationRequest> requests) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return writeTemplate.execute(status -> applyAll(whiteboardId, userId, requests));
+        }
+        while (true) {
+            List<WhiteboardOperationMessage> operations = withBoard(whiteboardId, false, board -> {
+                long last = lock(whiteboardId);
+                if (!catchUp(board, last + 1)) {
+                    drop(board);
+                    return null;
+                }
+                List<WhiteboardOperationMessage> prepared = board.draft().prepare(userId, requests);
+                insert(whiteboardId, prepared, last);
+                return prepared;
+            });
+            if (operations != null) {
+                TransactionUtil.afterCommit(() -> publish(whiteboardId, operations));
+                return operations;
+            }
+            // The board was behind a trimmed log; the next lookup loads it from the snapshot
+        }
+    }
+
+    public List<WhiteboardElementDto> elements(Long whiteboardId) {
+        return withBoard(whiteboardId, true, WhiteboardBoard::elements);
+    }
+
+    /**
+     * State for a (re)joining client; clients that saw afterSeq recently only get the tail
+     */
+    public WhiteboardSyncResponse sync(Long whiteboardId, Long afterSeq) {
+        return withBoard(whiteboardId, true, board -> board.sync(afterSeq));
+    }
+
+    /**
+     * Page of the elements intersecting the rectangle, served from the board's spatial index
+     */
+    public WhiteboardViewportResponse viewport(Long whiteboardId, double minX, double minY, double maxX, double maxY,
+                                               String cursor, int limit) {
+        return withBoard(whiteboardId, true, board -> board.viewport(minX, minY, maxX, maxY, cursor, limit));
+    }
+
+    /**
+     * Forget a deleted board without snapshotting it
+     */
+    public void discard(Long whiteboardId) {
+        WhiteboardBoard board = boards.remove(whiteboardId);
+        if (board != null) {
+            board.evict();
+        }
+    }
+
+    /**
+     * Snapshot every board changed since its last snapshot, then drop idle boards
+     */
+    @Scheduled(fixedDelayString = "${app.whiteboard.compact-interval-ms:30000}")
+    public void compact() {
+        long idleSince = System.currentTimeMillis() - IDLE_EVICT_MS;
+        boards.forEach((whiteboardId, board) -> {
+            try {
+                if (board.needsSnapshot()) {
+                    snapshot(board);
+                }
+                if (board.evictIfIdle(idleSince)) {
+                    boards.remove(whiteboardId, board);
+                }
+            } catch (Exception e) {
+                log.error("Failed to compact whiteboard {}", whiteboardId, e);
+            }
+        });
+    }
+
+    /**
+     * Log the queued operations of every board, one transaction per board and batch
+     */
+    @Scheduled(fixedDelayString = "${app.whiteboard.flush-interval-ms:50}")
+    public void flush() {
+        for (Long whiteboardId : pending.keySet()) {
+            Queue<PendingGroup> queue = pending.get(whiteboardId);
+            while (queue != null && !queue.isEmpty()) {
+                flush(whiteboardId, queue);
+            }
+            pending.computeIfPresent(whiteboardId, (id, current) -> current.isEmpty() ? null : current);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        compact();
+    }
+
+    /**
+     * Run the action on the loaded board; with refresh, operations logged by other nodes
+     * are replayed first
+     */
+    private <T> T withBoard(Long whiteboardId, boolean refresh, Function<WhiteboardBoard, T> action) {
+        while (true) {
+            WhiteboardBoard board = boards.get(whiteboardId);
+            if (board == null) {
+                // Loaded outside the map's bin lock; a racing load of the same board is discarded
+                WhiteboardBoard loaded = load(whiteboardId);
+                board = boards.putIfAbsent(whiteboardId, loaded);
+                if (board == null) {
+                    board = loaded;
+                }
+            }
+            synchronized (board) {
+                if (!board.isEvicted()) {
+                    if (!refresh || catchUp(board, Long.MAX_VALUE)) {
+                        return action.apply(board);
+                    }
+                    drop(board);
+                }
+            }
+            // Evicted between lookup and lock, or too far behind the log; the next lookup loads a fresh copy
+        }
+    }
+
+    /**
+     * Replay the logged operations between the board's seq and beforeSeq.
+     * Returns false when the board cannot be brought up to date from the log.
+     */
+    private boolean catchUp(WhiteboardBoard board, long beforeSeq) {
+        if (board.getSeq() >= beforeSeq - 1) {
+            return true;
+        }
+        boolean[] contiguous = {true};
+        jdbcTemplate.query(LOAD_OPERATIONS_SQL,
+            rs -> {
+                contiguous[0] &= board.replay(readOperation(board.getWhiteboardId(), rs));
+            },
+            board.getWhiteboardId(), board.getSeq(), beforeSeq);
+        return contiguous[0] && (beforeSeq == Long.MAX_VALUE || board.getSeq() == beforeSeq - 1);
+    }
+
+    private void drop(WhiteboardBoard board) {
+        board.evict();
+        boards.remove(board.getWhiteboardId(), board);
+    }
+
+    private void flush(Long whiteboardId, Queue<PendingGroup> queue) {
+        List<PendingGroup> batch = new ArrayList<>();
+        PendingGroup group;
+        while (batch.size() < FLUSH_BATCH_SIZE && (group = queue.poll()) != null) {
+            batch.add(group);
+        }
+        try {
+            while (!withBoard(whiteboardId, false, board -> write(board, batch))) {
+                // The board was behind a trimmed log; the next lookup loads it from the snapshot
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to log {} operations on whiteboard {}", batch.size(), whiteboardId, e);
+            // Groups already rejected or logged keep their result
+            batch.forEach(pendingGroup -> pendingGroup.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Number and log a batch, then apply and broadcast it; runs while holding the board, so
+     * readers on this node never see operations that are not committed yet.
+     * Returns false when the board cannot be brought up to date from the log.
+     */
+    private boolean write(WhiteboardBoard board, List<PendingGroup> batch) {
+        Map<PendingGroup, List<WhiteboardOperationMessage>> logged = new LinkedHashMap<>();
+        Boolean current = writeTemplate.execute(status -> {
+            long last = lock(board.getWhiteboardId());
+            if (!catchUp(board, last + 1)) {
+                return false;
+            }
+            WhiteboardBoard.Draft draft = board.draft();
+            List<WhiteboardOperationMessage> operations = new ArrayList<>();
+            for (PendingGroup group : batch) {
+                try {
+                    List<WhiteboardOperationMessage> prepared = draft.prepare(group.userId, group.requests);
+                    logged.put(group, prepared);
+                    operations.addAll(prepared);
+                } catch (BusinessException e) {
+                    // Stale against the operations before it, e.g. updating an element that was removed
+                    group.result.completeExceptionally(e);
+                }
+            }
+            insert(board.getWhiteboardId(), operations, last);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(current)) {
+            drop(board);
+            return false;
+        }
+
+        logged.forEach((group, operations) -> {
+            for (WhiteboardOperationMessage operation : operations) {
+                board.commit(operation);
+                // Sent while holding the board so this node's subscribers receive its operations in seq order
+                messagingTemplate.convertAndSend("/topic/whiteboards/" + board.getWhiteboardId(), operation);
+            }
+            group.result.complete(operations);
+        });
+        return true;
+    }
+
+    /**
+     * Apply and broadcast a group logged in a transaction that has committed
+     */
+    private void publish(Long whiteboardId, List<WhiteboardOperationMessage> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        withBoard(whiteboardId, false, board -> {
+            boolean current = catchUp(board, operations.get(0).getSeq());
+            for (WhiteboardOperationMessage operation : operations) {
+                // Skips operations a flush on this node already replayed from the log
+                current = current && board.replay(operation);
+            }
+            if (!current) {
+                // The next use reloads the board, these operations included
+                drop(board);
+            }
+            for (WhiteboardOperationMessage operation : operations) {
+                messagingTemplate.convertAndSend("/topic/whiteboards/" + whiteboardId, operation);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Lock the board's row for the rest of the transaction and return the last logged seq
+     */
+    private long lock(Long whiteboardId) {
+        List<Long> seqs = jdbcTemplate.queryForList(LOCK_BOARD_SQL, Long.class, whiteboardId);
+        if (seqs.isEmpty()) {
+            throw new BusinessException(ErrorCode.WHITEBOARD_NOT_FOUND);
+        }
+        return seqs.get(0);
+    }
+
+    /**
+     * Number the operations after the last logged seq and insert them in one batch
+     */
+    private void insert(Long whiteboardId, List<WhiteboardOperationMessage> operations, long last) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(operations.size());
+        for (WhiteboardOperationMessage operation : operations) {
+            operation.setSeq(++last);
+            rows.add(new Object[]{
+                whiteboardId,
+                operation.getSeq(),
+                operation.getUserId(),
+                operation.getType().name(),
+                operation.getElementId(),
+                operation.getElement() != null ? JsonUtil.toJson(operation.getElement()) : null,
+                Timestamp.from(operation.getCreatedAt().toInstant())
+            });
+        }
+        jdbcTemplate.update(SET_OP_SEQ_SQL, last, whiteboardId);
+        jdbcTemplate.batchUpdate(INSERT_OPERATION_SQL, rows);
+        log.debug("Logged {} operations on whiteboard {} up to seq {}", rows.size(), whiteboardId, last);
+    }
+
+    private void snapshot(WhiteboardBoard board) {
+        long seq;
+        List<WhiteboardElementDto> elements;
+        synchronized (board) {
+            seq = board.getSeq();
+            elements = board.elements();
+        }
+
+        Timestamp now = Timestamp.from(OffsetDateTime.now().toInstant());
+        jdbcTemplate.update(SAVE_SNAPSHOT_SQL, JsonUtil.toJson(elements), seq, now, now, board.getWhiteboardId(), seq);
+        jdbcTemplate.update(TRIM_OPERATIONS_SQL, board.getWhiteboardId(), seq);
+        board.markSnapshot(seq);
+        log.debug("Compacted whiteboard {} at seq {} ({} elements)", board.getWhiteboardId(), seq, elements.size());
+    }
+
+    private WhiteboardBoard load(Long whiteboardId) {
+        List<WhiteboardBoard> loaded = jdbcTemplate.query(LOAD_SNAPSHOT_SQL,
+            (rs, rowNum) -> {
+                String snapshot = rs.getString("snapshot");
+                long snapshotSeq = rs.getLong("snapshot_seq");
+                List<WhiteboardElementDto> elements = snapshot != null
+                    ? JsonUtil.fromJson(snapshot, ELEMENT_LIST)
+                    : loadElements(whiteboardId);
+                return new WhiteboardBoard(whiteboardId, elements, snapshotSeq);
+            },
+            whiteboardId);
+        if (loaded.isEmpty()) {
+            throw new BusinessException(ErrorCode.WHITEBOARD_NOT_FOUND);
+        }
+
+        WhiteboardBoard board = loaded.get(0);
+        jdbcTemplate.query(LOAD_OPERATIONS_SQL,
+            rs -> {
+                board.replay(readOperation(whiteboardId, rs));
+            },
+            whiteboardId, board.getSeq(), Long.MAX_VALUE);
+        log.debug("Loaded whiteboard {} at seq {}", whiteboardId, board.getSeq());
+        return board;
+    }
+
+    private WhiteboardOperationMessage readOperation(Long whiteboardId, ResultSet rs) throws SQLException {
+        String payload = rs.getString("payload");
+        return WhiteboardOperationMessage.builder()
+            .whiteboardId(whiteboardId)
+            .seq(rs.getLong("seq"))
+            .userId(rs.getObject("user_id", Long.class))
+            .type(WhiteboardOperationType.valueOf(rs.getString("op_type")))
+            .elementId(rs.getString("element_id"))
+            .element(payload != null ? JsonUtil.fromJson(payload, ELEMENT) : null)
+            .createdAt(rs.getObject("created_at", OffsetDateTime.class))
+            .build();
+    }
+
+    /**
+     * Elements saved before boards had snapshots; geometry and the client element ID are read from data
+     */
+    private List<WhiteboardElementDto> loadElements(Long whiteboardId) {
+        return jdbcTemplate.query(LOAD_ELEMENTS_SQL,
+            (rs, rowNum) -> {
+                Map<String, Object> data = JsonUtil.fromJson(rs.getString("data"), PROPERTIES);
+                Object elementId = data.get("elementId");
+                return WhiteboardElementDto.builder()
+                    .elementId(elementId != null ? elementId.toString() : String.valueOf(rs.getLong("id")))
+                    .type(WhiteboardTool.valueOf(rs.getString("tool")))
+                    .x(number(data.get("x"), 0.0))
+                    .y(number(data.get("y"), 0.0))
+                    .width(number(data.get("width"), null))
+                    .height(number(data.get("height"), null))
+                    .zIndex(rs.getInt("z_index"))
+                    .properties(data)
+                    .build();
+            },
+            whiteboardId);
+    }
+
+    private static Double number(Object value, Double defaultValue) {
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.INTERNAL_SERVER_ERROR, "Whiteboard operation timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.INTERNAL_SERVER_ERROR, "Interrupted while waiting for the whiteboard");
+        }
+    }
+
+    /**
+     * Operations a caller submitted together; they are logged together or not at all
+     */
+    private static final class PendingGroup {
+
+        private final Long userId;
+        private final List<WhiteboardOperationRequest> requests;
+        private final CompletableFuture<List<WhiteboardOperationMessage>> result = new CompletableFuture<>();
+
+        private PendingGroup(Long userId, List<WhiteboardOperationRequest> requests) {
+            this.userId = userId;
+            this.requests = requests;
+        }
+    }
+}
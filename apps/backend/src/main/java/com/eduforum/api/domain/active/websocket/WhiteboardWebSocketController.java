@@ -0,0 +1,64 @@
+package com.eduforum.api.domain.active.websocket;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationRequest;
+import com.eduforum.api.domain.active.service.WhiteboardService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.concurrent.CompletionException;
+
+/**
+ * WebSocket controller for live whiteboard operations.
+ * Applied operations are broadcast to /topic/whiteboards/{whiteboardId} with their seq.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Whiteboard WebSocket", description = "실시간 화이트보드 WebSocket API")
+public class WhiteboardWebSocketController {
+
+    private final WhiteboardService whiteboardService;
+
+    @MessageMapping("/whiteboard.op")
+    public void applyOperation(@Payload WhiteboardOperationRequest request, Principal principal) {
+        if (request.getWhiteboardId() == null) {
+            log.debug("Dropping whiteboard operation without a whiteboard ID");
+            return;
+        }
+        Long whiteboardId = request.getWhiteboardId();
+        try {
+            // Not waited for; the operation comes back over the board's topic once its batch is logged
+            whiteboardService.submitOperation(extractUserId(principal), whiteboardId, request)
+                .whenComplete((operation, e) -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof BusinessException) {
+                        // Stale operations (e.g. updating an element another client removed) are dropped
+                        log.debug("Rejected operation on whiteboard {}: {}", whiteboardId, cause.getMessage());
+                    } else if (cause != null) {
+                        log.error("Error processing operation on whiteboard {}", whiteboardId, cause);
+                    }
+                });
+        } catch (BusinessException e) {
+            log.debug("Rejected operation on whiteboard {}: {}", whiteboardId, e.getMessage());
+        } catch (Exception e) {
+            log.error("Error processing operation on whiteboard {}", whiteboardId, e);
+        }
+    }
+
+    private Long extractUserId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(principal.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
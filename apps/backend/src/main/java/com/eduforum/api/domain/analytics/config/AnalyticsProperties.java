@@ -0,0 +1,64 @@
+package com.eduforum.api.domain.analytics.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Learning analytics settings
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.analytics")
+public class AnalyticsProperties {
+
+    /**
+     * Interaction network analysis settings
+     */
+    private Network network = new Network();
+
+    /**
+     * Snapshot rollup settings
+     */
+    private Rollup rollup = new Rollup();
+
+    @Getter
+    @Setter
+    public static class Network {
+        /**
+         * Worker threads used for centrality computation; 0 uses all available processors
+         */
+        private int parallelism = 0;
+
+        /**
+         * Maximum local-moving passes per Louvain level
+         */
+        private int maxLouvainPasses = 20;
+
+        /**
+         * Rows per JDBC batch when writing analysis results
+         */
+        private int writeBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Rollup {
+        /**
+         * Upper bound on trend data points; the finest resolution that stays within it is used
+         */
+        private int maxTrendPoints = 200;
+
+        /**
+         * Days minute buckets are kept
+         */
+        private int minuteRetentionDays = 7;
+
+        /**
+         * Days hour buckets are kept; day buckets are kept indefinitely
+         */
+        private int hourRetentionDays = 180;
+    }
+}
@@ -26,6 +26,13 @@ public class NetworkAnalyticsController {
         return ResponseEntity.ok(ApiResponse.success("Interaction logged successfully"));
     }
 
+    @PostMapping("/log/bulk")
+    @Operation(summary = "Log interactions in bulk", description = "Log a batch of student-student interactions")
+    public ResponseEntity<ApiResponse<String>> logInteractions(@Valid @RequestBody InteractionLogBulkRequest request) {
+        int logged = networkService.logInteractions(request.getInteractions());
+        return ResponseEntity.ok(ApiResponse.success(logged + " interactions logged successfully"));
+    }
+
     @GetMapping("/{courseId}")
     @Operation(summary = "Get network graph", description = "Get interaction network graph for a course")
     public ResponseEntity<ApiResponse<NetworkGraphResponse>> getNetworkGraph(@PathVariable Long courseId) {
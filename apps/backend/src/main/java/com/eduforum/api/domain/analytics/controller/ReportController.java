@@ -3,6 +3,7 @@ package com.eduforum.api.domain.analytics.controller;
 import com.eduforum.api.common.dto.ApiResponse;
 import com.eduforum.api.domain.analytics.dto.report.*;
 import com.eduforum.api.domain.analytics.entity.ReportPeriod;
+import com.eduforum.api.domain.analytics.export.ExportFormat;
 import com.eduforum.api.domain.analytics.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -58,19 +60,23 @@ public class ReportController {
     }
 
     @GetMapping("/export/excel/{courseId}")
-    @Operation(summary = "Export to Excel", description = "Export course data to Excel")
-    public ResponseEntity<Resource> exportToExcel(
+    @Operation(summary = "Export course data",
+        description = "Stream per-student course metrics as XLSX (format=EXCEL/XLSX) or CSV (format=CSV)")
+    public ResponseEntity<StreamingResponseBody> exportToExcel(
             @PathVariable Long courseId,
             @Valid @ModelAttribute ExportRequest request) {
-        Resource resource = exportService.exportToExcel(request);
+        request.setCourseId(courseId);
+        ExportFormat format = ExportFormat.from(request.getFormat());
+        StreamingResponseBody body = exportService.exportCourse(request, format);
         return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=course_" + courseId + "_report.csv")
-            .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-            .body(resource);
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=course_" + courseId + "_report." + format.getExtension())
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .body(body);
     }
 
     @GetMapping("/{reportId}/download")
-    @Operation(summary = "Download report PDF", description = "Download report as PDF")
+    @Operation(summary = "Download report PDF", description = "PDF export is not supported yet; responds with AN016")
     public ResponseEntity<Resource> downloadReport(@PathVariable Long reportId) {
         Resource resource = exportService.exportToPdf(reportId);
         return ResponseEntity.ok()
@@ -0,0 +1,26 @@
+package com.eduforum.api.domain.analytics.dto.network;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk interaction log request")
+public class InteractionLogBulkRequest {
+
+    @NotEmpty
+    @Size(max = 5000)
+    @Valid
+    @Schema(description = "Interactions to log, at most 5000 per request")
+    private List<InteractionLogRequest> interactions;
+}
@@ -0,0 +1,45 @@
+package com.eduforum.api.domain.analytics.dto.realtime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Incremental live statistics pushed to /topic/analytics/{sessionId}")
+public class LiveStatsDeltaResponse {
+
+    @Schema(description = "Session ID", example = "1")
+    private Long sessionId;
+
+    @Schema(description = "Current participants online", example = "20")
+    private Integer currentParticipants;
+
+    @Schema(description = "Peak participants", example = "25")
+    private Integer peakParticipants;
+
+    @Schema(description = "Total interactions since the session went live", example = "150")
+    private Integer totalInteractions;
+
+    @Schema(description = "Interactions since the previous update", example = "12")
+    private Integer newInteractions;
+
+    @Schema(description = "Interactions per minute over the last update window", example = "12.5")
+    private Double interactionsPerMinute;
+
+    @Schema(description = "Per-activity counts since the previous update")
+    private Map<String, Integer> activityDelta;
+
+    @Schema(description = "Window start (previous update time)")
+    private OffsetDateTime since;
+
+    @Schema(description = "Window end")
+    private OffsetDateTime lastUpdated;
+}
@@ -26,7 +26,7 @@ public class ExportRequest {
     @Schema(description = "End date for export")
     private OffsetDateTime endDate;
 
-    @Schema(description = "Export format (PDF/EXCEL)", example = "EXCEL")
+    @Schema(description = "Export format (CSV/XLSX, EXCEL is an alias of XLSX)", example = "EXCEL")
     @Builder.Default
     private String format = "EXCEL";
 
@@ -0,0 +1,36 @@
+package com.eduforum.api.domain.analytics.entity;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket size of a snapshot rollup, finest first. Buckets are aligned in UTC.
+ */
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+
+    public OffsetDateTime bucketStart(OffsetDateTime time) {
+        return time.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(unit);
+    }
+
+    /**
+     * Number of buckets touched by the range [start, end]
+     */
+    public long bucketCount(OffsetDateTime start, OffsetDateTime end) {
+        return Duration.between(bucketStart(start), end).dividedBy(getDuration()) + 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.eduforum.api.domain.analytics.entity;
+
+import com.eduforum.api.domain.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Snapshot rollup - min/max/sum of analytics snapshots in one time bucket.
+ * Rows are maintained by SnapshotRollupService; sessionId 0 is the course-wide rollup.
+ */
+@Entity
+@Table(schema = "analytics", name = "snapshot_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SnapshotRollup extends BaseEntity {
+
+    public static final long COURSE_WIDE = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 10)
+    private RollupResolution resolution;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private OffsetDateTime bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(name = "participants_min")
+    private Integer participantsMin;
+
+    @Column(name = "participants_max")
+    private Integer participantsMax;
+
+    @Column(name = "participants_sum", nullable = false)
+    private Long participantsSum;
+
+    @Column(name = "active_min")
+    private Integer activeMin;
+
+    @Column(name = "active_max")
+    private Integer activeMax;
+
+    @Column(name = "active_sum", nullable = false)
+    private Long activeSum;
+
+    @Column(name = "engagement_min")
+    private Double engagementMin;
+
+    @Column(name = "engagement_max")
+    private Double engagementMax;
+
+    @Column(name = "engagement_sum", nullable = false)
+    private Double engagementSum;
+
+    @Column(name = "engagement_count", nullable = false)
+    private Integer engagementCount;
+
+    @Column(name = "interactions_min")
+    private Integer interactionsMin;
+
+    @Column(name = "interactions_max")
+    private Integer interactionsMax;
+
+    @Column(name = "interactions_sum", nullable = false)
+    private Long interactionsSum;
+
+    @Column(name = "poll_responses_sum", nullable = false)
+    private Long pollResponsesSum;
+
+    @Column(name = "quiz_attempts_sum", nullable = false)
+    private Long quizAttemptsSum;
+
+    @Column(name = "chat_messages_sum", nullable = false)
+    private Long chatMessagesSum;
+
+    @Column(name = "first_snapshot_at", nullable = false)
+    private OffsetDateTime firstSnapshotAt;
+
+    @Column(name = "last_snapshot_at", nullable = false)
+    private OffsetDateTime lastSnapshotAt;
+
+    // Helper methods
+    public Double getAvgEngagement() {
+        return engagementCount > 0 ? engagementSum / engagementCount : null;
+    }
+
+    public double getAvgActive() {
+        return sampleCount > 0 ? (double) activeSum / sampleCount : 0.0;
+    }
+
+    public double getAvgInteractions() {
+        return sampleCount > 0 ? (double) interactionsSum / sampleCount : 0.0;
+    }
+}
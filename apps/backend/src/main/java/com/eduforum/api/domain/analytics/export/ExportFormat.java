@@ -0,0 +1,52 @@
+package com.eduforum.api.domain.analytics.export;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+
+import java.io.OutputStream;
+
+/**
+ * Tabular export formats that can be written incrementally
+ */
+public enum ExportFormat {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public ExportWriter open(OutputStream out, String sheetName) {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(out);
+            case XLSX -> new XlsxExportWriter(out, sheetName);
+        };
+    }
+
+    /**
+     * Resolve the format of an export request; EXCEL is accepted as an alias of XLSX
+     */
+    public static ExportFormat from(String format) {
+        if (format == null || format.isBlank()) {
+            return XLSX;
+        }
+        return switch (format.trim().toUpperCase()) {
+            case "CSV" -> CSV;
+            case "XLSX", "EXCEL" -> XLSX;
+            default -> throw new BusinessException(ErrorCode.EXPORT_FORMAT_NOT_SUPPORTED,
+                "Unsupported export format: " + format + " (use CSV or XLSX)");
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.eduforum.api.domain.analytics.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Forward-only writer for one table of export rows. Rows are encoded as they arrive;
+ * only a bounded buffer is held, so exports run in constant memory.
+ * Closing the writer completes the document but leaves the underlying stream open.
+ */
+public interface ExportWriter extends Closeable {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    /**
+     * Write one row; values are Strings, Numbers or null
+     */
+    void writeRow(Object[] values) throws IOException;
+}
@@ -19,6 +19,8 @@ public interface AnalyticsSnapshotRepository extends JpaRepository<AnalyticsSnap
 
     Optional<AnalyticsSnapshot> findTopBySessionIdOrderBySnapshotTimeDesc(Long sessionId);
 
+    Optional<AnalyticsSnapshot> findTopByCourseIdOrderBySnapshotTimeDesc(Long courseId);
+
     @Query("SELECT a FROM AnalyticsSnapshot a WHERE a.courseId = :courseId " +
            "AND a.snapshotTime BETWEEN :start AND :end ORDER BY a.snapshotTime DESC")
     List<AnalyticsSnapshot> findByCourseIdAndTimeRange(
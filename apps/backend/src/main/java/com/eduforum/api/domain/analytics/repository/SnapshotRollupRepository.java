@@ -0,0 +1,33 @@
+package com.eduforum.api.domain.analytics.repository;
+
+import com.eduforum.api.domain.analytics.entity.RollupResolution;
+import com.eduforum.api.domain.analytics.entity.SnapshotRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface SnapshotRollupRepository extends JpaRepository<SnapshotRollup, Long> {
+
+    @Query("SELECT r FROM SnapshotRollup r WHERE r.resolution = :resolution AND r.courseId = :courseId " +
+           "AND r.sessionId = :sessionId AND r.bucketStart BETWEEN :start AND :end ORDER BY r.bucketStart ASC")
+    List<SnapshotRollup> findBuckets(
+        @Param("resolution") RollupResolution resolution,
+        @Param("courseId") Long courseId,
+        @Param("sessionId") Long sessionId,
+        @Param("start") OffsetDateTime start,
+        @Param("end") OffsetDateTime end
+    );
+
+    @Modifying
+    @Query("DELETE FROM SnapshotRollup r WHERE r.resolution = :resolution AND r.bucketStart < :before")
+    int deleteBucketsBefore(
+        @Param("resolution") RollupResolution resolution,
+        @Param("before") OffsetDateTime before
+    );
+}
@@ -1,28 +1,194 @@
 package com.eduforum.api.domain.analytics.service;
 
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
 import com.eduforum.api.domain.analytics.dto.report.ExportRequest;
+import com.eduforum.api.domain.analytics.export.ExportFormat;
+import com.eduforum.api.domain.analytics.export.ExportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExportService {
 
-    public Resource exportToExcel(ExportRequest request) {
-        log.info("Exporting course {} data to Excel", request.getCourseId());
-        // Simulated Excel generation
-        String csvData = "Student ID,Name,Attendance,Engagement,Performance\n1,Student 1,95,85,80\n";
-        return new ByteArrayResource(csvData.getBytes());
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int FETCH_SIZE = 500;
+
+    /**
+     * One row per enrolled student. Metrics and grades are aggregated per course in the
+     * database; the result is read through a forward-only cursor. Date bounds are optional:
+     * metrics must overlap the range, and grades must have been given inside it.
+     */
+    private static final String COURSE_EXPORT_SQL =
+        "WITH lm AS (" +
+        "  SELECT student_id, " +
+        "    ROUND(AVG(metric_value) FILTER (WHERE metric_type = 'ATTENDANCE'), 2) AS attendance, " +
+        "    ROUND(AVG(metric_value) FILTER (WHERE metric_type = 'ENGAGEMENT'), 2) AS engagement, " +
+        "    ROUND(AVG(metric_value) FILTER (WHERE metric_type = 'PERFORMANCE'), 2) AS performance, " +
+        "    ROUND(AVG(metric_value) FILTER (WHERE metric_type = 'PARTICIPATION'), 2) AS participation, " +
+        "    ROUND(AVG(metric_value) FILTER (WHERE metric_type = 'QUIZ_SCORE'), 2) AS quiz_score, " +
+        "    ROUND(AVG(metric_value) FILTER (WHERE metric_type = 'ASSIGNMENT_SCORE'), 2) AS assignment_score " +
+        "  FROM analytics.learning_metrics " +
+        "  WHERE course_id = ? AND deleted_at IS NULL " +
+        "  AND (CAST(? AS timestamptz) IS NULL OR period_end IS NULL OR period_end >= ?) " +
+        "  AND (CAST(? AS timestamptz) IS NULL OR period_start IS NULL OR period_start <= ?) " +
+        "  GROUP BY student_id" +
+        "), gr AS (" +
+        "  SELECT g.student_id, COUNT(*) AS graded_count, " +
+        "    ROUND(AVG(g.score * 100 / NULLIF(g.max_score, 0)), 2) AS avg_grade_percent " +
+        "  FROM assessment.grading_results g " +
+        "  JOIN course.assignments a ON a.id = g.assignment_id " +
+        "  WHERE a.course_id = ? AND g.status IN ('GRADED', 'REVIEWED', 'FINALIZED') " +
+        "  AND (CAST(? AS timestamptz) IS NULL OR g.graded_at >= ?) " +
+        "  AND (CAST(? AS timestamptz) IS NULL OR g.graded_at <= ?) " +
+        "  GROUP BY g.student_id" +
+        ") " +
+        "SELECT e.user_id AS student_id, u.first_name, u.last_name, u.email, " +
+        "  lm.attendance, lm.engagement, lm.performance, lm.participation, lm.quiz_score, lm.assignment_score, " +
+        "  ps.total_score, ps.attendance_score, ps.activity_score, ps.engagement_score, " +
+        "  COALESCE(gr.graded_count, 0) AS graded_count, gr.avg_grade_percent " +
+        "FROM course.enrollments e " +
+        "JOIN auth.users u ON u.id = e.user_id " +
+        "LEFT JOIN lm ON lm.student_id = e.user_id " +
+        "LEFT JOIN assessment.participation_scores ps ON ps.course_id = e.course_id AND ps.student_id = e.user_id " +
+        "LEFT JOIN gr ON gr.student_id = e.user_id " +
+        "WHERE e.course_id = ? AND e.role = 'STUDENT' AND e.status <> 'DROPPED' " +
+        "ORDER BY e.user_id";
+
+    /**
+     * Stream the per-student course export. The query runs when the response body is written,
+     * inside a transaction so the Postgres driver can use a server-side cursor.
+     */
+    public StreamingResponseBody exportCourse(ExportRequest request, ExportFormat format) {
+        List<ExportColumn> columns = selectColumns(request);
+        List<String> header = columns.stream().map(ExportColumn::title).toList();
+        Long courseId = request.getCourseId();
+
+        return out -> {
+            long startedAt = System.nanoTime();
+            try (ExportWriter writer = format.open(out, "Course " + courseId)) {
+                writer.writeHeader(header);
+                long rows = transactionTemplate.execute(status -> streamRows(request, columns, writer));
+                log.info("Exported {} students of course {} as {} in {} ms",
+                    rows, courseId, format, (System.nanoTime() - startedAt) / 1_000_000);
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; the cursor has been closed with the transaction
+                throw e.getCause();
+            }
+        };
     }
 
+    /**
+     * PDF rendering is not available; reports are exported as CSV or XLSX through exportCourse
+     */
     public Resource exportToPdf(Long reportId) {
-        log.info("Exporting report {} to PDF", reportId);
-        // Simulated PDF generation (placeholder)
-        String pdfPlaceholder = "PDF Report Content for report " + reportId;
-        return new ByteArrayResource(pdfPlaceholder.getBytes());
+        throw new BusinessException(ErrorCode.EXPORT_FORMAT_NOT_SUPPORTED,
+            "PDF export is not supported; export report " + reportId + " as CSV or XLSX");
+    }
+
+    private long streamRows(ExportRequest request, List<ExportColumn> columns, ExportWriter writer) {
+        long[] rows = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(COURSE_EXPORT_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            bindParameters(ps, request);
+            return ps;
+        }, rs -> {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(columns.get(i).label());
+            }
+            try {
+                writer.writeRow(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private void bindParameters(PreparedStatement ps, ExportRequest request) throws SQLException {
+        int index = 1;
+        ps.setLong(index++, request.getCourseId());
+        index = bindRange(ps, index, request);
+        ps.setLong(index++, request.getCourseId());
+        index = bindRange(ps, index, request);
+        ps.setLong(index, request.getCourseId());
+    }
+
+    private int bindRange(PreparedStatement ps, int index, ExportRequest request) throws SQLException {
+        // Each bound is used twice: once for the IS NULL check and once for the comparison
+        for (Object bound : new Object[]{request.getStartDate(), request.getStartDate(),
+                request.getEndDate(), request.getEndDate()}) {
+            if (bound == null) {
+                ps.setNull(index++, Types.TIMESTAMP_WITH_TIMEZONE);
+            } else {
+                ps.setObject(index++, bound);
+            }
+        }
+        return index;
+    }
+
+    private List<ExportColumn> selectColumns(ExportRequest request) {
+        List<ExportColumn> columns = new ArrayList<>();
+        columns.add(new ExportColumn("Student ID", "student_id"));
+        if (!Boolean.FALSE.equals(request.getIncludeStudentDetails())) {
+            columns.add(new ExportColumn("First Name", "first_name"));
+            columns.add(new ExportColumn("Last Name", "last_name"));
+            columns.add(new ExportColumn("Email", "email"));
+        }
+        if (!Boolean.FALSE.equals(request.getIncludeMetricsBreakdown())) {
+            columns.add(new ExportColumn("Attendance", "attendance"));
+            columns.add(new ExportColumn("Engagement", "engagement"));
+            columns.add(new ExportColumn("Performance", "performance"));
+            columns.add(new ExportColumn("Participation", "participation"));
+            columns.add(new ExportColumn("Quiz Score", "quiz_score"));
+            columns.add(new ExportColumn("Assignment Score", "assignment_score"));
+            columns.add(new ExportColumn("Participation Attendance", "attendance_score"));
+            columns.add(new ExportColumn("Participation Activity", "activity_score"));
+            columns.add(new ExportColumn("Participation Engagement", "engagement_score"));
+        }
+        columns.add(new ExportColumn("Participation Total", "total_score"));
+        columns.add(new ExportColumn("Graded Assignments", "graded_count"));
+        columns.add(new ExportColumn("Average Grade (%)", "avg_grade_percent"));
+        return columns;
+    }
+
+    private static final class ExportColumn {
+        private final String title;
+        private final String label;
+
+        private ExportColumn(String title, String label) {
+            this.title = title;
+            this.label = label;
+        }
+
+        private String title() {
+            return title;
+        }
+
+        private String label() {
+            return label;
+        }
     }
 }
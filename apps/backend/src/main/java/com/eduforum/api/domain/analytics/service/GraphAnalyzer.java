@@ -0,0 +1,473 @@
+package com.eduforum.api.domain.analytics.service;
+
+import com.eduforum.api.domain.analytics.config.AnalyticsProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes centralities, clustering coefficients and communities of an InteractionGraph.
+ * <p>
+ * Betweenness and closeness share one BFS per source (Brandes, unweighted hop distance),
+ * with sources split across a dedicated ForkJoin pool; each leaf task owns its scratch
+ * arrays and partial betweenness, which are summed on join. Communities come from
+ * weighted Louvain modularity optimisation, which is fast enough to run sequentially.
+ */
+@Slf4j
+@Component
+public class GraphAnalyzer {
+
+    private static final double MIN_GAIN = 1e-12;
+
+    private final ForkJoinPool pool;
+    private final int maxLouvainPasses;
+
+    public GraphAnalyzer(AnalyticsProperties properties) {
+        AnalyticsProperties.Network settings = properties.getNetwork();
+        int parallelism = settings.getParallelism() > 0
+            ? settings.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxLouvainPasses = Math.max(1, settings.getMaxLouvainPasses());
+    }
+
+    public GraphMetrics analyze(InteractionGraph graph) {
+        int n = graph.nodeCount();
+        int leafSize = Math.max(8, n / (pool.getParallelism() * 4));
+
+        double[] degree = new double[n];
+        for (int v = 0; v < n; v++) {
+            degree[v] = n > 1 ? (double) graph.degree(v) / (n - 1) : 0.0;
+        }
+
+        double[] closeness = new double[n];
+        double[] betweenness = n > 0 ? pool.invoke(new ShortestPathTask(graph, 0, n, leafSize, closeness)) : new double[0];
+        // Each unordered pair is counted from both ends; normalize by the (n-1)(n-2)/2 pairs excluding v
+        double scale = n > 2 ? 1.0 / ((double) (n - 1) * (n - 2)) : 0.0;
+        for (int v = 0; v < n; v++) {
+            betweenness[v] *= scale;
+        }
+
+        double[] clustering = new double[n];
+        if (n > 0) {
+            pool.invoke(new ClusteringTask(graph, 0, n, leafSize, clustering));
+        }
+
+        int[] community = louvain(graph);
+        int communityCount = 0;
+        for (int c : community) {
+            communityCount = Math.max(communityCount, c + 1);
+        }
+
+        return GraphMetrics.builder()
+            .degreeCentrality(degree)
+            .betweennessCentrality(betweenness)
+            .closenessCentrality(closeness)
+            .clusteringCoefficient(clustering)
+            .community(community)
+            .communityCount(communityCount)
+            .modularity(modularity(graph, community, communityCount))
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Weighted Louvain: local moving until no node improves modularity, then aggregate
+     * communities into nodes and repeat. Returns dense community indices, largest first.
+     */
+    int[] louvain(InteractionGraph graph) {
+        int n = graph.nodeCount();
+        int[] membership = new int[n];
+        for (int v = 0; v < n; v++) {
+            membership[v] = v;
+        }
+
+        Level level = new Level(n, graph.offsets(), graph.neighbors(), graph.weights(), new double[n]);
+        while (level.size > 1) {
+            int[] comm = localMoving(level);
+            int count = renumber(comm);
+            if (count == level.size) {
+                break;
+            }
+            for (int v = 0; v < n; v++) {
+                membership[v] = comm[membership[v]];
+            }
+            level = aggregate(level, comm, count);
+        }
+        return orderBySize(membership);
+    }
+
+    private int[] localMoving(Level level) {
+        int size = level.size;
+        double[] k = new double[size];
+        double m2 = 0;
+        for (int v = 0; v < size; v++) {
+            k[v] = level.self[v];
+            for (int i = level.offsets[v]; i < level.offsets[v + 1]; i++) {
+                k[v] += level.weights[i];
+            }
+            m2 += k[v];
+        }
+
+        int[] comm = new int[size];
+        for (int v = 0; v < size; v++) {
+            comm[v] = v;
+        }
+        if (m2 == 0) {
+            return comm;
+        }
+
+        double[] tot = k.clone();
+        double[] neighWeight = new double[size];
+        Arrays.fill(neighWeight, -1);
+        int[] neighComms = new int[size];
+
+        for (int pass = 0; pass < maxLouvainPasses; pass++) {
+            int moved = 0;
+            for (int v = 0; v < size; v++) {
+                int current = comm[v];
+                int count = 0;
+                neighWeight[current] = 0;
+                neighComms[count++] = current;
+                for (int i = level.offsets[v]; i < level.offsets[v + 1]; i++) {
+                    int c = comm[level.neighbors[i]];
+                    if (neighWeight[c] < 0) {
+                        neighWeight[c] = 0;
+                        neighComms[count++] = c;
+                    }
+                    neighWeight[c] += level.weights[i];
+                }
+
+                tot[current] -= k[v];
+                int best = current;
+                double bestGain = neighWeight[current] - tot[current] * k[v] / m2;
+                for (int j = 1; j < count; j++) {
+                    int c = neighComms[j];
+                    double gain = neighWeight[c] - tot[c] * k[v] / m2;
+                    if (gain > bestGain + MIN_GAIN) {
+                        best = c;
+                        bestGain = gain;
+                    }
+                }
+                tot[best] += k[v];
+                comm[v] = best;
+                if (best != current) {
+                    moved++;
+                }
+
+                for (int j = 0; j < count; j++) {
+                    neighWeight[neighComms[j]] = -1;
+                }
+            }
+            if (moved == 0) {
+                break;
+            }
+        }
+        return comm;
+    }
+
+    /**
+     * Collapse each community into one node; internal weight becomes a self-loop
+     */
+    private Level aggregate(Level level, int[] comm, int count) {
+        int[] memberOffsets = new int[count + 1];
+        for (int v = 0; v < level.size; v++) {
+            memberOffsets[comm[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[level.size];
+        int[] cursor = Arrays.copyOf(memberOffsets, count);
+        for (int v = 0; v < level.size; v++) {
+            members[cursor[comm[v]]++] = v;
+        }
+
+        int[] offsets = new int[count + 1];
+        int[] neighbors = new int[Math.max(16, level.neighbors.length)];
+        double[] weights = new double[neighbors.length];
+        double[] self = new double[count];
+        double[] acc = new double[count];
+        Arrays.fill(acc, -1);
+        int[] touched = new int[count];
+        int edges = 0;
+
+        for (int c = 0; c < count; c++) {
+            int touchedCount = 0;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int v = members[m];
+                self[c] += level.self[v];
+                for (int i = level.offsets[v]; i < level.offsets[v + 1]; i++) {
+                    int d = comm[level.neighbors[i]];
+                    if (d == c) {
+                        self[c] += level.weights[i];
+                        continue;
+                    }
+                    if (acc[d] < 0) {
+                        acc[d] = 0;
+                        touched[touchedCount++] = d;
+                    }
+                    acc[d] += level.weights[i];
+                }
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                int d = touched[t];
+                neighbors[edges] = d;
+                weights[edges++] = acc[d];
+                acc[d] = -1;
+            }
+            offsets[c + 1] = edges;
+        }
+        return new Level(count, offsets, neighbors, weights, self);
+    }
+
+    private double modularity(InteractionGraph graph, int[] community, int communityCount) {
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        double[] weights = graph.weights();
+        double[] internal = new double[communityCount];
+        double[] total = new double[communityCount];
+        double m2 = 0;
+
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                total[community[v]] += weights[i];
+                if (community[neighbors[i]] == community[v]) {
+                    internal[community[v]] += weights[i];
+                }
+                m2 += weights[i];
+            }
+        }
+        if (m2 == 0) {
+            return 0.0;
+        }
+
+        double q = 0;
+        for (int c = 0; c < communityCount; c++) {
+            q += internal[c] / m2 - (total[c] / m2) * (total[c] / m2);
+        }
+        return q;
+    }
+
+    /**
+     * Rewrite community labels to 0..count-1 and return count
+     */
+    private static int renumber(int[] comm) {
+        int[] mapping = new int[comm.length];
+        Arrays.fill(mapping, -1);
+        int count = 0;
+        for (int v = 0; v < comm.length; v++) {
+            if (mapping[comm[v]] < 0) {
+                mapping[comm[v]] = count++;
+            }
+            comm[v] = mapping[comm[v]];
+        }
+        return count;
+    }
+
+    /**
+     * Relabel communities so that 0 is the largest; ties keep first-appearance order
+     */
+    private static int[] orderBySize(int[] membership) {
+        int count = renumber(membership);
+        int[] sizes = new int[count];
+        for (int c : membership) {
+            sizes[c]++;
+        }
+        Integer[] order = new Integer[count];
+        for (int c = 0; c < count; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> sizes[a] != sizes[b] ? Integer.compare(sizes[b], sizes[a]) : Integer.compare(a, b));
+        int[] rank = new int[count];
+        for (int r = 0; r < count; r++) {
+            rank[order[r]] = r;
+        }
+        for (int v = 0; v < membership.length; v++) {
+            membership[v] = rank[membership[v]];
+        }
+        return membership;
+    }
+
+    /**
+     * One Louvain level: CSR adjacency plus self-loop weight per node
+     */
+    private static final class Level {
+        private final int size;
+        private final int[] offsets;
+        private final int[] neighbors;
+        private final double[] weights;
+        private final double[] self;
+
+        private Level(int size, int[] offsets, int[] neighbors, double[] weights, double[] self) {
+            this.size = size;
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.weights = weights;
+            this.self = self;
+        }
+    }
+
+    /**
+     * Brandes accumulation for a range of sources; also fills closeness for those sources
+     */
+    private static final class ShortestPathTask extends RecursiveTask<double[]> {
+        private final InteractionGraph graph;
+        private final int start;
+        private final int end;
+        private final int leafSize;
+        private final double[] closeness;
+
+        private ShortestPathTask(InteractionGraph graph, int start, int end, int leafSize, double[] closeness) {
+            this.graph = graph;
+            this.start = start;
+            this.end = end;
+            this.leafSize = leafSize;
+            this.closeness = closeness;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (end - start <= leafSize) {
+                return runSources();
+            }
+            int mid = (start + end) >>> 1;
+            ShortestPathTask left = new ShortestPathTask(graph, start, mid, leafSize, closeness);
+            left.fork();
+            double[] result = new ShortestPathTask(graph, mid, end, leafSize, closeness).compute();
+            double[] other = left.join();
+            for (int v = 0; v < result.length; v++) {
+                result[v] += other[v];
+            }
+            return result;
+        }
+
+        private double[] runSources() {
+            int n = graph.nodeCount();
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+
+            double[] betweenness = new double[n];
+            double[] sigma = new double[n];
+            double[] delta = new double[n];
+            int[] dist = new int[n];
+            int[] order = new int[n];
+            Arrays.fill(dist, -1);
+
+            for (int s = start; s < end; s++) {
+                dist[s] = 0;
+                sigma[s] = 1;
+                order[0] = s;
+                int head = 0;
+                int tail = 1;
+                long distanceSum = 0;
+
+                while (head < tail) {
+                    int v = order[head++];
+                    for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                        int w = neighbors[i];
+                        if (dist[w] < 0) {
+                            dist[w] = dist[v] + 1;
+                            distanceSum += dist[w];
+                            order[tail++] = w;
+                        }
+                        if (dist[w] == dist[v] + 1) {
+                            sigma[w] += sigma[v];
+                        }
+                    }
+                }
+
+                int reached = tail - 1;
+                closeness[s] = reached > 0
+                    ? ((double) reached / (n - 1)) * ((double) reached / distanceSum)
+                    : 0.0;
+
+                // Dependencies in reverse BFS order; predecessors are neighbors one hop closer to s
+                for (int k = tail - 1; k > 0; k--) {
+                    int w = order[k];
+                    double coefficient = (1 + delta[w]) / sigma[w];
+                    for (int i = offsets[w]; i < offsets[w + 1]; i++) {
+                        int v = neighbors[i];
+                        if (dist[v] == dist[w] - 1) {
+                            delta[v] += sigma[v] * coefficient;
+                        }
+                    }
+                    betweenness[w] += delta[w];
+                }
+
+                for (int k = 0; k < tail; k++) {
+                    int v = order[k];
+                    dist[v] = -1;
+                    sigma[v] = 0;
+                    delta[v] = 0;
+                }
+            }
+            return betweenness;
+        }
+    }
+
+    /**
+     * Local clustering coefficient for a range of nodes
+     */
+    private static final class ClusteringTask extends RecursiveAction {
+        private final InteractionGraph graph;
+        private final int start;
+        private final int end;
+        private final int leafSize;
+        private final double[] clustering;
+
+        private ClusteringTask(InteractionGraph graph, int start, int end, int leafSize, double[] clustering) {
+            this.graph = graph;
+            this.start = start;
+            this.end = end;
+            this.leafSize = leafSize;
+            this.clustering = clustering;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > leafSize) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new ClusteringTask(graph, start, mid, leafSize, clustering),
+                    new ClusteringTask(graph, mid, end, leafSize, clustering));
+                return;
+            }
+
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            int[] mark = new int[graph.nodeCount()];
+            Arrays.fill(mark, -1);
+
+            for (int v = start; v < end; v++) {
+                int degree = offsets[v + 1] - offsets[v];
+                if (degree < 2) {
+                    clustering[v] = 0.0;
+                    continue;
+                }
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    mark[neighbors[i]] = v;
+                }
+                // Every link between two neighbors is seen from both of its ends
+                long links = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = neighbors[i];
+                    for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                        if (mark[neighbors[j]] == v) {
+                            links++;
+                        }
+                    }
+                }
+                clustering[v] = (double) links / ((long) degree * (degree - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.eduforum.api.domain.analytics.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Per-node results of a network analysis run, indexed like the InteractionGraph nodes
+ */
+@Getter
+@Builder
+public class GraphMetrics {
+
+    /**
+     * Neighbor count / (n - 1)
+     */
+    private final double[] degreeCentrality;
+
+    /**
+     * Normalized shortest-path betweenness (Brandes, hop distance)
+     */
+    private final double[] betweennessCentrality;
+
+    /**
+     * Wasserman-Faust closeness, so nodes in small components are not over-rated
+     */
+    private final double[] closenessCentrality;
+
+    /**
+     * Local clustering coefficient
+     */
+    private final double[] clusteringCoefficient;
+
+    /**
+     * Community index per node, 0..communityCount-1, largest community first
+     */
+    private final int[] community;
+
+    private final int communityCount;
+
+    /**
+     * Weighted modularity of the community assignment
+     */
+    private final double modularity;
+}
@@ -0,0 +1,153 @@
+package com.eduforum.api.domain.analytics.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Undirected weighted interaction graph in compressed sparse row (CSR) form.
+ * Students are mapped to dense indices in ascending student ID order; edge rows in both
+ * directions between the same pair are merged into one undirected edge and self-loops dropped.
+ * Neighbors of node {@code v} are {@code neighbors[offsets[v] .. offsets[v + 1])}.
+ */
+public final class InteractionGraph {
+
+    private final long[] studentIds;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final double[] weights;
+
+    private InteractionGraph(long[] studentIds, int[] offsets, int[] neighbors, double[] weights) {
+        this.studentIds = studentIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int nodeCount() {
+        return studentIds.length;
+    }
+
+    /**
+     * Number of undirected edges
+     */
+    public int edgeCount() {
+        return neighbors.length / 2;
+    }
+
+    public long studentId(int node) {
+        return studentIds[node];
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] neighbors() {
+        return neighbors;
+    }
+
+    public double[] weights() {
+        return weights;
+    }
+
+    /**
+     * Sum of the weights of the edges incident to a node
+     */
+    public double strength(int node) {
+        double sum = 0;
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            sum += weights[i];
+        }
+        return sum;
+    }
+
+    public static final class Builder {
+        // Students get provisional indices in arrival order; build() renumbers them by student ID
+        private final Map<Long, Integer> provisional = new HashMap<>();
+        private final Map<Long, Double> pairWeights = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a student, even if it has no edges
+         */
+        public Builder addNode(long studentId) {
+            indexOf(studentId);
+            return this;
+        }
+
+        /**
+         * Add an interaction edge; weights of repeated or reversed edges are summed
+         */
+        public Builder addEdge(long fromStudentId, long toStudentId, double weight) {
+            int a = indexOf(fromStudentId);
+            int b = indexOf(toStudentId);
+            if (a == b || weight <= 0) {
+                return this;
+            }
+            long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+            pairWeights.merge(key, weight, Double::sum);
+            return this;
+        }
+
+        public InteractionGraph build() {
+            int n = provisional.size();
+            long[] ids = new long[n];
+            for (Map.Entry<Long, Integer> entry : provisional.entrySet()) {
+                ids[entry.getValue()] = entry.getKey();
+            }
+            long[] sortedIds = ids.clone();
+            Arrays.sort(sortedIds);
+            int[] remap = new int[n];
+            for (int p = 0; p < n; p++) {
+                remap[p] = Arrays.binarySearch(sortedIds, ids[p]);
+            }
+
+            int edgeCount = pairWeights.size();
+            int[] from = new int[edgeCount];
+            int[] to = new int[edgeCount];
+            double[] weight = new double[edgeCount];
+            int[] degree = new int[n];
+            int e = 0;
+            for (Map.Entry<Long, Double> entry : pairWeights.entrySet()) {
+                from[e] = remap[(int) (entry.getKey() >>> 32)];
+                to[e] = remap[(int) (entry.getKey() & 0xFFFFFFFFL)];
+                weight[e] = entry.getValue();
+                degree[from[e]]++;
+                degree[to[e]]++;
+                e++;
+            }
+
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] = offsets[v] + degree[v];
+            }
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] neighbors = new int[offsets[n]];
+            double[] weights = new double[offsets[n]];
+            for (int k = 0; k < edgeCount; k++) {
+                int a = from[k];
+                int b = to[k];
+                neighbors[cursor[a]] = b;
+                weights[cursor[a]++] = weight[k];
+                neighbors[cursor[b]] = a;
+                weights[cursor[b]++] = weight[k];
+            }
+            return new InteractionGraph(sortedIds, offsets, neighbors, weights);
+        }
+
+        private int indexOf(long studentId) {
+            return provisional.computeIfAbsent(studentId, id -> provisional.size());
+        }
+    }
+}
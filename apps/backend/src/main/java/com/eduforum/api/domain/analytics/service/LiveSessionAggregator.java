@@ -0,0 +1,271 @@
+package com.eduforum.api.domain.analytics.service;
+
+import com.eduforum.api.domain.analytics.dto.realtime.LiveStatsDeltaResponse;
+import com.eduforum.api.domain.analytics.dto.realtime.LiveStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory per-session activity counters for live seminars.
+ * Seminar and active-learning services record events as they happen, and the
+ * analytics broadcaster drains per-session deltas without touching the database.
+ * Only {@link #registerSession} creates counters; events for sessions that are not
+ * (or no longer) tracked are ignored.
+ */
+@Slf4j
+@Component
+public class LiveSessionAggregator {
+
+    private final Map<Long, SessionCounters> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> liveSessionsByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Register a live session so course-scoped events (polls, quizzes) can be attributed to it
+     */
+    public void registerSession(Long sessionId, Long courseId, int currentParticipants) {
+        SessionCounters counters = sessions.computeIfAbsent(sessionId, SessionCounters::new);
+        if (counters.courseId == null && courseId != null) {
+            counters.courseId = courseId;
+            liveSessionsByCourse.computeIfAbsent(courseId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        }
+        counters.currentParticipants.set(currentParticipants);
+        counters.updatePeak(currentParticipants);
+        counters.dirty.set(true);
+        log.debug("Registered live session {} (course {})", sessionId, courseId);
+    }
+
+    /**
+     * Stop tracking a session once its room has ended
+     */
+    public void endSession(Long sessionId) {
+        SessionCounters counters = sessions.remove(sessionId);
+        if (counters != null && counters.courseId != null) {
+            liveSessionsByCourse.computeIfPresent(counters.courseId, (id, ids) -> {
+                ids.remove(sessionId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public boolean isTracked(Long sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    public void recordChatMessage(Long sessionId) {
+        SessionCounters counters = sessions.get(sessionId);
+        if (counters != null) {
+            counters.chatMessages.incrementAndGet();
+            counters.dirty.set(true);
+        }
+    }
+
+    public void recordReaction(Long sessionId) {
+        SessionCounters counters = sessions.get(sessionId);
+        if (counters != null) {
+            counters.reactions.incrementAndGet();
+            counters.dirty.set(true);
+        }
+    }
+
+    public void recordParticipantJoined(Long sessionId) {
+        SessionCounters counters = sessions.get(sessionId);
+        if (counters != null) {
+            counters.joins.incrementAndGet();
+            counters.updatePeak(counters.currentParticipants.incrementAndGet());
+            counters.dirty.set(true);
+        }
+    }
+
+    public void recordParticipantLeft(Long sessionId) {
+        SessionCounters counters = sessions.get(sessionId);
+        if (counters != null) {
+            counters.leaves.incrementAndGet();
+            counters.currentParticipants.updateAndGet(n -> Math.max(0, n - 1));
+            counters.dirty.set(true);
+        }
+    }
+
+    /**
+     * Polls are course-scoped; the response is attributed to every live session of the course
+     */
+    public void recordPollResponse(Long courseId) {
+        for (Long sessionId : liveSessionsOf(courseId)) {
+            SessionCounters counters = sessions.get(sessionId);
+            if (counters != null) {
+                counters.pollResponses.incrementAndGet();
+                counters.dirty.set(true);
+            }
+        }
+    }
+
+    /**
+     * Quizzes are course-scoped; the attempt is attributed to every live session of the course
+     */
+    public void recordQuizAttempt(Long courseId) {
+        for (Long sessionId : liveSessionsOf(courseId)) {
+            SessionCounters counters = sessions.get(sessionId);
+            if (counters != null) {
+                counters.quizAttempts.incrementAndGet();
+                counters.dirty.set(true);
+            }
+        }
+    }
+
+    /**
+     * Current cumulative stats for a tracked session, empty if the session is not live
+     */
+    public Optional<LiveStatsResponse> getLiveStats(Long sessionId) {
+        SessionCounters counters = sessions.get(sessionId);
+        if (counters == null) {
+            return Optional.empty();
+        }
+
+        int current = counters.currentParticipants.get();
+        int totalInteractions = counters.totalInteractions();
+        long minutes = Duration.between(counters.startedAt, OffsetDateTime.now()).toMinutes();
+
+        return Optional.of(LiveStatsResponse.builder()
+            .targetId(sessionId)
+            .currentParticipants(current)
+            .peakParticipants(counters.peakParticipants.get())
+            .avgEngagementRate(0.0)
+            .totalInteractions(totalInteractions)
+            .interactionsPerMinute(minutes > 0 ? (double) totalInteractions / minutes : 0.0)
+            .activeStudents(current)
+            .participationRate(counters.peakParticipants.get() > 0
+                ? (double) current / counters.peakParticipants.get() * 100 : 0.0)
+            .lastUpdated(OffsetDateTime.now())
+            .activityBreakdown(counters.breakdown())
+            .build());
+    }
+
+    /**
+     * Collect deltas for every session that changed since the previous drain.
+     * Intended for a single scheduled caller.
+     */
+    public synchronized List<LiveStatsDeltaResponse> drainDeltas() {
+        List<LiveStatsDeltaResponse> deltas = new ArrayList<>();
+        OffsetDateTime now = OffsetDateTime.now();
+
+        for (SessionCounters counters : sessions.values()) {
+            if (!counters.dirty.getAndSet(false)) {
+                continue;
+            }
+            deltas.add(counters.delta(now));
+        }
+        return deltas;
+    }
+
+    private Set<Long> liveSessionsOf(Long courseId) {
+        if (courseId == null) {
+            return Set.of();
+        }
+        return liveSessionsByCourse.getOrDefault(courseId, Set.of());
+    }
+
+    /**
+     * Counters for a single session. Writers only touch the atomics; the
+     * "last*" fields are owned by the drain caller.
+     */
+    private static final class SessionCounters {
+        private final Long sessionId;
+        private final OffsetDateTime startedAt = OffsetDateTime.now();
+        private volatile Long courseId;
+
+        private final AtomicInteger chatMessages = new AtomicInteger();
+        private final AtomicInteger pollResponses = new AtomicInteger();
+        private final AtomicInteger quizAttempts = new AtomicInteger();
+        private final AtomicInteger reactions = new AtomicInteger();
+        private final AtomicInteger joins = new AtomicInteger();
+        private final AtomicInteger leaves = new AtomicInteger();
+        private final AtomicInteger currentParticipants = new AtomicInteger();
+        private final AtomicInteger peakParticipants = new AtomicInteger();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private int lastChatMessages;
+        private int lastPollResponses;
+        private int lastQuizAttempts;
+        private int lastReactions;
+        private int lastJoins;
+        private int lastLeaves;
+        private OffsetDateTime lastDrainedAt;
+
+        private SessionCounters(Long sessionId) {
+            this.sessionId = sessionId;
+            this.lastDrainedAt = startedAt;
+        }
+
+        private void updatePeak(int current) {
+            peakParticipants.accumulateAndGet(current, Math::max);
+        }
+
+        private int totalInteractions() {
+            return chatMessages.get() + pollResponses.get() + quizAttempts.get() + reactions.get();
+        }
+
+        private Map<String, Integer> breakdown() {
+            Map<String, Integer> breakdown = new HashMap<>();
+            breakdown.put("chat", chatMessages.get());
+            breakdown.put("polls", pollResponses.get());
+            breakdown.put("quizzes", quizAttempts.get());
+            breakdown.put("reactions", reactions.get());
+            breakdown.put("joins", joins.get());
+            breakdown.put("leaves", leaves.get());
+            return breakdown;
+        }
+
+        private LiveStatsDeltaResponse delta(OffsetDateTime now) {
+            int chat = chatMessages.get();
+            int polls = pollResponses.get();
+            int quizzes = quizAttempts.get();
+            int reacts = reactions.get();
+            int joined = joins.get();
+            int left = leaves.get();
+
+            Map<String, Integer> activityDelta = new HashMap<>();
+            activityDelta.put("chat", chat - lastChatMessages);
+            activityDelta.put("polls", polls - lastPollResponses);
+            activityDelta.put("quizzes", quizzes - lastQuizAttempts);
+            activityDelta.put("reactions", reacts - lastReactions);
+            activityDelta.put("joins", joined - lastJoins);
+            activityDelta.put("leaves", left - lastLeaves);
+
+            int newInteractions = (chat - lastChatMessages) + (polls - lastPollResponses)
+                + (quizzes - lastQuizAttempts) + (reacts - lastReactions);
+            double seconds = Math.max(1, Duration.between(lastDrainedAt, now).toSeconds());
+
+            LiveStatsDeltaResponse delta = LiveStatsDeltaResponse.builder()
+                .sessionId(sessionId)
+                .currentParticipants(currentParticipants.get())
+                .peakParticipants(peakParticipants.get())
+                .totalInteractions(chat + polls + quizzes + reacts)
+                .newInteractions(newInteractions)
+                .interactionsPerMinute(newInteractions * 60.0 / seconds)
+                .activityDelta(activityDelta)
+                .since(lastDrainedAt)
+                .lastUpdated(now)
+                .build();
+
+            lastChatMessages = chat;
+            lastPollResponses = polls;
+            lastQuizAttempts = quizzes;
+            lastReactions = reacts;
+            lastJoins = joined;
+            lastLeaves = left;
+            lastDrainedAt = now;
+            return delta;
+        }
+    }
+}
@@ -3,11 +3,16 @@ package com.eduforum.api.domain.analytics.service;
 import com.eduforum.api.domain.analytics.dto.network.*;
 import com.eduforum.api.domain.analytics.entity.*;
 import com.eduforum.api.domain.analytics.repository.*;
+import com.eduforum.api.common.util.JsonUtil;
+import com.eduforum.api.domain.analytics.config.AnalyticsProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import java.time.OffsetDateTime;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.PreparedStatement;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -15,28 +20,129 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class NetworkAnalysisService {
-    private final InteractionLogRepository logRepository;
     private final NetworkNodeRepository nodeRepository;
     private final NetworkEdgeRepository edgeRepository;
     private final StudentClusterRepository clusterRepository;
-    private final Random random = new Random();
+    private final GraphAnalyzer graphAnalyzer;
+    private final AnalyticsProperties analyticsProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
+    private static final String SELECT_NODE_STUDENTS_SQL =
+        "SELECT student_id FROM analytics.network_nodes WHERE course_id = ? AND deleted_at IS NULL";
+    private static final String SELECT_EDGES_SQL =
+        "SELECT from_student_id, to_student_id, total_weight FROM analytics.network_edges " +
+        "WHERE course_id = ? AND deleted_at IS NULL";
+    private static final String DELETE_CLUSTERS_SQL =
+        "DELETE FROM analytics.student_clusters WHERE course_id = ?";
+    private static final String NEXT_CLUSTER_IDS_SQL =
+        "SELECT nextval('analytics.student_clusters_id_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_CLUSTER_SQL =
+        "INSERT INTO analytics.student_clusters (id, course_id, cluster_name, cluster_number, member_count, " +
+        "avg_interaction_score, density, description, member_ids, cluster_stats) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb)";
+    private static final String UPSERT_NODE_SQL =
+        "INSERT INTO analytics.network_nodes (course_id, student_id, degree_centrality, betweenness_centrality, " +
+        "closeness_centrality, clustering_coefficient, total_connections, cluster_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (course_id, student_id) DO UPDATE SET " +
+        "degree_centrality = EXCLUDED.degree_centrality, " +
+        "betweenness_centrality = EXCLUDED.betweenness_centrality, " +
+        "closeness_centrality = EXCLUDED.closeness_centrality, " +
+        "clustering_coefficient = EXCLUDED.clustering_coefficient, " +
+        "total_connections = EXCLUDED.total_connections, " +
+        "cluster_id = EXCLUDED.cluster_id, " +
+        "updated_at = CURRENT_TIMESTAMP";
+    private static final String INSERT_INTERACTION_LOG_SQL =
+        "INSERT INTO analytics.interaction_logs (course_id, session_id, from_student_id, to_student_id, " +
+        "interaction_type, interaction_time, weight, context, metadata) " +
+        "VALUES (?, ?, ?, ?, ?::analytics.interaction_type, CURRENT_TIMESTAMP, ?, ?, ?::jsonb)";
+    /**
+     * Adds per-edge deltas and bumps total_connections of both students when a pair of students
+     * gets its first edge in either direction, matching the undirected degree analyzeNetwork stores.
+     * The reverse-edge check reads the snapshot taken before this statement, so a pair that first
+     * appears in both directions within one batch is only counted from its lower student ID.
+     * Two transactions opening the same pair from opposite sides at once can over-count by one
+     * until the next analysis run rewrites the counters.
+     */
+    private static final String APPLY_EDGE_DELTAS_SQL =
+        "WITH input AS (" +
+        "  SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::integer[], ?::integer[]) " +
+        "    AS t(course_id, from_id, to_id, cnt, weight)" +
+        "), upserted AS (" +
+        "  INSERT INTO analytics.network_edges AS e (course_id, from_student_id, to_student_id, " +
+        "    interaction_count, total_weight, last_interaction_at) " +
+        "  SELECT course_id, from_id, to_id, cnt, weight, CURRENT_TIMESTAMP FROM input " +
+        "  ON CONFLICT (course_id, from_student_id, to_student_id) DO UPDATE SET " +
+        "    interaction_count = COALESCE(e.interaction_count, 0) + EXCLUDED.interaction_count, " +
+        "    total_weight = COALESCE(e.total_weight, 0) + EXCLUDED.total_weight, " +
+        "    last_interaction_at = EXCLUDED.last_interaction_at, " +
+        "    updated_at = CURRENT_TIMESTAMP " +
+        "  RETURNING e.course_id, e.from_student_id, e.to_student_id, (e.xmax = 0) AS inserted" +
+        "), new_pairs AS (" +
+        "  SELECT u.course_id, u.from_student_id, u.to_student_id FROM upserted u " +
+        "  WHERE u.inserted AND u.from_student_id <> u.to_student_id " +
+        "  AND NOT EXISTS (SELECT 1 FROM analytics.network_edges r WHERE r.course_id = u.course_id " +
+        "    AND r.from_student_id = u.to_student_id AND r.to_student_id = u.from_student_id) " +
+        "  AND (u.from_student_id < u.to_student_id OR NOT EXISTS (SELECT 1 FROM input i " +
+        "    WHERE i.course_id = u.course_id AND i.from_id = u.to_student_id AND i.to_id = u.from_student_id))" +
+        "), node_deltas AS (" +
+        "  SELECT course_id, student_id, SUM(added) AS added FROM (" +
+        "    SELECT course_id, from_student_id AS student_id, 0 AS added FROM upserted " +
+        "    UNION ALL SELECT course_id, to_student_id, 0 FROM upserted " +
+        "    UNION ALL SELECT course_id, from_student_id, 1 FROM new_pairs " +
+        "    UNION ALL SELECT course_id, to_student_id, 1 FROM new_pairs" +
+        "  ) d GROUP BY course_id, student_id" +
+        ") " +
+        "INSERT INTO analytics.network_nodes AS n (course_id, student_id, total_connections) " +
+        "SELECT course_id, student_id, added FROM node_deltas ORDER BY course_id, student_id " +
+        "ON CONFLICT (course_id, student_id) DO UPDATE SET " +
+        "  total_connections = COALESCE(n.total_connections, 0) + EXCLUDED.total_connections, " +
+        "  updated_at = CURRENT_TIMESTAMP " +
+        "WHERE EXCLUDED.total_connections > 0";
+
+    /**
+     * Record one interaction and fold it into the stored edge weights and degree counters
+     */
     @Transactional
     public void logInteraction(InteractionLogRequest request) {
-        InteractionLog log = InteractionLog.builder()
-            .courseId(request.getCourseId())
-            .sessionId(request.getSessionId())
-            .fromStudentId(request.getFromStudentId())
-            .toStudentId(request.getToStudentId())
-            .interactionType(request.getInteractionType())
-            .interactionTime(OffsetDateTime.now())
-            .weight(request.getWeight())
-            .context(request.getContext())
-            .metadata(request.getMetadata() != null ? request.getMetadata() : Map.of())
-            .build();
-        
-        logRepository.save(log);
-        updateNetworkGraph(request.getCourseId(), request.getFromStudentId(), request.getToStudentId(), request.getWeight());
+        logInteractions(List.of(request));
+    }
+
+    /**
+     * Record a batch of interactions. Logs are written with one JDBC batch, and edge weights
+     * and node degrees are updated incrementally by a single set-based upsert, so the cost
+     * no longer depends on how many connections the students already have.
+     */
+    @Transactional
+    public int logInteractions(List<InteractionLogRequest> requests) {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> logRows = new ArrayList<>(requests.size());
+        Map<List<Long>, EdgeDelta> deltas = new HashMap<>();
+        for (InteractionLogRequest request : requests) {
+            int weight = request.getWeight() != null ? request.getWeight() : 1;
+            logRows.add(new Object[]{
+                request.getCourseId(),
+                request.getSessionId(),
+                request.getFromStudentId(),
+                request.getToStudentId(),
+                request.getInteractionType().name(),
+                weight,
+                request.getContext(),
+                JsonUtil.toJson(request.getMetadata() != null ? request.getMetadata() : Map.of())
+            });
+            deltas.computeIfAbsent(
+                    List.of(request.getCourseId(), request.getFromStudentId(), request.getToStudentId()),
+                    key -> new EdgeDelta(key.get(0), key.get(1), key.get(2)))
+                .add(weight);
+        }
+
+        batchUpdate(INSERT_INTERACTION_LOG_SQL, logRows, analyticsProperties.getNetwork().getWriteBatchSize());
+        applyEdgeDeltas(new ArrayList<>(deltas.values()));
+        return requests.size();
     }
 
     @Transactional(readOnly = true)
@@ -63,26 +169,27 @@ public class NetworkAnalysisService {
             .build();
     }
 
-    @Transactional
+    /**
+     * Build the course interaction graph, compute centralities and communities, and
+     * replace the stored node metrics and clusters in one transaction. The computation
+     * itself runs outside any transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void analyzeNetwork(Long courseId) {
         log.info("Analyzing network for course: {}", courseId);
-        
-        List<NetworkNode> nodes = nodeRepository.findByCourseId(courseId);
-        List<NetworkEdge> edges = edgeRepository.findByCourseId(courseId);
-        
-        // Simulate centrality calculations
-        for (NetworkNode node : nodes) {
-            node.updateCentralities(
-                random.nextDouble(),
-                random.nextDouble() * 0.5,
-                random.nextDouble() * 0.8
-            );
-            node.setClusteringCoefficient(random.nextDouble());
-            nodeRepository.save(node);
-        }
-        
-        // Simulate clustering
-        performClustering(courseId, nodes);
+        long startedAt = System.nanoTime();
+
+        InteractionGraph graph = loadGraph(courseId);
+        GraphMetrics metrics = graphAnalyzer.analyze(graph);
+        long computedAt = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> writeResults(courseId, graph, metrics));
+
+        log.info("Network analysis for course {} done: {} nodes, {} edges, {} communities (modularity {}), " +
+                "compute {} ms, write {} ms",
+            courseId, graph.nodeCount(), graph.edgeCount(), metrics.getCommunityCount(),
+            String.format("%.4f", metrics.getModularity()),
+            (computedAt - startedAt) / 1_000_000, (System.nanoTime() - computedAt) / 1_000_000);
     }
 
     @Transactional(readOnly = true)
@@ -115,58 +222,156 @@ public class NetworkAnalysisService {
             .build();
     }
 
-    private void updateNetworkGraph(Long courseId, Long fromId, Long toId, Integer weight) {
-        NetworkEdge edge = edgeRepository.findByCourseIdAndFromStudentIdAndToStudentId(courseId, fromId, toId)
-            .orElse(NetworkEdge.builder()
-                .courseId(courseId)
-                .fromStudentId(fromId)
-                .toStudentId(toId)
-                .interactionCount(0)
-                .totalWeight(0)
-                .edgeAttributes(new HashMap<>())
-                .build());
-        
-        edge.incrementInteraction(weight);
-        edgeRepository.save(edge);
-        
-        updateNodeConnections(courseId, fromId);
-        updateNodeConnections(courseId, toId);
+    private void applyEdgeDeltas(List<EdgeDelta> deltas) {
+        // A stable row order keeps concurrent batches from locking the same rows in opposite order
+        deltas.sort(Comparator.comparing((EdgeDelta d) -> d.courseId)
+            .thenComparing(d -> d.fromId)
+            .thenComparing(d -> d.toId));
+        int size = deltas.size();
+        Long[] courseIds = new Long[size];
+        Long[] fromIds = new Long[size];
+        Long[] toIds = new Long[size];
+        Integer[] counts = new Integer[size];
+        Integer[] weights = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            EdgeDelta delta = deltas.get(i);
+            courseIds[i] = delta.courseId;
+            fromIds[i] = delta.fromId;
+            toIds[i] = delta.toId;
+            counts[i] = delta.count;
+            weights[i] = delta.weight;
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_EDGE_DELTAS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", courseIds));
+            ps.setArray(2, con.createArrayOf("bigint", fromIds));
+            ps.setArray(3, con.createArrayOf("bigint", toIds));
+            ps.setArray(4, con.createArrayOf("integer", counts));
+            ps.setArray(5, con.createArrayOf("integer", weights));
+            return ps;
+        });
     }
 
-    private void updateNodeConnections(Long courseId, Long studentId) {
-        NetworkNode node = nodeRepository.findByCourseIdAndStudentId(courseId, studentId)
-            .orElse(NetworkNode.builder()
-                .courseId(courseId)
-                .studentId(studentId)
-                .totalConnections(0)
-                .nodeAttributes(new HashMap<>())
-                .build());
-        
-        int connections = edgeRepository.findByStudentId(courseId, studentId).size();
-        node.setTotalConnections(connections);
-        nodeRepository.save(node);
+    private InteractionGraph loadGraph(Long courseId) {
+        InteractionGraph.Builder builder = InteractionGraph.builder();
+        jdbcTemplate.query(SELECT_NODE_STUDENTS_SQL, rs -> {
+            builder.addNode(rs.getLong(1));
+        }, courseId);
+        jdbcTemplate.query(SELECT_EDGES_SQL, rs -> {
+            builder.addEdge(rs.getLong(1), rs.getLong(2), Math.max(1, rs.getInt(3)));
+        }, courseId);
+        return builder.build();
     }
 
-    private void performClustering(Long courseId, List<NetworkNode> nodes) {
-        int numClusters = Math.max(1, nodes.size() / 10);
-        
-        for (int i = 0; i < numClusters; i++) {
-            StudentCluster cluster = StudentCluster.builder()
-                .courseId(courseId)
-                .clusterName("Cluster " + (i + 1))
-                .clusterNumber(i + 1)
-                .memberCount(0)
-                .avgInteractionScore(random.nextDouble() * 100)
-                .density(random.nextDouble())
-                .description("Auto-generated cluster")
-                .memberIds(new ArrayList<>())
-                .clusterStats(Map.of("size", 0))
-                .build();
-            
-            clusterRepository.save(cluster);
+    private void writeResults(Long courseId, InteractionGraph graph, GraphMetrics metrics) {
+        int n = graph.nodeCount();
+        int[] community = metrics.getCommunity();
+        int batchSize = analyticsProperties.getNetwork().getWriteBatchSize();
+
+        // Communities of one student are not clusters; those students keep cluster_id NULL
+        int[] sizes = new int[metrics.getCommunityCount()];
+        for (int v = 0; v < n; v++) {
+            sizes[community[v]]++;
+        }
+        int clusterCount = 0;
+        while (clusterCount < sizes.length && sizes[clusterCount] > 1) {
+            clusterCount++;
+        }
+
+        jdbcTemplate.update(DELETE_CLUSTERS_SQL, courseId);
+
+        Long[] clusterIds = new Long[clusterCount];
+        if (clusterCount > 0) {
+            List<Long> ids = jdbcTemplate.queryForList(NEXT_CLUSTER_IDS_SQL, Long.class, clusterCount);
+            List<Object[]> clusterRows = new ArrayList<>(clusterCount);
+            List<ClusterSummary> summaries = summarizeClusters(graph, community, clusterCount);
+            for (int c = 0; c < clusterCount; c++) {
+                clusterIds[c] = ids.get(c);
+                clusterRows.add(toClusterRow(courseId, clusterIds[c], c, summaries.get(c)));
+            }
+            batchUpdate(INSERT_CLUSTER_SQL, clusterRows, batchSize);
+        }
+
+        List<Object[]> nodeRows = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            nodeRows.add(new Object[]{
+                courseId,
+                graph.studentId(v),
+                round8(metrics.getDegreeCentrality()[v]),
+                round8(metrics.getBetweennessCentrality()[v]),
+                round8(metrics.getClosenessCentrality()[v]),
+                round8(metrics.getClusteringCoefficient()[v]),
+                graph.degree(v),
+                community[v] < clusterCount ? clusterIds[community[v]] : null
+            });
+        }
+        batchUpdate(UPSERT_NODE_SQL, nodeRows, batchSize);
+    }
+
+    private List<ClusterSummary> summarizeClusters(InteractionGraph graph, int[] community, int clusterCount) {
+        List<ClusterSummary> summaries = new ArrayList<>(clusterCount);
+        for (int c = 0; c < clusterCount; c++) {
+            summaries.add(new ClusterSummary());
+        }
+
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        double[] weights = graph.weights();
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (community[v] >= clusterCount) {
+                continue;
+            }
+            ClusterSummary summary = summaries.get(community[v]);
+            summary.memberIds.add(graph.studentId(v));
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (community[neighbors[i]] == community[v]) {
+                    // Internal edges are seen from both ends
+                    summary.internalEdges += 0.5;
+                    summary.internalWeight += weights[i] / 2;
+                } else {
+                    summary.externalWeight += weights[i];
+                }
+            }
+        }
+        return summaries;
+    }
+
+    private Object[] toClusterRow(Long courseId, Long clusterId, int index, ClusterSummary summary) {
+        int size = summary.memberIds.size();
+        double density = size > 1 ? summary.internalEdges / (size * (size - 1) / 2.0) : 0.0;
+        double avgInteractionScore = (2 * summary.internalWeight + summary.externalWeight) / size;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("internalEdges", (long) summary.internalEdges);
+        stats.put("internalWeight", summary.internalWeight);
+        stats.put("externalWeight", summary.externalWeight);
+
+        return new Object[]{
+            clusterId,
+            courseId,
+            "Cluster " + (index + 1),
+            index + 1,
+            size,
+            Math.round(avgInteractionScore * 100) / 100.0,
+            round8(density),
+            "Interaction community of " + size + " students",
+            JsonUtil.toJson(summary.memberIds),
+            JsonUtil.toJson(stats)
+        };
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows, int batchSize) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
         }
     }
 
+    private double round8(double value) {
+        return Math.round(value * 1e8) / 1e8;
+    }
+
     private double calculateDensity(int nodes, int edges) {
         if (nodes <= 1) return 0.0;
         int maxEdges = nodes * (nodes - 1) / 2;
@@ -235,4 +440,30 @@ public class NetworkAnalysisService {
             .strength(edge.isStrong() ? "STRONG" : edge.isWeak() ? "WEAK" : "MEDIUM")
             .build();
     }
+
+    private static final class EdgeDelta {
+        private final Long courseId;
+        private final Long fromId;
+        private final Long toId;
+        private int count;
+        private int weight;
+
+        private EdgeDelta(Long courseId, Long fromId, Long toId) {
+            this.courseId = courseId;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        private void add(int weight) {
+            this.count++;
+            this.weight += weight;
+        }
+    }
+
+    private static final class ClusterSummary {
+        private final List<Long> memberIds = new ArrayList<>();
+        private double internalEdges;
+        private double internalWeight;
+        private double externalWeight;
+    }
 }
@@ -7,18 +7,21 @@ import com.eduforum.api.domain.analytics.dto.realtime.SnapshotRequest;
 import com.eduforum.api.domain.analytics.dto.realtime.SnapshotResponse;
 import com.eduforum.api.domain.analytics.dto.realtime.TrendResponse;
 import com.eduforum.api.domain.analytics.entity.AnalyticsSnapshot;
+import com.eduforum.api.domain.analytics.entity.RollupResolution;
+import com.eduforum.api.domain.analytics.entity.SnapshotRollup;
 import com.eduforum.api.domain.analytics.repository.AnalyticsSnapshotRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -26,11 +29,19 @@ import java.util.stream.Collectors;
 public class RealTimeAnalyticsService {
 
     private final AnalyticsSnapshotRepository snapshotRepository;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final SnapshotRollupService rollupService;
 
     @Transactional(readOnly = true)
     public LiveStatsResponse getLiveSessionStats(Long sessionId) {
         log.info("Getting live stats for session: {}", sessionId);
 
+        // Live sessions are served from in-memory counters
+        Optional<LiveStatsResponse> live = liveSessionAggregator.getLiveStats(sessionId);
+        if (live.isPresent()) {
+            return live.get();
+        }
+
         List<AnalyticsSnapshot> snapshots = snapshotRepository.findBySessionIdOrderBySnapshotTimeDesc(sessionId);
 
         if (snapshots.isEmpty()) {
@@ -77,18 +88,17 @@ public class RealTimeAnalyticsService {
     public LiveStatsResponse getLiveCourseStats(Long courseId) {
         log.info("Getting live stats for course: {}", courseId);
 
-        List<AnalyticsSnapshot> recentSnapshots = snapshotRepository.findByCourseIdAndTimeRange(
-            courseId,
-            OffsetDateTime.now().minusHours(24),
-            OffsetDateTime.now()
-        );
+        // Hour buckets cover the last 24h (widened to the start of the first hour)
+        OffsetDateTime now = OffsetDateTime.now();
+        List<SnapshotRollup> buckets = rollupService.getCourseBuckets(
+            courseId, RollupResolution.HOUR, now.minusHours(24), now);
+        Optional<AnalyticsSnapshot> latest = snapshotRepository.findTopByCourseIdOrderBySnapshotTimeDesc(courseId);
 
-        if (recentSnapshots.isEmpty()) {
+        if (buckets.isEmpty() || latest.isEmpty()) {
             return createEmptyStats(courseId);
         }
 
-        AnalyticsSnapshot latest = recentSnapshots.get(0);
-        return aggregateCourseStats(courseId, recentSnapshots, latest);
+        return aggregateCourseStats(courseId, buckets, latest.get());
     }
 
     @Transactional
@@ -111,6 +121,7 @@ public class RealTimeAnalyticsService {
             .build();
 
         snapshot = snapshotRepository.save(snapshot);
+        rollupService.record(snapshot);
         return toSnapshotResponse(snapshot);
     }
 
@@ -118,15 +129,24 @@ public class RealTimeAnalyticsService {
     public TrendResponse getTrends(Long courseId, String metricName, OffsetDateTime start, OffsetDateTime end) {
         log.info("Getting trends for course: {}, metric: {}", courseId, metricName);
 
-        List<AnalyticsSnapshot> snapshots = snapshotRepository.findByCourseIdAndTimeRange(courseId, start, end);
-
-        List<TrendResponse.DataPoint> dataPoints = snapshots.stream()
-            .map(s -> TrendResponse.DataPoint.builder()
-                .timestamp(s.getSnapshotTime())
-                .value(extractMetricValue(s, metricName))
-                .metadata(Map.of("participants", s.getTotalParticipants()))
-                .build())
-            .collect(Collectors.toList());
+        RollupResolution resolution = rollupService.resolutionFor(start, end);
+        List<SnapshotRollup> buckets = rollupService.getCourseBuckets(courseId, resolution, start, end);
+
+        List<TrendResponse.DataPoint> dataPoints = new ArrayList<>(buckets.size());
+        for (SnapshotRollup bucket : buckets) {
+            Double value = extractMetricValue(bucket, metricName);
+            if (value == null) {
+                continue;
+            }
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("participants", bucket.getParticipantsMax());
+            metadata.put("samples", bucket.getSampleCount());
+            dataPoints.add(TrendResponse.DataPoint.builder()
+                .timestamp(bucket.getBucketStart())
+                .value(value)
+                .metadata(metadata)
+                .build());
+        }
 
         String trendDirection = calculateTrendDirection(dataPoints);
         Double changePercentage = calculateChangePercentage(dataPoints);
@@ -139,7 +159,7 @@ public class RealTimeAnalyticsService {
             .dataPoints(dataPoints)
             .trendDirection(trendDirection)
             .changePercentage(changePercentage)
-            .statistics(calculateStatistics(dataPoints))
+            .statistics(calculateStatistics(dataPoints, resolution))
             .build();
     }
 
@@ -159,26 +179,27 @@ public class RealTimeAnalyticsService {
             .build();
     }
 
-    private LiveStatsResponse aggregateCourseStats(Long courseId, List<AnalyticsSnapshot> snapshots, AnalyticsSnapshot latest) {
-        int totalInteractions = snapshots.stream().mapToInt(AnalyticsSnapshot::getTotalInteractions).sum();
-        double avgEngagement = snapshots.stream()
-            .filter(s -> s.getAvgEngagementScore() != null)
-            .mapToDouble(AnalyticsSnapshot::getAvgEngagementScore)
-            .average()
-            .orElse(0.0);
+    private LiveStatsResponse aggregateCourseStats(Long courseId, List<SnapshotRollup> buckets, AnalyticsSnapshot latest) {
+        long totalInteractions = buckets.stream().mapToLong(SnapshotRollup::getInteractionsSum).sum();
+        double engagementSum = buckets.stream().mapToDouble(SnapshotRollup::getEngagementSum).sum();
+        int engagementCount = buckets.stream().mapToInt(SnapshotRollup::getEngagementCount).sum();
 
         Map<String, Integer> breakdown = new HashMap<>();
-        breakdown.put("polls", snapshots.stream().mapToInt(AnalyticsSnapshot::getPollResponses).sum());
-        breakdown.put("quizzes", snapshots.stream().mapToInt(AnalyticsSnapshot::getQuizAttempts).sum());
-        breakdown.put("chat", snapshots.stream().mapToInt(AnalyticsSnapshot::getChatMessages).sum());
+        breakdown.put("polls", (int) buckets.stream().mapToLong(SnapshotRollup::getPollResponsesSum).sum());
+        breakdown.put("quizzes", (int) buckets.stream().mapToLong(SnapshotRollup::getQuizAttemptsSum).sum());
+        breakdown.put("chat", (int) buckets.stream().mapToLong(SnapshotRollup::getChatMessagesSum).sum());
 
         return LiveStatsResponse.builder()
             .targetId(courseId)
             .currentParticipants(latest.getActiveParticipants())
-            .peakParticipants(snapshots.stream().mapToInt(AnalyticsSnapshot::getTotalParticipants).max().orElse(0))
-            .avgEngagementRate(avgEngagement)
-            .totalInteractions(totalInteractions)
-            .interactionsPerMinute(calculateInteractionsPerMinute(snapshots))
+            .peakParticipants(buckets.stream()
+                .filter(b -> b.getParticipantsMax() != null)
+                .mapToInt(SnapshotRollup::getParticipantsMax)
+                .max()
+                .orElse(0))
+            .avgEngagementRate(engagementCount > 0 ? engagementSum / engagementCount : 0.0)
+            .totalInteractions((int) totalInteractions)
+            .interactionsPerMinute(calculateInteractionsPerMinute(buckets, latest))
             .activeStudents(latest.getActiveParticipants())
             .participationRate(calculateParticipationRate(latest))
             .lastUpdated(latest.getSnapshotTime())
@@ -192,23 +213,32 @@ public class RealTimeAnalyticsService {
         AnalyticsSnapshot first = snapshots.get(snapshots.size() - 1);
         AnalyticsSnapshot last = snapshots.get(0);
 
-        long minutes = java.time.Duration.between(first.getSnapshotTime(), last.getSnapshotTime()).toMinutes();
+        long minutes = Duration.between(first.getSnapshotTime(), last.getSnapshotTime()).toMinutes();
         if (minutes == 0) return 0.0;
 
         int totalInteractions = last.getTotalInteractions() - first.getTotalInteractions();
         return (double) totalInteractions / minutes;
     }
 
+    private Double calculateInteractionsPerMinute(List<SnapshotRollup> buckets, AnalyticsSnapshot latest) {
+        SnapshotRollup first = buckets.get(0);
+        long minutes = Duration.between(first.getFirstSnapshotAt(), latest.getSnapshotTime()).toMinutes();
+        if (minutes <= 0 || first.getInteractionsMin() == null) return 0.0;
+
+        int totalInteractions = latest.getTotalInteractions() - first.getInteractionsMin();
+        return (double) totalInteractions / minutes;
+    }
+
     private Double calculateParticipationRate(AnalyticsSnapshot snapshot) {
         if (snapshot.getTotalParticipants() == 0) return 0.0;
         return (double) snapshot.getActiveParticipants() / snapshot.getTotalParticipants() * 100;
     }
 
-    private Double extractMetricValue(AnalyticsSnapshot snapshot, String metricName) {
+    private Double extractMetricValue(SnapshotRollup bucket, String metricName) {
         return switch (metricName.toLowerCase()) {
-            case "engagement" -> snapshot.getAvgEngagementScore();
-            case "participation" -> (double) snapshot.getActiveParticipants();
-            case "interactions" -> (double) snapshot.getTotalInteractions();
+            case "engagement" -> bucket.getAvgEngagement();
+            case "participation" -> bucket.getAvgActive();
+            case "interactions" -> bucket.getAvgInteractions();
             default -> 0.0;
         };
     }
@@ -241,8 +271,9 @@ public class RealTimeAnalyticsService {
         return ((last - first) / first) * 100;
     }
 
-    private Map<String, Object> calculateStatistics(List<TrendResponse.DataPoint> dataPoints) {
+    private Map<String, Object> calculateStatistics(List<TrendResponse.DataPoint> dataPoints, RollupResolution resolution) {
         Map<String, Object> stats = new HashMap<>();
+        stats.put("resolution", resolution.name());
 
         if (dataPoints.isEmpty()) {
             stats.put("min", 0.0);
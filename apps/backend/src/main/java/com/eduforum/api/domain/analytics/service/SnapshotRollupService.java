@@ -0,0 +1,156 @@
+package com.eduforum.api.domain.analytics.service;
+
+import com.eduforum.api.domain.analytics.config.AnalyticsProperties;
+import com.eduforum.api.domain.analytics.entity.AnalyticsSnapshot;
+import com.eduforum.api.domain.analytics.entity.RollupResolution;
+import com.eduforum.api.domain.analytics.entity.SnapshotRollup;
+import com.eduforum.api.domain.analytics.repository.SnapshotRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains minute/hour/day pre-aggregates of analytics snapshots per course and session,
+ * so trend and live course queries read a bounded number of buckets instead of raw snapshots.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotRollupService {
+
+    private final SnapshotRollupRepository rollupRepository;
+    private final AnalyticsProperties analyticsProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String UPSERT_ROLLUP_SQL =
+        "INSERT INTO analytics.snapshot_rollups AS r (resolution, course_id, session_id, bucket_start, sample_count, " +
+        "participants_min, participants_max, participants_sum, active_min, active_max, active_sum, " +
+        "engagement_min, engagement_max, engagement_sum, engagement_count, " +
+        "interactions_min, interactions_max, interactions_sum, " +
+        "poll_responses_sum, quiz_attempts_sum, chat_messages_sum, first_snapshot_at, last_snapshot_at) " +
+        "VALUES (?, ?, ?, ?, 1, ?, ?, ?, ?, ?, ?, ?::numeric, ?::numeric, COALESCE(?::numeric, 0), ?, " +
+        "?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (resolution, course_id, session_id, bucket_start) DO UPDATE SET " +
+        "sample_count = r.sample_count + 1, " +
+        "participants_min = LEAST(r.participants_min, EXCLUDED.participants_min), " +
+        "participants_max = GREATEST(r.participants_max, EXCLUDED.participants_max), " +
+        "participants_sum = r.participants_sum + EXCLUDED.participants_sum, " +
+        "active_min = LEAST(r.active_min, EXCLUDED.active_min), " +
+        "active_max = GREATEST(r.active_max, EXCLUDED.active_max), " +
+        "active_sum = r.active_sum + EXCLUDED.active_sum, " +
+        "engagement_min = LEAST(r.engagement_min, EXCLUDED.engagement_min), " +
+        "engagement_max = GREATEST(r.engagement_max, EXCLUDED.engagement_max), " +
+        "engagement_sum = r.engagement_sum + EXCLUDED.engagement_sum, " +
+        "engagement_count = r.engagement_count + EXCLUDED.engagement_count, " +
+        "interactions_min = LEAST(r.interactions_min, EXCLUDED.interactions_min), " +
+        "interactions_max = GREATEST(r.interactions_max, EXCLUDED.interactions_max), " +
+        "interactions_sum = r.interactions_sum + EXCLUDED.interactions_sum, " +
+        "poll_responses_sum = r.poll_responses_sum + EXCLUDED.poll_responses_sum, " +
+        "quiz_attempts_sum = r.quiz_attempts_sum + EXCLUDED.quiz_attempts_sum, " +
+        "chat_messages_sum = r.chat_messages_sum + EXCLUDED.chat_messages_sum, " +
+        "first_snapshot_at = LEAST(r.first_snapshot_at, EXCLUDED.first_snapshot_at), " +
+        "last_snapshot_at = GREATEST(r.last_snapshot_at, EXCLUDED.last_snapshot_at), " +
+        "updated_at = CURRENT_TIMESTAMP";
+
+    /**
+     * Fold a saved snapshot into the course-wide and, if it has one, the session buckets of
+     * every resolution. Runs in the caller's transaction so rollups never drift from snapshots.
+     */
+    @Transactional
+    public void record(AnalyticsSnapshot snapshot) {
+        List<Object[]> rows = new ArrayList<>(6);
+        for (RollupResolution resolution : RollupResolution.values()) {
+            rows.add(toRow(resolution, SnapshotRollup.COURSE_WIDE, snapshot));
+            if (snapshot.getSessionId() != null) {
+                rows.add(toRow(resolution, snapshot.getSessionId(), snapshot));
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rows);
+    }
+
+    /**
+     * Finest resolution whose buckets over [start, end] stay within the configured number of
+     * trend points and are still retained; a semester-long range falls through to DAY.
+     */
+    public RollupResolution resolutionFor(OffsetDateTime start, OffsetDateTime end) {
+        AnalyticsProperties.Rollup config = analyticsProperties.getRollup();
+        OffsetDateTime now = OffsetDateTime.now();
+        for (RollupResolution resolution : RollupResolution.values()) {
+            OffsetDateTime retainedSince = retainedSince(resolution, now);
+            boolean retained = retainedSince == null || !start.isBefore(retainedSince);
+            if (retained && resolution.bucketCount(start, end) <= config.getMaxTrendPoints()) {
+                return resolution;
+            }
+        }
+        return RollupResolution.DAY;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SnapshotRollup> getCourseBuckets(Long courseId, RollupResolution resolution,
+                                                 OffsetDateTime start, OffsetDateTime end) {
+        return rollupRepository.findBuckets(resolution, courseId, SnapshotRollup.COURSE_WIDE,
+            resolution.bucketStart(start), end);
+    }
+
+    /**
+     * Drop minute and hour buckets past their retention (daily)
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeExpiredBuckets() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (RollupResolution resolution : RollupResolution.values()) {
+            OffsetDateTime retainedSince = retainedSince(resolution, now);
+            if (retainedSince != null) {
+                int deleted = rollupRepository.deleteBucketsBefore(resolution, resolution.bucketStart(retainedSince));
+                if (deleted > 0) {
+                    log.info("Purged {} {} snapshot rollups", deleted, resolution);
+                }
+            }
+        }
+    }
+
+    private OffsetDateTime retainedSince(RollupResolution resolution, OffsetDateTime now) {
+        AnalyticsProperties.Rollup config = analyticsProperties.getRollup();
+        return switch (resolution) {
+            case MINUTE -> now.minusDays(config.getMinuteRetentionDays());
+            case HOUR -> now.minusDays(config.getHourRetentionDays());
+            case DAY -> null;
+        };
+    }
+
+    private Object[] toRow(RollupResolution resolution, Long sessionKey, AnalyticsSnapshot snapshot) {
+        Double engagement = snapshot.getAvgEngagementScore();
+        return new Object[]{
+            resolution.name(),
+            snapshot.getCourseId(),
+            sessionKey,
+            resolution.bucketStart(snapshot.getSnapshotTime()),
+            snapshot.getTotalParticipants(),
+            snapshot.getTotalParticipants(),
+            snapshot.getTotalParticipants(),
+            snapshot.getActiveParticipants(),
+            snapshot.getActiveParticipants(),
+            snapshot.getActiveParticipants(),
+            engagement,
+            engagement,
+            engagement,
+            engagement != null ? 1 : 0,
+            snapshot.getTotalInteractions(),
+            snapshot.getTotalInteractions(),
+            snapshot.getTotalInteractions(),
+            snapshot.getPollResponses(),
+            snapshot.getQuizAttempts(),
+            snapshot.getChatMessages(),
+            snapshot.getSnapshotTime(),
+            snapshot.getSnapshotTime()
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.eduforum.api.domain.analytics.websocket;
 
+import com.eduforum.api.domain.analytics.dto.realtime.LiveStatsDeltaResponse;
 import com.eduforum.api.domain.analytics.dto.realtime.LiveStatsResponse;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
 import com.eduforum.api.domain.analytics.service.RealTimeAnalyticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +13,8 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 /**
  * WebSocket controller for streaming real-time analytics
  * Endpoint: /ws/analytics/{sessionId}
@@ -21,6 +25,7 @@ import org.springframework.stereotype.Controller;
 public class AnalyticsWebSocketController {
 
     private final RealTimeAnalyticsService analyticsService;
+    private final LiveSessionAggregator liveSessionAggregator;
     private final SimpMessagingTemplate messagingTemplate;
 
     @MessageMapping("/analytics/{sessionId}/subscribe")
@@ -32,9 +37,12 @@ public class AnalyticsWebSocketController {
 
     @Scheduled(fixedRate = 5000) // Broadcast updates every 5 seconds
     public void broadcastAnalyticsUpdates() {
-        // This would normally iterate through active sessions
-        // For now, it's a placeholder for the WebSocket streaming functionality
-        log.debug("Broadcasting analytics updates (scheduled)");
+        // Only sessions with activity since the last tick are pushed; no database access
+        List<LiveStatsDeltaResponse> deltas = liveSessionAggregator.drainDeltas();
+        for (LiveStatsDeltaResponse delta : deltas) {
+            messagingTemplate.convertAndSend("/topic/analytics/" + delta.getSessionId(), delta);
+        }
+        log.debug("Broadcast analytics updates for {} sessions", deltas.size());
     }
 
     public void sendAnalyticsUpdate(Long sessionId, LiveStatsResponse stats) {
@@ -0,0 +1,141 @@
+package com.eduforum.api.domain.assessment.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Code execution sandbox settings
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.code-execution")
+public class CodeExecutionProperties {
+
+    /**
+     * Concurrent sandbox processes; 0 uses the number of available processors
+     */
+    private int workers = 0;
+
+    /**
+     * Maximum queued test-case tasks across all students
+     */
+    private int queueCapacity = 5000;
+
+    /**
+     * Maximum submissions of one student queued or running at the same time
+     */
+    private int maxActivePerStudent = 3;
+
+    /**
+     * How long a submission may stay RUNNING before a re-run takes it over (ms)
+     */
+    private long runningLeaseMs = 600000;
+
+    /**
+     * Parent directory of the per-submission working directories
+     */
+    private String workDir = System.getProperty("java.io.tmpdir") + "/eduforum-exec";
+
+    /**
+     * Command prepended to every compile and run that isolates untrusted code, e.g.
+     * ["sudo", "-n", "-u", "sandbox"] or a firejail/nsjail invocation without network access.
+     * Required: startup fails while it is empty unless allowUnsandboxed is set
+     */
+    private List<String> commandPrefix = new ArrayList<>();
+
+    /**
+     * Run code as the application's own OS user when no command prefix is set; local development only
+     */
+    private boolean allowUnsandboxed = false;
+
+    /**
+     * CPU-time limit of a test case without its own time_limit_ms
+     */
+    private int defaultTimeLimitMs = 2000;
+
+    /**
+     * Memory limit of a test case without its own memory_limit_kb
+     */
+    private int defaultMemoryLimitKb = 262144;
+
+    /**
+     * Wall-clock limit as a multiple of the CPU-time limit (covers sleeping or blocked programs)
+     */
+    private double wallClockFactor = 2.0;
+
+    /**
+     * Wall-clock limit of the compile step
+     */
+    private int compileTimeoutMs = 15000;
+
+    /**
+     * Bytes of stdout/stderr kept per run; longer output is truncated
+     */
+    private int maxOutputBytes = 65536;
+
+    /**
+     * Largest file a program may write, in KB
+     */
+    private int maxFileSizeKb = 10240;
+
+    /**
+     * Supported languages by lower-case name
+     */
+    private Map<String, Language> languages = defaultLanguages();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Language {
+        /**
+         * File name the submitted code is written to
+         */
+        private String sourceFile;
+
+        /**
+         * Compile command run in the working directory; empty for interpreted languages
+         */
+        private List<String> compile = new ArrayList<>();
+
+        /**
+         * Run command; {memoryMb} is replaced by the memory limit in MB
+         */
+        private List<String> run = new ArrayList<>();
+
+        /**
+         * Enforce the memory limit as an address-space rlimit; off for runtimes such as the JVM
+         * that reserve far more virtual memory than they use (their limit goes into {memoryMb})
+         */
+        private boolean limitAddressSpace = true;
+
+        Language(String sourceFile, List<String> compile, List<String> run, boolean limitAddressSpace) {
+            this.sourceFile = sourceFile;
+            this.compile = new ArrayList<>(compile);
+            this.run = new ArrayList<>(run);
+            this.limitAddressSpace = limitAddressSpace;
+        }
+    }
+
+    private static Map<String, Language> defaultLanguages() {
+        Map<String, Language> languages = new HashMap<>();
+        languages.put("python", new Language("main.py", List.of(), List.of("python3", "-S", "main.py"), true));
+        languages.put("javascript", new Language("main.js", List.of(),
+            List.of("node", "--max-old-space-size={memoryMb}", "main.js"), false));
+        languages.put("java", new Language("Main.java", List.of("javac", "-J-Xmx512m", "Main.java"),
+            List.of("java", "-Xmx{memoryMb}m", "-XX:+UseSerialGC", "-Xshare:auto", "Main"), false));
+        languages.put("c", new Language("main.c", List.of("gcc", "-O2", "-std=c11", "-o", "main", "main.c", "-lm"),
+            List.of("./main"), true));
+        languages.put("cpp", new Language("main.cpp", List.of("g++", "-O2", "-std=c++17", "-o", "main", "main.cpp"),
+            List.of("./main"), true));
+        return languages;
+    }
+}
@@ -0,0 +1,90 @@
+package com.eduforum.api.domain.assessment.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asynchronous AI grading job settings
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.grading")
+public class GradingProperties {
+
+    /**
+     * Grader backend; "stub" is the bundled local stand-in
+     */
+    private String grader = "stub";
+
+    /**
+     * Submissions graded concurrently on this node, across all jobs
+     */
+    private int parallelism = 8;
+
+    /**
+     * Maximum grader calls per second of one job; 0 disables the limit
+     */
+    private double ratePerSecond = 5.0;
+
+    /**
+     * Results saved per transaction
+     */
+    private int chunkSize = 50;
+
+    /**
+     * Save a partial chunk once it is this old, so slow jobs still report progress
+     */
+    private long flushIntervalMs = 2000;
+
+    /**
+     * Grader calls per submission before it is recorded as failed
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Delay before the first retry of a failed grader call; doubles with each further attempt
+     */
+    private long retryDelayMs = 2000;
+
+    /**
+     * Maximum submissions in one batch request
+     */
+    private int maxJobSize = 10000;
+
+    /**
+     * Interval of the heartbeat that keeps this node's jobs claimed and picks up orphaned ones
+     */
+    private long heartbeatIntervalMs = 10000;
+
+    /**
+     * Running jobs without a heartbeat for this long are taken over by another node
+     */
+    private long staleAfterMs = 60000;
+
+    /**
+     * Local stand-in for the model backend
+     */
+    private Stub stub = new Stub();
+
+    @Getter
+    @Setter
+    public static class Stub {
+        /**
+         * Mean simulated model latency
+         */
+        private long latencyMs = 300;
+
+        /**
+         * Uniform jitter added to or subtracted from the latency
+         */
+        private long jitterMs = 150;
+
+        /**
+         * Fraction of calls that fail, to exercise retries
+         */
+        private double failureRate = 0.0;
+    }
+}
@@ -54,11 +54,11 @@ public class CodeEvaluationController {
     }
 
     @PostMapping("/run/{submissionId}")
-    @Operation(summary = "Run code", description = "Execute code against test cases")
+    @Operation(summary = "Run code", description = "Queue code for sandboxed execution against test cases; results are recorded as each test finishes")
     public ResponseEntity<ApiResponse<CodeSubmissionResponse>> runCode(
             @PathVariable Long submissionId) {
         CodeSubmissionResponse response = codeExecutionService.runCode(submissionId);
-        return ResponseEntity.ok(ApiResponse.success("Code executed successfully", response));
+        return ResponseEntity.ok(ApiResponse.success("Code execution started", response));
     }
 
     @GetMapping("/results/{submissionId}")
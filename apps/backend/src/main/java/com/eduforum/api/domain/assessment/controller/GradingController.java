@@ -4,6 +4,7 @@ import com.eduforum.api.common.dto.ApiResponse;
 import com.eduforum.api.domain.assessment.dto.grading.*;
 import com.eduforum.api.domain.assessment.service.AiGradingService;
 import com.eduforum.api.domain.assessment.service.AutoGradingService;
+import com.eduforum.api.domain.assessment.service.GradingJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,15 +24,14 @@ public class GradingController {
 
     private final AutoGradingService autoGradingService;
     private final AiGradingService aiGradingService;
+    private final GradingJobService gradingJobService;
 
     @PostMapping("/auto/{quizSessionId}")
     @Operation(summary = "Auto grade quiz", description = "Automatically grade multiple choice quiz")
     public ResponseEntity<ApiResponse<List<GradingResultResponse>>> autoGradeQuiz(
             @PathVariable Long quizSessionId,
             @Valid @RequestBody AutoGradeRequest request) {
-        List<GradingResultResponse> responses = autoGradingService.gradeQuizSession(
-            quizSessionId, request.getIncludeStatistics()
-        );
+        List<GradingResultResponse> responses = autoGradingService.gradeQuizSession(quizSessionId);
         return ResponseEntity.ok(ApiResponse.success("Quiz graded successfully", responses));
     }
 
@@ -91,12 +91,28 @@ public class GradingController {
     }
 
     @PostMapping("/ai/batch")
-    @Operation(summary = "Batch AI grade", description = "Grade multiple submissions with AI")
-    public ResponseEntity<ApiResponse<List<GradingResultResponse>>> batchAiGrade(
+    @Operation(summary = "Batch AI grade",
+        description = "Queue a grading job for multiple submissions; progress is pushed to /topic/grading/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<GradingJobResponse>> batchAiGrade(
             @Valid @RequestBody BatchGradeRequest request) {
-        List<GradingResultResponse> responses = aiGradingService.batchGrade(
-            request.getSubmissionIds(), request.getGenerateFeedback()
+        GradingJobResponse response = gradingJobService.createJob(
+            request.getSubmissionIds(), request.getGenerateFeedback(), request.getAiModel()
         );
-        return ResponseEntity.ok(ApiResponse.success("Batch grading completed", responses));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(ApiResponse.success("Batch grading job queued", response));
+    }
+
+    @GetMapping("/ai/jobs/{jobId}")
+    @Operation(summary = "Get grading job", description = "Get batch grading job status and progress")
+    public ResponseEntity<ApiResponse<GradingJobResponse>> getGradingJob(@PathVariable Long jobId) {
+        GradingJobResponse response = gradingJobService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/ai/jobs/{jobId}/results")
+    @Operation(summary = "Get grading job results", description = "Get grading results saved so far by a batch job")
+    public ResponseEntity<ApiResponse<List<GradingResultResponse>>> getGradingJobResults(@PathVariable Long jobId) {
+        List<GradingResultResponse> responses = gradingJobService.getJobResults(jobId);
+        return ResponseEntity.ok(ApiResponse.success(responses));
     }
 }
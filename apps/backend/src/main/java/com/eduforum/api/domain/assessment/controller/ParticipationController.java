@@ -1,6 +1,7 @@
 package com.eduforum.api.domain.assessment.controller;
 
 import com.eduforum.api.common.dto.ApiResponse;
+import com.eduforum.api.common.dto.PageResponse;
 import com.eduforum.api.domain.assessment.dto.participation.*;
 import com.eduforum.api.domain.assessment.service.ParticipationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,6 +55,16 @@ public class ParticipationController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/leaderboard/{courseId}")
+    @Operation(summary = "Get leaderboard", description = "Get a page of the course participation ranking, highest score first")
+    public ResponseEntity<ApiResponse<PageResponse<LeaderboardEntryResponse>>> getLeaderboard(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<LeaderboardEntryResponse> response = participationService.getLeaderboard(courseId, page, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PutMapping("/weights/{courseId}")
     @Operation(summary = "Set weights", description = "Set participation event weights for course")
     public ResponseEntity<ApiResponse<List<ParticipationWeightResponse>>> setWeights(
@@ -24,7 +24,7 @@ public class PlagiarismCheckRequest {
     @Builder.Default
     private BigDecimal threshold = BigDecimal.valueOf(70);
 
-    @Schema(description = "Algorithm to use", example = "levenshtein")
+    @Schema(description = "Algorithm to use (winnowing fingerprints with MinHash LSH)", example = "winnowing")
     @Builder.Default
-    private String algorithm = "levenshtein";
+    private String algorithm = "winnowing";
 }
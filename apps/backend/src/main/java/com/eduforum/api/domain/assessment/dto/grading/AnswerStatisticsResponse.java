@@ -36,6 +36,9 @@ public class AnswerStatisticsResponse {
     @Schema(description = "Accuracy rate", example = "70.0")
     private Double accuracyRate;
 
+    @Schema(description = "Point-biserial discrimination (null until it can be computed)", example = "0.35")
+    private Double pointBiserial;
+
     @Schema(description = "Option distribution")
     private Map<String, Integer> optionDistribution;
 
@@ -17,8 +17,4 @@ public class AutoGradeRequest {
     @NotNull
     @Schema(description = "Quiz session ID", example = "1")
     private Long quizSessionId;
-
-    @Schema(description = "Include answer statistics", example = "true")
-    @Builder.Default
-    private Boolean includeStatistics = true;
 }
@@ -23,4 +23,7 @@ public class BatchGradeRequest {
     @Schema(description = "Generate feedback for all", example = "true")
     @Builder.Default
     private Boolean generateFeedback = true;
+
+    @Schema(description = "AI model to use", example = "gpt-4")
+    private String aiModel;
 }
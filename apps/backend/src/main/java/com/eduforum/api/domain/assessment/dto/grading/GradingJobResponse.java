@@ -0,0 +1,48 @@
+package com.eduforum.api.domain.assessment.dto.grading;
+
+import com.eduforum.api.domain.assessment.entity.GradingJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch grading job status, also pushed to /topic/grading/jobs/{id}")
+public class GradingJobResponse {
+
+    @Schema(description = "Grading job ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Job status", example = "RUNNING")
+    private GradingJobStatus status;
+
+    @Schema(description = "AI model", example = "gpt-4")
+    private String aiModel;
+
+    @Schema(description = "Submissions in the job", example = "120")
+    private Integer totalItems;
+
+    @Schema(description = "Submissions graded", example = "80")
+    private Integer completedItems;
+
+    @Schema(description = "Submissions that could not be graded", example = "1")
+    private Integer failedItems;
+
+    @Schema(description = "Processed percentage", example = "67.5")
+    private Double progress;
+
+    @Schema(description = "Created at")
+    private OffsetDateTime createdAt;
+
+    @Schema(description = "Started at")
+    private OffsetDateTime startedAt;
+
+    @Schema(description = "Finished at")
+    private OffsetDateTime finishedAt;
+}
@@ -0,0 +1,26 @@
+package com.eduforum.api.domain.assessment.dto.participation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Participation leaderboard entry")
+public class LeaderboardEntryResponse {
+
+    @Schema(description = "Class rank (tied scores share a rank)", example = "1")
+    private Integer rank;
+
+    @Schema(description = "Student ID", example = "1")
+    private Long studentId;
+
+    @Schema(description = "Total score", example = "85.5")
+    private BigDecimal totalScore;
+}
@@ -45,4 +45,11 @@ public class SetupPeerReviewRequest {
     @Schema(description = "Remove outliers", example = "true")
     @Builder.Default
     private Boolean removeOutliers = true;
+
+    @Schema(description = "Avoid pairing students from the same interaction cluster", example = "false")
+    @Builder.Default
+    private Boolean avoidSameCluster = false;
+
+    @Schema(description = "Seed for reviewer assignment; reuse a previous seed to reproduce an assignment", example = "42")
+    private Long seed;
 }
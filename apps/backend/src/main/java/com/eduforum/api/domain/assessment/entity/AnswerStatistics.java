@@ -51,6 +51,19 @@ public class AnswerStatistics extends BaseEntity {
     @Column(name = "response_time_avg", columnDefinition = "jsonb")
     private Map<String, Object> responseTimeStats;
 
+    // Running sums of rest scores (quiz score minus this question's points)
+    @Column(name = "rest_score_sum", nullable = false)
+    @Builder.Default
+    private Double restScoreSum = 0.0;
+
+    @Column(name = "rest_score_sq_sum", nullable = false)
+    @Builder.Default
+    private Double restScoreSqSum = 0.0;
+
+    @Column(name = "correct_rest_score_sum", nullable = false)
+    @Builder.Default
+    private Double correctRestScoreSum = 0.0;
+
     // Helper methods
     public void incrementTotal() {
         this.totalResponses++;
@@ -70,4 +83,23 @@ public class AnswerStatistics extends BaseEntity {
         if (totalResponses == 0) return 0.0;
         return (double) correctResponses / totalResponses * 100;
     }
+
+    /**
+     * Point-biserial correlation between answering correctly and the rest score,
+     * or null while everyone (or no one) is correct or the rest scores do not vary
+     */
+    public Double getPointBiserial() {
+        int n = totalResponses;
+        int correct = correctResponses;
+        if (n < 2 || correct == 0 || correct == n) return null;
+
+        double mean = restScoreSum / n;
+        double variance = restScoreSqSum / n - mean * mean;
+        if (variance <= 1e-9) return null;
+
+        double correctMean = correctRestScoreSum / correct;
+        double incorrectMean = (restScoreSum - correctRestScoreSum) / (n - correct);
+        double p = (double) correct / n;
+        return (correctMean - incorrectMean) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+    }
 }
@@ -0,0 +1,69 @@
+package com.eduforum.api.domain.assessment.entity;
+
+import com.eduforum.api.domain.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Batch AI grading job entity.
+ * Progress counters and worker ownership are maintained by the grading workers over JDBC.
+ */
+@Entity
+@Table(schema = "assessment", name = "grading_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradingJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private GradingJobStatus status = GradingJobStatus.QUEUED;
+
+    @Column(name = "ai_model", nullable = false, length = 100)
+    private String aiModel;
+
+    @Column(name = "generate_feedback", nullable = false)
+    @Builder.Default
+    private Boolean generateFeedback = true;
+
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems;
+
+    @Column(name = "completed_items", nullable = false)
+    @Builder.Default
+    private Integer completedItems = 0;
+
+    @Column(name = "failed_items", nullable = false)
+    @Builder.Default
+    private Integer failedItems = 0;
+
+    @Column(name = "worker_node", length = 100)
+    private String workerNode;
+
+    @Column(name = "heartbeat_at")
+    private OffsetDateTime heartbeatAt;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    public boolean isFinished() {
+        return status == GradingJobStatus.COMPLETED || status == GradingJobStatus.FAILED;
+    }
+
+    public double getProgress() {
+        if (totalItems == 0) return 100.0;
+        return (double) (completedItems + failedItems) / totalItems * 100;
+    }
+}
@@ -0,0 +1,26 @@
+package com.eduforum.api.domain.assessment.entity;
+
+/**
+ * Grading job status enum
+ */
+public enum GradingJobStatus {
+    /**
+     * Accepted, waiting for a worker node
+     */
+    QUEUED,
+
+    /**
+     * Claimed by a worker node
+     */
+    RUNNING,
+
+    /**
+     * Every submission graded or failed
+     */
+    COMPLETED,
+
+    /**
+     * Aborted before all submissions were processed
+     */
+    FAILED
+}
@@ -0,0 +1,245 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.assessment.config.CodeExecutionProperties;
+import com.eduforum.api.domain.assessment.config.CodeExecutionProperties.Language;
+import com.eduforum.api.domain.assessment.entity.ExecutionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded worker pool that runs code submissions in the {@link ProcessSandbox}.
+ * A submission becomes one prepare/compile task followed by one task per test case,
+ * so the test cases of a submission run in parallel on free workers. Tasks are queued
+ * per student and served round-robin, and each student may have only a few submissions
+ * in flight, so an infinite loop costs its author time-limit-sized slots and nobody else.
+ */
+@Slf4j
+@Component
+public class CodeExecutionScheduler implements SmartLifecycle {
+
+    private final ProcessSandbox sandbox;
+    private final CodeExecutionProperties properties;
+    private final FairTaskQueue<Long, Runnable> queue;
+    private final Map<Long, Integer> activeByStudent = new ConcurrentHashMap<>();
+    private final FairWorkerPool<Long> workers;
+
+    public CodeExecutionScheduler(ProcessSandbox sandbox, CodeExecutionProperties properties) {
+        this.sandbox = sandbox;
+        this.properties = properties;
+        this.queue = new FairTaskQueue<>(properties.getQueueCapacity());
+        this.workers = new FairWorkerPool<>("code-exec-worker", queue);
+    }
+
+    /**
+     * Fail fast while the caller can still roll back: the student already has the maximum
+     * number of submissions in flight, or the queue has no room for this one.
+     */
+    public void checkAdmission(Long studentId, int testCount) {
+        if (activeByStudent.getOrDefault(studentId, 0) >= properties.getMaxActivePerStudent()
+                || !queue.hasRoom(testCount + 1)) {
+            throw new BusinessException(ErrorCode.CODE_EXECUTION_QUEUE_FULL);
+        }
+    }
+
+    /**
+     * Queue a submission; the listener is called from worker threads as results arrive
+     */
+    public void submit(ExecutionJob job, ExecutionListener listener) {
+        Long studentId = job.getStudentId();
+        if (activeByStudent.merge(studentId, 1, Integer::sum) > properties.getMaxActivePerStudent()) {
+            release(studentId);
+            throw new BusinessException(ErrorCode.CODE_EXECUTION_QUEUE_FULL);
+        }
+
+        Language language = job.getLanguage() == null ? null
+            : properties.getLanguages().get(job.getLanguage().toLowerCase(Locale.ROOT));
+        ExecutionRun run = new ExecutionRun(job, listener, language);
+        if (language == null) {
+            finish(run, () -> listener.onError(job, "Unsupported language: " + job.getLanguage()));
+            return;
+        }
+        if (!queue.offer(studentId, () -> prepare(run), false)) {
+            release(studentId);
+            throw new BusinessException(ErrorCode.CODE_EXECUTION_QUEUE_FULL);
+        }
+    }
+
+    public int getQueuedTasks() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        int count = properties.getWorkers() > 0
+            ? properties.getWorkers()
+            : Runtime.getRuntime().availableProcessors();
+        workers.start(count);
+        log.info("Code execution pool started with {} workers", count);
+    }
+
+    @Override
+    public void stop() {
+        // Interrupted workers kill the process they are waiting on
+        workers.stop();
+        log.info("Code execution pool stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return workers.isRunning();
+    }
+
+    private void prepare(ExecutionRun run) {
+        ExecutionJob job = run.job;
+        try {
+            run.dir = sandbox.prepare(job.getSubmissionId(), run.language, job.getCode());
+        } catch (IOException e) {
+            log.error("Failed to prepare sandbox for submission {}", job.getSubmissionId(), e);
+            finish(run, () -> run.listener.onError(job, "Failed to prepare execution environment"));
+            return;
+        }
+
+        if (!run.language.getCompile().isEmpty()) {
+            SandboxResult compiled = sandbox.compile(run.dir, run.language);
+            if (!compiled.isSuccess()) {
+                String output = compiled.isTimedOut()
+                    ? "Compilation timed out"
+                    : (compiled.getStderr() + compiled.getStdout()).trim();
+                finish(run, () -> run.listener.onCompileError(job, output));
+                return;
+            }
+        }
+
+        List<ExecutionJob.TestCaseSpec> testCases = job.getTestCases();
+        if (testCases.isEmpty()) {
+            finish(run, () -> run.listener.onCompleted(job, 0, 0, null));
+            return;
+        }
+        run.remaining.set(testCases.size());
+        for (ExecutionJob.TestCaseSpec testCase : testCases) {
+            // Already admitted, so test tasks may exceed the capacity rather than strand the run
+            queue.offer(job.getStudentId(), () -> runTest(run, testCase), true);
+        }
+    }
+
+    private void runTest(ExecutionRun run, ExecutionJob.TestCaseSpec testCase) {
+        int cpuLimitMs = testCase.getTimeLimitMs() != null ? testCase.getTimeLimitMs() : properties.getDefaultTimeLimitMs();
+        int memoryLimitKb = testCase.getMemoryLimitKb() != null
+            ? testCase.getMemoryLimitKb() : properties.getDefaultMemoryLimitKb();
+
+        TestOutcome outcome;
+        try {
+            SandboxResult result = sandbox.run(run.dir, run.language, "test-" + testCase.getTestCaseId(),
+                testCase.getInput(), cpuLimitMs, memoryLimitKb);
+            outcome = evaluate(testCase, result, cpuLimitMs);
+        } catch (RuntimeException e) {
+            log.error("Test case {} of submission {} failed to run", testCase.getTestCaseId(),
+                run.job.getSubmissionId(), e);
+            outcome = TestOutcome.builder().status(ExecutionStatus.FAILED).errorMessage("Execution failed").build();
+        }
+
+        if (outcome.isPassed()) {
+            run.passed.incrementAndGet();
+        }
+        if (outcome.getExecutionTimeMs() != null) {
+            run.totalTimeMs.addAndGet(outcome.getExecutionTimeMs());
+        }
+        if (outcome.getMemoryUsedKb() != null) {
+            run.peakMemoryKb.accumulateAndGet(outcome.getMemoryUsedKb(), Math::max);
+        }
+        TestOutcome finalOutcome = outcome;
+        notifyListener(run, () -> run.listener.onTestCompleted(run.job, testCase, finalOutcome));
+
+        if (run.remaining.decrementAndGet() == 0) {
+            long peak = run.peakMemoryKb.get();
+            finish(run, () -> run.listener.onCompleted(run.job, run.passed.get(), run.totalTimeMs.get(),
+                peak > 0 ? peak : null));
+        }
+    }
+
+    static TestOutcome evaluate(ExecutionJob.TestCaseSpec testCase, SandboxResult result, int cpuLimitMs) {
+        TestOutcome.TestOutcomeBuilder outcome = TestOutcome.builder()
+            .actualOutput(result.getStdout())
+            .executionTimeMs(result.getWallTimeMs())
+            .memoryUsedKb(result.getPeakMemoryKb());
+
+        if (result.isLaunchFailed()) {
+            return outcome.status(ExecutionStatus.FAILED).errorMessage(result.getStderr()).build();
+        }
+        if (result.isTimedOut()) {
+            return outcome.status(ExecutionStatus.TIMEOUT)
+                .errorMessage("Time limit exceeded (" + cpuLimitMs + " ms)").build();
+        }
+        if (result.isMemoryExceeded()) {
+            return outcome.status(ExecutionStatus.MEMORY_LIMIT).errorMessage("Memory limit exceeded").build();
+        }
+        if (result.getExitCode() != 0) {
+            String stderr = result.getStderr().isBlank() ? "Exited with code " + result.getExitCode() : result.getStderr();
+            return outcome.status(ExecutionStatus.RUNTIME_ERROR).errorMessage(stderr).build();
+        }
+        boolean passed = normalize(result.getStdout()).equals(normalize(testCase.getExpectedOutput()));
+        return outcome.status(passed ? ExecutionStatus.SUCCESS : ExecutionStatus.WRONG_ANSWER).passed(passed).build();
+    }
+
+    /**
+     * Ignore trailing whitespace on each line and trailing blank lines
+     */
+    static String normalize(String output) {
+        if (output == null) {
+            return "";
+        }
+        String[] lines = output.replace("\r\n", "\n").split("\n");
+        StringBuilder normalized = new StringBuilder();
+        for (String line : lines) {
+            normalized.append(line.stripTrailing()).append('\n');
+        }
+        return normalized.toString().stripTrailing();
+    }
+
+    private void finish(ExecutionRun run, Runnable callback) {
+        notifyListener(run, callback);
+        sandbox.cleanup(run.dir);
+        release(run.job.getStudentId());
+    }
+
+    private void notifyListener(ExecutionRun run, Runnable callback) {
+        try {
+            callback.run();
+        } catch (Exception e) {
+            log.error("Execution listener failed for submission {}", run.job.getSubmissionId(), e);
+        }
+    }
+
+    private void release(Long studentId) {
+        activeByStudent.computeIfPresent(studentId, (id, active) -> active <= 1 ? null : active - 1);
+    }
+
+    private static final class ExecutionRun {
+        private final ExecutionJob job;
+        private final ExecutionListener listener;
+        private final Language language;
+        private final AtomicInteger remaining = new AtomicInteger();
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicLong totalTimeMs = new AtomicLong();
+        private final AtomicLong peakMemoryKb = new AtomicLong();
+        private volatile Path dir;
+
+        private ExecutionRun(ExecutionJob job, ExecutionListener listener, Language language) {
+            this.job = job;
+            this.listener = listener;
+            this.language = language;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Snapshot of a code submission and its test cases, detached from the persistence context
+ */
+@Getter
+@Builder
+public class ExecutionJob {
+
+    private final Long submissionId;
+    private final Long studentId;
+    private final String language;
+    private final String code;
+    private final List<TestCaseSpec> testCases;
+
+    @Getter
+    @Builder
+    public static class TestCaseSpec {
+        private final Long testCaseId;
+        private final String input;
+        private final String expectedOutput;
+        private final Integer timeLimitMs;
+        private final Integer memoryLimitKb;
+    }
+}
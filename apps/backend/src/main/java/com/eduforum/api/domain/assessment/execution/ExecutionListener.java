@@ -0,0 +1,16 @@
+package com.eduforum.api.domain.assessment.execution;
+
+/**
+ * Callbacks from the worker pool, invoked on worker threads.
+ * Exactly one of onCompleted, onCompileError or onError ends each job.
+ */
+public interface ExecutionListener {
+
+    void onTestCompleted(ExecutionJob job, ExecutionJob.TestCaseSpec testCase, TestOutcome outcome);
+
+    void onCompleted(ExecutionJob job, int passedTests, long totalTimeMs, Long peakMemoryKb);
+
+    void onCompileError(ExecutionJob job, String compilerOutput);
+
+    void onError(ExecutionJob job, String message);
+}
@@ -0,0 +1,83 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded blocking queue that serves its owners round-robin.
+ * Each owner (a student) has its own FIFO lane; {@link #take()} pops one task
+ * from the lane at the head of the rotation and moves that lane to the back,
+ * so one owner with many queued tasks cannot delay anyone else by more than
+ * one task per turn.
+ */
+public class FairTaskQueue<K, T> {
+
+    private final int capacity;
+    private final Map<K, ArrayDeque<T>> lanes = new HashMap<>();
+    private final ArrayDeque<K> rotation = new ArrayDeque<>();
+    private int size;
+    private boolean closed;
+
+    public FairTaskQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Append a task to the owner's lane.
+     *
+     * @param force accept the task even when the queue is at capacity, used for
+     *              follow-up tasks of work that was already admitted
+     * @return false if the queue is full or closed
+     */
+    public synchronized boolean offer(K owner, T task, boolean force) {
+        if (closed || (!force && size >= capacity)) {
+            return false;
+        }
+        ArrayDeque<T> lane = lanes.get(owner);
+        if (lane == null) {
+            lane = new ArrayDeque<>();
+            lanes.put(owner, lane);
+            rotation.addLast(owner);
+        }
+        lane.addLast(task);
+        size++;
+        notify();
+        return true;
+    }
+
+    /**
+     * Wait for the next task in round-robin order; returns null once the queue is closed
+     */
+    public synchronized T take() throws InterruptedException {
+        while (size == 0 && !closed) {
+            wait();
+        }
+        if (closed) {
+            return null;
+        }
+        K owner = rotation.pollFirst();
+        ArrayDeque<T> lane = lanes.get(owner);
+        T task = lane.pollFirst();
+        if (lane.isEmpty()) {
+            lanes.remove(owner);
+        } else {
+            rotation.addLast(owner);
+        }
+        size--;
+        return task;
+    }
+
+    public synchronized boolean hasRoom(int tasks) {
+        return !closed && size + tasks <= capacity;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+}
@@ -0,0 +1,76 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of daemon threads that run the tasks of a {@link FairTaskQueue}.
+ * A failing task is logged and the worker moves on; stopping closes the queue and
+ * interrupts the workers, so a task blocked on a process or a rate limit ends early.
+ */
+@Slf4j
+public class FairWorkerPool<K> {
+
+    private final String name;
+    private final FairTaskQueue<K, Runnable> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public FairWorkerPool(String name, FairTaskQueue<K, Runnable> queue) {
+        this.name = name;
+        this.queue = queue;
+    }
+
+    public synchronized void start(int count) {
+        running = true;
+        for (int i = 0; i < count; i++) {
+            Thread worker = new Thread(this::runWorker, name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Close the queue and wait up to five seconds per worker for its current task to end
+     */
+    public synchronized void stop() {
+        running = false;
+        queue.close();
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                Runnable task = queue.take();
+                if (task == null) {
+                    break;
+                }
+                task.run();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                log.error("Task on {} failed", Thread.currentThread().getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import com.eduforum.api.domain.assessment.config.CodeExecutionProperties;
+import com.eduforum.api.domain.assessment.config.CodeExecutionProperties.Language;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs untrusted programs as local OS processes with resource limits.
+ * <ul>
+ *   <li>Every command is started through {@code /bin/sh -c 'ulimit ...; exec "$@"'}, so the
+ *       kernel enforces a CPU-time backstop, the maximum file size and, for native and
+ *       interpreted runtimes, an address-space limit.</li>
+ *   <li>While the process runs it is polled every {@link #POLL_INTERVAL_MS} ms: CPU time of the
+ *       process tree is compared with the exact millisecond limit, peak resident memory is read
+ *       from /proc, and the wall clock catches programs that sleep or block on input.</li>
+ *   <li>stdin, stdout and stderr are files in the working directory, so a chatty program cannot
+ *       block on a full pipe; only the first maxOutputBytes of each are read back.</li>
+ * </ul>
+ * The environment is cleared except PATH. Network and filesystem isolation is left to the
+ * configured command prefix (a dedicated account, firejail, nsjail).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessSandbox {
+
+    static final long POLL_INTERVAL_MS = 10;
+
+    private static final int SIGKILL_EXIT = 128 + 9;
+    private static final int SIGXCPU_EXIT = 128 + 24;
+    private static final String MEMORY_PLACEHOLDER = "{memoryMb}";
+    private static final Pattern OUT_OF_MEMORY = Pattern.compile(
+        "MemoryError|OutOfMemoryError|std::bad_alloc|heap out of memory|Cannot allocate memory");
+
+    private final CodeExecutionProperties properties;
+
+    /**
+     * Refuse to start without a command prefix, so untrusted code never runs as the application's user by accident
+     */
+    @PostConstruct
+    void checkIsolation() {
+        if (!properties.getCommandPrefix().isEmpty()) {
+            return;
+        }
+        if (!properties.isAllowUnsandboxed()) {
+            throw new IllegalStateException("app.code-execution.command-prefix is required to run submitted code "
+                + "under an isolated account; set app.code-execution.allow-unsandboxed only for local development");
+        }
+        log.warn("No code execution command prefix configured; submitted code runs as the application's OS user");
+    }
+
+    /**
+     * Create a private working directory holding the submitted source file
+     */
+    public Path prepare(Long submissionId, Language language, String code) throws IOException {
+        Path root = Paths.get(properties.getWorkDir());
+        Files.createDirectories(root);
+        Path dir = Files.createTempDirectory(root, "submission-" + submissionId + "-");
+        Files.writeString(dir.resolve(language.getSourceFile()), code, StandardCharsets.UTF_8);
+        return dir;
+    }
+
+    public SandboxResult compile(Path dir, Language language) {
+        int timeoutMs = properties.getCompileTimeoutMs();
+        return execute(dir, language.getCompile(), "compile", "", timeoutMs, timeoutMs, 0, 0);
+    }
+
+    public SandboxResult run(Path dir, Language language, String runId, String input,
+                             int cpuLimitMs, int memoryLimitKb) {
+        String memoryMb = String.valueOf(Math.max(16, memoryLimitKb / 1024));
+        List<String> command = new ArrayList<>();
+        for (String arg : language.getRun()) {
+            command.add(arg.replace(MEMORY_PLACEHOLDER, memoryMb));
+        }
+        long wallLimitMs = (long) Math.ceil(cpuLimitMs * properties.getWallClockFactor());
+        long addressSpaceKb = language.isLimitAddressSpace() ? memoryLimitKb : 0;
+        return execute(dir, command, runId, input, cpuLimitMs, wallLimitMs, addressSpaceKb, memoryLimitKb);
+    }
+
+    public void cleanup(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Failed to clean up sandbox directory {}", dir, e);
+        }
+    }
+
+    private SandboxResult execute(Path dir, List<String> command, String runId, String input,
+                                  long cpuLimitMs, long wallLimitMs, long addressSpaceKb, long memoryLimitKb) {
+        Path stdin = dir.resolve(runId + ".in");
+        Path stdout = dir.resolve(runId + ".out");
+        Path stderr = dir.resolve(runId + ".err");
+
+        Process process;
+        long start = System.nanoTime();
+        try {
+            Files.writeString(stdin, input == null ? "" : input, StandardCharsets.UTF_8);
+            ProcessBuilder builder = new ProcessBuilder(wrap(command, cpuLimitMs, addressSpaceKb))
+                .directory(dir.toFile())
+                .redirectInput(stdin.toFile())
+                .redirectOutput(stdout.toFile())
+                .redirectError(stderr.toFile());
+            Map<String, String> environment = builder.environment();
+            String path = environment.get("PATH");
+            environment.clear();
+            environment.put("PATH", path == null ? "/usr/local/bin:/usr/bin:/bin" : path);
+            environment.put("HOME", dir.toString());
+            environment.put("LANG", "C.UTF-8");
+            process = builder.start();
+        } catch (IOException e) {
+            log.warn("Failed to start sandbox process {}", command, e);
+            return SandboxResult.builder().exitCode(-1).stdout("").stderr(e.getMessage()).launchFailed(true).build();
+        }
+
+        long peakMemoryKb = 0;
+        boolean timedOut = false;
+        boolean memoryExceeded = false;
+        try {
+            while (!process.waitFor(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                long cpuMs = cpuTimeMs(process.toHandle());
+                long residentKb = peakResidentKb(process.pid());
+                for (ProcessHandle child : (Iterable<ProcessHandle>) process.descendants()::iterator) {
+                    cpuMs += cpuTimeMs(child);
+                    residentKb += peakResidentKb(child.pid());
+                }
+                peakMemoryKb = Math.max(peakMemoryKb, residentKb);
+
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (cpuMs > cpuLimitMs || elapsedMs > wallLimitMs) {
+                    timedOut = true;
+                    break;
+                }
+                if (memoryLimitKb > 0 && peakMemoryKb > memoryLimitKb) {
+                    memoryExceeded = true;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+        } finally {
+            if (process.isAlive()) {
+                kill(process);
+            }
+        }
+        long wallTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int exitCode = process.isAlive() ? SIGKILL_EXIT : process.exitValue();
+        String errorOutput = readOutput(stderr);
+        timedOut |= exitCode == SIGXCPU_EXIT;
+        memoryExceeded |= !timedOut && exitCode != 0 && OUT_OF_MEMORY.matcher(errorOutput).find();
+
+        SandboxResult result = SandboxResult.builder()
+            .exitCode(exitCode)
+            .stdout(readOutput(stdout))
+            .stderr(errorOutput)
+            .wallTimeMs(wallTimeMs)
+            .peakMemoryKb(peakMemoryKb > 0 ? peakMemoryKb : null)
+            .timedOut(timedOut)
+            .memoryExceeded(memoryExceeded)
+            .build();
+
+        for (Path file : new Path[]{stdin, stdout, stderr}) {
+            file.toFile().delete();
+        }
+        return result;
+    }
+
+    private List<String> wrap(List<String> command, long cpuLimitMs, long addressSpaceKb) {
+        // The rlimit is a whole-second backstop one second above the limit enforced by polling
+        long cpuSeconds = (cpuLimitMs + 999) / 1000 + 1;
+        // POSIX sh counts file size in 512-byte blocks
+        long fileBlocks = properties.getMaxFileSizeKb() * 2L;
+
+        StringBuilder limits = new StringBuilder()
+            .append("ulimit -t ").append(cpuSeconds)
+            .append("; ulimit -f ").append(fileBlocks).append("; ");
+        if (addressSpaceKb > 0) {
+            limits.append("ulimit -v ").append(addressSpaceKb).append("; ");
+        }
+        limits.append("exec \"$@\"");
+
+        List<String> wrapped = new ArrayList<>(properties.getCommandPrefix());
+        wrapped.add("/bin/sh");
+        wrapped.add("-c");
+        wrapped.add(limits.toString());
+        wrapped.add("sandbox");
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    private void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        try {
+            process.waitFor(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String readOutput(Path file) {
+        int limit = properties.getMaxOutputBytes();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] bytes = in.readNBytes(limit);
+            String output = new String(bytes, StandardCharsets.UTF_8);
+            return in.read() < 0 ? output : output + "\n... (output truncated)";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static long cpuTimeMs(ProcessHandle handle) {
+        return handle.info().totalCpuDuration().map(Duration::toMillis).orElse(0L);
+    }
+
+    /**
+     * VmHWM (peak resident set size) from /proc; 0 where unavailable or already exited
+     */
+    static long peakResidentKb(long pid) {
+        try (Stream<String> lines = Files.lines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmHWM:"))
+                .findFirst()
+                .map(line -> Long.parseLong(line.replaceAll("[^0-9]", "")))
+                .orElse(0L);
+        } catch (IOException | RuntimeException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of one sandboxed process
+ */
+@Getter
+@Builder
+public class SandboxResult {
+
+    private final int exitCode;
+    private final String stdout;
+    private final String stderr;
+    private final long wallTimeMs;
+    private final Long peakMemoryKb;
+    private final boolean timedOut;
+    private final boolean memoryExceeded;
+
+    /**
+     * The process could not be started (missing toolchain, I/O failure)
+     */
+    private final boolean launchFailed;
+
+    public boolean isSuccess() {
+        return !launchFailed && !timedOut && !memoryExceeded && exitCode == 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import com.eduforum.api.domain.assessment.entity.ExecutionStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Verdict of one test case run
+ */
+@Getter
+@Builder
+public class TestOutcome {
+
+    private final ExecutionStatus status;
+    private final boolean passed;
+    private final String actualOutput;
+    private final String errorMessage;
+    private final Long executionTimeMs;
+    private final Long memoryUsedKb;
+}
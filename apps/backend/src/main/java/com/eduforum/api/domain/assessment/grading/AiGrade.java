@@ -0,0 +1,20 @@
+package com.eduforum.api.domain.assessment.grading;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Score and feedback returned by the grading model for one submission
+ */
+@Getter
+@Builder
+public class AiGrade {
+
+    private final BigDecimal score;
+    private final BigDecimal maxScore;
+    private final BigDecimal confidence;
+    private final String feedback;
+    private final String model;
+}
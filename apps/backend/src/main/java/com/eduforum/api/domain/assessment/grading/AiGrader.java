@@ -0,0 +1,13 @@
+package com.eduforum.api.domain.assessment.grading;
+
+/**
+ * Model backend that scores a submission.
+ * Implementations are called concurrently from the grading workers and signal a
+ * failed call (timeout, rate limit, malformed answer) with a runtime exception.
+ * A call cut short by an interrupt must leave the thread's interrupt flag set, so the
+ * caller can tell a shutdown from a failed attempt.
+ */
+public interface AiGrader {
+
+    AiGrade grade(Long submissionId, String model);
+}
@@ -0,0 +1,469 @@
+package com.eduforum.api.domain.assessment.grading;
+
+import com.eduforum.api.domain.assessment.config.GradingProperties;
+import com.eduforum.api.domain.assessment.dto.grading.GradingJobResponse;
+import com.eduforum.api.domain.assessment.entity.GradingJobStatus;
+import com.eduforum.api.domain.assessment.entity.GradingResult;
+import com.eduforum.api.domain.assessment.execution.FairTaskQueue;
+import com.eduforum.api.domain.assessment.execution.FairWorkerPool;
+import com.eduforum.api.domain.assessment.repository.GradingResultRepository;
+import com.eduforum.api.domain.assessment.service.AiGradingService;
+import com.eduforum.api.domain.assessment.service.FeedbackService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pool for batch AI grading jobs.
+ * <ul>
+ *   <li>Jobs live in assessment.grading_jobs; a node claims a job by stamping its node id and
+ *       keeps it with a periodic heartbeat. Jobs whose node stopped beating are claimed again
+ *       and resume from their PENDING items, so a restart loses at most the unsaved chunk.</li>
+ *   <li>Submissions are queued per job and served round-robin by {@code parallelism} workers,
+ *       so a large job does not hold back a small one; each job has its own rate limit.</li>
+ *   <li>A failed grader call is retried after a delay that doubles per attempt; the attempt
+ *       count and next_attempt_at are saved, so a resumed job keeps the backoff.</li>
+ *   <li>Results are saved in chunks: one transaction first marks the items that are still
+ *       PENDING, then stores the grading results of only those items and advances the job
+ *       counters, so a submission graded by two nodes is saved once. Progress is then
+ *       pushed to /topic/grading/jobs/{jobId}.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class GradingJobRunner implements SmartLifecycle {
+
+    private static final int CLAIM_BATCH = 10;
+
+    private static final String CLAIM_JOB_SQL =
+        "UPDATE assessment.grading_jobs SET status = 'RUNNING', worker_node = ?, heartbeat_at = NOW(), " +
+        "started_at = COALESCE(started_at, NOW()), updated_at = NOW() " +
+        "WHERE id = ? AND status = 'QUEUED' " +
+        "RETURNING id, ai_model, generate_feedback";
+
+    private static final String CLAIM_ORPHANED_SQL =
+        "UPDATE assessment.grading_jobs SET status = 'RUNNING', worker_node = ?, heartbeat_at = NOW(), " +
+        "started_at = COALESCE(started_at, NOW()), updated_at = NOW() " +
+        "WHERE id IN (SELECT id FROM assessment.grading_jobs " +
+        "  WHERE status = 'QUEUED' OR (status = 'RUNNING' AND heartbeat_at < ?) " +
+        "  ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+        "RETURNING id, ai_model, generate_feedback";
+
+    private static final String RELEASE_OWN_SQL =
+        "UPDATE assessment.grading_jobs SET status = 'QUEUED', worker_node = NULL, updated_at = NOW() " +
+        "WHERE status = 'RUNNING' AND worker_node = ?";
+
+    private static final String HEARTBEAT_SQL =
+        "UPDATE assessment.grading_jobs SET heartbeat_at = NOW() " +
+        "WHERE worker_node = ? AND status = 'RUNNING' AND id = ANY(?) RETURNING id";
+
+    private static final String PENDING_ITEMS_SQL =
+        "SELECT submission_id, attempts, next_attempt_at FROM assessment.grading_job_items " +
+        "WHERE job_id = ? AND status = 'PENDING' ORDER BY submission_id";
+
+    private static final String DEFER_ITEM_SQL =
+        "UPDATE assessment.grading_job_items SET attempts = ?, error_message = ?, next_attempt_at = ? " +
+        "WHERE job_id = ? AND submission_id = ? AND status = 'PENDING'";
+
+    private static final String FINISH_ITEMS_SQL =
+        "UPDATE assessment.grading_job_items i SET status = u.status, attempts = u.attempts, " +
+        "error_message = u.error_message, next_attempt_at = NULL, finished_at = NOW() " +
+        "FROM unnest(?::bigint[], ?::varchar[], ?::int[], ?::text[]) " +
+        "  AS u(submission_id, status, attempts, error_message) " +
+        "WHERE i.job_id = ? AND i.submission_id = u.submission_id AND i.status = 'PENDING' " +
+        "RETURNING i.submission_id";
+
+    private static final String LINK_RESULT_SQL =
+        "UPDATE assessment.grading_job_items SET grading_result_id = ? WHERE job_id = ? AND submission_id = ?";
+
+    private static final String ADVANCE_JOB_SQL =
+        "UPDATE assessment.grading_jobs SET completed_items = completed_items + ?, failed_items = failed_items + ?, " +
+        "status = CASE WHEN completed_items + failed_items + ? >= total_items THEN 'COMPLETED' ELSE status END, " +
+        "finished_at = CASE WHEN completed_items + failed_items + ? >= total_items THEN NOW() ELSE finished_at END, " +
+        "heartbeat_at = NOW(), updated_at = NOW() " +
+        "WHERE id = ? RETURNING id, status, ai_model, total_items, completed_items, failed_items, started_at, finished_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GradingResultRepository gradingResultRepository;
+    private final AiGradingService aiGradingService;
+    private final FeedbackService feedbackService;
+    private final AiGrader grader;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GradingProperties properties;
+    private final String nodeId;
+    private final FairTaskQueue<Long, Runnable> queue = new FairTaskQueue<>(Integer.MAX_VALUE);
+    private final Map<Long, JobRun> activeJobs = new ConcurrentHashMap<>();
+    private final FairWorkerPool<Long> workers = new FairWorkerPool<>("grading-worker", queue);
+    private volatile ScheduledExecutorService retryTimer;
+
+    public GradingJobRunner(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            GradingResultRepository gradingResultRepository,
+                            AiGradingService aiGradingService,
+                            FeedbackService feedbackService,
+                            AiGrader grader,
+                            SimpMessagingTemplate messagingTemplate,
+                            GradingProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.gradingResultRepository = gradingResultRepository;
+        this.aiGradingService = aiGradingService;
+        this.feedbackService = feedbackService;
+        this.grader = grader;
+        this.messagingTemplate = messagingTemplate;
+        this.properties = properties;
+        String hostname = System.getenv("HOSTNAME");
+        this.nodeId = hostname != null && !hostname.isBlank() ? hostname : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Claim a newly created job for this node and start grading it
+     */
+    public void submit(Long jobId) {
+        if (!workers.isRunning()) {
+            return;
+        }
+        List<ClaimedJob> claimed = jdbcTemplate.query(CLAIM_JOB_SQL, (rs, rowNum) -> new ClaimedJob(
+            rs.getLong("id"), rs.getString("ai_model"), rs.getBoolean("generate_feedback")), nodeId, jobId);
+        claimed.forEach(this::startRun);
+    }
+
+    /**
+     * Keep this node's jobs claimed, drop the ones another node took over,
+     * and pick up queued or orphaned jobs
+     */
+    @Scheduled(fixedDelayString = "${app.grading.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!workers.isRunning()) {
+            return;
+        }
+        if (!activeJobs.isEmpty()) {
+            Long[] ids = activeJobs.keySet().toArray(new Long[0]);
+            Set<Long> kept = new HashSet<>(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(HEARTBEAT_SQL);
+                ps.setString(1, nodeId);
+                ps.setArray(2, con.createArrayOf("bigint", ids));
+                return ps;
+            }, (rs, rowNum) -> rs.getLong("id")));
+            for (Long id : ids) {
+                if (!kept.contains(id)) {
+                    log.warn("Grading job {} is no longer owned by node {}, stopping it here", id, nodeId);
+                    abandon(id);
+                }
+            }
+        }
+        claimOrphaned();
+    }
+
+    @Override
+    public void start() {
+        int count = Math.max(1, properties.getParallelism());
+        retryTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "grading-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.start(count);
+        log.info("Grading job runner started on node {} with {} workers", nodeId, count);
+
+        // Jobs this node was running before a restart can resume right away instead of waiting to go stale
+        int released = jdbcTemplate.update(RELEASE_OWN_SQL, nodeId);
+        if (released > 0) {
+            log.info("Resuming {} grading jobs interrupted on node {}", released, nodeId);
+        }
+        claimOrphaned();
+    }
+
+    @Override
+    public void stop() {
+        workers.stop();
+        retryTimer.shutdownNow();
+        // Unsaved partial chunks stay PENDING and are graded again when the job resumes
+        activeJobs.clear();
+        log.info("Grading job runner stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return workers.isRunning();
+    }
+
+    private void claimOrphaned() {
+        Timestamp staleBefore = Timestamp.from(Instant.now().minusMillis(properties.getStaleAfterMs()));
+        List<ClaimedJob> claimed = jdbcTemplate.query(CLAIM_ORPHANED_SQL, (rs, rowNum) -> new ClaimedJob(
+                rs.getLong("id"), rs.getString("ai_model"), rs.getBoolean("generate_feedback")),
+            nodeId, staleBefore, CLAIM_BATCH);
+        claimed.forEach(this::startRun);
+    }
+
+    private void startRun(ClaimedJob job) {
+        List<PendingItem> pending = jdbcTemplate.query(PENDING_ITEMS_SQL,
+            (rs, rowNum) -> new PendingItem(rs.getLong("submission_id"), rs.getInt("attempts"),
+                rs.getTimestamp("next_attempt_at")), job.id);
+
+        JobRun run = new JobRun(job, new RateLimiter(properties.getRatePerSecond()), pending.size());
+        log.info("Grading job {} started with {} pending submissions", job.id, pending.size());
+        if (pending.isEmpty()) {
+            flush(run, List.of());
+            return;
+        }
+        activeJobs.put(job.id, run);
+        long now = System.currentTimeMillis();
+        for (PendingItem item : pending) {
+            long delayMs = item.nextAttemptAt != null ? item.nextAttemptAt.getTime() - now : 0;
+            schedule(run, item.submissionId, item.attempts, delayMs);
+        }
+    }
+
+    private void schedule(JobRun run, long submissionId, int attempts, long delayMs) {
+        Runnable task = () -> grade(run, submissionId, attempts);
+        if (delayMs <= 0) {
+            queue.offer(run.job.id, task, true);
+            return;
+        }
+        try {
+            retryTimer.schedule(() -> queue.offer(run.job.id, task, true), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the item stays PENDING for the next claim
+        }
+    }
+
+    private void grade(JobRun run, long submissionId, int attempts) {
+        if (run.abandoned) {
+            return;
+        }
+        int attempt = attempts + 1;
+        try {
+            run.limiter.acquire();
+            AiGrade grade = grader.grade(submissionId, run.job.aiModel);
+            record(run, new ItemOutcome(submissionId, attempt, aiGradingService.toGradingResult(submissionId, grade), null));
+        } catch (InterruptedException e) {
+            // Shutting down; the item stays PENDING for the next claim
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            if (!workers.isRunning() || Thread.currentThread().isInterrupted()) {
+                // Shutting down; the grader gave up on the interrupt, so the item stays PENDING for the next claim
+                return;
+            }
+            if (attempt < properties.getMaxAttempts()) {
+                long delayMs = properties.getRetryDelayMs() << Math.min(attempt - 1, 16);
+                log.debug("Grading submission {} failed (attempt {}), retrying in {} ms",
+                    submissionId, attempt, delayMs, e);
+                defer(run, submissionId, attempt, e.getMessage(), delayMs);
+                schedule(run, submissionId, attempt, delayMs);
+            } else {
+                log.warn("Grading submission {} of job {} failed after {} attempts: {}",
+                    submissionId, run.job.id, attempt, e.getMessage());
+                record(run, new ItemOutcome(submissionId, attempt, null, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Save the failed attempt and when the next one is due, so a resumed job keeps the backoff
+     */
+    private void defer(JobRun run, long submissionId, int attempts, String error, long delayMs) {
+        try {
+            jdbcTemplate.update(DEFER_ITEM_SQL, attempts, error,
+                Timestamp.from(Instant.now().plusMillis(delayMs)), run.job.id, submissionId);
+        } catch (Exception e) {
+            log.warn("Could not save retry state of submission {} in job {}: {}",
+                submissionId, run.job.id, e.getMessage());
+        }
+    }
+
+    private void record(JobRun run, ItemOutcome outcome) {
+        List<ItemOutcome> chunk = null;
+        synchronized (run) {
+            run.buffer.add(outcome);
+            long now = System.nanoTime();
+            boolean last = run.remaining.decrementAndGet() == 0;
+            if (last || run.buffer.size() >= properties.getChunkSize()
+                    || now - run.lastFlushNanos >= TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs())) {
+                chunk = new ArrayList<>(run.buffer);
+                run.buffer.clear();
+                run.lastFlushNanos = now;
+            }
+        }
+        if (chunk != null) {
+            flush(run, chunk);
+        }
+    }
+
+    private void flush(JobRun run, List<ItemOutcome> chunk) {
+        GradingJobResponse progress;
+        try {
+            progress = transactionTemplate.execute(status -> saveChunk(run, chunk));
+        } catch (Exception e) {
+            // The items stay PENDING; once the heartbeat lapses the job is claimed and resumed
+            log.error("Failed to save grading chunk of job {}, releasing the job", run.job.id, e);
+            abandon(run.job.id);
+            return;
+        }
+
+        if (progress == null) {
+            return;
+        }
+        if (progress.getStatus() == GradingJobStatus.COMPLETED) {
+            activeJobs.remove(run.job.id);
+            log.info("Grading job {} completed: {} graded, {} failed", run.job.id,
+                progress.getCompletedItems(), progress.getFailedItems());
+        }
+        messagingTemplate.convertAndSend("/topic/grading/jobs/" + run.job.id, progress);
+    }
+
+    private GradingJobResponse saveChunk(JobRun run, List<ItemOutcome> chunk) {
+        // Finish the items first: the ones still PENDING are this node's to save, and their row
+        // locks keep another node that graded the same submissions from saving them as well
+        Set<Long> won = chunk.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FINISH_ITEMS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint",
+                chunk.stream().map(item -> item.submissionId).toArray(Long[]::new)));
+            ps.setArray(2, con.createArrayOf("varchar",
+                chunk.stream().map(item -> item.result != null ? "GRADED" : "FAILED").toArray(String[]::new)));
+            ps.setArray(3, con.createArrayOf("integer",
+                chunk.stream().map(item -> item.attempts).toArray(Integer[]::new)));
+            ps.setArray(4, con.createArrayOf("text",
+                chunk.stream().map(item -> item.error).toArray(String[]::new)));
+            ps.setLong(5, run.job.id);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong("submission_id")));
+
+        List<ItemOutcome> graded = new ArrayList<>();
+        int failed = 0;
+        for (ItemOutcome item : chunk) {
+            if (!won.contains(item.submissionId)) {
+                continue;
+            }
+            if (item.result != null) {
+                graded.add(item);
+            } else {
+                failed++;
+            }
+        }
+
+        if (!graded.isEmpty()) {
+            gradingResultRepository.saveAll(graded.stream().map(ItemOutcome::getResult).toList());
+            jdbcTemplate.batchUpdate(LINK_RESULT_SQL, graded, graded.size(), (ps, item) -> {
+                ps.setLong(1, item.result.getId());
+                ps.setLong(2, run.job.id);
+                ps.setLong(3, item.submissionId);
+            });
+            if (run.job.generateFeedback) {
+                for (ItemOutcome item : graded) {
+                    feedbackService.generateFeedbackForSubmission(item.submissionId);
+                }
+            }
+        }
+        int completed = graded.size();
+
+        List<GradingJobResponse> progress = jdbcTemplate.query(ADVANCE_JOB_SQL, (rs, rowNum) -> {
+            int total = rs.getInt("total_items");
+            int done = rs.getInt("completed_items");
+            int errors = rs.getInt("failed_items");
+            return GradingJobResponse.builder()
+                .id(rs.getLong("id"))
+                .status(GradingJobStatus.valueOf(rs.getString("status")))
+                .aiModel(rs.getString("ai_model"))
+                .totalItems(total)
+                .completedItems(done)
+                .failedItems(errors)
+                .progress(total == 0 ? 100.0 : (double) (done + errors) / total * 100)
+                .startedAt(toOffsetDateTime(rs.getTimestamp("started_at")))
+                .finishedAt(toOffsetDateTime(rs.getTimestamp("finished_at")))
+                .build();
+        }, completed, failed, completed + failed, completed + failed, run.job.id);
+        return progress.isEmpty() ? null : progress.get(0);
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private void abandon(Long jobId) {
+        JobRun run = activeJobs.remove(jobId);
+        if (run != null) {
+            run.abandoned = true;
+        }
+    }
+
+    private static final class ClaimedJob {
+        private final long id;
+        private final String aiModel;
+        private final boolean generateFeedback;
+
+        private ClaimedJob(long id, String aiModel, boolean generateFeedback) {
+            this.id = id;
+            this.aiModel = aiModel;
+            this.generateFeedback = generateFeedback;
+        }
+    }
+
+    private static final class PendingItem {
+        private final long submissionId;
+        private final int attempts;
+        private final Timestamp nextAttemptAt;
+
+        private PendingItem(long submissionId, int attempts, Timestamp nextAttemptAt) {
+            this.submissionId = submissionId;
+            this.attempts = attempts;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    private static final class ItemOutcome {
+        private final long submissionId;
+        private final int attempts;
+        private final GradingResult result;
+        private final String error;
+
+        private ItemOutcome(long submissionId, int attempts, GradingResult result, String error) {
+            this.submissionId = submissionId;
+            this.attempts = attempts;
+            this.result = result;
+            this.error = error;
+        }
+
+        private GradingResult getResult() {
+            return result;
+        }
+    }
+
+    private static final class JobRun {
+        private final ClaimedJob job;
+        private final RateLimiter limiter;
+        private final AtomicInteger remaining;
+        private final List<ItemOutcome> buffer = new ArrayList<>();
+        private long lastFlushNanos = System.nanoTime();
+        private volatile boolean abandoned;
+
+        private JobRun(ClaimedJob job, RateLimiter limiter, int pending) {
+            this.job = job;
+            this.limiter = limiter;
+            this.remaining = new AtomicInteger(pending);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.eduforum.api.domain.assessment.grading;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls evenly at a fixed rate.
+ * Each caller reserves the next free slot and sleeps until it arrives, so
+ * concurrent workers sharing one limiter never exceed the rate together.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos;
+
+    /**
+     * @param permitsPerSecond maximum rate; 0 or less means unlimited
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Claim the next slot at or after now and return how long to wait for it
+     */
+    synchronized long reserve(long nowNanos) {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long slot = Math.max(nextFreeNanos, nowNanos);
+        nextFreeNanos = slot + intervalNanos;
+        return slot - nowNanos;
+    }
+}
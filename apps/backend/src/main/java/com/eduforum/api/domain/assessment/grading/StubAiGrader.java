@@ -0,0 +1,70 @@
+package com.eduforum.api.domain.assessment.grading;
+
+import com.eduforum.api.domain.assessment.config.GradingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the model backend.
+ * Scores are deterministic per submission; latency and failures follow app.grading.stub,
+ * so job throughput and latency can be measured without calling a real model.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.grading", name = "grader", havingValue = "stub", matchIfMissing = true)
+@RequiredArgsConstructor
+public class StubAiGrader implements AiGrader {
+
+    private static final BigDecimal MAX_SCORE = BigDecimal.valueOf(100);
+
+    private final GradingProperties properties;
+
+    @Override
+    public AiGrade grade(Long submissionId, String model) {
+        GradingProperties.Stub stub = properties.getStub();
+        simulateLatency(stub);
+        if (stub.getFailureRate() > 0 && ThreadLocalRandom.current().nextDouble() < stub.getFailureRate()) {
+            throw new IllegalStateException("Simulated grader failure");
+        }
+
+        SplittableRandom random = new SplittableRandom(submissionId);
+        BigDecimal score = BigDecimal.valueOf(60 + random.nextInt(41));
+        return AiGrade.builder()
+            .score(score)
+            .maxScore(MAX_SCORE)
+            .confidence(BigDecimal.valueOf(85 + random.nextInt(15)))
+            .feedback(feedbackFor(score))
+            .model(model)
+            .build();
+    }
+
+    private void simulateLatency(GradingProperties.Stub stub) {
+        long jitter = stub.getJitterMs() > 0
+            ? ThreadLocalRandom.current().nextLong(-stub.getJitterMs(), stub.getJitterMs() + 1)
+            : 0;
+        long latency = Math.max(0, stub.getLatencyMs() + jitter);
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Grading interrupted", e);
+        }
+    }
+
+    private String feedbackFor(BigDecimal score) {
+        int scoreValue = score.intValue();
+        if (scoreValue >= 90) {
+            return "Excellent work! Your answer demonstrates comprehensive understanding.";
+        } else if (scoreValue >= 75) {
+            return "Good effort. Your answer shows solid understanding with room for improvement.";
+        } else if (scoreValue >= 60) {
+            return "Fair work. Consider reviewing key concepts and providing more detail.";
+        } else {
+            return "Needs improvement. Please review the material and seek additional help.";
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.eduforum.api.domain.assessment.leaderboard;
+
+import com.eduforum.api.common.util.TransactionUtil;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-course participation rankings held in memory.
+ * A course is loaded from participation_scores on first use and then kept current
+ * by the score updates of this node, applied when their transaction commits.
+ * Boards are reloaded after {@link #REFRESH_INTERVAL_MS} so updates made on other
+ * nodes are picked up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParticipationLeaderboard {
+
+    private static final long REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String LOAD_COURSE_SQL =
+        "SELECT student_id, total_score FROM assessment.participation_scores WHERE course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, CourseBoard> boards = new ConcurrentHashMap<>();
+
+    /**
+     * Record a student's new total once the current transaction commits
+     */
+    public void update(Long courseId, Long studentId, BigDecimal totalScore) {
+        TransactionUtil.afterCommit(() -> {
+            CourseBoard board = boards.get(courseId);
+            if (board != null) {
+                synchronized (board) {
+                    board.tree.put(studentId, toCents(totalScore));
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop the course's board once the current transaction commits; it is reloaded on next use
+     */
+    public void invalidate(Long courseId) {
+        TransactionUtil.afterCommit(() -> boards.remove(courseId));
+    }
+
+    /**
+     * Rank of a student; students without a score rank as if they had zero
+     */
+    public Standing standing(Long courseId, Long studentId) {
+        CourseBoard board = board(courseId);
+        synchronized (board) {
+            Long score = board.tree.score(studentId);
+            int rank = board.tree.countAbove(score != null ? score : 0L) + 1;
+            return new Standing(rank, board.tree.size());
+        }
+    }
+
+    public int size(Long courseId) {
+        CourseBoard board = board(courseId);
+        synchronized (board) {
+            return board.tree.size();
+        }
+    }
+
+    /**
+     * Students at zero-based positions [offset, offset + limit), highest score first
+     */
+    public List<Ranked> range(Long courseId, int offset, int limit) {
+        CourseBoard board = board(courseId);
+        synchronized (board) {
+            return board.tree.range(offset, limit).stream()
+                .map(entry -> new Ranked(board.tree.countAbove(entry.getScore()) + 1, entry.getStudentId(),
+                    BigDecimal.valueOf(entry.getScore(), 2)))
+                .toList();
+        }
+    }
+
+    private CourseBoard board(Long courseId) {
+        CourseBoard board = boards.get(courseId);
+        if (board != null && System.currentTimeMillis() - board.loadedAt < REFRESH_INTERVAL_MS) {
+            return board;
+        }
+        CourseBoard loaded = load(courseId);
+        boards.put(courseId, loaded);
+        return loaded;
+    }
+
+    private CourseBoard load(Long courseId) {
+        CourseBoard board = new CourseBoard();
+        jdbcTemplate.query(LOAD_COURSE_SQL, rs -> {
+            board.tree.put(rs.getLong("student_id"), toCents(rs.getBigDecimal("total_score")));
+        }, courseId);
+        log.debug("Loaded participation leaderboard of course {} with {} students", courseId, board.tree.size());
+        return board;
+    }
+
+    private static long toCents(BigDecimal score) {
+        return score == null ? 0L : score.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static final class CourseBoard {
+        private final RankTree tree = new RankTree();
+        private final long loadedAt = System.currentTimeMillis();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Standing {
+        private final int rank;
+        private final int classSize;
+
+        public double getPercentile() {
+            if (classSize == 0) return 0.0;
+            return ((double) (classSize - rank) / classSize) * 100;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Ranked {
+        private final int rank;
+        private final long studentId;
+        private final BigDecimal totalScore;
+    }
+}
@@ -0,0 +1,193 @@
+package com.eduforum.api.domain.assessment.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic treap of student scores, ordered by score descending and then
+ * student ID ascending. Every node stores its subtree size, so updates, rank
+ * queries and positional lookups are O(log n) expected.
+ * Not thread-safe; callers synchronize.
+ */
+public class RankTree {
+
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom(0x5EED);
+    private Node root;
+
+    /**
+     * Insert a student or move it to a new score
+     */
+    public void put(long studentId, long score) {
+        Long previous = scores.put(studentId, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            root = delete(root, previous, studentId);
+        }
+        Node[] parts = split(root, score, studentId);
+        root = merge(merge(parts[0], new Node(studentId, score, random.nextInt())), parts[1]);
+    }
+
+    public void remove(long studentId) {
+        Long previous = scores.remove(studentId);
+        if (previous != null) {
+            root = delete(root, previous, studentId);
+        }
+    }
+
+    public Long score(long studentId) {
+        return scores.get(studentId);
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Number of students with a strictly higher score
+     */
+    public int countAbove(long score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Up to {@code limit} entries starting at zero-based position {@code offset}
+     */
+    public List<Entry> range(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>();
+        int end = Math.min(size(), offset + limit);
+        for (int index = Math.max(0, offset); index < end; index++) {
+            Node node = select(index);
+            entries.add(new Entry(node.studentId, node.score));
+        }
+        return entries;
+    }
+
+    private Node select(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private static boolean before(long score, long studentId, Node node) {
+        return score > node.score || (score == node.score && studentId < node.studentId);
+    }
+
+    /**
+     * Split into nodes ordered before (score, studentId) and the rest
+     */
+    private static Node[] split(Node node, long score, long studentId) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (before(score, studentId, node) || (score == node.score && studentId == node.studentId)) {
+            Node[] parts = split(node.left, score, studentId);
+            node.left = parts[1];
+            node.update();
+            return new Node[]{parts[0], node};
+        }
+        Node[] parts = split(node.right, score, studentId);
+        node.right = parts[0];
+        node.update();
+        return new Node[]{node, parts[1]};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node delete(Node node, long score, long studentId) {
+        if (node == null) {
+            return null;
+        }
+        if (score == node.score && studentId == node.studentId) {
+            return merge(node.left, node.right);
+        }
+        if (before(score, studentId, node)) {
+            node.left = delete(node.left, score, studentId);
+        } else {
+            node.right = delete(node.right, score, studentId);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    public static final class Entry {
+        private final long studentId;
+        private final long score;
+
+        private Entry(long studentId, long score) {
+            this.studentId = studentId;
+            this.score = score;
+        }
+
+        public long getStudentId() {
+            return studentId;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+
+    private static final class Node {
+        private final long studentId;
+        private final long score;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(long studentId, long score, int priority) {
+            this.studentId = studentId;
+            this.score = score;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + RankTree.size(left) + RankTree.size(right);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.eduforum.api.domain.assessment.repository;
+
+import com.eduforum.api.domain.assessment.entity.GradingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GradingJobRepository extends JpaRepository<GradingJob, Long> {
+}
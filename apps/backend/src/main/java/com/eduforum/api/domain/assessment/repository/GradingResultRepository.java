@@ -23,4 +23,7 @@ public interface GradingResultRepository extends JpaRepository<GradingResult, Lo
     List<GradingResult> findByAssignmentIdAndGradingType(Long assignmentId, GradingType gradingType);
 
     List<GradingResult> findByStudentIdAndAssignmentId(Long studentId, Long assignmentId);
+
+    Optional<GradingResult> findByAssignmentIdAndSubmissionIdAndGradingType(Long assignmentId, Long submissionId,
+                                                                          GradingType gradingType);
 }
@@ -6,6 +6,8 @@ import com.eduforum.api.domain.assessment.dto.grading.GradingResultResponse;
 import com.eduforum.api.domain.assessment.entity.GradingResult;
 import com.eduforum.api.domain.assessment.entity.GradingStatus;
 import com.eduforum.api.domain.assessment.entity.GradingType;
+import com.eduforum.api.domain.assessment.grading.AiGrade;
+import com.eduforum.api.domain.assessment.grading.AiGrader;
 import com.eduforum.api.domain.assessment.repository.GradingResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,7 +18,6 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,33 +25,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AiGradingService {
 
+    public static final String DEFAULT_MODEL = "gpt-4";
+
     private final GradingResultRepository gradingResultRepository;
     private final FeedbackService feedbackService;
-    private final Random random = new Random();
+    private final AiGrader aiGrader;
 
     @Transactional
     public GradingResultResponse gradeSubmission(Long submissionId, Boolean generateFeedback, String aiModel) {
         log.info("AI grading submission: {} with model: {}", submissionId, aiModel);
 
-        // Simulated AI grading
-        BigDecimal score = simulateAiGrading(submissionId);
-        BigDecimal confidence = BigDecimal.valueOf(85 + random.nextInt(15)); // 85-100%
-
-        GradingResult result = GradingResult.builder()
-            .submissionId(submissionId)
-            .assignmentId(1L) // Simulated
-            .studentId(1L) // Simulated
-            .gradingType(GradingType.AI)
-            .status(GradingStatus.GRADED)
-            .score(score)
-            .maxScore(BigDecimal.valueOf(100))
-            .aiConfidence(confidence)
-            .feedback(generateAiFeedback(score))
-            .gradingDetails(createGradingDetails(aiModel, confidence))
-            .build();
-
-        result.markAsGraded();
-        result = gradingResultRepository.save(result);
+        String model = aiModel != null ? aiModel : DEFAULT_MODEL;
+        GradingResult result = gradingResultRepository.save(toGradingResult(submissionId, aiGrader.grade(submissionId, model)));
 
         if (generateFeedback) {
             feedbackService.generateFeedbackForSubmission(submissionId);
@@ -83,36 +69,37 @@ public class AiGradingService {
             .collect(Collectors.toList());
     }
 
-    @Transactional
-    public List<GradingResultResponse> batchGrade(List<Long> submissionIds, Boolean generateFeedback) {
-        log.info("Batch AI grading {} submissions", submissionIds.size());
-
-        return submissionIds.stream()
-            .map(submissionId -> gradeSubmission(submissionId, generateFeedback, "gpt-4"))
+    @Transactional(readOnly = true)
+    public List<GradingResultResponse> getResults(List<Long> resultIds) {
+        return gradingResultRepository.findAllById(resultIds).stream()
+            .map(this::toResponse)
             .collect(Collectors.toList());
     }
 
-    private BigDecimal simulateAiGrading(Long submissionId) {
-        // Simulated AI scoring - random score between 60-100
-        return BigDecimal.valueOf(60 + random.nextInt(41));
-    }
+    /**
+     * Unsaved AI grading result for a model answer
+     */
+    public GradingResult toGradingResult(Long submissionId, AiGrade grade) {
+        GradingResult result = GradingResult.builder()
+            .submissionId(submissionId)
+            .assignmentId(1L) // Simulated
+            .studentId(1L) // Simulated
+            .gradingType(GradingType.AI)
+            .status(GradingStatus.GRADED)
+            .score(grade.getScore())
+            .maxScore(grade.getMaxScore())
+            .aiConfidence(grade.getConfidence())
+            .feedback(grade.getFeedback())
+            .gradingDetails(createGradingDetails(grade.getModel(), grade.getConfidence()))
+            .build();
 
-    private String generateAiFeedback(BigDecimal score) {
-        int scoreValue = score.intValue();
-        if (scoreValue >= 90) {
-            return "Excellent work! Your answer demonstrates comprehensive understanding.";
-        } else if (scoreValue >= 75) {
-            return "Good effort. Your answer shows solid understanding with room for improvement.";
-        } else if (scoreValue >= 60) {
-            return "Fair work. Consider reviewing key concepts and providing more detail.";
-        } else {
-            return "Needs improvement. Please review the material and seek additional help.";
-        }
+        result.markAsGraded();
+        return result;
     }
 
     private Map<String, Object> createGradingDetails(String aiModel, BigDecimal confidence) {
         Map<String, Object> details = new HashMap<>();
-        details.put("ai_model", aiModel != null ? aiModel : "gpt-4");
+        details.put("ai_model", aiModel != null ? aiModel : DEFAULT_MODEL);
         details.put("confidence", confidence);
         details.put("grading_timestamp", System.currentTimeMillis());
         return details;
@@ -2,17 +2,26 @@ package com.eduforum.api.domain.assessment.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.JsonUtil;
+import com.eduforum.api.domain.active.entity.QuizAnswer;
+import com.eduforum.api.domain.active.entity.QuizSession;
+import com.eduforum.api.domain.active.repository.QuizAnswerRepository;
+import com.eduforum.api.domain.active.repository.QuizSessionRepository;
 import com.eduforum.api.domain.assessment.dto.grading.AnswerStatisticsResponse;
 import com.eduforum.api.domain.assessment.dto.grading.GradingResultResponse;
 import com.eduforum.api.domain.assessment.entity.*;
 import com.eduforum.api.domain.assessment.repository.AnswerStatisticsRepository;
 import com.eduforum.api.domain.assessment.repository.GradingResultRepository;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,24 +32,50 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AutoGradingService {
 
+    // Adds one response to a question's counters; option counts are merged key by key
+    private static final String RECORD_RESPONSE_SQL =
+        "INSERT INTO assessment.answer_statistics (quiz_id, question_id, total_responses, correct_responses, " +
+        "  incorrect_responses, option_distribution, rest_score_sum, rest_score_sq_sum, correct_rest_score_sum) " +
+        "VALUES (?, ?, 1, ?, ?, ?::jsonb, ?, ?, ?) " +
+        "ON CONFLICT (quiz_id, question_id) DO UPDATE SET " +
+        "  total_responses = answer_statistics.total_responses + 1, " +
+        "  correct_responses = answer_statistics.correct_responses + EXCLUDED.correct_responses, " +
+        "  incorrect_responses = answer_statistics.incorrect_responses + EXCLUDED.incorrect_responses, " +
+        "  option_distribution = (SELECT COALESCE(jsonb_object_agg(key, " +
+        "      COALESCE((answer_statistics.option_distribution ->> key)::int, 0) " +
+        "      + COALESCE((EXCLUDED.option_distribution ->> key)::int, 0)), '{}'::jsonb) " +
+        "    FROM jsonb_object_keys(COALESCE(answer_statistics.option_distribution, '{}'::jsonb) " +
+        "      || EXCLUDED.option_distribution) AS key), " +
+        "  rest_score_sum = answer_statistics.rest_score_sum + EXCLUDED.rest_score_sum, " +
+        "  rest_score_sq_sum = answer_statistics.rest_score_sq_sum + EXCLUDED.rest_score_sq_sum, " +
+        "  correct_rest_score_sum = answer_statistics.correct_rest_score_sum + EXCLUDED.correct_rest_score_sum, " +
+        "  updated_at = NOW()";
+
     private final GradingResultRepository gradingResultRepository;
     private final AnswerStatisticsRepository answerStatisticsRepository;
-
+    private final QuizSessionRepository quizSessionRepository;
+    private final QuizAnswerRepository quizAnswerRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record the grade of a submitted quiz session from its answers, which are scored
+     * against the answer keys on submission. Grading a session again updates its result.
+     */
     @Transactional
-    public List<GradingResultResponse> gradeQuizSession(Long quizSessionId, Boolean includeStatistics) {
+    public List<GradingResultResponse> gradeQuizSession(Long quizSessionId) {
         log.info("Auto grading quiz session: {}", quizSessionId);
 
-        // Simulated: In real implementation, fetch quiz responses and grade them
-        // For now, create mock grading results
-        List<GradingResult> results = createMockGradingResults(quizSessionId);
-
-        if (includeStatistics) {
-            updateAnswerStatistics(quizSessionId);
+        QuizSession session = quizSessionRepository.findById(quizSessionId)
+            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND, "Quiz session not found"));
+        if (session.getSubmittedAt() == null) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE, "Quiz session has not been submitted");
         }
 
-        return results.stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
+        GradingResult result = gradeAnswers(session, quizAnswerRepository.findBySessionId(quizSessionId));
+
+        // Answer statistics are maintained as answers are submitted (see recordQuizSubmission)
+
+        return List.of(toResponse(gradingResultRepository.save(result)));
     }
 
     @Transactional(readOnly = true)
@@ -77,15 +112,71 @@ public class AutoGradingService {
             .collect(Collectors.toList());
     }
 
-    private List<GradingResult> createMockGradingResults(Long quizSessionId) {
-        // Simulated grading - in real implementation, this would process actual quiz responses
-        // For demonstration, creating sample results
-        return List.of(); // Implementation placeholder
+    /**
+     * Sum the scored answers into the session's result; quiz results are keyed by quiz (assignment_id)
+     * and session (submission_id)
+     */
+    private GradingResult gradeAnswers(QuizSession session, List<QuizAnswer> answers) {
+        Long quizId = session.getQuiz().getId();
+        GradingResult result = gradingResultRepository
+            .findByAssignmentIdAndSubmissionIdAndGradingType(quizId, session.getId(), GradingType.AUTO)
+            .orElseGet(() -> GradingResult.builder()
+                .assignmentId(quizId)
+                .submissionId(session.getId())
+                .studentId(session.getUser().getId())
+                .gradingType(GradingType.AUTO)
+                .build());
+
+        int score = 0;
+        int maxScore = 0;
+        int correct = 0;
+        for (QuizAnswer answer : answers) {
+            score += answer.getPointsEarned() != null ? answer.getPointsEarned() : 0;
+            maxScore += answer.getMaxScore() != null ? answer.getMaxScore() : 0;
+            if (Boolean.TRUE.equals(answer.getIsCorrect())) {
+                correct++;
+            }
+        }
+
+        result.setScore(BigDecimal.valueOf(score));
+        result.setMaxScore(BigDecimal.valueOf(maxScore));
+        result.setGradingDetails(Map.of("answeredQuestions", answers.size(), "correctAnswers", correct));
+        result.markAsGraded();
+        return result;
     }
 
-    private void updateAnswerStatistics(Long quizSessionId) {
-        // Simulated statistics update
-        log.info("Updating answer statistics for quiz session: {}", quizSessionId);
+    /**
+     * Fold one student's graded quiz submission into the per-question statistics.
+     * Each question gets one atomic upsert in a single JDBC batch, so statistics stay
+     * current during a live quiz without rescanning answers.
+     */
+    @Transactional
+    public void recordQuizSubmission(Long quizId, List<ItemResult> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int totalPoints = items.stream().mapToInt(ItemResult::getPointsEarned).sum();
+
+        // Lock rows in question order so concurrent submissions cannot deadlock
+        List<ItemResult> ordered = items.stream()
+            .sorted(Comparator.comparing(ItemResult::getQuestionId))
+            .collect(Collectors.toList());
+
+        List<Object[]> rows = new ArrayList<>(ordered.size());
+        for (ItemResult item : ordered) {
+            double restScore = totalPoints - item.getPointsEarned();
+            Map<String, Integer> options = new HashMap<>();
+            for (String option : item.getSelectedOptions()) {
+                options.merge(option, 1, Integer::sum);
+            }
+            rows.add(new Object[]{
+                quizId, item.getQuestionId(),
+                item.isCorrect() ? 1 : 0, item.isCorrect() ? 0 : 1,
+                JsonUtil.toJson(options),
+                restScore, restScore * restScore, item.isCorrect() ? restScore : 0.0
+            });
+        }
+        jdbcTemplate.batchUpdate(RECORD_RESPONSE_SQL, rows);
     }
 
     private GradingResultResponse toResponse(GradingResult result) {
@@ -117,8 +208,22 @@ public class AutoGradingService {
             .correctResponses(statistics.getCorrectResponses())
             .incorrectResponses(statistics.getIncorrectResponses())
             .accuracyRate(statistics.getAccuracyRate())
+            .pointBiserial(statistics.getPointBiserial())
             .optionDistribution(statistics.getOptionDistribution())
             .responseTimeStats(statistics.getResponseTimeStats())
             .build();
     }
+
+    /**
+     * One graded answer of a quiz submission
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class ItemResult {
+        private final Long questionId;
+        private final boolean correct;
+        private final int pointsEarned;
+        // Chosen options, empty for questions without options
+        private final List<String> selectedOptions;
+    }
 }
@@ -2,9 +2,15 @@ package com.eduforum.api.domain.assessment.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.TransactionUtil;
+import com.eduforum.api.domain.assessment.config.CodeExecutionProperties;
 import com.eduforum.api.domain.assessment.dto.code.CodeSubmissionResponse;
 import com.eduforum.api.domain.assessment.dto.code.ExecutionResultResponse;
 import com.eduforum.api.domain.assessment.entity.*;
+import com.eduforum.api.domain.assessment.execution.CodeExecutionScheduler;
+import com.eduforum.api.domain.assessment.execution.ExecutionJob;
+import com.eduforum.api.domain.assessment.execution.ExecutionListener;
+import com.eduforum.api.domain.assessment.execution.TestOutcome;
 import com.eduforum.api.domain.assessment.repository.CodeSubmissionRepository;
 import com.eduforum.api.domain.assessment.repository.ExecutionResultRepository;
 import com.eduforum.api.domain.assessment.repository.TestCaseRepository;
@@ -12,9 +18,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,7 +35,10 @@ public class CodeExecutionService {
     private final CodeSubmissionRepository codeSubmissionRepository;
     private final TestCaseRepository testCaseRepository;
     private final ExecutionResultRepository executionResultRepository;
-    private final Random random = new Random();
+    private final CodeExecutionScheduler executionScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final CodeExecutionProperties properties;
+    private final ResultRecorder resultRecorder = new ResultRecorder();
 
     @Transactional
     public CodeSubmissionResponse submitCode(Long studentId, Long assignmentId, String language, String code, Boolean autoRun) {
@@ -50,38 +63,55 @@ public class CodeExecutionService {
         return toResponse(submission);
     }
 
+    /**
+     * Queue the submission on the sandbox worker pool and return it in RUNNING state.
+     * Execution results are recorded as each test case finishes; the submission is
+     * completed by the last one. The job is handed over only after this transaction
+     * commits, so workers never see uncommitted rows. A submission stuck in RUNNING longer
+     * than the lease (e.g. its node restarted mid-run) is run again.
+     */
     @Transactional
     public CodeSubmissionResponse runCode(Long submissionId) {
         CodeSubmission submission = codeSubmissionRepository.findById(submissionId)
             .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND, "Code submission not found"));
-
-        submission.markAsRunning();
-        codeSubmissionRepository.save(submission);
-
-        // Fetch test cases
-        List<TestCase> testCases = testCaseRepository.findByAssignmentId(submission.getAssignmentId());
-        submission.setTotalTests(testCases.size());
-
-        // Execute code against test cases (simulated)
-        int passedCount = 0;
-        long totalExecutionTime = 0;
-
-        for (TestCase testCase : testCases) {
-            ExecutionResult result = executeTestCase(submission, testCase);
-            executionResultRepository.save(result);
-
-            if (result.getPassed()) {
-                passedCount++;
+        if (submission.getStatus() == SubmissionStatus.RUNNING) {
+            if (!isLeaseExpired(submission)) {
+                return toResponse(submission);
             }
-            totalExecutionTime += result.getExecutionTimeMs();
+            log.warn("Code submission {} has been RUNNING since {}, running it again",
+                submissionId, submission.getUpdatedAt());
         }
 
-        submission.setPassedTests(passedCount);
-        submission.setExecutionTimeMs(totalExecutionTime);
-        submission.setMemoryUsedKb((long) (512 + random.nextInt(1024))); // Simulated
-        submission.markAsCompleted();
+        List<TestCase> testCases = testCaseRepository.findByAssignmentIdOrderByDisplayOrder(submission.getAssignmentId());
+        executionScheduler.checkAdmission(submission.getStudentId(), testCases.size());
 
+        // A re-run replaces the results of the previous one
+        submission.getExecutionResults().clear();
+        submission.setTotalTests(testCases.size());
+        submission.setPassedTests(0);
+        submission.setExecutionTimeMs(null);
+        submission.setMemoryUsedKb(null);
+        submission.setCompilerOutput(null);
+        submission.markAsRunning();
         submission = codeSubmissionRepository.save(submission);
+
+        ExecutionJob job = ExecutionJob.builder()
+            .submissionId(submission.getId())
+            .studentId(submission.getStudentId())
+            .language(submission.getLanguage())
+            .code(submission.getCode())
+            .testCases(testCases.stream()
+                .map(testCase -> ExecutionJob.TestCaseSpec.builder()
+                    .testCaseId(testCase.getId())
+                    .input(testCase.getInputData())
+                    .expectedOutput(testCase.getExpectedOutput())
+                    .timeLimitMs(testCase.getTimeLimitMs())
+                    .memoryLimitKb(testCase.getMemoryLimitKb())
+                    .build())
+                .collect(Collectors.toList()))
+            .build();
+        TransactionUtil.afterCommit(() -> enqueue(job));
+
         return toResponse(submission);
     }
 
@@ -111,22 +141,75 @@ public class CodeExecutionService {
             .collect(Collectors.toList());
     }
 
-    private ExecutionResult executeTestCase(CodeSubmission submission, TestCase testCase) {
-        // Simulated code execution - in real implementation, use sandbox/container
-        boolean passed = random.nextBoolean(); // Random pass/fail for simulation
-        long executionTime = 50 + random.nextInt(200); // 50-250ms
-
-        ExecutionStatus status = passed ? ExecutionStatus.SUCCESS : ExecutionStatus.WRONG_ANSWER;
-
-        return ExecutionResult.builder()
-            .codeSubmission(submission)
-            .testCase(testCase)
-            .status(status)
-            .actualOutput(passed ? testCase.getExpectedOutput() : "Different output")
-            .executionTimeMs(executionTime)
-            .memoryUsedKb((long) (256 + random.nextInt(512)))
-            .passed(passed)
-            .build();
+    private boolean isLeaseExpired(CodeSubmission submission) {
+        OffsetDateTime startedAt = submission.getUpdatedAt();
+        return startedAt != null
+            && startedAt.isBefore(OffsetDateTime.now().minus(Duration.ofMillis(properties.getRunningLeaseMs())));
+    }
+
+    private void enqueue(ExecutionJob job) {
+        try {
+            executionScheduler.submit(job, resultRecorder);
+        } catch (BusinessException e) {
+            log.warn("Code submission {} could not be queued: {}", job.getSubmissionId(), e.getMessage());
+            resultRecorder.onError(job, e.getMessage());
+        }
+    }
+
+    /**
+     * Persists worker results, one short transaction per callback
+     */
+    private class ResultRecorder implements ExecutionListener {
+
+        @Override
+        public void onTestCompleted(ExecutionJob job, ExecutionJob.TestCaseSpec testCase, TestOutcome outcome) {
+            transactionTemplate.executeWithoutResult(status -> executionResultRepository.save(ExecutionResult.builder()
+                .codeSubmission(codeSubmissionRepository.getReferenceById(job.getSubmissionId()))
+                .testCase(testCaseRepository.getReferenceById(testCase.getTestCaseId()))
+                .status(outcome.getStatus())
+                .actualOutput(outcome.getActualOutput())
+                .errorMessage(outcome.getErrorMessage())
+                .executionTimeMs(outcome.getExecutionTimeMs())
+                .memoryUsedKb(outcome.getMemoryUsedKb())
+                .passed(outcome.isPassed())
+                .build()));
+        }
+
+        @Override
+        public void onCompleted(ExecutionJob job, int passedTests, long totalTimeMs, Long peakMemoryKb) {
+            updateSubmission(job, submission -> {
+                submission.setPassedTests(passedTests);
+                submission.setExecutionTimeMs(totalTimeMs);
+                submission.setMemoryUsedKb(peakMemoryKb);
+                submission.markAsCompleted();
+            });
+            log.info("Code submission {} passed {}/{} tests", job.getSubmissionId(), passedTests,
+                job.getTestCases().size());
+        }
+
+        @Override
+        public void onCompileError(ExecutionJob job, String compilerOutput) {
+            updateSubmission(job, submission -> {
+                submission.setCompilerOutput(Map.of("stderr", compilerOutput));
+                submission.markAsCompileError();
+            });
+        }
+
+        @Override
+        public void onError(ExecutionJob job, String message) {
+            updateSubmission(job, submission -> {
+                submission.setCompilerOutput(Map.of("error", message));
+                submission.markAsError();
+            });
+        }
+
+        private void updateSubmission(ExecutionJob job, Consumer<CodeSubmission> update) {
+            transactionTemplate.executeWithoutResult(status -> codeSubmissionRepository.findById(job.getSubmissionId())
+                .ifPresent(submission -> {
+                    update.accept(submission);
+                    codeSubmissionRepository.save(submission);
+                }));
+        }
     }
 
     private CodeSubmissionResponse toResponse(CodeSubmission submission) {
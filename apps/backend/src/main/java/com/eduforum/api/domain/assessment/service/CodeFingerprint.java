@@ -0,0 +1,42 @@
+package com.eduforum.api.domain.assessment.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Winnowed fingerprint set (sorted, distinct) and LSH band keys of one code submission
+ */
+@Getter
+@RequiredArgsConstructor
+public class CodeFingerprint {
+
+    private final int tokenCount;
+    private final long[] fingerprints;
+    private final long[] bandKeys;
+
+    public boolean isEmpty() {
+        return fingerprints.length == 0;
+    }
+
+    /**
+     * Pack fingerprints as big-endian longs for storage
+     */
+    public static byte[] encode(long[] fingerprints) {
+        ByteBuffer buffer = ByteBuffer.allocate(fingerprints.length * Long.BYTES);
+        for (long fingerprint : fingerprints) {
+            buffer.putLong(fingerprint);
+        }
+        return buffer.array();
+    }
+
+    public static long[] decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] fingerprints = new long[bytes.length / Long.BYTES];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = buffer.getLong();
+        }
+        return fingerprints;
+    }
+}
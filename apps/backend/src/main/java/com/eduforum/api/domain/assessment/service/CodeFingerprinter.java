@@ -0,0 +1,250 @@
+package com.eduforum.api.domain.assessment.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns source code into a plagiarism fingerprint.
+ * <ol>
+ *   <li>Tokenize, dropping whitespace and comments; identifiers, literals and numbers are
+ *       normalized so renaming variables or changing constants does not hide a copy.</li>
+ *   <li>Hash every run of {@link #K} tokens and keep the winnowed minimum of each window of
+ *       {@link #WINDOW} hashes (Schleimer et al.), so any shared run of K + WINDOW - 1 tokens
+ *       yields at least one shared fingerprint.</li>
+ *   <li>Summarize the fingerprint set with a {@link #NUM_HASHES}-value MinHash signature and
+ *       split it into {@link #BANDS} LSH bands; submissions sharing a band key are candidates.</li>
+ * </ol>
+ * With 32 bands of 4 rows, pairs with Jaccard similarity 0.5 become candidates with
+ * probability ~0.87 and pairs at 0.7 with probability ~0.9999.
+ */
+@Component
+public class CodeFingerprinter {
+
+    static final int K = 5;
+    static final int WINDOW = 4;
+    static final int NUM_HASHES = 128;
+    static final int BANDS = 32;
+    static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final long[] MINHASH_SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            MINHASH_SEEDS[i] = mix(seed);
+        }
+    }
+
+    private static final Set<String> HASH_COMMENT_LANGUAGES = Set.of("python", "ruby", "r", "shell", "bash", "perl");
+
+    // Keywords stay distinct tokens; every other identifier becomes ID
+    private static final Set<String> KEYWORDS = Set.of(
+        "if", "else", "elif", "for", "while", "do", "switch", "case", "default", "break", "continue",
+        "return", "try", "catch", "except", "finally", "throw", "throws", "raise", "new", "delete",
+        "class", "struct", "interface", "enum", "extends", "implements", "def", "function", "lambda",
+        "import", "from", "package", "include", "using", "namespace", "public", "private", "protected",
+        "static", "final", "const", "let", "var", "void", "int", "long", "short", "byte", "char",
+        "float", "double", "boolean", "bool", "string", "String", "true", "false", "null", "None",
+        "True", "False", "nil", "this", "self", "super", "and", "or", "not", "in", "is", "with",
+        "yield", "async", "await", "pass", "goto", "sizeof", "typedef", "auto", "unsigned", "signed"
+    );
+
+    private static final int ID = "ID".hashCode();
+    private static final int STR = "STR".hashCode();
+    private static final int NUM = "NUM".hashCode();
+
+    public CodeFingerprint fingerprint(String code, String language) {
+        int[] tokens = tokenize(code == null ? "" : code, language);
+        long[] fingerprints = winnow(kgramHashes(tokens));
+        long[] bandKeys = fingerprints.length == 0 ? new long[0] : bandKeys(minHash(fingerprints));
+        return new CodeFingerprint(tokens.length, fingerprints, bandKeys);
+    }
+
+    /**
+     * Jaccard similarity of two sorted, distinct fingerprint sets
+     */
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 0.0;
+        }
+        int shared = intersectionSize(a, b);
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    public static int intersectionSize(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    int[] tokenize(String code, String language) {
+        boolean hashComments = language != null
+            && HASH_COMMENT_LANGUAGES.contains(language.toLowerCase(Locale.ROOT));
+        List<Integer> tokens = new ArrayList<>();
+        int n = code.length();
+        int i = 0;
+        while (i < n) {
+            char c = code.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '/' && i + 1 < n && code.charAt(i + 1) == '/') {
+                i = skipLine(code, i);
+            } else if (c == '/' && i + 1 < n && code.charAt(i + 1) == '*') {
+                int end = code.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+            } else if (c == '#' && hashComments) {
+                i = skipLine(code, i);
+            } else if (c == '"' || c == '\'' || c == '`') {
+                i = skipString(code, i, c);
+                tokens.add(STR);
+            } else if (Character.isDigit(c)) {
+                while (i < n && (Character.isLetterOrDigit(code.charAt(i)) || code.charAt(i) == '.'
+                        || code.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(NUM);
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < n && Character.isJavaIdentifierPart(code.charAt(i))) {
+                    i++;
+                }
+                String word = code.substring(start, i);
+                tokens.add(KEYWORDS.contains(word) ? word.hashCode() : ID);
+            } else {
+                tokens.add((int) c);
+                i++;
+            }
+        }
+        int[] result = new int[tokens.size()];
+        for (int t = 0; t < result.length; t++) {
+            result[t] = tokens.get(t);
+        }
+        return result;
+    }
+
+    long[] kgramHashes(int[] tokens) {
+        if (tokens.length == 0) {
+            return new long[0];
+        }
+        int count = Math.max(1, tokens.length - K + 1);
+        long[] hashes = new long[count];
+        for (int start = 0; start < count; start++) {
+            long h = 0xCBF29CE484222325L;
+            for (int t = start; t < Math.min(tokens.length, start + K); t++) {
+                h = (h ^ tokens[t]) * 0x100000001B3L;
+            }
+            hashes[start] = mix(h);
+        }
+        return hashes;
+    }
+
+    /**
+     * Robust winnowing: the rightmost minimum of each window, recorded once per position
+     */
+    long[] winnow(long[] hashes) {
+        if (hashes.length <= WINDOW) {
+            return sortedDistinct(hashes.clone());
+        }
+        long[] selected = new long[hashes.length];
+        int count = 0;
+        int lastPosition = -1;
+        for (int start = 0; start + WINDOW <= hashes.length; start++) {
+            int minPosition = start;
+            for (int p = start + 1; p < start + WINDOW; p++) {
+                if (hashes[p] <= hashes[minPosition]) {
+                    minPosition = p;
+                }
+            }
+            if (minPosition != lastPosition) {
+                selected[count++] = hashes[minPosition];
+                lastPosition = minPosition;
+            }
+        }
+        return sortedDistinct(Arrays.copyOf(selected, count));
+    }
+
+    long[] minHash(long[] fingerprints) {
+        long[] signature = new long[NUM_HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long fingerprint : fingerprints) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                long h = mix(fingerprint ^ MINHASH_SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long h = mix((band + 1) * 0x9E3779B97F4A7C15L);
+            for (int row = 0; row < ROWS; row++) {
+                h = mix(h ^ signature[band * ROWS + row]);
+            }
+            keys[band] = h;
+        }
+        return keys;
+    }
+
+    private static int skipLine(String code, int from) {
+        int end = code.indexOf('\n', from);
+        return end < 0 ? code.length() : end + 1;
+    }
+
+    private static int skipString(String code, int from, char quote) {
+        int i = from + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return code.length();
+    }
+
+    private static long[] sortedDistinct(long[] values) {
+        if (values.length == 0) {
+            return values;
+        }
+        Arrays.sort(values);
+        int count = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
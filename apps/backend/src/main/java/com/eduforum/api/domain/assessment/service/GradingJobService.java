@@ -0,0 +1,104 @@
+package com.eduforum.api.domain.assessment.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.TransactionUtil;
+import com.eduforum.api.domain.assessment.config.GradingProperties;
+import com.eduforum.api.domain.assessment.dto.grading.GradingJobResponse;
+import com.eduforum.api.domain.assessment.dto.grading.GradingResultResponse;
+import com.eduforum.api.domain.assessment.entity.GradingJob;
+import com.eduforum.api.domain.assessment.grading.GradingJobRunner;
+import com.eduforum.api.domain.assessment.repository.GradingJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Batch AI grading jobs: accepted here, graded by the {@link GradingJobRunner}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GradingJobService {
+
+    private static final String INSERT_ITEMS_SQL =
+        "INSERT INTO assessment.grading_job_items (job_id, submission_id) SELECT ?, unnest(?::bigint[])";
+
+    private static final String SELECT_RESULT_IDS_SQL =
+        "SELECT grading_result_id FROM assessment.grading_job_items " +
+        "WHERE job_id = ? AND grading_result_id IS NOT NULL ORDER BY submission_id";
+
+    private final GradingJobRepository gradingJobRepository;
+    private final GradingJobRunner gradingJobRunner;
+    private final AiGradingService aiGradingService;
+    private final GradingProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record the job and its submissions and return immediately; grading starts after commit
+     */
+    @Transactional
+    public GradingJobResponse createJob(List<Long> submissionIds, Boolean generateFeedback, String aiModel) {
+        Long[] ids = new LinkedHashSet<>(submissionIds).toArray(new Long[0]);
+        if (ids.length > properties.getMaxJobSize()) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT_VALUE,
+                "A grading job can contain at most " + properties.getMaxJobSize() + " submissions");
+        }
+
+        GradingJob job = gradingJobRepository.save(GradingJob.builder()
+            .aiModel(aiModel != null ? aiModel : AiGradingService.DEFAULT_MODEL)
+            .generateFeedback(generateFeedback == null || generateFeedback)
+            .totalItems(ids.length)
+            .build());
+
+        Long jobId = job.getId();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ITEMS_SQL);
+            ps.setLong(1, jobId);
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            return ps;
+        });
+        TransactionUtil.afterCommit(() -> gradingJobRunner.submit(jobId));
+
+        log.info("Grading job {} queued with {} submissions", jobId, ids.length);
+        return toResponse(job);
+    }
+
+    @Transactional(readOnly = true)
+    public GradingJobResponse getJob(Long jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<GradingResultResponse> getJobResults(Long jobId) {
+        findJob(jobId);
+        List<Long> resultIds = jdbcTemplate.queryForList(SELECT_RESULT_IDS_SQL, Long.class, jobId);
+        return aiGradingService.getResults(resultIds);
+    }
+
+    private GradingJob findJob(Long jobId) {
+        return gradingJobRepository.findById(jobId)
+            .orElseThrow(() -> new BusinessException(ErrorCode.ENTITY_NOT_FOUND, "Grading job not found"));
+    }
+
+    private GradingJobResponse toResponse(GradingJob job) {
+        return GradingJobResponse.builder()
+            .id(job.getId())
+            .status(job.getStatus())
+            .aiModel(job.getAiModel())
+            .totalItems(job.getTotalItems())
+            .completedItems(job.getCompletedItems())
+            .failedItems(job.getFailedItems())
+            .progress(job.getProgress())
+            .createdAt(job.getCreatedAt())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .build();
+    }
+}
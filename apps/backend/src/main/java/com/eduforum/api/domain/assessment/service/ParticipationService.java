@@ -1,12 +1,18 @@
 package com.eduforum.api.domain.assessment.service;
 
+import com.eduforum.api.common.dto.PageResponse;
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
 import com.eduforum.api.domain.assessment.dto.participation.*;
 import com.eduforum.api.domain.assessment.entity.*;
+import com.eduforum.api.domain.assessment.leaderboard.ParticipationLeaderboard;
 import com.eduforum.api.domain.assessment.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,14 +25,68 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ParticipationService {
 
+    // Advisory lock namespace for per-course score maintenance
+    private static final int SCORE_LOCK_NAMESPACE = 0x50415254;
+
+    private static final int MAX_LEADERBOARD_PAGE_SIZE = 100;
+
+    private static final String LOCK_SHARED_SQL = "SELECT pg_advisory_xact_lock_shared(?, ?)";
+    private static final String LOCK_EXCLUSIVE_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    // Adds points x weight of one event; a type without an enabled weight counts with weight 1
+    private static final String ADD_EVENT_SCORE_SQL =
+        "WITH delta AS (" +
+        "  SELECT ?::numeric * COALESCE((SELECT w.weight FROM assessment.participation_weights w " +
+        "    WHERE w.course_id = ? AND w.event_type = ?::event_type AND w.is_enabled), 1.0) AS score) " +
+        "INSERT INTO assessment.participation_scores " +
+        "  (student_id, course_id, total_score, score_breakdown, last_calculated_at) " +
+        "SELECT ?, ?, delta.score, jsonb_build_object(?, delta.score), NOW() FROM delta " +
+        "ON CONFLICT (student_id, course_id) DO UPDATE SET " +
+        "  total_score = participation_scores.total_score + EXCLUDED.total_score, " +
+        "  score_breakdown = COALESCE(participation_scores.score_breakdown, '{}'::jsonb) || jsonb_build_object(?, " +
+        "    COALESCE((participation_scores.score_breakdown ->> ?)::numeric, 0) + EXCLUDED.total_score), " +
+        "  last_calculated_at = NOW(), updated_at = NOW() " +
+        "RETURNING total_score";
+
+    private static final String RECOMPUTE_COURSE_SQL =
+        "WITH per_type AS (" +
+        "  SELECT e.student_id, e.event_type::text AS event_type, " +
+        "         SUM(COALESCE(e.points, 0) * COALESCE(w.weight, 1.0)) AS score " +
+        "  FROM assessment.participation_events e " +
+        "  LEFT JOIN assessment.participation_weights w " +
+        "    ON w.course_id = e.course_id AND w.event_type = e.event_type AND w.is_enabled " +
+        "  WHERE e.course_id = ? AND e.is_counted " +
+        "  GROUP BY e.student_id, e.event_type" +
+        "), totals AS (" +
+        "  SELECT student_id, SUM(score) AS total_score, jsonb_object_agg(event_type, score) AS breakdown " +
+        "  FROM per_type GROUP BY student_id" +
+        ") " +
+        "INSERT INTO assessment.participation_scores " +
+        "  (student_id, course_id, total_score, score_breakdown, last_calculated_at) " +
+        "SELECT student_id, ?, total_score, breakdown, NOW() FROM totals " +
+        "ON CONFLICT (student_id, course_id) DO UPDATE SET " +
+        "  total_score = EXCLUDED.total_score, score_breakdown = EXCLUDED.score_breakdown, " +
+        "  last_calculated_at = NOW(), updated_at = NOW()";
+
+    private static final String RESET_UNSCORED_SQL =
+        "UPDATE assessment.participation_scores s SET total_score = 0, score_breakdown = '{}'::jsonb, " +
+        "  last_calculated_at = NOW(), updated_at = NOW() " +
+        "WHERE s.course_id = ? AND NOT EXISTS (SELECT 1 FROM assessment.participation_events e " +
+        "  WHERE e.course_id = s.course_id AND e.student_id = s.student_id AND e.is_counted)";
+
     private final ParticipationEventRepository participationEventRepository;
     private final ParticipationScoreRepository participationScoreRepository;
     private final ParticipationWeightRepository participationWeightRepository;
+    private final ParticipationLeaderboard leaderboard;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public void recordEvent(Long studentId, Long courseId, Long sessionId, EventType eventType, Integer points, Map<String, Object> eventData) {
         log.info("Recording participation event: {} for student {} in course {}", eventType, studentId, courseId);
 
+        // Events of a course proceed concurrently but wait for a weight recompute in progress
+        lockCourse(LOCK_SHARED_SQL, courseId);
+
         ParticipationEvent event = ParticipationEvent.builder()
             .studentId(studentId)
             .courseId(courseId)
@@ -38,8 +98,7 @@ public class ParticipationService {
 
         participationEventRepository.save(event);
 
-        // Update participation score
-        updateParticipationScore(studentId, courseId);
+        addEventScore(event);
     }
 
     @Transactional(readOnly = true)
@@ -59,6 +118,22 @@ public class ParticipationService {
         return toScoreResponse(score);
     }
 
+    /**
+     * One page of the course ranking, served from the in-memory leaderboard
+     */
+    public PageResponse<LeaderboardEntryResponse> getLeaderboard(Long courseId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_LEADERBOARD_PAGE_SIZE));
+        List<LeaderboardEntryResponse> entries = leaderboard.range(courseId, (int) pageRequest.getOffset(), pageRequest.getPageSize()).stream()
+            .map(ranked -> LeaderboardEntryResponse.builder()
+                .rank(ranked.getRank())
+                .studentId(ranked.getStudentId())
+                .totalScore(ranked.getTotalScore())
+                .build())
+            .collect(Collectors.toList());
+
+        return PageResponse.of(new PageImpl<>(entries, pageRequest, leaderboard.size(courseId)));
+    }
+
     @Transactional
     public List<ParticipationWeightResponse> setWeights(Long courseId, List<UpdateWeightsRequest> requests) {
         List<ParticipationWeight> weights = new ArrayList<>();
@@ -74,8 +149,11 @@ public class ParticipationService {
             weight.setIsEnabled(request.getIsEnabled());
             weight.setDescription(request.getDescription());
 
-            weights.add(participationWeightRepository.save(weight));
+            weights.add(weight);
         }
+        weights = participationWeightRepository.saveAllAndFlush(weights);
+
+        recomputeCourseScores(courseId);
 
         return weights.stream()
             .map(this::toWeightResponse)
@@ -102,47 +180,44 @@ public class ParticipationService {
         Map<String, BigDecimal> scoreByEventType = calculateScoreByEventType(events);
         Map<String, Integer> eventCounts = calculateEventCounts(events);
 
-        // Calculate ranking
-        List<ParticipationScore> allScores = participationScoreRepository.findByCourseId(courseId);
-        int rank = calculateRank(score, allScores);
+        ParticipationLeaderboard.Standing standing = leaderboard.standing(courseId, studentId);
 
         return ParticipationDashboardResponse.builder()
             .studentId(studentId)
             .courseId(courseId)
             .totalScore(score.getTotalScore())
-            .classRank(rank)
-            .classSize(allScores.size())
-            .percentile(calculatePercentile(rank, allScores.size()))
+            .classRank(standing.getRank())
+            .classSize(standing.getClassSize())
+            .percentile(standing.getPercentile())
             .scoreByEventType(scoreByEventType)
             .eventCounts(eventCounts)
             .trendData(new HashMap<>())
             .build();
     }
 
-    private void updateParticipationScore(Long studentId, Long courseId) {
-        ParticipationScore score = participationScoreRepository.findByStudentIdAndCourseId(studentId, courseId)
-            .orElse(createInitialScore(studentId, courseId));
-
-        List<ParticipationEvent> events = participationEventRepository.findByStudentIdAndCourseIdAndIsCounted(studentId, courseId, true);
-        List<ParticipationWeight> weights = participationWeightRepository.findByCourseIdAndIsEnabled(courseId, true);
-
-        Map<EventType, BigDecimal> weightMap = weights.stream()
-            .collect(Collectors.toMap(ParticipationWeight::getEventType, ParticipationWeight::getWeight));
-
-        BigDecimal totalScore = BigDecimal.ZERO;
-        Map<String, Object> breakdown = new HashMap<>();
-
-        for (ParticipationEvent event : events) {
-            BigDecimal weight = weightMap.getOrDefault(event.getEventType(), BigDecimal.ONE);
-            BigDecimal eventScore = BigDecimal.valueOf(event.getPoints()).multiply(weight);
-            totalScore = totalScore.add(eventScore);
-        }
+    private void addEventScore(ParticipationEvent event) {
+        String eventType = event.getEventType().name();
+        BigDecimal totalScore = jdbcTemplate.queryForObject(ADD_EVENT_SCORE_SQL, BigDecimal.class,
+            event.getPoints(), event.getCourseId(), eventType,
+            event.getStudentId(), event.getCourseId(), eventType,
+            eventType, eventType);
+        leaderboard.update(event.getCourseId(), event.getStudentId(), totalScore);
+    }
 
-        score.setTotalScore(totalScore);
-        score.setScoreBreakdown(breakdown);
-        score.recalculate();
+    /**
+     * Rebuild every score of the course from its counted events under the current weights.
+     * Holds the course lock exclusively so no event increment interleaves with the rebuild.
+     */
+    private void recomputeCourseScores(Long courseId) {
+        lockCourse(LOCK_EXCLUSIVE_SQL, courseId);
+        int updated = jdbcTemplate.update(RECOMPUTE_COURSE_SQL, courseId, courseId);
+        int reset = jdbcTemplate.update(RESET_UNSCORED_SQL, courseId);
+        leaderboard.invalidate(courseId);
+        log.info("Recomputed participation scores of course {}: {} updated, {} reset", courseId, updated, reset);
+    }
 
-        participationScoreRepository.save(score);
+    private void lockCourse(String lockSql, Long courseId) {
+        jdbcTemplate.query(lockSql, (ResultSetExtractor<Void>) rs -> null, SCORE_LOCK_NAMESPACE, courseId.intValue());
     }
 
     private ParticipationScore createInitialScore(Long studentId, Long courseId) {
@@ -173,17 +248,6 @@ public class ParticipationService {
             ));
     }
 
-    private int calculateRank(ParticipationScore studentScore, List<ParticipationScore> allScores) {
-        return (int) allScores.stream()
-            .filter(s -> s.getTotalScore().compareTo(studentScore.getTotalScore()) > 0)
-            .count() + 1;
-    }
-
-    private double calculatePercentile(int rank, int total) {
-        if (total == 0) return 0.0;
-        return ((double) (total - rank) / total) * 100;
-    }
-
     private ParticipationScoreResponse toScoreResponse(ParticipationScore score) {
         return ParticipationScoreResponse.builder()
             .id(score.getId())
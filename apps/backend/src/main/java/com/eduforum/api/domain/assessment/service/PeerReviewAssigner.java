@@ -0,0 +1,174 @@
+package com.eduforum.api.domain.assessment.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Matches peer reviewers to submissions.
+ * <ol>
+ *   <li>Authors are shuffled with the seed and placed on a ring. Each submission is reviewed
+ *       by the authors at {@code k} distinct non-zero ring offsets, so nobody reviews their
+ *       own work, no submission gets the same reviewer twice and every author reviews exactly
+ *       {@code k} submissions.</li>
+ *   <li>When clusters are given, each same-cluster pair is repaired by swapping its reviewer
+ *       with the reviewer of another, randomly probed, pair. A swap keeps every load intact
+ *       and is only made when both new pairs are valid and cross-cluster.</li>
+ * </ol>
+ * O(n * k) plus the repair probes; the same input and seed always give the same result.
+ */
+@Component
+public class PeerReviewAssigner {
+
+    static final int REPAIR_ATTEMPTS = 64;
+
+    private static final int NO_CLUSTER = -1;
+
+    /**
+     * @param submissions one submission per author
+     * @param reviewsPerSubmission requested reviews per submission, capped at authors - 1
+     * @param clusterOf cluster of each author, or empty to ignore clusters
+     */
+    public Result assign(List<Candidate> submissions, int reviewsPerSubmission, Map<Long, Long> clusterOf, long seed) {
+        List<Candidate> ordered = new ArrayList<>(submissions);
+        ordered.sort(Comparator.comparing(Candidate::getSubmissionId));
+
+        int n = ordered.size();
+        int k = Math.min(reviewsPerSubmission, n - 1);
+        if (k <= 0) {
+            return new Result(List.of(), 0, 0);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        Candidate[] ring = ordered.toArray(new Candidate[0]);
+        shuffle(ring, random);
+
+        int[] cluster = new int[n];
+        Map<Long, Integer> clusterIndex = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Long clusterId = clusterOf.get(ring[i].getStudentId());
+            cluster[i] = clusterId == null ? NO_CLUSTER
+                : clusterIndex.computeIfAbsent(clusterId, id -> clusterIndex.size());
+        }
+
+        // reviewer[p * k + j] is the ring position reviewing the submission at position p
+        int[] offsets = pickOffsets(n, k, random);
+        int[] reviewer = new int[n * k];
+        for (int p = 0; p < n; p++) {
+            for (int j = 0; j < k; j++) {
+                reviewer[p * k + j] = (p + offsets[j]) % n;
+            }
+        }
+
+        int sameCluster = clusterIndex.isEmpty() ? 0 : repairClusters(reviewer, cluster, k, random);
+
+        List<Pair> pairs = new ArrayList<>(n * k);
+        for (int p = 0; p < n; p++) {
+            for (int j = 0; j < k; j++) {
+                Candidate reviewee = ring[p];
+                pairs.add(new Pair(reviewee.getSubmissionId(), reviewee.getStudentId(),
+                    ring[reviewer[p * k + j]].getStudentId()));
+            }
+        }
+        return new Result(pairs, k, sameCluster);
+    }
+
+    /**
+     * Swap reviewers to remove same-cluster pairs; returns how many remain
+     */
+    private static int repairClusters(int[] reviewer, int[] cluster, int k, SplittableRandom random) {
+        int remaining = 0;
+        for (int e = 0; e < reviewer.length; e++) {
+            int p = e / k;
+            if (!sameCluster(cluster, p, reviewer[e])) {
+                continue;
+            }
+            boolean repaired = false;
+            for (int attempt = 0; attempt < REPAIR_ATTEMPTS && !repaired; attempt++) {
+                int f = random.nextInt(reviewer.length);
+                int q = f / k;
+                int r = reviewer[e];
+                int s = reviewer[f];
+                if (q == p || r == q || s == p
+                        || sameCluster(cluster, q, r) || sameCluster(cluster, p, s)
+                        || reviews(reviewer, k, q, r) || reviews(reviewer, k, p, s)) {
+                    continue;
+                }
+                reviewer[e] = s;
+                reviewer[f] = r;
+                repaired = true;
+            }
+            if (!repaired) {
+                remaining++;
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean sameCluster(int[] cluster, int a, int b) {
+        return cluster[a] != NO_CLUSTER && cluster[a] == cluster[b];
+    }
+
+    private static boolean reviews(int[] reviewer, int k, int submission, int candidate) {
+        for (int j = submission * k; j < submission * k + k; j++) {
+            if (reviewer[j] == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] pickOffsets(int n, int k, SplittableRandom random) {
+        int[] candidates = new int[n - 1];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i + 1;
+        }
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(candidates.length - i);
+            int tmp = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = tmp;
+        }
+        return Arrays.copyOf(candidates, k);
+    }
+
+    private static <T> void shuffle(T[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            T tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Candidate {
+        private final Long submissionId;
+        private final Long studentId;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Pair {
+        private final Long submissionId;
+        private final Long revieweeId;
+        private final Long reviewerId;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final List<Pair> pairs;
+        private final int reviewsPerSubmission;
+        private final int sameClusterPairs;
+    }
+}
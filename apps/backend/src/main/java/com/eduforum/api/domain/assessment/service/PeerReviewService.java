@@ -2,6 +2,8 @@ package com.eduforum.api.domain.assessment.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.analytics.entity.StudentCluster;
+import com.eduforum.api.domain.analytics.repository.StudentClusterRepository;
 import com.eduforum.api.domain.assessment.dto.peer.*;
 import com.eduforum.api.domain.assessment.entity.PeerReview;
 import com.eduforum.api.domain.assessment.entity.PeerReviewAssignment;
@@ -9,6 +11,7 @@ import com.eduforum.api.domain.assessment.repository.PeerReviewAssignmentReposit
 import com.eduforum.api.domain.assessment.repository.PeerReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +19,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,8 +27,32 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PeerReviewService {
 
+    static final String SETTING_SEED = "assignmentSeed";
+    static final String SETTING_AVOID_SAME_CLUSTER = "avoidSameCluster";
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    // Latest attempt of every student who submitted
+    private static final String SELECT_SUBMISSIONS_SQL =
+        "SELECT DISTINCT ON (student_id) id, student_id FROM course.assignment_submissions " +
+        "WHERE assignment_id = ? AND deleted_at IS NULL " +
+        "ORDER BY student_id, attempt_number DESC";
+    private static final String SELECT_COURSE_SQL =
+        "SELECT course_id FROM course.assignments WHERE id = ?";
+    private static final String COUNT_SUBMITTED_REVIEWS_SQL =
+        "SELECT COUNT(*) FROM assessment.peer_reviews WHERE assignment_id = ? AND is_submitted";
+    private static final String DELETE_REVIEWS_SQL =
+        "DELETE FROM assessment.peer_reviews WHERE assignment_id = ?";
+    private static final String INSERT_REVIEW_SQL =
+        "INSERT INTO assessment.peer_reviews " +
+        "(assignment_id, submission_id, reviewer_id, reviewee_id, max_score, is_anonymous) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
     private final PeerReviewRepository peerReviewRepository;
     private final PeerReviewAssignmentRepository peerReviewAssignmentRepository;
+    private final StudentClusterRepository studentClusterRepository;
+    private final PeerReviewAssigner peerReviewAssigner;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public void setupPeerReview(Long assignmentId, SetupPeerReviewRequest request) {
@@ -42,12 +70,17 @@ public class PeerReviewService {
         assignment.setMaxScore(request.getMaxScore());
         assignment.setRubric(request.getRubric());
         assignment.setRemoveOutliers(request.getRemoveOutliers());
+
+        Map<String, Object> settings = new HashMap<>(assignment.getSettings() != null ? assignment.getSettings() : Map.of());
+        settings.put(SETTING_SEED, request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong());
+        settings.put(SETTING_AVOID_SAME_CLUSTER, Boolean.TRUE.equals(request.getAvoidSameCluster()));
+        assignment.setSettings(settings);
         assignment.activate();
 
         peerReviewAssignmentRepository.save(assignment);
 
         if (request.getIsAutoAssigned()) {
-            autoAssignReviewers(assignmentId, request.getReviewsPerSubmission());
+            autoAssignReviewers(assignment);
         }
     }
 
@@ -142,13 +175,51 @@ public class PeerReviewService {
             .build();
     }
 
-    private void autoAssignReviewers(Long assignmentId, Integer reviewsPerSubmission) {
-        // Simulated auto-assignment logic
-        // In real implementation:
-        // 1. Get all submissions for the assignment
-        // 2. Randomly assign reviewers ensuring no self-review
-        // 3. Create PeerReview records
-        log.info("Auto-assigning peer reviewers for assignment: {}", assignmentId);
+    /**
+     * Replace the assignment's reviews with a fresh, seeded matching of its latest submissions
+     */
+    private void autoAssignReviewers(PeerReviewAssignment assignment) {
+        Long assignmentId = assignment.getAssignmentId();
+        Integer submittedReviews = jdbcTemplate.queryForObject(COUNT_SUBMITTED_REVIEWS_SQL, Integer.class, assignmentId);
+        if (submittedReviews != null && submittedReviews > 0) {
+            throw new BusinessException(ErrorCode.PEER_REVIEW_ALREADY_SUBMITTED,
+                "Reviewers cannot be reassigned after reviews have been submitted");
+        }
+
+        List<PeerReviewAssigner.Candidate> candidates = jdbcTemplate.query(SELECT_SUBMISSIONS_SQL,
+            (rs, rowNum) -> new PeerReviewAssigner.Candidate(rs.getLong("id"), rs.getLong("student_id")), assignmentId);
+
+        Map<Long, Long> clusterOf = new HashMap<>();
+        if (Boolean.TRUE.equals(assignment.getSettings().get(SETTING_AVOID_SAME_CLUSTER)) && !candidates.isEmpty()) {
+            Long courseId = jdbcTemplate.queryForObject(SELECT_COURSE_SQL, Long.class, assignmentId);
+            for (StudentCluster cluster : studentClusterRepository.findByCourseIdOrderByClusterNumberAsc(courseId)) {
+                for (Long memberId : cluster.getMemberIds()) {
+                    clusterOf.put(memberId, cluster.getId());
+                }
+            }
+        }
+
+        long seed = ((Number) assignment.getSettings().get(SETTING_SEED)).longValue();
+        PeerReviewAssigner.Result result = peerReviewAssigner.assign(
+            candidates, assignment.getReviewsPerSubmission(), clusterOf, seed);
+
+        BigDecimal maxScore = assignment.getMaxScore() != null ? BigDecimal.valueOf(assignment.getMaxScore()) : null;
+        jdbcTemplate.update(DELETE_REVIEWS_SQL, assignmentId);
+        jdbcTemplate.batchUpdate(INSERT_REVIEW_SQL, result.getPairs(), INSERT_BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, assignmentId);
+            ps.setLong(2, pair.getSubmissionId());
+            ps.setLong(3, pair.getReviewerId());
+            ps.setLong(4, pair.getRevieweeId());
+            ps.setBigDecimal(5, maxScore);
+            ps.setBoolean(6, assignment.getIsAnonymous());
+        });
+
+        if (result.getReviewsPerSubmission() < assignment.getReviewsPerSubmission()) {
+            log.warn("Assignment {} has {} submissions; reviews per submission reduced from {} to {}",
+                assignmentId, candidates.size(), assignment.getReviewsPerSubmission(), result.getReviewsPerSubmission());
+        }
+        log.info("Assigned {} peer reviews for assignment {} (seed {}, {} same-cluster pairs left)",
+            result.getPairs().size(), assignmentId, seed, result.getSameClusterPairs());
     }
 
     private void checkAndMarkOutliers(Long submissionId) {
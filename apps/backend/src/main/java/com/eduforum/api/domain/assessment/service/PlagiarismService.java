@@ -3,17 +3,19 @@ package com.eduforum.api.domain.assessment.service;
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
 import com.eduforum.api.domain.assessment.dto.code.PlagiarismReportResponse;
-import com.eduforum.api.domain.assessment.entity.CodeSubmission;
 import com.eduforum.api.domain.assessment.entity.PlagiarismReport;
-import com.eduforum.api.domain.assessment.repository.CodeSubmissionRepository;
 import com.eduforum.api.domain.assessment.repository.PlagiarismReportRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,34 +26,91 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PlagiarismService {
 
-    private final CodeSubmissionRepository codeSubmissionRepository;
     private final PlagiarismReportRepository plagiarismReportRepository;
-
+    private final CodeFingerprinter fingerprinter;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String ALGORITHM = "winnowing-minhash";
+    private static final BigDecimal REPORT_FLOOR = BigDecimal.valueOf(50);
+
+    private static final String SELECT_UNINDEXED_SQL =
+        "SELECT s.id, s.student_id, s.language, s.code FROM assessment.code_submissions s " +
+        "WHERE s.assignment_id = ? AND NOT EXISTS (" +
+        "SELECT 1 FROM assessment.plagiarism_fingerprints f WHERE f.submission_id = s.id) " +
+        "ORDER BY s.id";
+    private static final String INSERT_FINGERPRINT_SQL =
+        "INSERT INTO assessment.plagiarism_fingerprints (submission_id, assignment_id, student_id, token_count, " +
+        "fingerprint_count, fingerprints) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (submission_id) DO NOTHING";
+    private static final String INSERT_INDEX_SQL =
+        "INSERT INTO assessment.plagiarism_index (assignment_id, band_key, submission_id) VALUES (?, ?, ?) " +
+        "ON CONFLICT DO NOTHING";
+    // Submissions by the same student (resubmissions) are not compared with each other
+    private static final String SELECT_CANDIDATES_SQL =
+        "SELECT f.submission_id, f.student_id, f.token_count, f.fingerprints " +
+        "FROM assessment.plagiarism_fingerprints f WHERE f.submission_id IN (" +
+        "SELECT i.submission_id FROM assessment.plagiarism_index i " +
+        "WHERE i.assignment_id = ? AND i.band_key = ANY(?)) AND f.student_id <> ?";
+
+    /**
+     * Fingerprint the submissions of an assignment that are not indexed yet and compare each
+     * only against indexed submissions sharing an LSH band, then add it to the index. Earlier
+     * submissions are never re-tokenized, so a run costs O(new submissions x candidates).
+     * Returns every report of the assignment at or above the threshold, including earlier runs;
+     * a threshold below 50 only lowers the bar for submissions compared in this run.
+     */
     @Transactional
     public List<PlagiarismReportResponse> checkPlagiarism(Long assignmentId, BigDecimal threshold, String algorithm) {
-        log.info("Running plagiarism check for assignment {} with threshold {}", assignmentId, threshold);
-
-        List<CodeSubmission> submissions = codeSubmissionRepository.findByAssignmentId(assignmentId);
-        List<PlagiarismReport> reports = new ArrayList<>();
-
-        // Compare all pairs of submissions
-        for (int i = 0; i < submissions.size(); i++) {
-            for (int j = i + 1; j < submissions.size(); j++) {
-                CodeSubmission submission1 = submissions.get(i);
-                CodeSubmission submission2 = submissions.get(j);
+        BigDecimal effectiveThreshold = threshold != null ? threshold : BigDecimal.valueOf(70);
+        log.info("Running plagiarism check for assignment {} with threshold {}", assignmentId, effectiveThreshold);
+        if (algorithm != null && !ALGORITHM.equalsIgnoreCase(algorithm) && !"winnowing".equalsIgnoreCase(algorithm)) {
+            log.debug("Algorithm '{}' requested; using {}", algorithm, ALGORITHM);
+        }
 
-                BigDecimal similarity = calculateSimilarity(submission1.getCode(), submission2.getCode(), algorithm);
+        // Pairs are stored down to 50% even when this run's threshold is higher, so a later run
+        // with a lower threshold can list them. Indexed submissions are never compared again, so
+        // pairs that scored below both the threshold and 50% are never reported.
+        BigDecimal reportFloor = effectiveThreshold.min(REPORT_FLOOR);
+        List<PendingSubmission> pending = jdbcTemplate.query(SELECT_UNINDEXED_SQL,
+            (rs, rowNum) -> new PendingSubmission(
+                rs.getLong("id"), rs.getLong("student_id"), rs.getString("language"), rs.getString("code")),
+            assignmentId);
+
+        List<PlagiarismReport> newReports = new ArrayList<>();
+        int comparisons = 0;
+        for (PendingSubmission submission : pending) {
+            CodeFingerprint fingerprint = fingerprinter.fingerprint(submission.code, submission.language);
+            int inserted = jdbcTemplate.update(INSERT_FINGERPRINT_SQL, submission.id, assignmentId, submission.studentId,
+                fingerprint.getTokenCount(), fingerprint.getFingerprints().length,
+                CodeFingerprint.encode(fingerprint.getFingerprints()));
+            if (inserted == 0 || fingerprint.isEmpty()) {
+                // Indexed concurrently by another run, or nothing to compare
+                continue;
+            }
 
-                if (similarity.compareTo(threshold) >= 0) {
-                    PlagiarismReport report = createPlagiarismReport(
-                        assignmentId, submission1, submission2, similarity, algorithm
-                    );
-                    reports.add(plagiarismReportRepository.save(report));
+            List<IndexedSubmission> candidates = findCandidates(assignmentId, submission.studentId, fingerprint);
+            comparisons += candidates.size();
+            for (IndexedSubmission candidate : candidates) {
+                BigDecimal similarity = BigDecimal.valueOf(
+                    CodeFingerprinter.jaccard(fingerprint.getFingerprints(), candidate.fingerprints) * 100)
+                    .setScale(2, RoundingMode.HALF_UP);
+                if (similarity.compareTo(reportFloor) >= 0) {
+                    newReports.add(createPlagiarismReport(assignmentId, candidate, submission, fingerprint, similarity));
                 }
             }
+
+            List<Object[]> indexRows = new ArrayList<>(fingerprint.getBandKeys().length);
+            for (long bandKey : fingerprint.getBandKeys()) {
+                indexRows.add(new Object[]{assignmentId, bandKey, submission.id});
+            }
+            jdbcTemplate.batchUpdate(INSERT_INDEX_SQL, indexRows);
         }
+        plagiarismReportRepository.saveAll(newReports);
 
-        return reports.stream()
+        log.info("Plagiarism check for assignment {}: {} new submissions indexed, {} candidate comparisons, {} new reports",
+            assignmentId, pending.size(), comparisons, newReports.size());
+
+        return plagiarismReportRepository.findByAssignmentIdAndSimilarityScoreGreaterThanEqual(assignmentId, effectiveThreshold)
+            .stream()
             .map(this::toResponse)
             .collect(Collectors.toList());
     }
@@ -79,48 +138,55 @@ public class PlagiarismService {
             .collect(Collectors.toList());
     }
 
-    private BigDecimal calculateSimilarity(String code1, String code2, String algorithm) {
-        // Simulated similarity calculation
-        // In real implementation, use algorithms like:
-        // - Levenshtein distance
-        // - Jaccard similarity
-        // - Token-based comparison
-        // - AST (Abstract Syntax Tree) comparison
-
-        if (code1 == null || code2 == null) {
-            return BigDecimal.ZERO;
-        }
-
-        // Simple simulation: random similarity between 0-100
-        double similarity = Math.random() * 100;
-        return BigDecimal.valueOf(Math.round(similarity * 100.0) / 100.0);
+    private List<IndexedSubmission> findCandidates(Long assignmentId, Long studentId, CodeFingerprint fingerprint) {
+        Long[] bandKeys = Arrays.stream(fingerprint.getBandKeys()).boxed().toArray(Long[]::new);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_CANDIDATES_SQL);
+            ps.setLong(1, assignmentId);
+            ps.setArray(2, con.createArrayOf("bigint", bandKeys));
+            ps.setLong(3, studentId);
+            return ps;
+        }, (rs, rowNum) -> new IndexedSubmission(
+            rs.getLong("submission_id"), rs.getLong("student_id"), rs.getInt("token_count"),
+            CodeFingerprint.decode(rs.getBytes("fingerprints"))));
     }
 
     private PlagiarismReport createPlagiarismReport(
         Long assignmentId,
-        CodeSubmission submission1,
-        CodeSubmission submission2,
-        BigDecimal similarity,
-        String algorithm
+        IndexedSubmission earlier,
+        PendingSubmission later,
+        CodeFingerprint fingerprint,
+        BigDecimal similarity
     ) {
-        Map<String, Object> matchedSegments = new HashMap<>();
-        matchedSegments.put("total_matches", 5);
-        matchedSegments.put("longest_match_length", 50);
+        long[] laterFingerprints = fingerprint.getFingerprints();
+        int shared = CodeFingerprinter.intersectionSize(earlier.fingerprints, laterFingerprints);
+        int smaller = Math.min(earlier.fingerprints.length, laterFingerprints.length);
 
-        PlagiarismReport report = PlagiarismReport.builder()
+        Map<String, Object> matchedSegments = new HashMap<>();
+        matchedSegments.put("shared_fingerprints", shared);
+        matchedSegments.put("fingerprints_1", earlier.fingerprints.length);
+        matchedSegments.put("fingerprints_2", laterFingerprints.length);
+        // Share of the smaller submission found in the other; high when one copies part of the other
+        matchedSegments.put("containment", smaller > 0 ? Math.round(shared * 10000.0 / smaller) / 100.0 : 0.0);
+
+        Map<String, Object> analysisDetails = new HashMap<>();
+        analysisDetails.put("k_gram_tokens", CodeFingerprinter.K);
+        analysisDetails.put("winnow_window", CodeFingerprinter.WINDOW);
+        analysisDetails.put("tokens_1", earlier.tokenCount);
+        analysisDetails.put("tokens_2", fingerprint.getTokenCount());
+
+        return PlagiarismReport.builder()
             .assignmentId(assignmentId)
-            .submissionId1(submission1.getId())
-            .submissionId2(submission2.getId())
-            .studentId1(submission1.getStudentId())
-            .studentId2(submission2.getStudentId())
+            .submissionId1(earlier.id)
+            .submissionId2(later.id)
+            .studentId1(earlier.studentId)
+            .studentId2(later.studentId)
             .similarityScore(similarity)
-            .algorithm(algorithm)
+            .algorithm(ALGORITHM)
             .matchedSegments(matchedSegments)
-            .analysisDetails(new HashMap<>())
+            .analysisDetails(analysisDetails)
             .isFlagged(similarity.compareTo(BigDecimal.valueOf(70)) > 0)
             .build();
-
-        return report;
     }
 
     private PlagiarismReportResponse toResponse(PlagiarismReport report) {
@@ -141,4 +207,32 @@ public class PlagiarismService {
             .checkedAt(report.getCheckedAt())
             .build();
     }
+
+    private static final class PendingSubmission {
+        private final Long id;
+        private final Long studentId;
+        private final String language;
+        private final String code;
+
+        private PendingSubmission(Long id, Long studentId, String language, String code) {
+            this.id = id;
+            this.studentId = studentId;
+            this.language = language;
+            this.code = code;
+        }
+    }
+
+    private static final class IndexedSubmission {
+        private final Long id;
+        private final Long studentId;
+        private final int tokenCount;
+        private final long[] fingerprints;
+
+        private IndexedSubmission(Long id, Long studentId, int tokenCount, long[] fingerprints) {
+            this.id = id;
+            this.studentId = studentId;
+            this.tokenCount = tokenCount;
+            this.fingerprints = fingerprints;
+        }
+    }
 }
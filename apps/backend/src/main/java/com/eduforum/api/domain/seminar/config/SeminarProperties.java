@@ -0,0 +1,174 @@
+package com.eduforum.api.domain.seminar.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seminar room settings
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.seminar")
+public class SeminarProperties {
+
+    /**
+     * Chat pipeline settings
+     */
+    private Chat chat = new Chat();
+
+    /**
+     * Reaction aggregation settings
+     */
+    private Reactions reactions = new Reactions();
+
+    /**
+     * STOMP broker settings
+     */
+    private Broker broker = new Broker();
+
+    /**
+     * WebSocket wire format settings
+     */
+    private Wire wire = new Wire();
+
+    @Getter
+    @Setter
+    public static class Chat {
+        /**
+         * Maximum number of accepted messages waiting to be written
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Maximum rows per JDBC batch insert
+         */
+        private int flushSize = 200;
+
+        /**
+         * Maximum time a message waits in the queue before being written (ms)
+         */
+        private long flushIntervalMs = 250;
+
+        /**
+         * How long a sender waits for queue space before being rejected (ms)
+         */
+        private long offerTimeoutMs = 50;
+
+        /**
+         * Number of message IDs reserved from the sequence per round trip
+         */
+        private int idBlockSize = 500;
+
+        /**
+         * Writes a message gets before it is dead-lettered to the error log
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Delay before a failed message is written again, multiplied by its attempts so far (ms)
+         */
+        private long retryDelayMs = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Reactions {
+        /**
+         * Aggregation window; at most one REACTION frame per room is broadcast per window (ms)
+         */
+        private long windowMs = 250;
+
+        /**
+         * Interval at which closed windows are written to seminar.reaction_counts (ms)
+         */
+        private long persistIntervalMs = 5000;
+
+        /**
+         * How long closed windows are kept in memory to answer recent-reaction queries (minutes)
+         */
+        private int historyMinutes = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Broker {
+        /**
+         * Broker mode: simple (in-memory, single node), relay (external STOMP broker)
+         * or cluster (in-memory broker per node, fanned out over a shared bus)
+         */
+        private String mode = "simple";
+
+        /**
+         * External broker settings (mode: relay)
+         */
+        private Relay relay = new Relay();
+
+        /**
+         * Node fan-out settings (mode: cluster)
+         */
+        private Cluster cluster = new Cluster();
+    }
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+
+        /**
+         * Virtual host sent in the STOMP CONNECT frame; empty to omit
+         */
+        private String virtualHost;
+    }
+
+    @Getter
+    @Setter
+    public static class Cluster {
+        /**
+         * Identifier of this node; a random one is generated when empty
+         */
+        private String nodeId;
+
+        /**
+         * Postgres LISTEN/NOTIFY channel shared by all nodes
+         */
+        private String channel = "seminar_broker";
+
+        /**
+         * Larger envelopes are stored in seminar.broker_messages and only their ID is notified (bytes)
+         */
+        private int maxInlineBytes = 7000;
+
+        /**
+         * Maximum number of envelopes waiting to be published to the bus
+         */
+        private int publishQueueCapacity = 10000;
+
+        /**
+         * How long overflow envelopes are kept before cleanup (seconds)
+         */
+        private int overflowRetentionSeconds = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class Wire {
+        /**
+         * Allow sessions to negotiate the compact wire format with a "wire-format: compact" CONNECT header.
+         * Off by default; turn it on once clients that decode the compact frames are deployed.
+         */
+        private boolean compactEnabled = false;
+
+        /**
+         * Every n-th update of a participant is sent in full rather than as a delta
+         */
+        private int keyframeInterval = 20;
+    }
+}
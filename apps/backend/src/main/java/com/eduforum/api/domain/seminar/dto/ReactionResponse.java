@@ -32,6 +32,9 @@ public class ReactionResponse {
     @Schema(description = "반응 이모지", example = "👍")
     private String emoji;
 
+    @Schema(description = "반응 수 (집계 구간 단위 조회 시)", example = "12")
+    private Integer count;
+
     @Schema(description = "생성 시간")
     private OffsetDateTime createdAt;
 }
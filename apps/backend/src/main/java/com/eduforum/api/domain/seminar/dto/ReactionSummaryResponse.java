@@ -0,0 +1,32 @@
+package com.eduforum.api.domain.seminar.dto;
+
+import com.eduforum.api.domain.seminar.entity.ReactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "반응 집계 (구간별 타입별 반응 수)")
+public class ReactionSummaryResponse {
+
+    @Schema(description = "룸 ID", example = "1")
+    private Long roomId;
+
+    @Schema(description = "타입별 반응 수", example = "{\"CLAP\": 42, \"HEART\": 7}")
+    private Map<ReactionType, Integer> counts;
+
+    @Schema(description = "구간 내 전체 반응 수", example = "49")
+    private Integer total;
+
+    @Schema(description = "구간 시작 시간")
+    private OffsetDateTime windowStart;
+
+    @Schema(description = "구간 종료 시간")
+    private OffsetDateTime windowEnd;
+}
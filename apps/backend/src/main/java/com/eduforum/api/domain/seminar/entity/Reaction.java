@@ -38,12 +38,6 @@ public class Reaction extends BaseEntity {
 
     // Helper methods
     public String getEmoji() {
-        return switch (reactionType) {
-            case THUMBS_UP -> "👍";
-            case CLAP -> "👏";
-            case HEART -> "❤️";
-            case LAUGH -> "😂";
-            case SURPRISE -> "😮";
-        };
+        return reactionType.getEmoji();
     }
 }
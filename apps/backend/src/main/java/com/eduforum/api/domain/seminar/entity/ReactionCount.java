@@ -0,0 +1,43 @@
+package com.eduforum.api.domain.seminar.entity;
+
+import com.eduforum.api.domain.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * ReactionCount entity - number of reactions of one type in a room during one aggregation window
+ */
+@Entity
+@Table(schema = "seminar", name = "reaction_counts",
+    indexes = {
+        @Index(name = "idx_reaction_count_room_window", columnList = "room_id, window_start DESC")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactionCount extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reaction_type", nullable = false, columnDefinition = "reaction_type")
+    private ReactionType reactionType;
+
+    @Column(name = "window_start", nullable = false)
+    private OffsetDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private OffsetDateTime windowEnd;
+
+    @Column(name = "reaction_count", nullable = false)
+    private Integer reactionCount;
+}
@@ -8,5 +8,15 @@ public enum ReactionType {
     CLAP,       // 👏
     HEART,      // ❤️
     LAUGH,      // 😂
-    SURPRISE    // 😮
+    SURPRISE;   // 😮
+
+    public String getEmoji() {
+        return switch (this) {
+            case THUMBS_UP -> "👍";
+            case CLAP -> "👏";
+            case HEART -> "❤️";
+            case LAUGH -> "😂";
+            case SURPRISE -> "😮";
+        };
+    }
 }
@@ -26,5 +26,33 @@ public enum WebSocketEventType {
     VIDEO_CHANGED,
 
     // Layout events
-    LAYOUT_CHANGED
+    LAYOUT_CHANGED,
+
+    // Active learning events
+    POLL_TALLY,
+    BREAKOUT_ASSIGNED;
+
+    /**
+     * Short code used by the compact wire format
+     */
+    public String getCode() {
+        return switch (this) {
+            case PARTICIPANT_JOINED -> "pj";
+            case PARTICIPANT_LEFT -> "pl";
+            case ROOM_STARTED -> "rs";
+            case ROOM_ENDED -> "re";
+            case CHAT_MESSAGE -> "cm";
+            case FILE_SHARED -> "fs";
+            case HAND_RAISED -> "hr";
+            case HAND_LOWERED -> "hl";
+            case REACTION -> "rx";
+            case SCREEN_SHARE_STARTED -> "ss";
+            case SCREEN_SHARE_STOPPED -> "sx";
+            case MUTE_CHANGED -> "mc";
+            case VIDEO_CHANGED -> "vc";
+            case LAYOUT_CHANGED -> "lc";
+            case POLL_TALLY -> "pt";
+            case BREAKOUT_ASSIGNED -> "ba";
+        };
+    }
 }
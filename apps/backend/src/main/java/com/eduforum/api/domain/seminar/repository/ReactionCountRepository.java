@@ -0,0 +1,31 @@
+package com.eduforum.api.domain.seminar.repository;
+
+import com.eduforum.api.domain.seminar.entity.ReactionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Repository for ReactionCount entity
+ */
+@Repository
+public interface ReactionCountRepository extends JpaRepository<ReactionCount, Long> {
+
+    /**
+     * Find aggregated reaction windows in a room since a timestamp
+     */
+    @Query("SELECT c FROM ReactionCount c WHERE c.roomId = :roomId AND c.windowStart >= :since AND c.deletedAt IS NULL ORDER BY c.windowStart DESC")
+    List<ReactionCount> findRecentCounts(@Param("roomId") Long roomId, @Param("since") OffsetDateTime since);
+
+    /**
+     * Delete old reaction windows (cleanup)
+     */
+    @Modifying
+    @Query("DELETE FROM ReactionCount c WHERE c.windowStart < :before")
+    void deleteCountsBefore(@Param("before") OffsetDateTime before);
+}
@@ -2,6 +2,7 @@ package com.eduforum.api.domain.seminar.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
 import com.eduforum.api.domain.auth.entity.User;
 import com.eduforum.api.domain.auth.repository.UserRepository;
 import com.eduforum.api.domain.seminar.dto.ChatMessageRequest;
@@ -10,7 +11,6 @@ import com.eduforum.api.domain.seminar.entity.ChatMessage;
 import com.eduforum.api.domain.seminar.entity.MessageType;
 import com.eduforum.api.domain.seminar.entity.SeminarRoom;
 import com.eduforum.api.domain.seminar.repository.ChatMessageRepository;
-import com.eduforum.api.domain.seminar.repository.RoomParticipantRepository;
 import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
 import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
@@ -37,47 +38,59 @@ public class ChatService {
     private final ChatMessageRepository messageRepository;
     private final SeminarRoomRepository roomRepository;
     private final UserRepository userRepository;
-    private final RoomParticipantRepository participantRepository;
     private final WebSocketEventPublisher eventPublisher;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final RoomRosterCache rosterCache;
+    private final ChatWriteBehindQueue writeBehindQueue;
 
     /**
-     * Send chat message
+     * Send chat message.
+     * Validates against the cached room roster, broadcasts immediately and hands
+     * the row to the write-behind queue; no connection is held for the request.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ChatMessageResponse sendMessage(Long userId, ChatMessageRequest request) {
-        log.info("User {} sending message to room {}", userId, request.getRoomId());
+        log.debug("User {} sending message to room {}", userId, request.getRoomId());
 
-        // Get room
-        SeminarRoom room = roomRepository.findById(request.getRoomId())
-            .orElseThrow(() -> new BusinessException(ErrorCode.ROOM_NOT_FOUND));
+        RoomRoster roster = rosterCache.getRoster(request.getRoomId());
 
         // Verify user is in room
-        if (!participantRepository.isUserInRoom(request.getRoomId(), userId)) {
+        if (!rosterCache.isMember(request.getRoomId(), userId)) {
             throw new BusinessException(ErrorCode.NOT_IN_ROOM);
         }
 
         // Check if chat is enabled
-        Boolean chatEnabled = (Boolean) room.getSettings().getOrDefault("allowChat", true);
-        if (!chatEnabled) {
+        if (!roster.isChatEnabled()) {
             throw new BusinessException(ErrorCode.CHAT_DISABLED);
         }
 
-        // Get sender
-        User sender = userRepository.findById(userId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-
-        // Create message
-        ChatMessage message = ChatMessage.builder()
-            .room(room)
-            .sender(sender)
+        ChatWriteBehindQueue.PendingChatMessage message = ChatWriteBehindQueue.PendingChatMessage.builder()
+            .id(writeBehindQueue.nextId())
+            .roomId(request.getRoomId())
+            .senderId(userId)
             .messageType(MessageType.TEXT)
             .content(request.getContent())
+            .createdAt(OffsetDateTime.now())
             .build();
 
-        message = messageRepository.save(message);
+        // Rejects with CHAT_UNAVAILABLE when the queue stays full (backpressure)
+        writeBehindQueue.enqueue(message);
+        liveSessionAggregator.recordChatMessage(roster.getSessionId());
 
-        log.info("Message {} created in room {}", message.getId(), request.getRoomId());
-        return mapToResponse(message);
+        ChatMessageResponse response = ChatMessageResponse.builder()
+            .id(message.getId())
+            .roomId(message.getRoomId())
+            .senderId(userId)
+            .senderName(roster.getMemberName(userId))
+            .messageType(message.getMessageType())
+            .content(message.getContent())
+            .createdAt(message.getCreatedAt())
+            .build();
+
+        eventPublisher.broadcastChatMessage(request.getRoomId(), response);
+
+        log.debug("Message {} accepted in room {}", message.getId(), request.getRoomId());
+        return response;
     }
 
     /**
@@ -112,7 +125,7 @@ public class ChatService {
             .orElseThrow(() -> new BusinessException(ErrorCode.ROOM_NOT_FOUND));
 
         // Verify user is in room
-        if (!participantRepository.isUserInRoom(roomId, userId)) {
+        if (!rosterCache.isMember(roomId, userId)) {
             throw new BusinessException(ErrorCode.NOT_IN_ROOM);
         }
 
@@ -132,6 +145,7 @@ public class ChatService {
             .build();
 
         message = messageRepository.save(message);
+        liveSessionAggregator.recordChatMessage(room.getSession().getId());
 
         // Broadcast file shared event
         ChatMessageResponse response = mapToResponse(message);
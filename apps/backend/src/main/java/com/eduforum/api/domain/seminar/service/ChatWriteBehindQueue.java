@@ -0,0 +1,282 @@
+package com.eduforum.api.domain.seminar.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import com.eduforum.api.domain.seminar.entity.MessageType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for chat messages.
+ * Accepted messages are queued in memory and written to seminar.chat_messages
+ * with JDBC batch inserts by a single writer thread. On shutdown the queue is
+ * drained before the context closes, so every acknowledged message is persisted.
+ * A row that fails on its own is retried with a growing delay; after the configured
+ * number of attempts it is dead-lettered to the error log with everything needed to
+ * replay it.
+ */
+@Component
+@Slf4j
+public class ChatWriteBehindQueue implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO seminar.chat_messages (id, room_id, sender_id, message_type, content, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?::message_type, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+
+    private static final String NEXT_IDS_SQL =
+        "SELECT nextval('seminar.chat_messages_id_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeminarProperties.Chat settings;
+    private final BlockingQueue<PendingChatMessage> queue;
+    private final Deque<Long> reservedIds = new ArrayDeque<>();
+    private final Queue<PendingChatMessage> retries = new ConcurrentLinkedQueue<>();
+    // Producers hold the read lock while offering; stop() takes the write lock so no offer lands after the final drain
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ChatWriteBehindQueue(JdbcTemplate jdbcTemplate, SeminarProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = properties.getChat();
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+    }
+
+    /**
+     * Reserve a message ID from the table's sequence. IDs are fetched in blocks
+     * so the common case is an in-memory pop.
+     */
+    public synchronized Long nextId() {
+        if (reservedIds.isEmpty()) {
+            reservedIds.addAll(jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, settings.getIdBlockSize()));
+        }
+        return reservedIds.poll();
+    }
+
+    /**
+     * Accept a message for persistence. Blocks up to the configured offer timeout
+     * when the queue is full and rejects the message if no space frees up.
+     */
+    public void enqueue(PendingChatMessage message) {
+        acceptLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new BusinessException(ErrorCode.CHAT_UNAVAILABLE);
+            }
+            if (!queue.offer(message, settings.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                log.warn("Chat write queue full ({} pending), rejecting message {}", queue.size(), message.getId());
+                throw new BusinessException(ErrorCode.CHAT_UNAVAILABLE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.CHAT_UNAVAILABLE);
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size() + retries.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "chat-write-behind");
+        writer.setDaemon(false);
+        writer.start();
+        log.info("Chat write-behind started (capacity={}, flushSize={}, flushIntervalMs={})",
+            settings.getQueueCapacity(), settings.getFlushSize(), settings.getFlushIntervalMs());
+    }
+
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Anything still queued (e.g. writer timed out) is flushed on the caller's thread
+        drainRemaining();
+        log.info("Chat write-behind stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server (which stops accepting new messages) but before the DataSource
+        return Integer.MAX_VALUE - 1000;
+    }
+
+    private void runWriter() {
+        List<PendingChatMessage> batch = new ArrayList<>(settings.getFlushSize());
+        while (running) {
+            try {
+                retryFailed(false);
+                PendingChatMessage first = queue.poll(settings.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Collect until the batch is full or the oldest message has waited a full interval
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getFlushIntervalMs());
+                while (batch.size() < settings.getFlushSize()) {
+                    queue.drainTo(batch, settings.getFlushSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= settings.getFlushSize() || remaining <= 0) {
+                        break;
+                    }
+                    PendingChatMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // stop() interrupts the writer; keep whatever was collected
+                flush(batch);
+                batch.clear();
+                break;
+            } catch (Exception e) {
+                log.error("Chat write-behind writer error", e);
+            }
+        }
+        drainRemaining();
+    }
+
+    private synchronized void drainRemaining() {
+        List<PendingChatMessage> batch = new ArrayList<>(settings.getFlushSize());
+        while (queue.drainTo(batch, settings.getFlushSize()) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+        // Failed rows get their remaining attempts now; each pass uses one, so this ends
+        while (!retries.isEmpty()) {
+            retryFailed(true);
+        }
+    }
+
+    /**
+     * Write the failed rows whose retry delay has passed, or all of them when forced
+     */
+    private void retryFailed(boolean force) {
+        if (retries.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<PendingChatMessage> due = new ArrayList<>();
+        for (Iterator<PendingChatMessage> it = retries.iterator(); it.hasNext(); ) {
+            PendingChatMessage message = it.next();
+            if (force || now - message.retryAt >= 0) {
+                it.remove();
+                due.add(message);
+            }
+        }
+        flush(due);
+    }
+
+    private void flush(List<PendingChatMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, message) -> {
+                Timestamp createdAt = Timestamp.from(message.getCreatedAt().toInstant());
+                ps.setLong(1, message.getId());
+                ps.setLong(2, message.getRoomId());
+                ps.setObject(3, message.getSenderId());
+                ps.setString(4, message.getMessageType().name());
+                ps.setString(5, message.getContent());
+                ps.setTimestamp(6, createdAt);
+                ps.setTimestamp(7, createdAt);
+            });
+            log.debug("Flushed {} chat messages", batch.size());
+        } catch (Exception e) {
+            log.error("Batch insert of {} chat messages failed, retrying row by row", batch.size(), e);
+            flushIndividually(batch);
+        }
+    }
+
+    private void flushIndividually(List<PendingChatMessage> batch) {
+        for (PendingChatMessage message : batch) {
+            try {
+                Timestamp createdAt = Timestamp.from(message.getCreatedAt().toInstant());
+                jdbcTemplate.update(INSERT_SQL, message.getId(), message.getRoomId(), message.getSenderId(),
+                    message.getMessageType().name(), message.getContent(), createdAt, createdAt);
+            } catch (Exception e) {
+                retryLater(message, e);
+            }
+        }
+    }
+
+    private void retryLater(PendingChatMessage message, Exception cause) {
+        message.attempts++;
+        if (message.attempts < settings.getMaxAttempts()) {
+            message.retryAt = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(settings.getRetryDelayMs() * message.attempts);
+            retries.add(message);
+            log.warn("Chat message {} for room {} failed (attempt {}), retrying: {}",
+                message.getId(), message.getRoomId(), message.attempts, cause.getMessage());
+            return;
+        }
+        log.error("Dead-lettering chat message {} after {} attempts: "
+                + "roomId={}, senderId={}, type={}, createdAt={}, content={}",
+            message.getId(), message.attempts, message.getRoomId(), message.getSenderId(),
+            message.getMessageType(), message.getCreatedAt(), message.getContent(), cause);
+    }
+
+    /**
+     * A chat message accepted but not yet written
+     */
+    @Getter
+    @Builder
+    public static class PendingChatMessage {
+        private final Long id;
+        private final Long roomId;
+        private final Long senderId;
+        private final MessageType messageType;
+        private final String content;
+        private final OffsetDateTime createdAt;
+        // Failed writes so far and when the next one may run; only the writer touches these
+        private int attempts;
+        private long retryAt;
+    }
+}
@@ -2,6 +2,7 @@ package com.eduforum.api.domain.seminar.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
 import com.eduforum.api.domain.auth.entity.User;
 import com.eduforum.api.domain.auth.repository.UserRepository;
 import com.eduforum.api.domain.seminar.dto.ParticipantResponse;
@@ -31,6 +32,8 @@ public class ParticipantService {
     private final SeminarRoomRepository roomRepository;
     private final UserRepository userRepository;
     private final WebSocketEventPublisher eventPublisher;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final RoomRosterCache rosterCache;
 
     /**
      * Join room
@@ -53,13 +56,16 @@ public class ParticipantService {
             .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
         // Check if already in room
-        if (participantRepository.isUserInRoom(request.getRoomId(), userId)) {
+        if (rosterCache.isMember(request.getRoomId(), userId)) {
             throw new BusinessException(ErrorCode.ALREADY_IN_ROOM);
         }
 
-        // Check room capacity
-        Long activeCount = participantRepository.countActiveParticipants(request.getRoomId());
-        if (activeCount >= room.getMaxParticipants()) {
+        // Check room capacity and take a seat in the roster (undone on rollback)
+        ParticipantStatus status = room.isWaiting() ? ParticipantStatus.WAITING : ParticipantStatus.JOINED;
+        if (!rosterCache.tryAdmit(request.getRoomId(), userId, user.getName(), status, !request.getAudioEnabled())) {
+            if (rosterCache.getRoster(request.getRoomId()).isMember(userId)) {
+                throw new BusinessException(ErrorCode.ALREADY_IN_ROOM);
+            }
             throw new BusinessException(ErrorCode.ROOM_FULL);
         }
 
@@ -68,7 +74,7 @@ public class ParticipantService {
             .room(room)
             .user(user)
             .role(ParticipantRole.PARTICIPANT)
-            .status(room.isWaiting() ? ParticipantStatus.WAITING : ParticipantStatus.JOINED)
+            .status(status)
             .isMuted(!request.getAudioEnabled())
             .isVideoOn(request.getVideoEnabled())
             .build();
@@ -78,6 +84,7 @@ public class ParticipantService {
         }
 
         participant = participantRepository.save(participant);
+        liveSessionAggregator.recordParticipantJoined(room.getSession().getId());
 
         // Broadcast participant joined event
         ParticipantResponse response = mapToResponse(participant);
@@ -100,6 +107,8 @@ public class ParticipantService {
         // Leave room
         participant.leave();
         participantRepository.save(participant);
+        liveSessionAggregator.recordParticipantLeft(participant.getRoom().getSession().getId());
+        rosterCache.memberLeft(roomId, userId);
 
         // Broadcast participant left event
         ParticipantResponse response = mapToResponse(participant);
@@ -120,6 +129,7 @@ public class ParticipantService {
 
         participant.raiseHand();
         participant = participantRepository.save(participant);
+        rosterCache.setHandRaised(roomId, userId, true);
 
         // Broadcast hand raised event
         ParticipantResponse response = mapToResponse(participant);
@@ -140,6 +150,7 @@ public class ParticipantService {
 
         participant.lowerHand();
         participant = participantRepository.save(participant);
+        rosterCache.setHandRaised(roomId, userId, false);
 
         // Broadcast hand lowered event
         ParticipantResponse response = mapToResponse(participant);
@@ -158,6 +169,7 @@ public class ParticipantService {
 
         participant.toggleMute();
         participant = participantRepository.save(participant);
+        rosterCache.setMuted(roomId, userId, participant.getIsMuted());
 
         return mapToResponse(participant);
     }
@@ -0,0 +1,256 @@
+package com.eduforum.api.domain.seminar.service;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import com.eduforum.api.domain.seminar.dto.ReactionSummaryResponse;
+import com.eduforum.api.domain.seminar.entity.ReactionCount;
+import com.eduforum.api.domain.seminar.entity.ReactionType;
+import com.eduforum.api.domain.seminar.repository.ReactionCountRepository;
+import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Coalesces reactions per room into short windows.
+ * Each closed window is broadcast as a single REACTION summary frame, kept in
+ * memory for recent-reaction queries and written to seminar.reaction_counts in bulk.
+ * Reactions are counted and windows are swapped under the map's lock for the room,
+ * so a reaction always lands in exactly one window and an idle room is only dropped
+ * while its open window is empty.
+ */
+@Component
+@Slf4j
+public class ReactionAggregator {
+
+    private static final ReactionType[] TYPES = ReactionType.values();
+
+    private static final String INSERT_SQL =
+        "INSERT INTO seminar.reaction_counts (room_id, reaction_type, window_start, window_end, reaction_count, created_at, updated_at) " +
+        "VALUES (?, ?::reaction_type, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReactionCountRepository reactionCountRepository;
+    private final WebSocketEventPublisher eventPublisher;
+    private final SeminarProperties.Reactions settings;
+
+    private final Map<Long, RoomWindow> rooms = new ConcurrentHashMap<>();
+    private final Queue<ReactionSummaryResponse> pendingPersist = new ConcurrentLinkedQueue<>();
+
+    public ReactionAggregator(JdbcTemplate jdbcTemplate,
+                              ReactionCountRepository reactionCountRepository,
+                              WebSocketEventPublisher eventPublisher,
+                              SeminarProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reactionCountRepository = reactionCountRepository;
+        this.eventPublisher = eventPublisher;
+        this.settings = properties.getReactions();
+    }
+
+    /**
+     * Count a reaction in the room's current window
+     */
+    public void record(Long roomId, ReactionType reactionType) {
+        rooms.compute(roomId, (id, window) -> {
+            RoomWindow room = window != null ? window : new RoomWindow();
+            room.tally.counts[reactionType.ordinal()]++;
+            return room;
+        });
+    }
+
+    /**
+     * Close the current window of every room, broadcasting one summary per room with activity
+     */
+    @Scheduled(fixedRateString = "${app.seminar.reactions.window-ms:250}")
+    public void closeWindows() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime historyHorizon = now.minusMinutes(settings.getHistoryMinutes());
+
+        for (Long roomId : rooms.keySet()) {
+            Tally[] closed = new Tally[1];
+            RoomWindow window = rooms.computeIfPresent(roomId, (id, room) -> {
+                closed[0] = room.tally;
+                room.tally = new Tally(now);
+                return room;
+            });
+            if (window == null) {
+                continue;
+            }
+
+            // Nobody else can reach the closed tally once it is swapped out
+            ReactionSummaryResponse summary = window.summarize(roomId, closed[0], now);
+            if (summary != null) {
+                window.history.addFirst(summary);
+                pendingPersist.add(summary);
+                eventPublisher.broadcastReaction(roomId, null, summary);
+            }
+
+            window.trimHistory(historyHorizon);
+            if (window.isIdleSince(historyHorizon)) {
+                rooms.computeIfPresent(roomId, (id, room) ->
+                    room == window && room.tally.isEmpty() ? null : room);
+            }
+        }
+    }
+
+    /**
+     * Write closed windows to the database with one batch insert
+     */
+    @Scheduled(fixedDelayString = "${app.seminar.reactions.persist-interval-ms:5000}")
+    public void persistPending() {
+        List<Object[]> rows = new ArrayList<>();
+        ReactionSummaryResponse summary;
+        while ((summary = pendingPersist.poll()) != null) {
+            Timestamp start = Timestamp.from(summary.getWindowStart().toInstant());
+            Timestamp end = Timestamp.from(summary.getWindowEnd().toInstant());
+            for (Map.Entry<ReactionType, Integer> entry : summary.getCounts().entrySet()) {
+                rows.add(new Object[]{summary.getRoomId(), entry.getKey().name(), start, end, entry.getValue(), end, end});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            log.debug("Persisted {} reaction count rows", rows.size());
+        } catch (Exception e) {
+            log.error("Failed to persist {} reaction count rows", rows.size(), e);
+        }
+    }
+
+    /**
+     * Aggregated reactions in a room since the given time, newest window first.
+     * Served from memory when the range is within the in-memory history; otherwise
+     * persisted windows are merged with those not yet written.
+     */
+    public List<ReactionSummaryResponse> getRecent(Long roomId, OffsetDateTime since) {
+        RoomWindow window = rooms.get(roomId);
+        OffsetDateTime historyHorizon = OffsetDateTime.now().minusMinutes(settings.getHistoryMinutes());
+
+        if (window != null && !since.isBefore(window.createdAt) && !since.isBefore(historyHorizon)) {
+            List<ReactionSummaryResponse> result = new ArrayList<>();
+            for (ReactionSummaryResponse summary : window.history) {
+                if (summary.getWindowStart().isBefore(since)) {
+                    break;
+                }
+                result.add(summary);
+            }
+            return result;
+        }
+
+        Map<Instant, ReactionSummaryResponse> byWindow = new TreeMap<>(Comparator.reverseOrder());
+        for (ReactionCount count : reactionCountRepository.findRecentCounts(roomId, since)) {
+            ReactionSummaryResponse summary = byWindow.computeIfAbsent(count.getWindowStart().toInstant(),
+                start -> ReactionSummaryResponse.builder()
+                    .roomId(roomId)
+                    .counts(new EnumMap<>(ReactionType.class))
+                    .total(0)
+                    .windowStart(count.getWindowStart())
+                    .windowEnd(count.getWindowEnd())
+                    .build());
+            summary.getCounts().merge(count.getReactionType(), count.getReactionCount(), Integer::sum);
+            summary.setTotal(summary.getTotal() + count.getReactionCount());
+        }
+
+        // Windows closed but not yet persisted
+        if (window != null) {
+            for (ReactionSummaryResponse summary : window.history) {
+                if (summary.getWindowStart().isBefore(since)) {
+                    break;
+                }
+                byWindow.putIfAbsent(summary.getWindowStart().toInstant(), summary);
+            }
+        }
+
+        return new ArrayList<>(byWindow.values());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeWindows();
+        persistPending();
+    }
+
+    /**
+     * Counts of one open window; only touched under the map's lock for the room
+     */
+    private static final class Tally {
+        private final int[] counts = new int[TYPES.length];
+        private final OffsetDateTime start;
+
+        private Tally(OffsetDateTime start) {
+            this.start = start;
+        }
+
+        private boolean isEmpty() {
+            for (int count : counts) {
+                if (count > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Open window and recent history of one room
+     */
+    private static final class RoomWindow {
+        private final Deque<ReactionSummaryResponse> history = new ConcurrentLinkedDeque<>();
+        private final OffsetDateTime createdAt = OffsetDateTime.now();
+        private Tally tally = new Tally(createdAt);
+        private volatile OffsetDateTime lastActivity = createdAt;
+
+        private ReactionSummaryResponse summarize(Long roomId, Tally closed, OffsetDateTime now) {
+            Map<ReactionType, Integer> windowCounts = new EnumMap<>(ReactionType.class);
+            int total = 0;
+            for (int i = 0; i < TYPES.length; i++) {
+                int n = closed.counts[i];
+                if (n > 0) {
+                    windowCounts.put(TYPES[i], n);
+                    total += n;
+                }
+            }
+            if (total == 0) {
+                return null;
+            }
+
+            lastActivity = now;
+            return ReactionSummaryResponse.builder()
+                .roomId(roomId)
+                .counts(windowCounts)
+                .total(total)
+                .windowStart(closed.start)
+                .windowEnd(now)
+                .build();
+        }
+
+        private void trimHistory(OffsetDateTime horizon) {
+            ReactionSummaryResponse oldest;
+            while ((oldest = history.peekLast()) != null && oldest.getWindowEnd().isBefore(horizon)) {
+                history.pollLast();
+            }
+        }
+
+        private boolean isIdleSince(OffsetDateTime horizon) {
+            return lastActivity.isBefore(horizon) && history.isEmpty();
+        }
+    }
+}
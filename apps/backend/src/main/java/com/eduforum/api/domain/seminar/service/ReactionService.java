@@ -2,24 +2,21 @@ package com.eduforum.api.domain.seminar.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
-import com.eduforum.api.domain.auth.entity.User;
-import com.eduforum.api.domain.auth.repository.UserRepository;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
 import com.eduforum.api.domain.seminar.dto.ReactionRequest;
 import com.eduforum.api.domain.seminar.dto.ReactionResponse;
-import com.eduforum.api.domain.seminar.entity.Reaction;
-import com.eduforum.api.domain.seminar.entity.SeminarRoom;
+import com.eduforum.api.domain.seminar.dto.ReactionSummaryResponse;
+import com.eduforum.api.domain.seminar.repository.ReactionCountRepository;
 import com.eduforum.api.domain.seminar.repository.ReactionRepository;
-import com.eduforum.api.domain.seminar.repository.RoomParticipantRepository;
-import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
-import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing reactions
@@ -31,57 +28,58 @@ import java.util.stream.Collectors;
 public class ReactionService {
 
     private final ReactionRepository reactionRepository;
-    private final SeminarRoomRepository roomRepository;
-    private final UserRepository userRepository;
-    private final RoomParticipantRepository participantRepository;
-    private final WebSocketEventPublisher eventPublisher;
+    private final ReactionCountRepository reactionCountRepository;
+    private final ReactionAggregator reactionAggregator;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final RoomRosterCache rosterCache;
 
     /**
-     * Send reaction
+     * Send reaction.
+     * The click is counted in the room's current aggregation window; subscribers
+     * receive one REACTION summary per window instead of one frame per click.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReactionResponse sendReaction(Long userId, ReactionRequest request) {
-        log.info("User {} sending reaction {} to room {}", userId, request.getReactionType(), request.getRoomId());
+        log.debug("User {} sending reaction {} to room {}", userId, request.getReactionType(), request.getRoomId());
 
-        // Get room
-        SeminarRoom room = roomRepository.findById(request.getRoomId())
-            .orElseThrow(() -> new BusinessException(ErrorCode.ROOM_NOT_FOUND));
+        RoomRoster roster = rosterCache.getRoster(request.getRoomId());
 
         // Verify user is in room
-        if (!participantRepository.isUserInRoom(request.getRoomId(), userId)) {
+        if (!rosterCache.isMember(request.getRoomId(), userId)) {
             throw new BusinessException(ErrorCode.NOT_IN_ROOM);
         }
 
-        // Get user
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        reactionAggregator.record(request.getRoomId(), request.getReactionType());
+        liveSessionAggregator.recordReaction(roster.getSessionId());
 
-        // Create reaction
-        Reaction reaction = Reaction.builder()
-            .room(room)
-            .user(user)
+        return ReactionResponse.builder()
+            .roomId(request.getRoomId())
+            .userId(userId)
+            .userName(roster.getMemberName(userId))
             .reactionType(request.getReactionType())
+            .emoji(request.getReactionType().getEmoji())
+            .count(1)
+            .createdAt(OffsetDateTime.now())
             .build();
-
-        reaction = reactionRepository.save(reaction);
-
-        // Broadcast reaction event
-        ReactionResponse response = mapToResponse(reaction);
-        eventPublisher.broadcastReaction(request.getRoomId(), userId, response);
-
-        log.info("Reaction {} sent to room {}", reaction.getId(), request.getRoomId());
-        return response;
     }
 
     /**
-     * Get recent reactions
+     * Get recent reactions, one entry per aggregation window and reaction type
      */
     public List<ReactionResponse> getRecentReactions(Long roomId, int minutes) {
         OffsetDateTime since = OffsetDateTime.now().minusMinutes(minutes);
-        List<Reaction> reactions = reactionRepository.findRecentReactions(roomId, since);
-        return reactions.stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        List<ReactionResponse> reactions = new ArrayList<>();
+
+        for (ReactionSummaryResponse summary : reactionAggregator.getRecent(roomId, since)) {
+            summary.getCounts().forEach((type, count) -> reactions.add(ReactionResponse.builder()
+                .roomId(roomId)
+                .reactionType(type)
+                .emoji(type.getEmoji())
+                .count(count)
+                .createdAt(summary.getWindowStart())
+                .build()));
+        }
+        return reactions;
     }
 
     /**
@@ -91,21 +89,7 @@ public class ReactionService {
     public void cleanupOldReactions(int daysOld) {
         OffsetDateTime before = OffsetDateTime.now().minusDays(daysOld);
         reactionRepository.deleteReactionsBefore(before);
+        reactionCountRepository.deleteCountsBefore(before);
         log.info("Cleaned up reactions older than {} days", daysOld);
     }
-
-    /**
-     * Map entity to response DTO
-     */
-    private ReactionResponse mapToResponse(Reaction reaction) {
-        return ReactionResponse.builder()
-            .id(reaction.getId())
-            .roomId(reaction.getRoom().getId())
-            .userId(reaction.getUser().getId())
-            .userName(reaction.getUser().getName())
-            .reactionType(reaction.getReactionType())
-            .emoji(reaction.getEmoji())
-            .createdAt(reaction.getCreatedAt())
-            .build();
-    }
 }
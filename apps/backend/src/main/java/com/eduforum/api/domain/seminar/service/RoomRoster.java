@@ -0,0 +1,130 @@
+package com.eduforum.api.domain.seminar.service;
+
+import com.eduforum.api.domain.seminar.entity.ParticipantStatus;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory view of the members of a seminar room.
+ * Reads are lock-free; the active count mirrors RoomParticipantRepository.countActiveParticipants.
+ */
+@Getter
+public class RoomRoster {
+
+    private final Long roomId;
+    private final Long sessionId;
+    private final int maxParticipants;
+    private final Map<Long, Member> members = new ConcurrentHashMap<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private volatile boolean chatEnabled;
+
+    public RoomRoster(Long roomId, Long sessionId, int maxParticipants, boolean chatEnabled) {
+        this.roomId = roomId;
+        this.sessionId = sessionId;
+        this.maxParticipants = maxParticipants;
+        this.chatEnabled = chatEnabled;
+    }
+
+    public boolean isMember(Long userId) {
+        return members.containsKey(userId);
+    }
+
+    public String getMemberName(Long userId) {
+        Member member = members.get(userId);
+        return member != null ? member.getUserName() : null;
+    }
+
+    public Member getMember(Long userId) {
+        return members.get(userId);
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    public boolean isFull() {
+        return activeCount.get() >= maxParticipants;
+    }
+
+    /**
+     * Admit a new member. Joined members take a seat atomically; waiting members
+     * only need the room not to be full. Returns false if the room is full or the
+     * user is already a member.
+     */
+    boolean tryAdmit(Member member) {
+        if (member.getStatus() == ParticipantStatus.JOINED) {
+            if (!reserveSeat()) {
+                return false;
+            }
+            if (members.putIfAbsent(member.getUserId(), member) != null) {
+                activeCount.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+        return !isFull() && members.putIfAbsent(member.getUserId(), member) == null;
+    }
+
+    /**
+     * Add a member loaded from the database (no capacity check)
+     */
+    void load(Member member) {
+        if (members.put(member.getUserId(), member) == null && member.getStatus() == ParticipantStatus.JOINED) {
+            activeCount.incrementAndGet();
+        }
+    }
+
+    void removeMember(Long userId) {
+        Member removed = members.remove(userId);
+        if (removed != null && removed.getStatus() == ParticipantStatus.JOINED) {
+            activeCount.decrementAndGet();
+        }
+    }
+
+    void setChatEnabled(boolean chatEnabled) {
+        this.chatEnabled = chatEnabled;
+    }
+
+    private boolean reserveSeat() {
+        while (true) {
+            int current = activeCount.get();
+            if (current >= maxParticipants) {
+                return false;
+            }
+            if (activeCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Cached participant state
+     */
+    @Getter
+    public static class Member {
+        private final Long userId;
+        private final String userName;
+        private final ParticipantStatus status;
+        private volatile boolean handRaised;
+        private volatile boolean muted;
+
+        public Member(Long userId, String userName, ParticipantStatus status, boolean handRaised, boolean muted) {
+            this.userId = userId;
+            this.userName = userName;
+            this.status = status;
+            this.handRaised = handRaised;
+            this.muted = muted;
+        }
+
+        void setHandRaised(boolean handRaised) {
+            this.handRaised = handRaised;
+        }
+
+        void setMuted(boolean muted) {
+            this.muted = muted;
+        }
+    }
+}
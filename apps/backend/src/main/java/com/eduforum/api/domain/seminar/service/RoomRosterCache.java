@@ -0,0 +1,168 @@
+package com.eduforum.api.domain.seminar.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.common.util.TransactionUtil;
+import com.eduforum.api.domain.seminar.entity.ParticipantStatus;
+import com.eduforum.api.domain.seminar.entity.RoomParticipant;
+import com.eduforum.api.domain.seminar.entity.SeminarRoom;
+import com.eduforum.api.domain.seminar.repository.RoomParticipantRepository;
+import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local cache of room rosters.
+ * Membership and capacity checks read the roster; participant writes still go
+ * to the database and are mirrored here by ParticipantService. Cache hits never
+ * touch the database; a transaction is opened only to load a missing roster or member.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomRosterCache {
+
+    private final SeminarRoomRepository roomRepository;
+    private final RoomParticipantRepository participantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, RoomRoster> rosters = new ConcurrentHashMap<>();
+
+    /**
+     * Get the roster for a room, loading it from the database on first access
+     */
+    public RoomRoster getRoster(Long roomId) {
+        RoomRoster roster = rosters.get(roomId);
+        if (roster != null) {
+            return roster;
+        }
+
+        RoomRoster loaded = load(roomId);
+        RoomRoster existing = rosters.putIfAbsent(roomId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Get the roster only if it is already cached
+     */
+    public Optional<RoomRoster> findRoster(Long roomId) {
+        return Optional.ofNullable(rosters.get(roomId));
+    }
+
+    /**
+     * (Re)load the roster from the database, e.g. when the room starts
+     */
+    public RoomRoster reload(Long roomId) {
+        RoomRoster roster = load(roomId);
+        rosters.put(roomId, roster);
+        return roster;
+    }
+
+    /**
+     * Check membership. A negative answer is confirmed against the database once,
+     * so members added by another node (or before the roster was loaded) are picked up.
+     */
+    public boolean isMember(Long roomId, Long userId) {
+        RoomRoster roster = getRoster(roomId);
+        if (roster.isMember(userId)) {
+            return true;
+        }
+
+        RoomRoster.Member member = transactionTemplate.execute(status ->
+            participantRepository.findByRoomIdAndUserId(roomId, userId)
+                .filter(p -> p.getStatus() != ParticipantStatus.LEFT)
+                .map(this::toMember)
+                .orElse(null));
+        if (member == null) {
+            return false;
+        }
+        roster.load(member);
+        return true;
+    }
+
+    /**
+     * Admit a member into the roster. If the surrounding transaction rolls back,
+     * the admission is undone.
+     *
+     * @return false if the room is full or the user is already a member
+     */
+    public boolean tryAdmit(Long roomId, Long userId, String userName, ParticipantStatus status, boolean muted) {
+        RoomRoster roster = getRoster(roomId);
+        if (!roster.tryAdmit(new RoomRoster.Member(userId, userName, status, false, muted))) {
+            return false;
+        }
+        TransactionUtil.onRollback(() -> roster.removeMember(userId));
+        return true;
+    }
+
+    /**
+     * Record a member leaving the room once the current transaction commits
+     */
+    public void memberLeft(Long roomId, Long userId) {
+        TransactionUtil.afterCommit(() -> findRoster(roomId).ifPresent(roster -> roster.removeMember(userId)));
+    }
+
+    /**
+     * Update the hand-raised flag of a member once the current transaction commits
+     */
+    public void setHandRaised(Long roomId, Long userId, boolean handRaised) {
+        TransactionUtil.afterCommit(() ->
+            findMember(roomId, userId).ifPresent(member -> member.setHandRaised(handRaised)));
+    }
+
+    /**
+     * Update the muted flag of a member once the current transaction commits
+     */
+    public void setMuted(Long roomId, Long userId, boolean muted) {
+        TransactionUtil.afterCommit(() ->
+            findMember(roomId, userId).ifPresent(member -> member.setMuted(muted)));
+    }
+
+    /**
+     * Drop a roster, e.g. when the room ends
+     */
+    public void evict(Long roomId) {
+        rosters.remove(roomId);
+    }
+
+    private Optional<RoomRoster.Member> findMember(Long roomId, Long userId) {
+        return findRoster(roomId).map(roster -> roster.getMember(userId));
+    }
+
+    private RoomRoster load(Long roomId) {
+        return transactionTemplate.execute(status -> loadRoster(roomId));
+    }
+
+    private RoomRoster loadRoster(Long roomId) {
+        SeminarRoom room = roomRepository.findById(roomId)
+            .orElseThrow(() -> new BusinessException(ErrorCode.ROOM_NOT_FOUND));
+
+        Boolean chatEnabled = (Boolean) room.getSettings().getOrDefault("allowChat", true);
+        RoomRoster roster = new RoomRoster(roomId, room.getSession().getId(), room.getMaxParticipants(), chatEnabled);
+
+        for (RoomParticipant participant : participantRepository.findByRoomId(roomId)) {
+            if (participant.getStatus() != ParticipantStatus.LEFT) {
+                roster.load(toMember(participant));
+            }
+        }
+
+        log.debug("Loaded roster for room {} with {} members ({} active)",
+            roomId, roster.getMembers().size(), roster.getActiveCount());
+        return roster;
+    }
+
+    private RoomRoster.Member toMember(RoomParticipant participant) {
+        return new RoomRoster.Member(
+            participant.getUser().getId(),
+            participant.getUser().getName(),
+            participant.getStatus(),
+            participant.getIsHandRaised(),
+            participant.getIsMuted());
+    }
+}
@@ -2,6 +2,7 @@ package com.eduforum.api.domain.seminar.service;
 
 import com.eduforum.api.common.exception.BusinessException;
 import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.analytics.service.LiveSessionAggregator;
 import com.eduforum.api.domain.auth.entity.User;
 import com.eduforum.api.domain.auth.repository.UserRepository;
 import com.eduforum.api.domain.course.entity.CourseSession;
@@ -33,6 +34,8 @@ public class RoomService {
     private final UserRepository userRepository;
     private final RoomParticipantRepository participantRepository;
     private final WebSocketEventPublisher eventPublisher;
+    private final LiveSessionAggregator liveSessionAggregator;
+    private final RoomRosterCache rosterCache;
 
     /**
      * Create a new seminar room for a session
@@ -119,9 +122,12 @@ public class RoomService {
         // Start room
         room.start();
         room = roomRepository.save(room);
+        rosterCache.reload(roomId);
 
         // Broadcast room started event
         RoomResponse response = mapToResponse(room);
+        liveSessionAggregator.registerSession(
+            room.getSession().getId(), room.getSession().getCourse().getId(), response.getCurrentParticipants());
         eventPublisher.broadcastRoomStarted(roomId, response);
 
         log.info("Room {} started", roomId);
@@ -154,6 +160,8 @@ public class RoomService {
 
         // Broadcast room ended event
         RoomResponse response = mapToResponse(room);
+        liveSessionAggregator.endSession(room.getSession().getId());
+        rosterCache.evict(roomId);
         eventPublisher.broadcastRoomEnded(roomId, response);
 
         log.info("Room {} ended", roomId);
@@ -219,7 +227,9 @@ public class RoomService {
      * Map entity to response DTO
      */
     private RoomResponse mapToResponse(SeminarRoom room) {
-        Long participantCount = participantRepository.countActiveParticipants(room.getId());
+        int participantCount = rosterCache.findRoster(room.getId())
+            .map(RoomRoster::getActiveCount)
+            .orElseGet(() -> participantRepository.countActiveParticipants(room.getId()).intValue());
 
         return RoomResponse.builder()
             .id(room.getId())
@@ -228,7 +238,7 @@ public class RoomService {
             .hostName(room.getHost().getName())
             .status(room.getStatus())
             .maxParticipants(room.getMaxParticipants())
-            .currentParticipants(participantCount.intValue())
+            .currentParticipants(participantCount)
             .startedAt(room.getStartedAt())
             .endedAt(room.getEndedAt())
             .meetingUrl(room.getMeetingUrl())
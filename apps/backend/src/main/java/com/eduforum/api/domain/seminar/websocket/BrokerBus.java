@@ -0,0 +1,21 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * Message bus shared by all API nodes in cluster broker mode.
+ * Delivery is best-effort; every published envelope is handed to every node's
+ * listeners, including the publishing node.
+ */
+public interface BrokerBus {
+
+    /**
+     * Publish an envelope to all nodes
+     */
+    void publish(BrokerEnvelope envelope);
+
+    /**
+     * Register a listener for envelopes published by any node
+     */
+    void subscribe(Consumer<BrokerEnvelope> listener);
+}
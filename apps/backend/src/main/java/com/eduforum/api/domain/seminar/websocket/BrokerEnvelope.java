@@ -0,0 +1,38 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A broker message as it travels between nodes
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BrokerEnvelope {
+
+    /**
+     * Node that published the message
+     */
+    private String nodeId;
+
+    /**
+     * Broker destination, e.g. /topic/room/1
+     */
+    private String destination;
+
+    /**
+     * Content type of the serialized payload
+     */
+    private String contentType;
+
+    /**
+     * Serialized payload as produced by the message converter
+     */
+    private byte[] payload;
+}
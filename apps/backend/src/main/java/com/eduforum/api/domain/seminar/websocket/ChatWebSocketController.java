@@ -1,7 +1,6 @@
 package com.eduforum.api.domain.seminar.websocket;
 
 import com.eduforum.api.domain.seminar.dto.ChatMessageRequest;
-import com.eduforum.api.domain.seminar.dto.ChatMessageResponse;
 import com.eduforum.api.domain.seminar.service.ChatService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +22,6 @@ import java.security.Principal;
 public class ChatWebSocketController {
 
     private final ChatService chatService;
-    private final WebSocketEventPublisher eventPublisher;
 
     /**
      * Handle incoming chat messages via WebSocket
@@ -38,9 +36,8 @@ public class ChatWebSocketController {
 
             log.debug("Received chat message from user {} for room {}", userId, request.getRoomId());
 
-            // Save message and broadcast
-            ChatMessageResponse message = chatService.sendMessage(userId, request);
-            eventPublisher.broadcastChatMessage(request.getRoomId(), message);
+            // Accept message; the service broadcasts and persists it asynchronously
+            chatService.sendMessage(userId, request);
 
         } catch (Exception e) {
             log.error("Error processing chat message", e);
@@ -0,0 +1,121 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Fans broker messages out to the other nodes in cluster broker mode.
+ * Installed as an interceptor on the broker channel: every MESSAGE sent to a
+ * /topic or /queue destination on this node (e.g. by WebSocketEventPublisher)
+ * is published to the bus, and envelopes from other nodes are sent into the
+ * local broker channel so local subscribers receive them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.seminar.broker", name = "mode", havingValue = "cluster")
+@Slf4j
+public class ClusterBrokerRelay implements ChannelInterceptor {
+
+    static final String ORIGIN_HEADER = "clusterOriginNode";
+
+    private final BrokerBus bus;
+    private final MessageChannel brokerChannel;
+    private final String nodeId;
+
+    public ClusterBrokerRelay(BrokerBus bus,
+                              @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                              SeminarProperties properties) {
+        this.bus = bus;
+        this.brokerChannel = brokerChannel;
+        String configured = properties.getBroker().getCluster().getNodeId();
+        this.nodeId = StringUtils.hasText(configured) ? configured : UUID.randomUUID().toString();
+    }
+
+    @PostConstruct
+    public void init() {
+        bus.subscribe(this::deliver);
+        log.info("Cluster broker relay started (node {})", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (headers.containsKey(ORIGIN_HEADER)
+            || SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || !(destination.startsWith("/topic/") || destination.startsWith("/queue/"))) {
+            return message;
+        }
+
+        byte[] payload = toBytes(message.getPayload());
+        if (payload == null) {
+            log.warn("Not fanning out message to {}: unsupported payload type {}",
+                destination, message.getPayload().getClass().getName());
+            return message;
+        }
+
+        MimeType contentType = SimpMessageHeaderAccessor.getContentType(headers);
+        bus.publish(BrokerEnvelope.builder()
+            .nodeId(nodeId)
+            .destination(destination)
+            .contentType(contentType != null ? contentType.toString() : null)
+            .payload(payload)
+            .build());
+        return message;
+    }
+
+    /**
+     * Hand an envelope from another node to the local broker
+     */
+    void deliver(BrokerEnvelope envelope) {
+        if (nodeId.equals(envelope.getNodeId())) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.getDestination());
+        if (envelope.getContentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.getContentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, envelope.getNodeId());
+
+        try {
+            brokerChannel.send(MessageBuilder.createMessage(envelope.getPayload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.error("Failed to deliver message from node {} to {}", envelope.getNodeId(), envelope.getDestination(), e);
+        }
+    }
+
+    private byte[] toBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (payload instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+}
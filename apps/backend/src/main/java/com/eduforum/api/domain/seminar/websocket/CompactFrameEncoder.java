@@ -0,0 +1,243 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import com.eduforum.api.domain.seminar.entity.WebSocketEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes WebSocketMessage JSON into the compact wire format.
+ * <p>
+ * Frame keys: e (event code), r (room ID), s (sender ID), t (epoch millis), d (data),
+ * v (participant state version), b (base version of a delta). Data fields are renamed
+ * with {@link #FIELD_KEYS}, nulls are dropped, booleans become 1/0 and timestamps epoch millis.
+ * <p>
+ * Hand raise/lower events are sent as deltas against the last state of the participant
+ * sent to the room: only the participant ID and the changed fields, with {@code b} naming
+ * the version they apply to. Clients that do not hold version {@code b} wait for the next
+ * full frame (every keyframe-interval updates) or refetch the participant list.
+ * State is kept per node, in the order messages enter the local broker.
+ */
+@Component
+public class CompactFrameEncoder {
+
+    public static final MimeType CONTENT_TYPE = MimeType.valueOf("application/vnd.eduforum.compact+json");
+
+    static final Map<String, String> FIELD_KEYS = Map.ofEntries(
+        Map.entry("id", "i"),
+        Map.entry("userId", "u"),
+        Map.entry("userName", "n"),
+        Map.entry("userEmail", "m"),
+        Map.entry("role", "ro"),
+        Map.entry("status", "st"),
+        Map.entry("isHandRaised", "h"),
+        Map.entry("isMuted", "mu"),
+        Map.entry("isVideoOn", "vo"),
+        Map.entry("isScreenSharing", "ss"),
+        Map.entry("joinedAt", "ja"),
+        Map.entry("leftAt", "la"),
+        Map.entry("roomId", "r"),
+        Map.entry("senderId", "s"),
+        Map.entry("senderName", "sn"),
+        Map.entry("messageType", "mt"),
+        Map.entry("content", "co"),
+        Map.entry("fileUrl", "fu"),
+        Map.entry("fileName", "fn"),
+        Map.entry("fileSize", "fz"),
+        Map.entry("createdAt", "ca"),
+        Map.entry("counts", "c"),
+        Map.entry("windowStart", "ws"),
+        Map.entry("windowEnd", "we")
+    );
+
+    private static final Set<String> TIME_FIELDS = Set.of("joinedAt", "leftAt", "createdAt", "windowStart", "windowEnd");
+
+    private static final Set<WebSocketEventType> PARTICIPANT_EVENTS = EnumSet.of(
+        WebSocketEventType.PARTICIPANT_JOINED, WebSocketEventType.PARTICIPANT_LEFT,
+        WebSocketEventType.HAND_RAISED, WebSocketEventType.HAND_LOWERED,
+        WebSocketEventType.MUTE_CHANGED, WebSocketEventType.VIDEO_CHANGED);
+
+    private static final Set<WebSocketEventType> DELTA_EVENTS = EnumSet.of(
+        WebSocketEventType.HAND_RAISED, WebSocketEventType.HAND_LOWERED);
+
+    private final ObjectMapper objectMapper;
+    private final int keyframeInterval;
+    private final Map<Long, Map<Long, ParticipantState>> participantsByRoom = new ConcurrentHashMap<>();
+
+    public CompactFrameEncoder(ObjectMapper objectMapper, SeminarProperties properties) {
+        this.objectMapper = objectMapper;
+        this.keyframeInterval = Math.max(1, properties.getWire().getKeyframeInterval());
+    }
+
+    /**
+     * Encode a serialized WebSocketMessage
+     */
+    public byte[] encode(byte[] json) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        WebSocketEventType eventType = WebSocketEventType.valueOf(root.path("eventType").asText());
+        Long roomId = root.path("roomId").isNumber() ? root.get("roomId").asLong() : null;
+
+        ObjectNode frame = objectMapper.createObjectNode();
+        frame.put("e", eventType.getCode());
+        if (roomId != null) {
+            frame.put("r", roomId);
+        }
+        if (root.path("senderId").isNumber()) {
+            frame.put("s", root.get("senderId").asLong());
+        }
+        JsonNode timestamp = toEpochMillis(root.get("timestamp"));
+        if (timestamp != null) {
+            frame.set("t", timestamp);
+        }
+
+        JsonNode data = root.get("data");
+        if (eventType == WebSocketEventType.REACTION && data instanceof ObjectNode summary) {
+            // Room ID is already in the frame and the total is the sum of the counts
+            summary.remove(List.of("roomId", "total"));
+        }
+        JsonNode compactData = compact(data, null);
+
+        if (roomId != null && PARTICIPANT_EVENTS.contains(eventType)
+            && compactData instanceof ObjectNode participant && participant.path("i").isNumber()) {
+            encodeParticipant(frame, roomId, eventType, participant);
+        } else if (compactData != null) {
+            frame.set("d", compactData);
+        }
+
+        if (eventType == WebSocketEventType.ROOM_ENDED && roomId != null) {
+            participantsByRoom.remove(roomId);
+        }
+        return objectMapper.writeValueAsBytes(frame);
+    }
+
+    private void encodeParticipant(ObjectNode frame, Long roomId, WebSocketEventType eventType, ObjectNode participant) {
+        Map<Long, ParticipantState> participants = participantsByRoom.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>());
+        long participantId = participant.get("i").asLong();
+
+        synchronized (participants) {
+            ParticipantState previous = participants.get(participantId);
+            int version = previous != null ? previous.version + 1 : 1;
+            frame.put("v", version);
+
+            if (previous != null && DELTA_EVENTS.contains(eventType) && version % keyframeInterval != 0) {
+                frame.put("b", previous.version);
+                frame.set("d", diff(previous.state, participant));
+            } else {
+                frame.set("d", participant);
+            }
+
+            if (eventType == WebSocketEventType.PARTICIPANT_LEFT) {
+                participants.remove(participantId);
+            } else {
+                participants.put(participantId, new ParticipantState(version, participant));
+            }
+        }
+    }
+
+    /**
+     * Fields of current that differ from previous; removed fields are sent as null
+     */
+    private ObjectNode diff(ObjectNode previous, ObjectNode current) {
+        ObjectNode delta = objectMapper.createObjectNode();
+        delta.set("i", current.get("i"));
+
+        Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().equals(previous.get(field.getKey()))) {
+                delta.set(field.getKey(), field.getValue());
+            }
+        }
+        Iterator<String> previousFields = previous.fieldNames();
+        while (previousFields.hasNext()) {
+            String name = previousFields.next();
+            if (!current.has(name)) {
+                delta.putNull(name);
+            }
+        }
+        return delta;
+    }
+
+    private JsonNode compact(JsonNode node, String fieldName) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isObject()) {
+            ObjectNode result = objectMapper.createObjectNode();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = compact(field.getValue(), field.getKey());
+                if (value != null) {
+                    result.set(FIELD_KEYS.getOrDefault(field.getKey(), field.getKey()), value);
+                }
+            }
+            return result;
+        }
+        if (node.isArray()) {
+            ArrayNode result = objectMapper.createArrayNode();
+            for (JsonNode element : node) {
+                JsonNode value = compact(element, null);
+                result.add(value != null ? value : objectMapper.nullNode());
+            }
+            return result;
+        }
+        if (node.isBoolean()) {
+            return IntNode.valueOf(node.booleanValue() ? 1 : 0);
+        }
+        if (fieldName != null && TIME_FIELDS.contains(fieldName)) {
+            JsonNode millis = toEpochMillis(node);
+            return millis != null ? millis : node;
+        }
+        return node;
+    }
+
+    /**
+     * ISO-8601 text or numeric timestamps (decimal seconds or integral millis) as epoch millis
+     */
+    private JsonNode toEpochMillis(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            try {
+                return LongNode.valueOf(OffsetDateTime.parse(node.textValue()).toInstant().toEpochMilli());
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        if (node.isIntegralNumber()) {
+            return LongNode.valueOf(node.longValue());
+        }
+        if (node.isNumber()) {
+            return LongNode.valueOf(node.decimalValue().movePointRight(3).longValue());
+        }
+        return null;
+    }
+
+    private static final class ParticipantState {
+        private final int version;
+        private final ObjectNode state;
+
+        private ParticipantState(int version, ObjectNode state) {
+            this.version = version;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-session negotiation of the compact wire format.
+ * <p>
+ * A client opts in with a {@code wire-format: compact} header on its STOMP CONNECT frame.
+ * Room events are encoded once as they enter the local broker and the compact bytes ride
+ * along in a message header; when the broker fans the event out, sessions that opted in
+ * get the compact payload (content-type {@link CompactFrameEncoder#CONTENT_TYPE}) and all
+ * others the JSON payload, so no work is done per socket. Only destinations that a
+ * compact session is subscribed to are encoded, so rooms of JSON-only clients pay nothing.
+ * Subscriptions are matched by exact destination.
+ * With an external broker relay, messages never pass through the local broker and every
+ * session receives JSON.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompactWireFormatSupport {
+
+    public static final String WIRE_FORMAT_HEADER = "wire-format";
+    public static final String COMPACT = "compact";
+
+    static final String COMPACT_PAYLOAD_HEADER = "compactPayload";
+
+    private final CompactFrameEncoder encoder;
+
+    // Compact sessions and their subscriptions (subscription id -> destination)
+    private final Map<String, Map<String, String>> compactSessions = new ConcurrentHashMap<>();
+    // Number of compact subscriptions per destination
+    private final Map<String, Integer> compactSubscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Records sessions that asked for the compact format on CONNECT and what they subscribe to
+     */
+    public ChannelInterceptor clientInboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId == null) {
+                    return message;
+                }
+
+                if (type == SimpMessageType.CONNECT) {
+                    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+                    if (COMPACT.equalsIgnoreCase(accessor.getFirstNativeHeader(WIRE_FORMAT_HEADER))) {
+                        compactSessions.put(sessionId, new ConcurrentHashMap<>());
+                        log.debug("Session {} negotiated compact wire format", sessionId);
+                    }
+                } else if (type == SimpMessageType.SUBSCRIBE || type == SimpMessageType.UNSUBSCRIBE) {
+                    Map<String, String> subscriptions = compactSessions.get(sessionId);
+                    String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+                    if (subscriptions == null || subscriptionId == null) {
+                        return message;
+                    }
+                    if (type == SimpMessageType.SUBSCRIBE) {
+                        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                        if (destination != null && subscriptions.putIfAbsent(subscriptionId, destination) == null) {
+                            compactSubscribers.merge(destination, 1, Integer::sum);
+                        }
+                    } else {
+                        release(subscriptions.remove(subscriptionId));
+                    }
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Attaches the compact encoding to room events entering the local broker
+     */
+    public ChannelInterceptor brokerInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaders headers = message.getHeaders();
+                String destination = SimpMessageHeaderAccessor.getDestination(headers);
+                if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                    || destination == null || !destination.startsWith("/topic/room/")
+                    || headers.containsKey(COMPACT_PAYLOAD_HEADER)
+                    || !compactSubscribers.containsKey(destination)
+                    || !(message.getPayload() instanceof byte[] json)) {
+                    return message;
+                }
+
+                try {
+                    return MessageBuilder.fromMessage(message)
+                        .setHeader(COMPACT_PAYLOAD_HEADER, encoder.encode(json))
+                        .build();
+                } catch (Exception e) {
+                    log.warn("Could not encode compact frame for {}: {}", destination, e.getMessage());
+                    return message;
+                }
+            }
+        };
+    }
+
+    /**
+     * Swaps in the compact payload for sessions that negotiated it
+     */
+    public ChannelInterceptor clientOutboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaders headers = message.getHeaders();
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+                if (!(headers.get(COMPACT_PAYLOAD_HEADER) instanceof byte[] compact)
+                    || sessionId == null || !compactSessions.containsKey(sessionId)) {
+                    return message;
+                }
+
+                StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+                accessor.setContentType(CompactFrameEncoder.CONTENT_TYPE);
+                accessor.removeHeader(COMPACT_PAYLOAD_HEADER);
+                return MessageBuilder.createMessage(compact, accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = compactSessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void release(String destination) {
+        if (destination != null) {
+            compactSubscribers.computeIfPresent(destination, (key, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+}
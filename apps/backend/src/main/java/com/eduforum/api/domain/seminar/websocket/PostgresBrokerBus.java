@@ -0,0 +1,219 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * BrokerBus over Postgres LISTEN/NOTIFY, so cluster mode needs no infrastructure
+ * beyond the database every node already shares.
+ * Envelopes are published from a dedicated thread; envelopes larger than the
+ * NOTIFY payload limit are stored in seminar.broker_messages and only their ID
+ * is notified. The listener holds its own connection outside the pool.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.seminar.broker", name = "mode", havingValue = "cluster")
+@Slf4j
+public class PostgresBrokerBus implements BrokerBus, SmartLifecycle {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final String OVERFLOW_PREFIX = "@";
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final String INSERT_OVERFLOW_SQL =
+        "INSERT INTO seminar.broker_messages (envelope) VALUES (?) RETURNING id";
+    private static final String SELECT_OVERFLOW_SQL =
+        "SELECT envelope FROM seminar.broker_messages WHERE id = ?";
+    private static final String DELETE_OVERFLOW_SQL =
+        "DELETE FROM seminar.broker_messages WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final SeminarProperties.Cluster settings;
+    private final List<Consumer<BrokerEnvelope>> listeners = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<String> outbound;
+
+    private volatile boolean running;
+    private Thread publisher;
+    private Thread listener;
+
+    public PostgresBrokerBus(JdbcTemplate jdbcTemplate,
+                             DataSourceProperties dataSourceProperties,
+                             ObjectMapper objectMapper,
+                             SeminarProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getBroker().getCluster();
+        this.outbound = new LinkedBlockingQueue<>(settings.getPublishQueueCapacity());
+
+        if (!CHANNEL_NAME.matcher(settings.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid broker channel name: " + settings.getChannel());
+        }
+    }
+
+    @Override
+    public void publish(BrokerEnvelope envelope) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize broker envelope for {}", envelope.getDestination(), e);
+            return;
+        }
+
+        // Local subscribers already received the message; other nodes miss it if the bus is saturated
+        if (!outbound.offer(json)) {
+            log.warn("Broker bus publish queue full, dropping fan-out of {}", envelope.getDestination());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<BrokerEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        publisher = new Thread(this::runPublisher, "broker-bus-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        listener = new Thread(this::runListener, "broker-bus-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Postgres broker bus started on channel {}", settings.getChannel());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : new Thread[]{publisher, listener}) {
+            if (thread != null) {
+                thread.interrupt();
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        log.info("Postgres broker bus stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Remove overflow envelopes every node has had time to read
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void cleanupOverflow() {
+        Instant before = Instant.now().minusSeconds(settings.getOverflowRetentionSeconds());
+        int deleted = jdbcTemplate.update(DELETE_OVERFLOW_SQL, Timestamp.from(before));
+        if (deleted > 0) {
+            log.debug("Deleted {} broker overflow messages", deleted);
+        }
+    }
+
+    private void runPublisher() {
+        while (running) {
+            try {
+                notify(outbound.take());
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                log.error("Failed to publish to broker bus", e);
+            }
+        }
+    }
+
+    private void notify(String json) {
+        String payload = json;
+        if (json.getBytes(StandardCharsets.UTF_8).length > settings.getMaxInlineBytes()) {
+            Long id = jdbcTemplate.queryForObject(INSERT_OVERFLOW_SQL, Long.class, json);
+            payload = OVERFLOW_PREFIX + id;
+        }
+        jdbcTemplate.query(NOTIFY_SQL, (ResultSetExtractor<Void>) rs -> null, settings.getChannel(), payload);
+    }
+
+    private void runListener() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + settings.getChannel());
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(500);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Broker bus listener connection failed, reconnecting", e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            String json = payload;
+            if (payload.startsWith(OVERFLOW_PREFIX)) {
+                Long id = Long.valueOf(payload.substring(OVERFLOW_PREFIX.length()));
+                json = jdbcTemplate.queryForObject(SELECT_OVERFLOW_SQL, String.class, id);
+            }
+
+            BrokerEnvelope envelope = objectMapper.readValue(json, BrokerEnvelope.class);
+            for (Consumer<BrokerEnvelope> consumer : listeners) {
+                consumer.accept(envelope);
+            }
+        } catch (Exception e) {
+            log.error("Failed to dispatch broker bus notification", e);
+        }
+    }
+}
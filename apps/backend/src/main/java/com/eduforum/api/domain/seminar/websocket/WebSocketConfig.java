@@ -1,8 +1,13 @@
 package com.eduforum.api.domain.seminar.websocket;
 
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -15,10 +20,30 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SeminarProperties seminarProperties;
+    private final ObjectProvider<ClusterBrokerRelay> clusterBrokerRelay;
+    private final CompactWireFormatSupport compactWireFormat;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple memory-based message broker for broadcasting
-        config.enableSimpleBroker("/topic", "/queue");
+        String mode = seminarProperties.getBroker().getMode();
+        switch (mode.toLowerCase()) {
+            // Simple memory-based broker; subscribers only see events published on this node
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            // External STOMP broker (e.g. ActiveMQ Artemis) shared by all nodes
+            case "relay" -> configureRelay(config, seminarProperties.getBroker().getRelay());
+            // Memory-based broker per node, with broker messages fanned out over a shared bus
+            case "cluster" -> {
+                config.enableSimpleBroker("/topic", "/queue");
+                config.configureBrokerChannel().interceptors(clusterBrokerRelay.getObject());
+            }
+            default -> throw new IllegalArgumentException("Unsupported broker mode: " + mode);
+        }
+
+        // Room events are encoded once for compact-format sessions as they enter the local broker
+        if (isCompactWireFormatActive()) {
+            config.configureBrokerChannel().interceptors(compactWireFormat.brokerInterceptor());
+        }
 
         // Prefix for messages from clients
         config.setApplicationDestinationPrefixes("/app");
@@ -27,6 +52,25 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (isCompactWireFormatActive()) {
+            registration.interceptors(compactWireFormat.clientInboundInterceptor());
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (isCompactWireFormatActive()) {
+            registration.interceptors(compactWireFormat.clientOutboundInterceptor());
+        }
+    }
+
+    private boolean isCompactWireFormatActive() {
+        return seminarProperties.getWire().isCompactEnabled()
+            && !"relay".equalsIgnoreCase(seminarProperties.getBroker().getMode());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket endpoint for room communication
@@ -39,4 +83,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             .setAllowedOriginPatterns("*")
             .withSockJS();
     }
+
+    private void configureRelay(MessageBrokerRegistry config, SeminarProperties.Relay relay) {
+        StompBrokerRelayRegistration registration = config.enableStompBrokerRelay("/topic", "/queue")
+            .setRelayHost(relay.getHost())
+            .setRelayPort(relay.getPort())
+            .setClientLogin(relay.getClientLogin())
+            .setClientPasscode(relay.getClientPasscode())
+            .setSystemLogin(relay.getSystemLogin())
+            .setSystemPasscode(relay.getSystemPasscode())
+            // Resolve /user destinations for sessions connected to other nodes
+            .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+            .setUserRegistryBroadcast("/topic/simp-user-registry");
+
+        if (StringUtils.hasText(relay.getVirtualHost())) {
+            registration.setVirtualHost(relay.getVirtualHost());
+        }
+    }
 }
@@ -0,0 +1,28 @@
+-- =====================================================
+-- E3 실시간 세미나 시스템 - 반응 집계
+-- Version: V012
+-- Description: Per-window reaction counts written in bulk by the reaction aggregator
+-- =====================================================
+
+CREATE TABLE seminar.reaction_counts (
+    id BIGSERIAL PRIMARY KEY,
+    room_id BIGINT NOT NULL REFERENCES seminar.rooms(id) ON DELETE CASCADE,
+    reaction_type reaction_type NOT NULL,
+    window_start TIMESTAMPTZ NOT NULL,
+    window_end TIMESTAMPTZ NOT NULL,
+    reaction_count INTEGER NOT NULL CHECK (reaction_count > 0),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    deleted_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_reaction_count_room_window ON seminar.reaction_counts(room_id, window_start DESC) WHERE deleted_at IS NULL;
+
+CREATE TRIGGER update_reaction_counts_updated_at
+    BEFORE UPDATE ON seminar.reaction_counts
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE seminar.reaction_counts IS '반응 집계 - 룸별 시간 구간 단위 반응 수';
+COMMENT ON COLUMN seminar.reaction_counts.window_start IS '집계 구간 시작 시각';
+COMMENT ON COLUMN seminar.reaction_counts.reaction_count IS '구간 내 해당 타입 반응 수';
@@ -0,0 +1,16 @@
+-- =====================================================
+-- E3 실시간 세미나 시스템 - 브로커 클러스터 버스
+-- Version: V013
+-- Description: Overflow storage for broker envelopes too large for a NOTIFY payload (cluster broker mode)
+-- =====================================================
+
+CREATE TABLE seminar.broker_messages (
+    id BIGSERIAL PRIMARY KEY,
+    envelope TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_broker_message_created ON seminar.broker_messages(created_at);
+
+COMMENT ON TABLE seminar.broker_messages IS '브로커 메시지 - NOTIFY 크기 제한을 넘는 노드 간 메시지 임시 보관';
+COMMENT ON COLUMN seminar.broker_messages.envelope IS '직렬화된 메시지 (JSON)';
@@ -0,0 +1,73 @@
+-- ================================================
+-- V014: Time-bucketed rollups of analytics snapshots
+-- ================================================
+
+-- ================================================
+-- Snapshot Rollups Table
+-- ================================================
+-- One row per (resolution, course, session, bucket). session_id 0 holds the course-wide
+-- rollup so the key stays a plain unique constraint usable by ON CONFLICT.
+CREATE TABLE IF NOT EXISTS analytics.snapshot_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    resolution VARCHAR(10) NOT NULL CHECK (resolution IN ('MINUTE', 'HOUR', 'DAY')),
+    course_id BIGINT NOT NULL,
+    session_id BIGINT NOT NULL DEFAULT 0,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    sample_count INTEGER NOT NULL DEFAULT 0,
+    participants_min INTEGER,
+    participants_max INTEGER,
+    participants_sum BIGINT NOT NULL DEFAULT 0,
+    active_min INTEGER,
+    active_max INTEGER,
+    active_sum BIGINT NOT NULL DEFAULT 0,
+    engagement_min NUMERIC(5,2),
+    engagement_max NUMERIC(5,2),
+    engagement_sum NUMERIC(14,2) NOT NULL DEFAULT 0,
+    engagement_count INTEGER NOT NULL DEFAULT 0,
+    interactions_min INTEGER,
+    interactions_max INTEGER,
+    interactions_sum BIGINT NOT NULL DEFAULT 0,
+    poll_responses_sum BIGINT NOT NULL DEFAULT 0,
+    quiz_attempts_sum BIGINT NOT NULL DEFAULT 0,
+    chat_messages_sum BIGINT NOT NULL DEFAULT 0,
+    first_snapshot_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_snapshot_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP WITH TIME ZONE,
+    UNIQUE(resolution, course_id, session_id, bucket_start)
+);
+
+CREATE INDEX idx_snapshot_rollups_bucket ON analytics.snapshot_rollups(resolution, bucket_start);
+
+-- Latest snapshot of a course is looked up on every live course stats request
+CREATE INDEX idx_analytics_snapshots_course_time ON analytics.analytics_snapshots(course_id, snapshot_time DESC);
+
+-- ================================================
+-- Backfill from existing snapshots (buckets are aligned in UTC)
+-- ================================================
+INSERT INTO analytics.snapshot_rollups (resolution, course_id, session_id, bucket_start, sample_count,
+    participants_min, participants_max, participants_sum, active_min, active_max, active_sum,
+    engagement_min, engagement_max, engagement_sum, engagement_count,
+    interactions_min, interactions_max, interactions_sum,
+    poll_responses_sum, quiz_attempts_sum, chat_messages_sum, first_snapshot_at, last_snapshot_at)
+SELECT r.resolution, s.course_id, k.session_id,
+    date_trunc(lower(r.resolution), s.snapshot_time AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',
+    COUNT(*),
+    MIN(s.total_participants), MAX(s.total_participants), COALESCE(SUM(s.total_participants), 0),
+    MIN(s.active_participants), MAX(s.active_participants), COALESCE(SUM(s.active_participants), 0),
+    MIN(s.avg_engagement_score), MAX(s.avg_engagement_score), COALESCE(SUM(s.avg_engagement_score), 0),
+    COUNT(s.avg_engagement_score),
+    MIN(s.total_interactions), MAX(s.total_interactions), COALESCE(SUM(s.total_interactions), 0),
+    COALESCE(SUM(s.poll_responses), 0), COALESCE(SUM(s.quiz_attempts), 0), COALESCE(SUM(s.chat_messages), 0),
+    MIN(s.snapshot_time), MAX(s.snapshot_time)
+FROM analytics.analytics_snapshots s
+CROSS JOIN (VALUES ('MINUTE'), ('HOUR'), ('DAY')) AS r(resolution)
+CROSS JOIN LATERAL (VALUES (0::BIGINT), (s.session_id)) AS k(session_id)
+WHERE s.deleted_at IS NULL AND k.session_id IS NOT NULL
+GROUP BY r.resolution, s.course_id, k.session_id,
+    date_trunc(lower(r.resolution), s.snapshot_time AT TIME ZONE 'UTC') AT TIME ZONE 'UTC';
+
+COMMENT ON TABLE analytics.snapshot_rollups IS 'Minute/hour/day pre-aggregates of analytics snapshots per course and session';
+COMMENT ON COLUMN analytics.snapshot_rollups.session_id IS '0 for the course-wide rollup';
+COMMENT ON COLUMN analytics.snapshot_rollups.engagement_count IS 'Snapshots in the bucket that reported an engagement score';
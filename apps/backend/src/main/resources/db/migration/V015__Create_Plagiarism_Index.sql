@@ -0,0 +1,28 @@
+-- V015__Create_Plagiarism_Index.sql
+-- E5: Persistent fingerprint index for incremental plagiarism detection
+
+-- Winnowed fingerprints of each indexed code submission (sorted big-endian int64 values)
+CREATE TABLE assessment.plagiarism_fingerprints (
+    submission_id BIGINT PRIMARY KEY REFERENCES assessment.code_submissions(id) ON DELETE CASCADE,
+    assignment_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    token_count INTEGER NOT NULL,
+    fingerprint_count INTEGER NOT NULL,
+    fingerprints BYTEA NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_plagiarism_fingerprints_assignment ON assessment.plagiarism_fingerprints(assignment_id);
+
+-- Inverted LSH index: MinHash band key -> submissions of the assignment with that key
+CREATE TABLE assessment.plagiarism_index (
+    assignment_id BIGINT NOT NULL,
+    band_key BIGINT NOT NULL,
+    submission_id BIGINT NOT NULL REFERENCES assessment.plagiarism_fingerprints(submission_id) ON DELETE CASCADE,
+    PRIMARY KEY (assignment_id, band_key, submission_id)
+);
+
+CREATE INDEX idx_plagiarism_index_submission ON assessment.plagiarism_index(submission_id);
+
+COMMENT ON TABLE assessment.plagiarism_fingerprints IS 'Winnowing fingerprints of code submissions already checked for plagiarism';
+COMMENT ON TABLE assessment.plagiarism_index IS 'LSH band index over submission MinHash signatures, per assignment';
@@ -0,0 +1,42 @@
+-- V016__Create_Grading_Jobs.sql
+-- E5: Durable asynchronous AI grading jobs
+
+-- One row per batch grading request; counters are advanced once per committed chunk
+CREATE TABLE assessment.grading_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED'
+        CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    ai_model VARCHAR(100) NOT NULL,
+    generate_feedback BOOLEAN NOT NULL DEFAULT TRUE,
+    total_items INTEGER NOT NULL,
+    completed_items INTEGER NOT NULL DEFAULT 0,
+    failed_items INTEGER NOT NULL DEFAULT 0,
+    worker_node VARCHAR(100),
+    heartbeat_at TIMESTAMPTZ,
+    started_at TIMESTAMPTZ,
+    finished_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    deleted_at TIMESTAMPTZ
+);
+
+-- Workers claim queued jobs and running jobs whose node stopped sending heartbeats
+CREATE INDEX idx_grading_jobs_claimable ON assessment.grading_jobs(status, heartbeat_at)
+    WHERE status IN ('QUEUED', 'RUNNING');
+
+-- Submissions of a job; PENDING items are what a resumed job still has to grade
+CREATE TABLE assessment.grading_job_items (
+    job_id BIGINT NOT NULL REFERENCES assessment.grading_jobs(id) ON DELETE CASCADE,
+    submission_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'GRADED', 'FAILED')),
+    grading_result_id BIGINT REFERENCES assessment.grading_results(id) ON DELETE SET NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    finished_at TIMESTAMPTZ,
+    PRIMARY KEY (job_id, submission_id)
+);
+
+CREATE INDEX idx_grading_job_items_pending ON assessment.grading_job_items(job_id) WHERE status = 'PENDING';
+
+COMMENT ON TABLE assessment.grading_jobs IS 'Batch AI grading jobs processed asynchronously by the grading worker pool';
+COMMENT ON TABLE assessment.grading_job_items IS 'Per-submission state of a grading job';
@@ -0,0 +1,12 @@
+-- V017__Add_Answer_Statistics_Sums.sql
+-- E5: Running sums for streaming item analysis (point-biserial discrimination)
+
+-- Rest score = the student's quiz score without this question's points
+ALTER TABLE assessment.answer_statistics
+    ADD COLUMN rest_score_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    ADD COLUMN rest_score_sq_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    ADD COLUMN correct_rest_score_sum DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN assessment.answer_statistics.rest_score_sum IS 'Sum of rest scores over all responses';
+COMMENT ON COLUMN assessment.answer_statistics.rest_score_sq_sum IS 'Sum of squared rest scores over all responses';
+COMMENT ON COLUMN assessment.answer_statistics.correct_rest_score_sum IS 'Sum of rest scores over correct responses';
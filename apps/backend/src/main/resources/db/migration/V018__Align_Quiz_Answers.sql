@@ -0,0 +1,20 @@
+-- Align quiz sessions and answers with per-student sessions and per-question answer rows
+
+-- One session per student and quiz
+ALTER TABLE active.quiz_sessions
+    ALTER COLUMN room_id DROP NOT NULL,
+    ADD COLUMN user_id BIGINT REFERENCES auth.users(id),
+    ADD COLUMN submitted_at TIMESTAMPTZ,
+    ADD COLUMN total_score INTEGER DEFAULT 0;
+
+CREATE UNIQUE INDEX idx_quiz_sessions_quiz_user ON active.quiz_sessions(quiz_id, user_id);
+
+-- One graded row per answered question (score = points earned, max_score = question points)
+ALTER TABLE active.quiz_answers
+    DROP CONSTRAINT quiz_answers_session_id_user_id_key,
+    ADD COLUMN question_id BIGINT REFERENCES active.questions(id),
+    ADD COLUMN is_correct BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD CONSTRAINT uq_quiz_answers_session_question UNIQUE (session_id, question_id);
+
+COMMENT ON COLUMN active.quiz_answers.answers IS 'Answers selected or entered for the question';
+COMMENT ON COLUMN active.quiz_answers.score IS 'Points earned for the question';
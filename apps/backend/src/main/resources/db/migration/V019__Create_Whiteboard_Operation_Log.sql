@@ -0,0 +1,22 @@
+-- Operation log and compacted snapshots for live whiteboards
+
+-- Board state as of snapshot_seq; operations after it are replayed from the log
+ALTER TABLE active.whiteboards
+    ADD COLUMN snapshot JSONB,
+    ADD COLUMN snapshot_seq BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN snapshot_at TIMESTAMPTZ;
+
+-- Element operations in board order; trimmed up to snapshot_seq on compaction
+CREATE TABLE active.whiteboard_operations (
+    whiteboard_id BIGINT NOT NULL REFERENCES active.whiteboards(id) ON DELETE CASCADE,
+    seq BIGINT NOT NULL,
+    user_id BIGINT REFERENCES auth.users(id),
+    op_type VARCHAR(20) NOT NULL,
+    element_id VARCHAR(100),
+    payload JSONB,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (whiteboard_id, seq)
+);
+
+COMMENT ON COLUMN active.whiteboards.snapshot IS 'Elements of the board as of snapshot_seq';
+COMMENT ON COLUMN active.whiteboard_operations.payload IS 'Element written by ADD and UPDATE operations';
@@ -0,0 +1,2 @@
+-- Breakout assignment that spreads participation skill and student clusters across rooms
+ALTER TYPE active.assignment_method ADD VALUE IF NOT EXISTS 'SKILL_MIXED';
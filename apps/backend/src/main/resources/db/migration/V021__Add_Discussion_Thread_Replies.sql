@@ -0,0 +1,17 @@
+-- Replies, pinning and a materialized reply counter for discussion threads
+
+-- reply_count is kept in step by the application with atomic increments
+ALTER TABLE active.discussion_threads
+    ADD COLUMN parent_thread_id BIGINT REFERENCES active.discussion_threads(id),
+    ADD COLUMN is_pinned BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN reply_count INTEGER NOT NULL DEFAULT 0;
+
+-- Keyset pages of a room's top-level threads, newest first
+CREATE INDEX idx_discussion_threads_room_page
+    ON active.discussion_threads(room_id, created_at DESC, id DESC)
+    WHERE parent_thread_id IS NULL AND deleted_at IS NULL;
+
+-- Replies of a thread, newest first (reply pages and the latest-reply preview)
+CREATE INDEX idx_discussion_threads_parent_page
+    ON active.discussion_threads(parent_thread_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,5 @@
+-- Retry backoff for grading job items
+
+-- Earliest time a PENDING item whose grader call failed may be attempted again
+ALTER TABLE assessment.grading_job_items
+    ADD COLUMN next_attempt_at TIMESTAMPTZ;
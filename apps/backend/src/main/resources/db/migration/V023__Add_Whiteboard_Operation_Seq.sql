@@ -0,0 +1,11 @@
+-- Database-allocated operation numbers for whiteboards shared by several nodes
+
+-- Last seq handed out for the board; bumped in the statement that logs each operation
+ALTER TABLE active.whiteboards
+    ADD COLUMN op_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE active.whiteboards w
+SET op_seq = GREATEST(w.snapshot_seq,
+    COALESCE((SELECT MAX(o.seq) FROM active.whiteboard_operations o WHERE o.whiteboard_id = w.id), 0));
+
+COMMENT ON COLUMN active.whiteboards.op_seq IS 'Seq of the last logged operation';
@@ -0,0 +1,16 @@
+-- Per-room counters that serialize speaking queue changes across nodes
+
+-- Bumped by every join, leave and grant; its row lock orders changes to the room
+CREATE TABLE active.speaking_queue_rooms (
+    room_id BIGINT PRIMARY KEY REFERENCES seminar.rooms(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0,
+    last_position INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO active.speaking_queue_rooms (room_id, last_position)
+SELECT room_id, COALESCE(MAX(queue_position), 0)
+FROM active.speaking_queue
+GROUP BY room_id;
+
+COMMENT ON COLUMN active.speaking_queue_rooms.version IS 'Number of queue changes made in the room';
+COMMENT ON COLUMN active.speaking_queue_rooms.last_position IS 'Highest queue position handed out in the room';
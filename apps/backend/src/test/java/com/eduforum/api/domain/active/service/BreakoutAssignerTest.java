@@ -0,0 +1,118 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.domain.active.entity.AssignmentMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BreakoutAssigner
+ */
+class BreakoutAssignerTest {
+
+    private final BreakoutAssigner assigner = new BreakoutAssigner();
+
+    @Test
+    @DisplayName("Balanced assignment tops up the smallest rooms first")
+    void assign_BalancedFillsSmallestRooms() {
+        List<BreakoutAssigner.Room> rooms = List.of(
+            new BreakoutAssigner.Room(1L, null, 3),
+            new BreakoutAssigner.Room(2L, null, 0),
+            new BreakoutAssigner.Room(3L, null, 1));
+
+        BreakoutAssigner.Plan plan = assigner.assign(AssignmentMethod.BALANCED, rooms, candidates(8), null, 0L);
+
+        assertThat(plan.getMoves()).hasSize(8);
+        assertThat(plan.getParticipantCounts()).containsEntry(1L, 4).containsEntry(2L, 4).containsEntry(3L, 4);
+    }
+
+    @Test
+    @DisplayName("Random assignment is reproducible from its seed and respects room capacity")
+    void assign_RandomIsDeterministicPerSeed() {
+        List<BreakoutAssigner.Room> rooms = List.of(
+            new BreakoutAssigner.Room(1L, 2, 0),
+            new BreakoutAssigner.Room(2L, 10, 0));
+
+        BreakoutAssigner.Plan first = assigner.assign(AssignmentMethod.RANDOM, rooms, candidates(9), null, 42L);
+        BreakoutAssigner.Plan second = assigner.assign(AssignmentMethod.RANDOM, rooms, candidates(9), null, 42L);
+
+        assertThat(roomsByUser(first)).isEqualTo(roomsByUser(second));
+        assertThat(first.getParticipantCounts()).containsEntry(1L, 2).containsEntry(2L, 7);
+        assertThatThrownBy(() -> assigner.assign(AssignmentMethod.RANDOM, rooms, candidates(13), null, 42L))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("Skill-mixed assignment spreads skill and splits clusters across rooms")
+    void assign_SkillMixedSpreadsSkillAndClusters() {
+        List<BreakoutAssigner.Room> rooms = List.of(
+            new BreakoutAssigner.Room(1L, null, 0),
+            new BreakoutAssigner.Room(2L, null, 0));
+        List<BreakoutAssigner.Candidate> candidates = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            // Users 1-4 form one cluster and 5-8 another; skill falls with the ID
+            candidates.add(new BreakoutAssigner.Candidate(id, 100.0 - id * 10, id <= 4 ? 1L : 2L));
+        }
+
+        Map<Long, Long> roomOf = roomsByUser(assigner.assign(AssignmentMethod.SKILL_MIXED, rooms, candidates, null, 0L));
+
+        for (long roomId = 1; roomId <= 2; roomId++) {
+            Set<Long> clusterOne = new HashSet<>();
+            double skill = 0;
+            for (BreakoutAssigner.Candidate candidate : candidates) {
+                if (roomOf.get(candidate.getUserId()) == roomId) {
+                    skill += candidate.getSkill();
+                    if (candidate.getClusterId() == 1L) {
+                        clusterOne.add(candidate.getUserId());
+                    }
+                }
+            }
+            assertThat(clusterOne).hasSize(2);
+            assertThat(skill).isBetween(200.0, 240.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Manual assignment rejects unknown rooms, duplicates and overfull rooms")
+    void assign_ManualValidatesMapping() {
+        List<BreakoutAssigner.Room> rooms = List.of(
+            new BreakoutAssigner.Room(1L, 2, 1),
+            new BreakoutAssigner.Room(2L, null, 0));
+
+        BreakoutAssigner.Plan plan = assigner.assign(AssignmentMethod.MANUAL, rooms, candidates(3),
+            Map.of(1L, List.of(1L, 99L), 2L, List.of(2L, 3L)), 0L);
+        assertThat(roomsByUser(plan)).containsEntry(1L, 1L).containsEntry(2L, 2L).containsEntry(3L, 2L)
+            .doesNotContainKey(99L);
+
+        assertThatThrownBy(() -> assigner.assign(AssignmentMethod.MANUAL, rooms, candidates(3),
+            Map.of(5L, List.of(1L)), 0L)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> assigner.assign(AssignmentMethod.MANUAL, rooms, candidates(3),
+            Map.of(1L, List.of(1L), 2L, List.of(1L)), 0L)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> assigner.assign(AssignmentMethod.MANUAL, rooms, candidates(3),
+            Map.of(1L, List.of(1L, 2L)), 0L)).isInstanceOf(BusinessException.class);
+    }
+
+    private static List<BreakoutAssigner.Candidate> candidates(int count) {
+        List<BreakoutAssigner.Candidate> candidates = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            candidates.add(new BreakoutAssigner.Candidate(id, 0.0, null));
+        }
+        return candidates;
+    }
+
+    private static Map<Long, Long> roomsByUser(BreakoutAssigner.Plan plan) {
+        Map<Long, Long> roomOf = new HashMap<>();
+        plan.getMoves().forEach(move -> roomOf.put(move.getUserId(), move.getRoomId()));
+        return roomOf;
+    }
+}
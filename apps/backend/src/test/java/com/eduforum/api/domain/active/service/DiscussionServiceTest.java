@@ -0,0 +1,203 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.active.dto.discussion.CreateThreadRequest;
+import com.eduforum.api.domain.active.dto.discussion.ThreadPageResponse;
+import com.eduforum.api.domain.active.dto.discussion.ThreadResponse;
+import com.eduforum.api.domain.active.entity.DiscussionThread;
+import com.eduforum.api.domain.active.repository.DiscussionThreadRepository;
+import com.eduforum.api.domain.auth.entity.User;
+import com.eduforum.api.domain.auth.repository.UserRepository;
+import com.eduforum.api.domain.seminar.entity.SeminarRoom;
+import com.eduforum.api.domain.seminar.repository.SeminarRoomRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DiscussionService
+ * Tests the keyset paging of threads and the reply counter upkeep
+ */
+@ExtendWith(MockitoExtension.class)
+class DiscussionServiceTest {
+
+    private static final Long ROOM_ID = 3L;
+    private static final Long USER_ID = 100L;
+    private static final Long THREAD_ID = 20L;
+
+    @Mock
+    private SpeakingQueueEngine speakingQueueEngine;
+
+    @Mock
+    private DiscussionThreadRepository discussionThreadRepository;
+
+    @Mock
+    private SeminarRoomRepository seminarRoomRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private DiscussionService discussionService;
+
+    @Test
+    @DisplayName("The next cursor resumes exactly after the last thread of the page, to the microsecond")
+    @SuppressWarnings("unchecked")
+    void getThreads_CursorRoundTrip() {
+        // Not UTC and with microseconds, as read back from a timestamptz column
+        OffsetDateTime second = OffsetDateTime.parse("2026-03-02T19:00:00.123456+09:00");
+        when(jdbcTemplate.query(startsWith("SELECT t.id"), any(RowMapper.class), eq(ROOM_ID), eq(3)))
+            .thenReturn(new ArrayList<>(List.of(
+                thread(13L, second.plusSeconds(5)),
+                thread(12L, second),
+                thread(11L, second))));
+        when(jdbcTemplate.query(contains("(t.created_at, t.id) < (?, ?)"), any(RowMapper.class),
+            eq(ROOM_ID), any(OffsetDateTime.class), eq(12L), eq(3)))
+            .thenReturn(new ArrayList<>(List.of(thread(11L, second))));
+
+        ThreadPageResponse first = discussionService.getThreads(ROOM_ID, null, 2);
+        ThreadPageResponse next = discussionService.getThreads(ROOM_ID, first.getNextCursor(), 2);
+
+        assertThat(first.getThreads()).extracting(ThreadResponse::getId).containsExactly(13L, 12L);
+        assertThat(first.getNextCursor()).endsWith(":12");
+        assertThat(next.getThreads()).extracting(ThreadResponse::getId).containsExactly(11L);
+        assertThat(next.getNextCursor()).isNull();
+
+        ArgumentCaptor<OffsetDateTime> createdAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(jdbcTemplate).query(contains("(t.created_at, t.id) < (?, ?)"), any(RowMapper.class),
+            eq(ROOM_ID), createdAt.capture(), eq(12L), eq(3));
+        assertThat(createdAt.getValue().toInstant()).isEqualTo(second.toInstant());
+    }
+
+    @Test
+    @DisplayName("A malformed cursor is rejected without querying")
+    void getThreads_InvalidCursor() {
+        assertThatThrownBy(() -> discussionService.getThreads(ROOM_ID, "yesterday", 20))
+            .isInstanceOf(BusinessException.class)
+            .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_INPUT_VALUE);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Page rows carry the stored reply counter and the latest reply preview")
+    @SuppressWarnings("unchecked")
+    void getThreads_MapsReplyCounterAndPreview() throws Exception {
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getLong("id")).thenReturn(THREAD_ID);
+        when(rs.getLong("reply_count")).thenReturn(4L);
+        when(rs.getLong("reply_id")).thenReturn(31L);
+        when(rs.getString("reply_content")).thenReturn("Agreed");
+        when(rs.getObject("created_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.parse("2026-03-02T10:00:00Z"));
+        when(jdbcTemplate.query(startsWith("SELECT t.id"), any(RowMapper.class), eq(ROOM_ID), eq(21)))
+            .thenAnswer(invocation -> {
+                RowMapper<ThreadResponse> mapper = invocation.getArgument(1);
+                return new ArrayList<>(List.of(mapper.mapRow(rs, 0)));
+            });
+
+        ThreadResponse thread = discussionService.getThreads(ROOM_ID, null, 20).getThreads().get(0);
+
+        assertThat(thread.getReplyCount()).isEqualTo(4L);
+        assertThat(thread.getLatestReply().getId()).isEqualTo(31L);
+        assertThat(thread.getLatestReply().getContent()).isEqualTo("Agreed");
+    }
+
+    @Test
+    @DisplayName("A reply bumps its parent's reply counter after it is saved")
+    void replyToThread_IncrementsParentCounter() {
+        User user = user(USER_ID);
+        DiscussionThread parent = DiscussionThread.builder()
+            .id(THREAD_ID)
+            .room(SeminarRoom.builder().id(ROOM_ID).build())
+            .user(user)
+            .title("Week 3")
+            .build();
+        when(discussionThreadRepository.findByIdAndNotDeleted(THREAD_ID)).thenReturn(Optional.of(parent));
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(discussionThreadRepository.save(any(DiscussionThread.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ThreadResponse reply = discussionService.replyToThread(USER_ID, THREAD_ID, CreateThreadRequest.builder()
+            .title("Re: Week 3")
+            .content("Agreed")
+            .build());
+
+        InOrder inOrder = inOrder(discussionThreadRepository);
+        inOrder.verify(discussionThreadRepository).save(any(DiscussionThread.class));
+        inOrder.verify(discussionThreadRepository).adjustReplyCount(THREAD_ID, 1);
+        assertThat(reply.getParentThreadId()).isEqualTo(THREAD_ID);
+    }
+
+    @Test
+    @DisplayName("Deleting a reply lowers its parent's counter; deleting a top-level thread does not")
+    void deleteThread_DecrementsParentCounterForReplies() {
+        User user = user(USER_ID);
+        DiscussionThread parent = DiscussionThread.builder().id(THREAD_ID).user(user).build();
+        DiscussionThread reply = DiscussionThread.builder().id(21L).user(user).parentThread(parent).build();
+        when(discussionThreadRepository.findByIdAndNotDeleted(21L)).thenReturn(Optional.of(reply));
+        when(discussionThreadRepository.findByIdAndNotDeleted(THREAD_ID)).thenReturn(Optional.of(parent));
+
+        discussionService.deleteThread(USER_ID, 21L);
+        discussionService.deleteThread(USER_ID, THREAD_ID);
+
+        assertThat(reply.isDeleted()).isTrue();
+        assertThat(parent.isDeleted()).isTrue();
+        verify(discussionThreadRepository).adjustReplyCount(THREAD_ID, -1);
+        verify(discussionThreadRepository, times(1)).adjustReplyCount(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Only the author can delete a reply, and a refused delete leaves the counter alone")
+    void deleteThread_OtherUser_Denied() {
+        DiscussionThread parent = DiscussionThread.builder().id(THREAD_ID).user(user(USER_ID)).build();
+        DiscussionThread reply = DiscussionThread.builder().id(21L).user(user(USER_ID)).parentThread(parent).build();
+        when(discussionThreadRepository.findByIdAndNotDeleted(21L)).thenReturn(Optional.of(reply));
+
+        assertThatThrownBy(() -> discussionService.deleteThread(101L, 21L))
+            .isInstanceOf(BusinessException.class)
+            .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCESS_DENIED);
+
+        assertThat(reply.isDeleted()).isFalse();
+        verify(discussionThreadRepository, never()).save(any());
+        verify(discussionThreadRepository, never()).adjustReplyCount(anyLong(), anyInt());
+    }
+
+    private static ThreadResponse thread(Long id, OffsetDateTime createdAt) {
+        return ThreadResponse.builder()
+            .id(id)
+            .roomId(ROOM_ID)
+            .createdAt(createdAt)
+            .build();
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).firstName("Kim").lastName("Minsu").build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.eduforum.api.domain.active.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PollResponderGuard
+ */
+@ExtendWith(MockitoExtension.class)
+class PollResponderGuardTest {
+
+    private static final Long POLL_ID = 1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PollResponderGuard guard;
+
+    @Test
+    @DisplayName("A second response from the same user is rejected, including stored responders")
+    void claim_DuplicateResponder_Rejected() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT user_id"), eq(Long.class), eq(POLL_ID)))
+            .thenReturn(List.of(10L));
+
+        assertThat(guard.claim(POLL_ID, 10L)).isFalse();
+        assertThat(guard.claim(POLL_ID, 11L)).isTrue();
+        assertThat(guard.claim(POLL_ID, 11L)).isFalse();
+        assertThat(guard.claim(POLL_ID, 12L)).isTrue();
+
+        verify(jdbcTemplate, times(1)).queryForList(startsWith("SELECT user_id"), eq(Long.class), eq(POLL_ID));
+    }
+
+    @Test
+    @DisplayName("A claim whose transaction rolls back can be made again")
+    void claim_RolledBack_ReleasesResponder() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT user_id"), eq(Long.class), eq(POLL_ID)))
+            .thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(guard.claim(POLL_ID, 10L)).isTrue();
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(guard.claim(POLL_ID, 10L)).isTrue();
+        assertThat(guard.claim(POLL_ID, 10L)).isFalse();
+    }
+}
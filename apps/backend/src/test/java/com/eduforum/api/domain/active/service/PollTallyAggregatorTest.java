@@ -0,0 +1,110 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.domain.active.dto.poll.PollTallyResponse;
+import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PollTallyAggregator
+ * Outside a transaction every callback runs immediately, standing in for the commit
+ */
+@ExtendWith(MockitoExtension.class)
+class PollTallyAggregatorTest {
+
+    private static final Long POLL_ID = 1L;
+    private static final Long ROOM_ID = 7L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private WebSocketEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PollTallyAggregator aggregator;
+
+    @Test
+    @DisplayName("The live tally agrees with the database when the poll closes")
+    void close_LiveTallyMatchesDatabase() {
+        // Two votes for option 100 are already stored; a third response for 101 commits live
+        stubDatabase(2L, Map.of(100L, 2L));
+        aggregator.open(POLL_ID);
+        aggregator.record(POLL_ID, List.of(101L));
+        stubDatabase(3L, Map.of(100L, 2L, 101L, 1L));
+
+        aggregator.close(POLL_ID);
+
+        ArgumentCaptor<PollTallyResponse> update = ArgumentCaptor.forClass(PollTallyResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/polls/" + POLL_ID), update.capture());
+        PollTallyAggregator.Counts stored = aggregator.counts(POLL_ID, false);
+        assertThat(update.getValue().getTotalResponses()).isEqualTo(stored.getTotalResponses());
+        assertThat(update.getValue().getOptionCounts()).isEqualTo(stored.getOptionCounts());
+    }
+
+    @Test
+    @DisplayName("A response committing after the close does not reseed the poll")
+    void record_AfterClose_DoesNotReseed() {
+        stubDatabase(1L, Map.of(100L, 1L));
+        aggregator.open(POLL_ID);
+        aggregator.close(POLL_ID);
+
+        aggregator.record(POLL_ID, List.of(100L));
+        aggregator.counts(POLL_ID, true);
+        aggregator.broadcastChanged();
+
+        verify(jdbcTemplate, times(1)).queryForList(startsWith("SELECT room_id"), eq(Long.class), eq(POLL_ID));
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/polls/" + POLL_ID), any(PollTallyResponse.class));
+    }
+
+    @Test
+    @DisplayName("Reopening a closed poll counts it again")
+    void open_AfterClose_CountsAgain() {
+        stubDatabase(1L, Map.of(100L, 1L));
+        aggregator.open(POLL_ID);
+        aggregator.close(POLL_ID);
+        aggregator.open(POLL_ID);
+
+        aggregator.record(POLL_ID, List.of(100L));
+
+        assertThat(aggregator.counts(POLL_ID, true).getVotes(100L)).isEqualTo(2L);
+    }
+
+    private void stubDatabase(long total, Map<Long, Long> optionCounts) {
+        lenient().when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class), eq(POLL_ID)))
+            .thenReturn(total);
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT room_id"), eq(Long.class), eq(POLL_ID)))
+            .thenReturn(List.of(ROOM_ID));
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<Long, Long> entry : optionCounts.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("option_id")).thenReturn(entry.getKey());
+                when(rs.getLong("votes")).thenReturn(entry.getValue());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT option_id"), any(RowCallbackHandler.class), eq(POLL_ID));
+    }
+}
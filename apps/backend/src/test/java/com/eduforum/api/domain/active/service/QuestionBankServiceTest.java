@@ -0,0 +1,116 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.domain.active.dto.quiz.QuestionCreateRequest;
+import com.eduforum.api.domain.active.entity.Question;
+import com.eduforum.api.domain.active.entity.QuestionType;
+import com.eduforum.api.domain.active.repository.QuestionRepository;
+import com.eduforum.api.domain.active.repository.QuestionTagRepository;
+import com.eduforum.api.domain.auth.entity.User;
+import com.eduforum.api.domain.auth.repository.UserRepository;
+import com.eduforum.api.domain.course.entity.Course;
+import com.eduforum.api.domain.course.repository.CourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for QuestionBankService
+ * Tests that question edits evict the cached answer keys
+ */
+@ExtendWith(MockitoExtension.class)
+class QuestionBankServiceTest {
+
+    private static final Long CREATOR_ID = 1L;
+    private static final Long QUESTION_ID = 10L;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private QuestionTagRepository questionTagRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private QuizQuestionCache quizQuestionCache;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private QuestionBankService questionBankService;
+
+    @Test
+    @DisplayName("Updating a question evicts its answer key only after commit")
+    void updateQuestion_EvictsAnswerKeyAfterCommit() {
+        when(questionRepository.findByIdAndNotDeleted(QUESTION_ID)).thenReturn(Optional.of(question()));
+        when(questionRepository.save(any(Question.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            questionBankService.updateQuestion(CREATOR_ID, QUESTION_ID, QuestionCreateRequest.builder()
+                .type(QuestionType.MULTIPLE_CHOICE)
+                .questionText("2 + 2?")
+                .options(List.of("3", "4"))
+                .correctAnswers(List.of("4"))
+                .build());
+
+            verify(quizQuestionCache, never()).evictQuestion(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(quizQuestionCache).evictQuestion(QUESTION_ID);
+    }
+
+    @Test
+    @DisplayName("Deleting a question evicts its answer key")
+    void deleteQuestion_EvictsAnswerKey() {
+        when(questionRepository.findByIdAndNotDeleted(QUESTION_ID)).thenReturn(Optional.of(question()));
+
+        questionBankService.deleteQuestion(CREATOR_ID, QUESTION_ID);
+
+        verify(questionRepository).save(any(Question.class));
+        verify(quizQuestionCache).evictQuestion(QUESTION_ID);
+    }
+
+    @Test
+    @DisplayName("A rejected delete leaves the cache alone")
+    void deleteQuestion_NotCreator_DoesNotEvict() {
+        when(questionRepository.findByIdAndNotDeleted(QUESTION_ID)).thenReturn(Optional.of(question()));
+
+        assertThatThrownBy(() -> questionBankService.deleteQuestion(2L, QUESTION_ID))
+            .isInstanceOf(BusinessException.class);
+
+        verifyNoInteractions(quizQuestionCache);
+    }
+
+    private static Question question() {
+        return Question.builder()
+            .id(QUESTION_ID)
+            .course(Course.builder().id(5L).build())
+            .creator(User.builder().id(CREATOR_ID).firstName("Kim").build())
+            .type(QuestionType.MULTIPLE_CHOICE)
+            .questionText("1 + 1?")
+            .build();
+    }
+}
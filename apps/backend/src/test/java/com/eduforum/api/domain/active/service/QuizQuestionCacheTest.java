@@ -0,0 +1,89 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.domain.active.entity.Question;
+import com.eduforum.api.domain.active.entity.Quiz;
+import com.eduforum.api.domain.active.repository.QuestionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for QuizQuestionCache
+ */
+@ExtendWith(MockitoExtension.class)
+class QuizQuestionCacheTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @InjectMocks
+    private QuizQuestionCache quizQuestionCache;
+
+    @Test
+    @DisplayName("Evicting a question reloads only the quizzes that contain it")
+    void evictQuestion_ReloadsQuizzesContainingQuestion() {
+        Quiz first = Quiz.builder().id(1L).questionIds(List.of(10L, 11L)).build();
+        Quiz second = Quiz.builder().id(2L).questionIds(List.of(12L)).build();
+        when(questionRepository.findByIdInAndNotDeleted(List.of(10L, 11L)))
+            .thenReturn(List.of(question(10L, "A"), question(11L, "B")))
+            .thenReturn(List.of(question(10L, "C"), question(11L, "B")));
+        when(questionRepository.findByIdInAndNotDeleted(List.of(12L)))
+            .thenReturn(List.of(question(12L, "A")));
+
+        quizQuestionCache.get(first);
+        quizQuestionCache.get(second);
+        quizQuestionCache.evictQuestion(10L);
+
+        assertThat(quizQuestionCache.get(first).get(10L).getCorrectAnswers()).containsExactly("C");
+        assertThat(quizQuestionCache.get(second)).containsOnlyKeys(12L);
+        verify(questionRepository, times(2)).findByIdInAndNotDeleted(List.of(10L, 11L));
+        verify(questionRepository, times(1)).findByIdInAndNotDeleted(List.of(12L));
+    }
+
+    @Test
+    @DisplayName("Keys loaded while a question is evicted are not cached")
+    void get_QuestionEvictedDuringLoad_DoesNotCache() {
+        Quiz quiz = Quiz.builder().id(1L).questionIds(List.of(10L)).build();
+        when(questionRepository.findByIdInAndNotDeleted(List.of(10L))).thenAnswer(invocation -> {
+            quizQuestionCache.evictQuestion(10L);
+            return List.of(question(10L, "A"));
+        });
+
+        quizQuestionCache.get(quiz);
+        quizQuestionCache.get(quiz);
+
+        verify(questionRepository, times(2)).findByIdInAndNotDeleted(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("Keys loaded while the quiz is evicted are not cached")
+    void get_QuizEvictedDuringLoad_DoesNotCache() {
+        Quiz quiz = Quiz.builder().id(1L).questionIds(List.of(10L)).build();
+        when(questionRepository.findByIdInAndNotDeleted(List.of(10L))).thenAnswer(invocation -> {
+            quizQuestionCache.evict(1L);
+            return List.of(question(10L, "A"));
+        });
+
+        quizQuestionCache.get(quiz);
+        quizQuestionCache.get(quiz);
+
+        verify(questionRepository, times(2)).findByIdInAndNotDeleted(List.of(10L));
+    }
+
+    private static Question question(Long id, String correctAnswer) {
+        return Question.builder()
+            .id(id)
+            .points(1)
+            .options(List.of("A", "B", "C"))
+            .correctAnswers(List.of(correctAnswer))
+            .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.domain.active.dto.discussion.ParticipationStatsResponse;
+import com.eduforum.api.domain.active.entity.SpeakingStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit tests for RoomSpeakingQueue
+ */
+class RoomSpeakingQueueTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-03-02T10:00:00Z");
+
+    @Test
+    @DisplayName("Joins get consecutive positions after the saved ones and duplicates are rejected")
+    void join_AssignsNextPositions() {
+        RoomSpeakingQueue queue = new RoomSpeakingQueue(1L, 4);
+
+        RoomSpeakingQueue.Entry first = queue.join(10L, 100L, "Kim", START);
+        RoomSpeakingQueue.Entry second = queue.join(11L, 101L, "Lee", START);
+
+        assertThat(first.getPosition()).isEqualTo(5);
+        assertThat(second.getPosition()).isEqualTo(6);
+        assertThatThrownBy(() -> queue.join(12L, 100L, "Kim", START)).isInstanceOf(BusinessException.class);
+        assertThat(queue.entries()).extracting(RoomSpeakingQueue.Entry::getId).containsExactly(10L, 11L);
+        assertThat(queue.drainChanges()).extracting(RoomSpeakingQueue.Entry::getId).containsExactly(10L, 11L);
+    }
+
+    @Test
+    @DisplayName("Granting a turn finishes the current speaker and adds their time to the stats")
+    void grant_FinishesSpeakerAndAccumulatesStats() {
+        RoomSpeakingQueue queue = new RoomSpeakingQueue(1L, 0);
+        queue.join(10L, 100L, "Kim", START);
+        queue.join(11L, 101L, "Lee", START);
+        queue.join(12L, 102L, "Park", START);
+
+        queue.grant(10L, START.plusSeconds(10));
+        queue.grant(11L, START.plusSeconds(70));
+        queue.drainChanges();
+        queue.leave(11L, 101L, START.plusSeconds(100));
+
+        assertThat(queue.getSpeaking()).isNull();
+        assertThat(queue.entries()).extracting(RoomSpeakingQueue.Entry::getId).containsExactly(12L);
+        assertThatThrownBy(() -> queue.grant(10L, START)).isInstanceOf(BusinessException.class);
+
+        List<RoomSpeakingQueue.Entry> changes = queue.drainChanges();
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).getStatus()).isEqualTo(SpeakingStatus.FINISHED);
+        assertThat(changes.get(0).getDurationSeconds()).isEqualTo(30);
+
+        assertThat(queue.stats())
+            .extracting(ParticipationStatsResponse.UserStats::getUserId,
+                ParticipationStatsResponse.UserStats::getTotalSpeakingSeconds)
+            .containsExactly(
+                tuple(100L, 60),
+                tuple(101L, 30),
+                tuple(102L, 0));
+    }
+
+    @Test
+    @DisplayName("Leaving while waiting withdraws the entry; others cannot remove it")
+    void leave_WithdrawsWaitingEntry() {
+        RoomSpeakingQueue queue = new RoomSpeakingQueue(1L, 0);
+        queue.restoreStats(100L, "Kim", 2, 2, 90);
+        queue.join(10L, 100L, "Kim", START);
+        queue.join(11L, 101L, "Lee", START);
+
+        assertThatThrownBy(() -> queue.leave(10L, 101L, START)).isInstanceOf(BusinessException.class);
+        RoomSpeakingQueue.Entry left = queue.leave(11L, 101L, START.plusSeconds(5));
+
+        assertThat(left.getDeletedAt()).isNotNull();
+        assertThat(queue.entries()).extracting(RoomSpeakingQueue.Entry::getId).containsExactly(10L);
+        assertThat(queue.stats()).extracting(ParticipationStatsResponse.UserStats::getUserId).containsExactly(100L);
+        assertThat(queue.stats().get(0).getAverageSpeakingSeconds()).isEqualTo(45.0);
+    }
+}
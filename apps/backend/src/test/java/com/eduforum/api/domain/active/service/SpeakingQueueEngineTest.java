@@ -0,0 +1,147 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SpeakingQueueEngine
+ * The tests run without Postgres, so the statements are checked as sent to JdbcTemplate
+ */
+@ExtendWith(MockitoExtension.class)
+class SpeakingQueueEngineTest {
+
+    private static final Long ROOM_ID = 3L;
+    private static final Long USER_ID = 100L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SpeakingQueueEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SpeakingQueueEngine(jdbcTemplate, transactionManager);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM seminar.rooms"), eq(Integer.class), eq(ROOM_ID)))
+            .thenReturn(1);
+        when(jdbcTemplate.query(startsWith("SELECT version, last_position"), any(ResultSetExtractor.class), eq(ROOM_ID)))
+            .thenReturn(new long[]{0, 0});
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT first_name"), eq(String.class), eq(USER_ID)))
+            .thenReturn(List.of("Kim Minsu"));
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT nextval"), eq(Long.class), eq(50)))
+            .thenReturn(LongStream.range(500, 550).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("A join writes the entry with the journal upsert, casting to the schema's status type")
+    @SuppressWarnings("unchecked")
+    void join_WritesEntryWithJournalSql() throws Exception {
+        stubBump(1, 1L, 1L);
+
+        RoomSpeakingQueue.Entry entry = engine.join(ROOM_ID, USER_ID);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), rows.capture());
+        verify(transactionManager).commit(any());
+
+        assertThat(sql.getValue()).contains("?::active.speaking_status");
+        assertThat(sql.getValue().chars().filter(c -> c == '?').count()).isEqualTo(rows.getValue().get(0).length);
+        assertThat(rows.getValue()).hasSize(1);
+        assertThat(rows.getValue().get(0)).startsWith(500L, ROOM_ID, USER_ID, "WAITING", 1);
+        assertThat(entry.getPosition()).isEqualTo(1);
+
+        try (InputStream schema = getClass().getResourceAsStream("/db/migration/V004__Create_Active_Learning_Schema.sql")) {
+            assertThat(new String(schema.readAllBytes(), StandardCharsets.UTF_8))
+                .contains("CREATE TYPE active.speaking_status AS ENUM");
+        }
+    }
+
+    @Test
+    @DisplayName("A join after another node's join reloads the room and takes the next position")
+    void join_AfterOtherNodeChange_ReloadsRoom() {
+        // Loaded at version 0; the other node's join made it version 1 with position 1 taken
+        stubBump(1, 2L, 2L);
+        // Lenient: the stats load goes through the same query method
+        int[] loads = {0};
+        lenient().doAnswer(invocation -> {
+            if (loads[0]++ > 0) {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                handler.processRow(waitingRow(90L, 200L, 1));
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT sq.id"), any(RowCallbackHandler.class), eq(ROOM_ID));
+        when(jdbcTemplate.queryForList(startsWith("SELECT version FROM"), eq(Long.class), eq(ROOM_ID)))
+            .thenReturn(List.of(2L));
+
+        RoomSpeakingQueue.Entry entry = engine.join(ROOM_ID, USER_ID);
+
+        assertThat(entry.getPosition()).isEqualTo(2);
+        assertThat(engine.entries(ROOM_ID))
+            .extracting(RoomSpeakingQueue.Entry::getUserId, RoomSpeakingQueue.Entry::getPosition)
+            .containsExactly(tuple(200L, 1), tuple(USER_ID, 2));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("A duplicate join is rejected, rolled back and writes nothing")
+    void join_Duplicate_RolledBack() {
+        stubBump(1, 1L, 1L);
+        engine.join(ROOM_ID, USER_ID);
+        stubBump(1, 2L, 2L);
+
+        assertThatThrownBy(() -> engine.join(ROOM_ID, USER_ID)).isInstanceOf(BusinessException.class);
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(transactionManager).rollback(any());
+    }
+
+    private void stubBump(int positions, long version, long lastPosition) {
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO active.speaking_queue_rooms"), any(RowMapper.class),
+            eq(ROOM_ID), eq(positions)))
+            .thenReturn(new long[]{version, lastPosition});
+    }
+
+    private static ResultSet waitingRow(long id, long userId, int position) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getLong("user_id")).thenReturn(userId);
+        when(rs.getString("user_name")).thenReturn("Lee Jiwon");
+        when(rs.getInt("queue_position")).thenReturn(position);
+        when(rs.getString("status")).thenReturn("WAITING");
+        when(rs.getObject("granted_at", OffsetDateTime.class)).thenReturn(null);
+        when(rs.getObject("created_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.now());
+        return rs;
+    }
+}
@@ -0,0 +1,197 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardElementDto;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationMessage;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationRequest;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardSyncResponse;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardViewportResponse;
+import com.eduforum.api.domain.active.entity.WhiteboardOperationType;
+import com.eduforum.api.domain.active.entity.WhiteboardTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for WhiteboardBoard
+ */
+class WhiteboardBoardTest {
+
+    @Test
+    @DisplayName("Operations are numbered in order and stack new elements on top")
+    void apply_AssignsSeqAndZIndex() {
+        WhiteboardBoard board = new WhiteboardBoard(1L, List.of(), 0);
+
+        WhiteboardOperationMessage first = apply(board, 7L, add("a"));
+        WhiteboardOperationMessage second = apply(board, 7L, add("b"));
+        apply(board, 8L, remove("a"));
+
+        assertThat(first.getSeq()).isEqualTo(1);
+        assertThat(second.getSeq()).isEqualTo(2);
+        assertThat(second.getElement().getZIndex()).isGreaterThan(first.getElement().getZIndex());
+        assertThat(board.getSeq()).isEqualTo(3);
+        assertThat(board.elements()).extracting(WhiteboardElementDto::getElementId).containsExactly("b");
+    }
+
+    @Test
+    @DisplayName("Updating or removing a missing element is rejected without consuming a seq")
+    void apply_RejectsMissingElement() {
+        WhiteboardBoard board = new WhiteboardBoard(1L, List.of(), 0);
+
+        assertThatThrownBy(() -> apply(board, 7L, remove("x"))).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> apply(board, 7L, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.UPDATE)
+            .element(element("x"))
+            .build())).isInstanceOf(BusinessException.class);
+        assertThat(board.getSeq()).isZero();
+    }
+
+    @Test
+    @DisplayName("Elements outside the canvas range are rejected")
+    void prepare_RejectsElementOutsideCanvas() {
+        WhiteboardBoard board = new WhiteboardBoard(1L, List.of(), 0);
+        WhiteboardElementDto far = element("far");
+        far.setX(1e22);
+        WhiteboardElementDto wide = element("wide");
+        wide.setWidth(Double.POSITIVE_INFINITY);
+
+        assertThatThrownBy(() -> board.prepare(7L, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.ADD)
+            .element(far)
+            .build())).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> board.prepare(7L, WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.ADD)
+            .element(wide)
+            .build())).isInstanceOf(BusinessException.class);
+        assertThat(board.elements()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A snapshot replayed with its log tail reproduces the live board")
+    void replay_SnapshotPlusTailMatchesLiveBoard() {
+        WhiteboardBoard live = new WhiteboardBoard(1L, List.of(), 0);
+        List<WhiteboardOperationMessage> log = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            log.add(apply(live, 7L, add("e" + (i % 6))));
+            if (i % 5 == 4) {
+                log.add(apply(live, 7L, remove("e" + (i % 6))));
+            }
+        }
+
+        // Snapshot taken part way through, then the remaining operations replayed on top
+        WhiteboardBoard partial = new WhiteboardBoard(1L, List.of(), 0);
+        log.subList(0, 10).forEach(partial::replay);
+        WhiteboardBoard restored = new WhiteboardBoard(1L, partial.elements(), partial.getSeq());
+        log.forEach(restored::replay);
+
+        assertThat(restored.getSeq()).isEqualTo(live.getSeq());
+        assertThat(restored.elements()).extracting(WhiteboardElementDto::getElementId)
+            .containsExactlyElementsOf(live.elements().stream().map(WhiteboardElementDto::getElementId).toList());
+    }
+
+    @Test
+    @DisplayName("Replay stops at a gap so a board behind a trimmed log is reloaded")
+    void replay_GapIsReported() {
+        WhiteboardBoard live = new WhiteboardBoard(1L, List.of(), 0);
+        WhiteboardOperationMessage first = apply(live, 7L, add("a"));
+        WhiteboardOperationMessage second = apply(live, 7L, add("b"));
+        WhiteboardOperationMessage third = apply(live, 7L, add("c"));
+
+        WhiteboardBoard behind = new WhiteboardBoard(1L, List.of(), 0);
+        assertThat(behind.replay(first)).isTrue();
+        assertThat(behind.replay(first)).isTrue();
+        assertThat(behind.replay(third)).isFalse();
+        assertThat(behind.replay(second)).isTrue();
+        assertThat(behind.getSeq()).isEqualTo(2);
+        assertThatThrownBy(() -> behind.commit(first)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Recently connected clients get only the tail; others get the full state")
+    void sync_TailOrFullState() {
+        WhiteboardBoard board = new WhiteboardBoard(1L, List.of(), 0);
+        for (int i = 0; i < WhiteboardBoard.TAIL_SIZE + 10; i++) {
+            apply(board, 7L, add("e" + i));
+        }
+        long seq = board.getSeq();
+
+        WhiteboardSyncResponse recent = board.sync(seq - 3);
+        assertThat(recent.getElements()).isNull();
+        assertThat(recent.getOperations()).extracting(WhiteboardOperationMessage::getSeq)
+            .containsExactly(seq - 2, seq - 1, seq);
+
+        WhiteboardSyncResponse stale = board.sync(5L);
+        assertThat(stale.getElements()).hasSize(WhiteboardBoard.TAIL_SIZE + 10);
+        assertThat(stale.getOperations()).isEmpty();
+        assertThat(board.sync(null).getSeq()).isEqualTo(seq);
+    }
+
+    @Test
+    @DisplayName("Viewport pages return only intersecting elements in stacking order")
+    void viewport_PagesIntersectingElements() {
+        WhiteboardBoard board = new WhiteboardBoard(1L, List.of(), 0);
+        for (int i = 0; i < 50; i++) {
+            apply(board, 7L, WhiteboardOperationRequest.builder()
+                .type(WhiteboardOperationType.ADD)
+                .element(WhiteboardElementDto.builder()
+                    .elementId("e" + i)
+                    .type(WhiteboardTool.SHAPE)
+                    .x(i * 100.0)
+                    .y(0.0)
+                    .width(50.0)
+                    .height(50.0)
+                    .build())
+                .build());
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            WhiteboardViewportResponse page = board.viewport(1000, 0, 2000, 100, cursor, 4);
+            assertThat(page.getElements()).hasSizeLessThanOrEqualTo(4);
+            page.getElements().forEach(element -> seen.add(element.getElementId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly("e10", "e11", "e12", "e13", "e14", "e15",
+            "e16", "e17", "e18", "e19", "e20");
+    }
+
+    /**
+     * Number the operation as the database would and commit it
+     */
+    private static WhiteboardOperationMessage apply(WhiteboardBoard board, Long userId, WhiteboardOperationRequest request) {
+        WhiteboardOperationMessage operation = board.prepare(userId, request);
+        operation.setSeq(board.getSeq() + 1);
+        board.commit(operation);
+        return operation;
+    }
+
+    private static WhiteboardOperationRequest add(String elementId) {
+        return WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.ADD)
+            .element(element(elementId))
+            .build();
+    }
+
+    private static WhiteboardOperationRequest remove(String elementId) {
+        return WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.REMOVE)
+            .elementId(elementId)
+            .build();
+    }
+
+    private static WhiteboardElementDto element(String elementId) {
+        return WhiteboardElementDto.builder()
+            .elementId(elementId)
+            .type(WhiteboardTool.PEN)
+            .x(10.0)
+            .y(20.0)
+            .build();
+    }
+}
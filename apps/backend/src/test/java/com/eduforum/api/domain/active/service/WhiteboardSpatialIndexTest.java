@@ -0,0 +1,86 @@
+package com.eduforum.api.domain.active.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WhiteboardSpatialIndex
+ */
+class WhiteboardSpatialIndexTest {
+
+    @Test
+    @DisplayName("Queries return exactly the boxes a full scan finds, including oversized and moved ones")
+    void query_MatchesFullScan() {
+        Random random = new Random(11);
+        WhiteboardSpatialIndex index = new WhiteboardSpatialIndex();
+        Map<String, double[]> boxes = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String elementId = "e" + random.nextInt(3000);
+            if (random.nextInt(6) == 0) {
+                index.remove(elementId);
+                boxes.remove(elementId);
+                continue;
+            }
+            double x = random.nextDouble() * 10000 - 2000;
+            double y = random.nextDouble() * 10000 - 2000;
+            double size = random.nextInt(20) == 0 ? 5000 : random.nextDouble() * 200;
+            double[] box = {x, y, x + size, y + size};
+            index.put(elementId, box[0], box[1], box[2], box[3]);
+            boxes.put(elementId, box);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            double x = random.nextDouble() * 10000 - 2000;
+            double y = random.nextDouble() * 10000 - 2000;
+            double size = q % 20 == 0 ? 1e6 : random.nextDouble() * 1500;
+            Set<String> expected = new HashSet<>();
+            boxes.forEach((elementId, box) -> {
+                if (box[0] <= x + size && box[2] >= x && box[1] <= y + size && box[3] >= y) {
+                    expected.add(elementId);
+                }
+            });
+
+            assertThat(index.query(x, y, x + size, y + size)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+        assertThat(index.size()).isEqualTo(boxes.size());
+    }
+
+    @Test
+    @DisplayName("Touching edges intersect and cleared elements are gone")
+    void query_EdgesAndClear() {
+        WhiteboardSpatialIndex index = new WhiteboardSpatialIndex();
+        index.put("a", 0, 0, 100, 100);
+        index.put("b", 300, 300, 300, 300);
+
+        assertThat(index.query(100, 100, 200, 200)).containsExactly("a");
+        assertThat(index.query(300, 300, 300, 300)).containsExactly("b");
+
+        index.clear();
+        assertThat(index.query(-1e9, -1e9, 1e9, 1e9)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Boxes beyond the canvas land in its edge cells and are still matched exactly")
+    void put_BeyondCanvas_ClampsCells() {
+        WhiteboardSpatialIndex index = new WhiteboardSpatialIndex();
+        index.put("far", 1e22, 1e22, 1e22 + 10, 1e22 + 10);
+        index.put("edge", 999_999_900, 999_999_900, 1e9, 1e9);
+        index.put("negative", -1e300, 0, -1e300, 0);
+
+        assertThat(index.query(1e22, 1e22, 1e22, 1e22)).containsExactly("far");
+        assertThat(index.query(999_999_950, 999_999_950, 1e9, 1e9)).containsExactly("edge");
+        assertThat(index.query(-1e300, 0, -1e300, 0)).containsExactly("negative");
+        assertThat(index.query(1e300, 1e300, 1e300, 1e300)).isEmpty();
+
+        index.remove("far");
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,220 @@
+package com.eduforum.api.domain.active.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.util.JsonUtil;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardElementDto;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationMessage;
+import com.eduforum.api.domain.active.dto.whiteboard.WhiteboardOperationRequest;
+import com.eduforum.api.domain.active.entity.WhiteboardOperationType;
+import com.eduforum.api.domain.active.entity.WhiteboardTool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WhiteboardSyncEngine
+ * Another node is simulated by operations that appear in the log between two of this node's
+ */
+@ExtendWith(MockitoExtension.class)
+class WhiteboardSyncEngineTest {
+
+    private static final Long BOARD_ID = 1L;
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WhiteboardSyncEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new WhiteboardSyncEngine(jdbcTemplate, messagingTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Queued strokes are logged in one transaction, numbered after another node's operation")
+    @SuppressWarnings("unchecked")
+    void flush_LogsBatchAfterOtherNodesOperations() {
+        stubLoad(new WhiteboardBoard(BOARD_ID, List.of(), 1));
+        stubLock(2L);
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(loggedAdd(2L, "a"));
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT seq"), any(RowCallbackHandler.class),
+            eq(BOARD_ID), eq(1L), eq(3L));
+
+        CompletableFuture<WhiteboardOperationMessage> b = engine.submit(BOARD_ID, USER_ID, add("b"));
+        CompletableFuture<WhiteboardOperationMessage> c = engine.submit(BOARD_ID, USER_ID, add("c"));
+        CompletableFuture<WhiteboardOperationMessage> stale = engine.submit(BOARD_ID, USER_ID, update("x"));
+        assertThat(b).isNotDone();
+
+        engine.flush();
+
+        assertThat(b.join().getSeq()).isEqualTo(3L);
+        assertThat(c.join().getSeq()).isEqualTo(4L);
+        assertThatThrownBy(stale::join).hasCauseInstanceOf(BusinessException.class);
+        verify(transactionManager, times(1)).commit(any());
+        verify(jdbcTemplate).update(startsWith("UPDATE active.whiteboards SET op_seq"), eq(4L), eq(BOARD_ID));
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO active.whiteboard_operations"), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[1], row -> row[4])
+            .containsExactly(tuple(3L, "b"), tuple(4L, "c"));
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/whiteboards/" + BOARD_ID), any(WhiteboardOperationMessage.class));
+        assertThat(engine.elements(BOARD_ID)).extracting(WhiteboardElementDto::getElementId).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    @DisplayName("A board whose missing operations were trimmed is reloaded from the snapshot")
+    void flush_TrimmedLog_ReloadsBoard() {
+        WhiteboardElementDto a = element("a");
+        a.setZIndex(0);
+        WhiteboardElementDto b = element("b");
+        b.setZIndex(1);
+        when(jdbcTemplate.query(startsWith("SELECT snapshot"), any(RowMapper.class), eq(BOARD_ID)))
+            .thenReturn(List.of(new WhiteboardBoard(BOARD_ID, List.of(), 1)))
+            .thenReturn(List.of(new WhiteboardBoard(BOARD_ID, List.of(a, b), 3)));
+        stubLock(3L);
+
+        CompletableFuture<WhiteboardOperationMessage> c = engine.submit(BOARD_ID, USER_ID, add("c"));
+        engine.flush();
+
+        assertThat(c.join().getSeq()).isEqualTo(4L);
+        assertThat(engine.elements(BOARD_ID)).extracting(WhiteboardElementDto::getElementId).containsExactly("a", "b", "c");
+        verify(jdbcTemplate, times(2)).query(startsWith("SELECT snapshot"), any(RowMapper.class), eq(BOARD_ID));
+    }
+
+    @Test
+    @DisplayName("A saved board is logged in the caller's transaction and applied only after it commits")
+    @SuppressWarnings("unchecked")
+    void applyAll_AppliedAfterCommit() {
+        stubLoad(new WhiteboardBoard(BOARD_ID, List.of(element("old")), 0));
+        stubLock(0L);
+
+        inTransaction(() -> {
+            List<WhiteboardOperationMessage> operations = engine.applyAll(BOARD_ID, USER_ID,
+                List.of(clear(), add("a"), add("b")));
+
+            assertThat(operations).extracting(WhiteboardOperationMessage::getSeq).containsExactly(1L, 2L, 3L);
+            assertThat(engine.elements(BOARD_ID)).extracting(WhiteboardElementDto::getElementId).containsExactly("old");
+            verifyNoInteractions(messagingTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        });
+
+        assertThat(engine.elements(BOARD_ID)).extracting(WhiteboardElementDto::getElementId).containsExactly("a", "b");
+        verify(jdbcTemplate).update(startsWith("UPDATE active.whiteboards SET op_seq"), eq(3L), eq(BOARD_ID));
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO active.whiteboard_operations"), anyList());
+        verify(messagingTemplate, times(3)).convertAndSend(eq("/topic/whiteboards/" + BOARD_ID), any(WhiteboardOperationMessage.class));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("One invalid operation rejects a saved board before anything is logged")
+    void applyAll_InvalidOperation_RejectsGroup() {
+        stubLoad(new WhiteboardBoard(BOARD_ID, List.of(), 0));
+        stubLock(0L);
+
+        inTransaction(() -> assertThatThrownBy(() -> engine.applyAll(BOARD_ID, USER_ID, List.of(add("a"), update("x"))))
+            .isInstanceOf(BusinessException.class));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE active.whiteboards SET op_seq"), any(), any());
+        assertThat(engine.elements(BOARD_ID)).isEmpty();
+    }
+
+    private void stubLoad(WhiteboardBoard board) {
+        when(jdbcTemplate.query(startsWith("SELECT snapshot"), any(RowMapper.class), eq(BOARD_ID)))
+            .thenReturn(List.of(board));
+    }
+
+    private void stubLock(Long opSeq) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT op_seq"), eq(Long.class), eq(BOARD_ID)))
+            .thenReturn(List.of(opSeq));
+    }
+
+    private static void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            action.run();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ResultSet loggedAdd(long seq, String elementId) throws Exception {
+        WhiteboardElementDto element = element(elementId);
+        element.setZIndex(0);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("payload")).thenReturn(JsonUtil.toJson(element));
+        when(rs.getLong("seq")).thenReturn(seq);
+        when(rs.getObject("user_id", Long.class)).thenReturn(8L);
+        when(rs.getString("op_type")).thenReturn("ADD");
+        when(rs.getString("element_id")).thenReturn(elementId);
+        when(rs.getObject("created_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.now());
+        return rs;
+    }
+
+    private static WhiteboardOperationRequest add(String elementId) {
+        return WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.ADD)
+            .element(element(elementId))
+            .build();
+    }
+
+    private static WhiteboardOperationRequest update(String elementId) {
+        return WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.UPDATE)
+            .element(element(elementId))
+            .build();
+    }
+
+    private static WhiteboardOperationRequest clear() {
+        return WhiteboardOperationRequest.builder()
+            .type(WhiteboardOperationType.CLEAR)
+            .build();
+    }
+
+    private static WhiteboardElementDto element(String elementId) {
+        return WhiteboardElementDto.builder()
+            .elementId(elementId)
+            .type(WhiteboardTool.PEN)
+            .x(10.0)
+            .y(20.0)
+            .build();
+    }
+}
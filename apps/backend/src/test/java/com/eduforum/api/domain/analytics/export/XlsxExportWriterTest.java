@@ -0,0 +1,64 @@
+package com.eduforum.api.domain.analytics.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for XlsxExportWriter
+ */
+class XlsxExportWriterTest {
+
+    @Test
+    @DisplayName("Writes a complete package with typed, escaped cells")
+    void write_ProducesWorkbook() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new XlsxExportWriter(out, "Course 1")) {
+            writer.writeHeader(List.of("Student ID", "Name", "Score"));
+            writer.writeRow(new Object[]{7L, "Kim <A&B>", new BigDecimal("12.50")});
+            writer.writeRow(new Object[]{8L, "Lee", null});
+        }
+
+        List<String> entries = new ArrayList<>();
+        String sheet = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.add(entry.getName());
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    sheet = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        assertThat(entries).contains("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+            "xl/_rels/workbook.xml.rels", "xl/styles.xml", "xl/worksheets/sheet1.xml");
+        assertThat(sheet)
+            .contains("<c r=\"A1\" s=\"1\" t=\"inlineStr\"><is><t xml:space=\"preserve\">Student ID</t></is></c>")
+            .contains("<c r=\"A2\"><v>7</v></c>")
+            .contains("Kim &lt;A&amp;B&gt;")
+            .contains("<c r=\"C2\"><v>12.50</v></c>")
+            .doesNotContain("r=\"C3\"")
+            .endsWith("</sheetData></worksheet>");
+    }
+
+    @Test
+    @DisplayName("Column references follow spreadsheet lettering")
+    void columnName_Letters() {
+        assertThat(XlsxExportWriter.columnName(0)).isEqualTo("A");
+        assertThat(XlsxExportWriter.columnName(25)).isEqualTo("Z");
+        assertThat(XlsxExportWriter.columnName(26)).isEqualTo("AA");
+        assertThat(XlsxExportWriter.columnName(701)).isEqualTo("ZZ");
+        assertThat(XlsxExportWriter.columnName(702)).isEqualTo("AAA");
+    }
+}
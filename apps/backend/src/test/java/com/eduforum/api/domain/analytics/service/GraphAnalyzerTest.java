@@ -0,0 +1,116 @@
+package com.eduforum.api.domain.analytics.service;
+
+import com.eduforum.api.domain.analytics.config.AnalyticsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for GraphAnalyzer
+ */
+class GraphAnalyzerTest {
+
+    private GraphAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.getNetwork().setParallelism(2);
+        analyzer = new GraphAnalyzer(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyzer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Star center has full degree and betweenness, leaves have none")
+    void analyze_Star() {
+        InteractionGraph.Builder builder = InteractionGraph.builder();
+        for (long leaf = 2; leaf <= 5; leaf++) {
+            builder.addEdge(1L, leaf, 1);
+        }
+        InteractionGraph graph = builder.build();
+
+        GraphMetrics metrics = analyzer.analyze(graph);
+
+        assertThat(graph.studentId(0)).isEqualTo(1L);
+        assertThat(metrics.getDegreeCentrality()[0]).isEqualTo(1.0);
+        assertThat(metrics.getBetweennessCentrality()[0]).isCloseTo(1.0, within(1e-9));
+        assertThat(metrics.getClosenessCentrality()[0]).isCloseTo(1.0, within(1e-9));
+        for (int leaf = 1; leaf < 5; leaf++) {
+            assertThat(metrics.getBetweennessCentrality()[leaf]).isZero();
+            assertThat(metrics.getClusteringCoefficient()[leaf]).isZero();
+            // distances 1 + 2 + 2 + 2 to the other four nodes
+            assertThat(metrics.getClosenessCentrality()[leaf]).isCloseTo(4.0 / 7.0, within(1e-9));
+        }
+    }
+
+    @Test
+    @DisplayName("Path middle node lies on the only shortest path between the ends")
+    void analyze_Path() {
+        InteractionGraph graph = InteractionGraph.builder()
+            .addEdge(10L, 20L, 1)
+            .addEdge(30L, 20L, 1)
+            .build();
+
+        GraphMetrics metrics = analyzer.analyze(graph);
+
+        assertThat(metrics.getBetweennessCentrality()).containsExactly(new double[]{0.0, 1.0, 0.0}, within(1e-9));
+        assertThat(metrics.getClusteringCoefficient()).containsExactly(0.0, 0.0, 0.0);
+    }
+
+    @Test
+    @DisplayName("Reversed and repeated edge rows merge into one weighted edge")
+    void build_MergesEdges() {
+        InteractionGraph graph = InteractionGraph.builder()
+            .addEdge(1L, 2L, 3)
+            .addEdge(2L, 1L, 2)
+            .addEdge(1L, 1L, 5)
+            .addNode(9L)
+            .build();
+
+        assertThat(graph.nodeCount()).isEqualTo(3);
+        assertThat(graph.edgeCount()).isEqualTo(1);
+        assertThat(graph.strength(0)).isEqualTo(5.0);
+        assertThat(graph.degree(2)).isZero();
+    }
+
+    @Test
+    @DisplayName("Two cliques joined by a bridge split into two communities")
+    void analyze_TwoCliques() {
+        InteractionGraph.Builder builder = InteractionGraph.builder();
+        addClique(builder, 1, 5);
+        addClique(builder, 6, 10);
+        builder.addEdge(5L, 6L, 1);
+        builder.addNode(99L);
+        InteractionGraph graph = builder.build();
+
+        GraphMetrics metrics = analyzer.analyze(graph);
+        int[] community = metrics.getCommunity();
+
+        assertThat(metrics.getCommunityCount()).isEqualTo(3);
+        for (int v = 1; v < 5; v++) {
+            assertThat(community[v]).isEqualTo(community[0]);
+            assertThat(community[v + 5]).isEqualTo(community[5]);
+        }
+        assertThat(community[0]).isNotEqualTo(community[5]);
+        // The isolated student is its own (smallest, so last) community
+        assertThat(community[10]).isEqualTo(2);
+        assertThat(metrics.getModularity()).isGreaterThan(0.3);
+        assertThat(metrics.getClusteringCoefficient()[0]).isEqualTo(1.0);
+    }
+
+    private void addClique(InteractionGraph.Builder builder, long first, long last) {
+        for (long a = first; a <= last; a++) {
+            for (long b = a + 1; b <= last; b++) {
+                builder.addEdge(a, b, 2);
+            }
+        }
+    }
+}
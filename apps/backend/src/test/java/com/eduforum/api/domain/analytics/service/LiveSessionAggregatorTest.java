@@ -0,0 +1,99 @@
+package com.eduforum.api.domain.analytics.service;
+
+import com.eduforum.api.domain.analytics.dto.realtime.LiveStatsDeltaResponse;
+import com.eduforum.api.domain.analytics.dto.realtime.LiveStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for LiveSessionAggregator
+ */
+class LiveSessionAggregatorTest {
+
+    private LiveSessionAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new LiveSessionAggregator();
+        aggregator.registerSession(10L, 1L, 2);
+        aggregator.drainDeltas();
+    }
+
+    @Test
+    @DisplayName("Drain returns only the activity since the previous drain")
+    void drainDeltas_ReturnsIncrementalCounts() {
+        aggregator.recordChatMessage(10L);
+        aggregator.recordChatMessage(10L);
+        aggregator.recordReaction(10L);
+        aggregator.recordParticipantJoined(10L);
+
+        List<LiveStatsDeltaResponse> first = aggregator.drainDeltas();
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).getActivityDelta()).containsEntry("chat", 2).containsEntry("reactions", 1);
+        assertThat(first.get(0).getNewInteractions()).isEqualTo(3);
+        assertThat(first.get(0).getCurrentParticipants()).isEqualTo(3);
+
+        aggregator.recordChatMessage(10L);
+
+        List<LiveStatsDeltaResponse> second = aggregator.drainDeltas();
+        assertThat(second.get(0).getActivityDelta()).containsEntry("chat", 1).containsEntry("reactions", 0);
+        assertThat(second.get(0).getTotalInteractions()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Idle sessions are not pushed")
+    void drainDeltas_SkipsIdleSessions() {
+        assertThat(aggregator.drainDeltas()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Course-scoped events are attributed to the live session of the course")
+    void recordPollResponse_AttributesToLiveSession() {
+        aggregator.recordPollResponse(1L);
+        aggregator.recordQuizAttempt(1L);
+        aggregator.recordPollResponse(99L);
+
+        LiveStatsResponse stats = aggregator.getLiveStats(10L).orElseThrow();
+        assertThat(stats.getActivityBreakdown()).containsEntry("polls", 1).containsEntry("quizzes", 1);
+        assertThat(stats.getTotalInteractions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Peak participants survive leaves and ended sessions are dropped")
+    void participants_TrackPeakAndEnd() {
+        aggregator.recordParticipantJoined(10L);
+        aggregator.recordParticipantLeft(10L);
+        aggregator.recordParticipantLeft(10L);
+
+        LiveStatsResponse stats = aggregator.getLiveStats(10L).orElseThrow();
+        assertThat(stats.getCurrentParticipants()).isEqualTo(1);
+        assertThat(stats.getPeakParticipants()).isEqualTo(3);
+
+        aggregator.endSession(10L);
+        assertThat(aggregator.getLiveStats(10L)).isEmpty();
+        aggregator.recordPollResponse(1L);
+        assertThat(aggregator.isTracked(10L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Events for untracked or ended sessions do not recreate them")
+    void record_IgnoresUntrackedSessions() {
+        aggregator.recordChatMessage(20L);
+        aggregator.recordReaction(20L);
+        aggregator.recordParticipantJoined(20L);
+
+        aggregator.endSession(10L);
+        aggregator.recordChatMessage(10L);
+        aggregator.recordParticipantLeft(10L);
+
+        assertThat(aggregator.isTracked(20L)).isFalse();
+        assertThat(aggregator.isTracked(10L)).isFalse();
+        assertThat(aggregator.getLiveStats(10L)).isEmpty();
+        assertThat(aggregator.drainDeltas()).isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+package com.eduforum.api.domain.analytics.service;
+
+import com.eduforum.api.domain.analytics.config.AnalyticsProperties;
+import com.eduforum.api.domain.analytics.entity.RollupResolution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for SnapshotRollupService resolution selection
+ */
+class SnapshotRollupServiceTest {
+
+    private SnapshotRollupService service;
+    private OffsetDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.getRollup().setMaxTrendPoints(200);
+        service = new SnapshotRollupService(null, properties, null);
+        now = OffsetDateTime.now();
+    }
+
+    @Test
+    @DisplayName("A class-length range is served from minute buckets")
+    void resolutionFor_ShortRange() {
+        assertThat(service.resolutionFor(now.minusMinutes(90), now)).isEqualTo(RollupResolution.MINUTE);
+    }
+
+    @Test
+    @DisplayName("A week is served from hour buckets")
+    void resolutionFor_Week() {
+        assertThat(service.resolutionFor(now.minusDays(7), now)).isEqualTo(RollupResolution.HOUR);
+    }
+
+    @Test
+    @DisplayName("A semester is served from day buckets")
+    void resolutionFor_Semester() {
+        assertThat(service.resolutionFor(now.minusDays(120), now)).isEqualTo(RollupResolution.DAY);
+    }
+
+    @Test
+    @DisplayName("Short ranges older than minute retention fall back to hour buckets")
+    void resolutionFor_PastMinuteRetention() {
+        OffsetDateTime end = now.minusDays(30);
+        assertThat(service.resolutionFor(end.minusMinutes(30), end)).isEqualTo(RollupResolution.HOUR);
+    }
+
+    @Test
+    @DisplayName("Buckets are aligned in UTC regardless of the input offset")
+    void bucketStart_AlignedInUtc() {
+        OffsetDateTime seoul = OffsetDateTime.of(2024, 3, 2, 8, 15, 42, 0, ZoneOffset.ofHours(9));
+
+        assertThat(RollupResolution.DAY.bucketStart(seoul))
+            .isEqualTo(OffsetDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        assertThat(RollupResolution.HOUR.bucketStart(seoul))
+            .isEqualTo(OffsetDateTime.of(2024, 3, 1, 23, 0, 0, 0, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,72 @@
+package com.eduforum.api.domain.assessment.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for AnswerStatistics
+ */
+class AnswerStatisticsTest {
+
+    @Test
+    @DisplayName("Point-biserial from running sums equals the Pearson correlation")
+    void getPointBiserial_MatchesPearson() {
+        boolean[] correct = {true, true, false, true, false, false, true, false};
+        double[] rest = {9, 7, 4, 8, 5, 3, 6, 6};
+
+        AnswerStatistics statistics = AnswerStatistics.builder().build();
+        for (int i = 0; i < correct.length; i++) {
+            add(statistics, correct[i], rest[i]);
+        }
+
+        assertThat(statistics.getPointBiserial()).isCloseTo(pearson(correct, rest), within(1e-9));
+        assertThat(statistics.getPointBiserial()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Point-biserial is undefined while every response is correct")
+    void getPointBiserial_UndefinedWithoutVariance() {
+        AnswerStatistics statistics = AnswerStatistics.builder().build();
+        add(statistics, true, 5);
+        add(statistics, true, 7);
+
+        assertThat(statistics.getPointBiserial()).isNull();
+    }
+
+    private static void add(AnswerStatistics statistics, boolean correct, double restScore) {
+        if (correct) {
+            statistics.incrementCorrect();
+            statistics.setCorrectRestScoreSum(statistics.getCorrectRestScoreSum() + restScore);
+        } else {
+            statistics.incrementIncorrect();
+        }
+        statistics.setRestScoreSum(statistics.getRestScoreSum() + restScore);
+        statistics.setRestScoreSqSum(statistics.getRestScoreSqSum() + restScore * restScore);
+    }
+
+    private static double pearson(boolean[] correct, double[] rest) {
+        int n = rest.length;
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < n; i++) {
+            meanX += correct[i] ? 1 : 0;
+            meanY += rest[i];
+        }
+        meanX /= n;
+        meanY /= n;
+        double cov = 0;
+        double varX = 0;
+        double varY = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = (correct[i] ? 1 : 0) - meanX;
+            double dy = rest[i] - meanY;
+            cov += dx * dy;
+            varX += dx * dx;
+            varY += dy * dy;
+        }
+        return cov / Math.sqrt(varX * varY);
+    }
+}
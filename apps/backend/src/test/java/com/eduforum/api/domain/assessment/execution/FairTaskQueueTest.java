@@ -0,0 +1,78 @@
+package com.eduforum.api.domain.assessment.execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FairTaskQueue
+ */
+class FairTaskQueueTest {
+
+    @Test
+    @DisplayName("Owners are served round-robin regardless of how much each queued")
+    void take_RoundRobin() throws InterruptedException {
+        FairTaskQueue<Long, String> queue = new FairTaskQueue<>(100);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(1L, "a" + i, false);
+        }
+        queue.offer(2L, "b0", false);
+        queue.offer(3L, "c0", false);
+        queue.offer(2L, "b1", false);
+
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            order.add(queue.take());
+        }
+
+        assertThat(order).containsExactly("a0", "b0", "c0", "a1", "b1", "a2", "a3", "a4");
+    }
+
+    @Test
+    @DisplayName("Capacity rejects new work unless forced")
+    void offer_Capacity() {
+        FairTaskQueue<Long, String> queue = new FairTaskQueue<>(2);
+
+        assertThat(queue.offer(1L, "a", false)).isTrue();
+        assertThat(queue.offer(2L, "b", false)).isTrue();
+        assertThat(queue.offer(3L, "c", false)).isFalse();
+        assertThat(queue.offer(1L, "a-test", true)).isTrue();
+        assertThat(queue.hasRoom(1)).isFalse();
+        assertThat(queue.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Closing releases waiting workers")
+    void take_Closed() throws InterruptedException {
+        FairTaskQueue<Long, String> queue = new FairTaskQueue<>(10);
+        List<String> taken = new ArrayList<>();
+        Thread worker = new Thread(() -> {
+            try {
+                taken.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+
+        queue.close();
+        worker.join(1000);
+
+        assertThat(worker.isAlive()).isFalse();
+        assertThat(taken).containsExactly((String) null);
+        assertThat(queue.offer(1L, "late", true)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Output comparison ignores trailing whitespace and line endings")
+    void normalize_TrailingWhitespace() {
+        assertThat(CodeExecutionScheduler.normalize("1 2 \r\n3\n\n"))
+            .isEqualTo(CodeExecutionScheduler.normalize("1 2\n3"));
+        assertThat(CodeExecutionScheduler.normalize(" 1\n2"))
+            .isNotEqualTo(CodeExecutionScheduler.normalize("1\n2"));
+    }
+}
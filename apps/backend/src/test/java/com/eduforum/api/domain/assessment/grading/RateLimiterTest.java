@@ -0,0 +1,48 @@
+package com.eduforum.api.domain.assessment.grading;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RateLimiter
+ */
+class RateLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Back-to-back calls are spaced by the rate interval")
+    void reserve_SpacesCalls() {
+        RateLimiter limiter = new RateLimiter(10);
+        long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+        assertThat(limiter.reserve(now)).isZero();
+        assertThat(limiter.reserve(now)).isEqualTo(100 * MS);
+        assertThat(limiter.reserve(now)).isEqualTo(200 * MS);
+    }
+
+    @Test
+    @DisplayName("Idle time does not accumulate into a burst")
+    void reserve_NoBurstAfterIdle() {
+        RateLimiter limiter = new RateLimiter(10);
+        long later = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        assertThat(limiter.reserve(later)).isZero();
+        assertThat(limiter.reserve(later)).isEqualTo(100 * MS);
+    }
+
+    @Test
+    @DisplayName("A non-positive rate disables limiting")
+    void reserve_Unlimited() {
+        RateLimiter limiter = new RateLimiter(0);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reserve(now)).isZero();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.eduforum.api.domain.assessment.leaderboard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RankTree
+ */
+class RankTreeTest {
+
+    @Test
+    @DisplayName("Entries are ordered by score descending, ties by student ID")
+    void range_OrdersByScoreThenId() {
+        RankTree tree = new RankTree();
+        tree.put(3, 500);
+        tree.put(1, 700);
+        tree.put(2, 500);
+        tree.put(4, 100);
+
+        assertThat(tree.range(0, 10)).extracting(RankTree.Entry::getStudentId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(tree.range(1, 2)).extracting(RankTree.Entry::getStudentId).containsExactly(2L, 3L);
+        assertThat(tree.range(4, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Tied students share a rank")
+    void countAbove_TiesShareRank() {
+        RankTree tree = new RankTree();
+        tree.put(1, 700);
+        tree.put(2, 500);
+        tree.put(3, 500);
+        tree.put(4, 100);
+
+        assertThat(tree.countAbove(700)).isZero();
+        assertThat(tree.countAbove(500)).isEqualTo(1);
+        assertThat(tree.countAbove(100)).isEqualTo(3);
+        assertThat(tree.countAbove(0)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Moving a student to a new score replaces the old entry")
+    void put_MovesExistingStudent() {
+        RankTree tree = new RankTree();
+        tree.put(1, 100);
+        tree.put(2, 200);
+        tree.put(1, 300);
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.score(1)).isEqualTo(300L);
+        assertThat(tree.range(0, 2)).extracting(RankTree.Entry::getStudentId).containsExactly(1L, 2L);
+
+        tree.remove(1);
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.score(1)).isNull();
+        assertThat(tree.countAbove(0)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Random updates agree with a sorted list")
+    void randomUpdates_MatchBruteForce() {
+        Random random = new Random(42);
+        RankTree tree = new RankTree();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long studentId = random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                tree.remove(studentId);
+                expected.remove(studentId);
+            } else {
+                long score = random.nextInt(50) * 100L;
+                tree.put(studentId, score);
+                expected.put(studentId, score);
+            }
+
+            if (step % 250 == 0) {
+                long probe = random.nextInt(50) * 100L;
+                assertThat(tree.countAbove(probe))
+                    .isEqualTo((int) expected.values().stream().filter(score -> score > probe).count());
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()));
+
+        assertThat(tree.size()).isEqualTo(sorted.size());
+        assertThat(tree.range(0, sorted.size())).extracting(RankTree.Entry::getStudentId)
+            .containsExactlyElementsOf(sorted.stream().map(Map.Entry::getKey).toList());
+    }
+}
@@ -0,0 +1,138 @@
+package com.eduforum.api.domain.assessment.service;
+
+import com.eduforum.api.common.exception.BusinessException;
+import com.eduforum.api.common.exception.ErrorCode;
+import com.eduforum.api.domain.active.entity.Quiz;
+import com.eduforum.api.domain.active.entity.QuizAnswer;
+import com.eduforum.api.domain.active.entity.QuizSession;
+import com.eduforum.api.domain.active.repository.QuizAnswerRepository;
+import com.eduforum.api.domain.active.repository.QuizSessionRepository;
+import com.eduforum.api.domain.assessment.dto.grading.GradingResultResponse;
+import com.eduforum.api.domain.assessment.entity.GradingResult;
+import com.eduforum.api.domain.assessment.entity.GradingStatus;
+import com.eduforum.api.domain.assessment.entity.GradingType;
+import com.eduforum.api.domain.assessment.repository.AnswerStatisticsRepository;
+import com.eduforum.api.domain.assessment.repository.GradingResultRepository;
+import com.eduforum.api.domain.auth.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AutoGradingService
+ * Tests grading a quiz session from its recorded answers
+ */
+@ExtendWith(MockitoExtension.class)
+class AutoGradingServiceTest {
+
+    private static final Long QUIZ_ID = 3L;
+    private static final Long SESSION_ID = 7L;
+    private static final Long STUDENT_ID = 5L;
+
+    @Mock
+    private GradingResultRepository gradingResultRepository;
+
+    @Mock
+    private AnswerStatisticsRepository answerStatisticsRepository;
+
+    @Mock
+    private QuizSessionRepository quizSessionRepository;
+
+    @Mock
+    private QuizAnswerRepository quizAnswerRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AutoGradingService autoGradingService;
+
+    @Test
+    @DisplayName("Grading a submitted session sums its answers into one result")
+    void gradeQuizSession_SumsAnswers() {
+        when(quizSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session(OffsetDateTime.now())));
+        when(quizAnswerRepository.findBySessionId(SESSION_ID))
+            .thenReturn(List.of(answer(true, 2, 2), answer(false, 0, 3), answer(true, 1, 1)));
+        when(gradingResultRepository.findByAssignmentIdAndSubmissionIdAndGradingType(QUIZ_ID, SESSION_ID, GradingType.AUTO))
+            .thenReturn(Optional.empty());
+        when(gradingResultRepository.save(any(GradingResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<GradingResultResponse> results = autoGradingService.gradeQuizSession(SESSION_ID);
+
+        assertThat(results).hasSize(1);
+        GradingResultResponse result = results.get(0);
+        assertThat(result.getAssignmentId()).isEqualTo(QUIZ_ID);
+        assertThat(result.getSubmissionId()).isEqualTo(SESSION_ID);
+        assertThat(result.getStudentId()).isEqualTo(STUDENT_ID);
+        assertThat(result.getGradingType()).isEqualTo(GradingType.AUTO);
+        assertThat(result.getStatus()).isEqualTo(GradingStatus.GRADED);
+        assertThat(result.getScore()).isEqualByComparingTo(BigDecimal.valueOf(3));
+        assertThat(result.getMaxScore()).isEqualByComparingTo(BigDecimal.valueOf(6));
+        assertThat(result.getGradingDetails()).containsEntry("correctAnswers", 2).containsEntry("answeredQuestions", 3);
+    }
+
+    @Test
+    @DisplayName("Grading a session again updates its existing result")
+    void gradeQuizSession_AlreadyGraded_UpdatesResult() {
+        GradingResult existing = GradingResult.builder()
+            .id(11L)
+            .assignmentId(QUIZ_ID)
+            .submissionId(SESSION_ID)
+            .studentId(STUDENT_ID)
+            .gradingType(GradingType.AUTO)
+            .score(BigDecimal.ZERO)
+            .build();
+        when(quizSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session(OffsetDateTime.now())));
+        when(quizAnswerRepository.findBySessionId(SESSION_ID)).thenReturn(List.of(answer(true, 4, 4)));
+        when(gradingResultRepository.findByAssignmentIdAndSubmissionIdAndGradingType(QUIZ_ID, SESSION_ID, GradingType.AUTO))
+            .thenReturn(Optional.of(existing));
+        when(gradingResultRepository.save(existing)).thenReturn(existing);
+
+        List<GradingResultResponse> results = autoGradingService.gradeQuizSession(SESSION_ID);
+
+        assertThat(results).extracting(GradingResultResponse::getId).containsExactly(11L);
+        assertThat(existing.getScore()).isEqualByComparingTo(BigDecimal.valueOf(4));
+    }
+
+    @Test
+    @DisplayName("A session that has not been submitted cannot be graded")
+    void gradeQuizSession_NotSubmitted_Throws() {
+        when(quizSessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session(null)));
+
+        assertThatThrownBy(() -> autoGradingService.gradeQuizSession(SESSION_ID))
+            .isInstanceOf(BusinessException.class)
+            .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_INPUT_VALUE);
+        verifyNoInteractions(quizAnswerRepository, gradingResultRepository);
+    }
+
+    private static QuizSession session(OffsetDateTime submittedAt) {
+        return QuizSession.builder()
+            .id(SESSION_ID)
+            .quiz(Quiz.builder().id(QUIZ_ID).build())
+            .user(User.builder().id(STUDENT_ID).build())
+            .submittedAt(submittedAt)
+            .build();
+    }
+
+    private static QuizAnswer answer(boolean correct, int pointsEarned, int maxScore) {
+        return QuizAnswer.builder()
+            .isCorrect(correct)
+            .pointsEarned(pointsEarned)
+            .maxScore(maxScore)
+            .build();
+    }
+}
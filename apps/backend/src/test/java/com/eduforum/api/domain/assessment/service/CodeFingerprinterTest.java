@@ -0,0 +1,90 @@
+package com.eduforum.api.domain.assessment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CodeFingerprinter
+ */
+class CodeFingerprinterTest {
+
+    private static final String ORIGINAL = """
+        public class Sum {
+          // add numbers
+          public static int total(int[] values) {
+            int sum = 0;
+            for (int i = 0; i < values.length; i++) {
+              if (values[i] > 0) { sum += values[i]; }
+            }
+            return sum;
+          }
+          public static void main(String[] args) {
+            int[] data = {1, 2, 3};
+            System.out.println("Total: " + total(data));
+          }
+        }
+        """;
+
+    private static final String UNRELATED = """
+        import java.util.*;
+        public class Sorter {
+          static void bubble(List<Integer> list) {
+            boolean swapped = true;
+            while (swapped) {
+              swapped = false;
+              for (int j = 1; j < list.size(); j++) {
+                if (list.get(j - 1) > list.get(j)) { Collections.swap(list, j - 1, j); swapped = true; }
+              }
+            }
+          }
+        }
+        """;
+
+    private final CodeFingerprinter fingerprinter = new CodeFingerprinter();
+
+    @Test
+    @DisplayName("Renaming identifiers, changing literals and comments does not hide a copy")
+    void fingerprint_RenamedCopy() {
+        String renamed = ORIGINAL.replace("sum", "acc").replace("values", "xs")
+            .replace("Total: ", "Sum=").replace("// add numbers", "/* copied */");
+
+        CodeFingerprint original = fingerprinter.fingerprint(ORIGINAL, "java");
+        CodeFingerprint copy = fingerprinter.fingerprint(renamed, "java");
+
+        assertThat(CodeFingerprinter.jaccard(original.getFingerprints(), copy.getFingerprints())).isEqualTo(1.0);
+        assertThat(copy.getBandKeys()).containsExactly(original.getBandKeys());
+    }
+
+    @Test
+    @DisplayName("Unrelated programs share few fingerprints and no LSH band")
+    void fingerprint_Unrelated() {
+        CodeFingerprint a = fingerprinter.fingerprint(ORIGINAL, "java");
+        CodeFingerprint b = fingerprinter.fingerprint(UNRELATED, "java");
+
+        assertThat(CodeFingerprinter.jaccard(a.getFingerprints(), b.getFingerprints())).isLessThan(0.2);
+        assertThat(Arrays.stream(b.getBandKeys()).anyMatch(key ->
+            Arrays.stream(a.getBandKeys()).anyMatch(other -> other == key))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Hash comments are skipped only for languages that use them")
+    void tokenize_HashComments() {
+        String code = "x = 'a#b' # comment\ny = 2";
+
+        // x = STR ; y = NUM
+        assertThat(fingerprinter.tokenize(code, "python")).hasSize(6);
+        assertThat(fingerprinter.tokenize(code, "java").length).isGreaterThan(6);
+    }
+
+    @Test
+    @DisplayName("Fingerprints survive storage encoding")
+    void encode_RoundTrip() {
+        long[] fingerprints = fingerprinter.fingerprint(ORIGINAL, "java").getFingerprints();
+
+        assertThat(CodeFingerprint.decode(CodeFingerprint.encode(fingerprints))).containsExactly(fingerprints);
+    }
+}
@@ -0,0 +1,118 @@
+package com.eduforum.api.domain.assessment.service;
+
+import com.eduforum.api.domain.assessment.dto.participation.UpdateWeightsRequest;
+import com.eduforum.api.domain.assessment.entity.EventType;
+import com.eduforum.api.domain.assessment.entity.ParticipationEvent;
+import com.eduforum.api.domain.assessment.leaderboard.ParticipationLeaderboard;
+import com.eduforum.api.domain.assessment.repository.ParticipationEventRepository;
+import com.eduforum.api.domain.assessment.repository.ParticipationScoreRepository;
+import com.eduforum.api.domain.assessment.repository.ParticipationWeightRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ParticipationService
+ * Tests the incremental score upsert and the weight recompute
+ */
+@ExtendWith(MockitoExtension.class)
+class ParticipationServiceTest {
+
+    private static final Long STUDENT_ID = 5L;
+    private static final Long COURSE_ID = 10L;
+    private static final int SCORE_LOCK_NAMESPACE = 0x50415254;
+
+    @Mock
+    private ParticipationEventRepository participationEventRepository;
+
+    @Mock
+    private ParticipationScoreRepository participationScoreRepository;
+
+    @Mock
+    private ParticipationWeightRepository participationWeightRepository;
+
+    @Mock
+    private ParticipationLeaderboard leaderboard;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ParticipationService participationService;
+
+    @Test
+    @DisplayName("Recording an event upserts the weighted score under the shared course lock")
+    void recordEvent_UpsertsWeightedScore() {
+        when(jdbcTemplate.queryForObject(startsWith("WITH delta"), eq(BigDecimal.class),
+            eq(3), eq(COURSE_ID), eq("POLL_RESPONSE"),
+            eq(STUDENT_ID), eq(COURSE_ID), eq("POLL_RESPONSE"),
+            eq("POLL_RESPONSE"), eq("POLL_RESPONSE")))
+            .thenReturn(new BigDecimal("12.50"));
+
+        participationService.recordEvent(STUDENT_ID, COURSE_ID, 1L, EventType.POLL_RESPONSE, 3, null);
+
+        InOrder inOrder = inOrder(jdbcTemplate, participationEventRepository, leaderboard);
+        inOrder.verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock_shared(?, ?)"),
+            any(ResultSetExtractor.class), eq(SCORE_LOCK_NAMESPACE), eq(COURSE_ID.intValue()));
+        ArgumentCaptor<ParticipationEvent> event = ArgumentCaptor.forClass(ParticipationEvent.class);
+        inOrder.verify(participationEventRepository).save(event.capture());
+        inOrder.verify(leaderboard).update(COURSE_ID, STUDENT_ID, new BigDecimal("12.50"));
+
+        assertThat(event.getValue().getPoints()).isEqualTo(3);
+        assertThat(event.getValue().getEventType()).isEqualTo(EventType.POLL_RESPONSE);
+        verify(participationScoreRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("An event without points counts as one point")
+    void recordEvent_DefaultsToOnePoint() {
+        when(jdbcTemplate.queryForObject(startsWith("WITH delta"), eq(BigDecimal.class),
+            eq(1), eq(COURSE_ID), eq("CHAT_MESSAGE"),
+            eq(STUDENT_ID), eq(COURSE_ID), eq("CHAT_MESSAGE"),
+            eq("CHAT_MESSAGE"), eq("CHAT_MESSAGE")))
+            .thenReturn(BigDecimal.ONE);
+
+        participationService.recordEvent(STUDENT_ID, COURSE_ID, null, EventType.CHAT_MESSAGE, null, null);
+
+        verify(leaderboard).update(COURSE_ID, STUDENT_ID, BigDecimal.ONE);
+    }
+
+    @Test
+    @DisplayName("Changing weights rebuilds the course scores under the exclusive course lock")
+    void setWeights_RecomputesCourseScores() {
+        when(participationWeightRepository.findByCourseIdAndEventType(COURSE_ID, EventType.CHAT_MESSAGE))
+            .thenReturn(Optional.empty());
+        when(participationWeightRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        participationService.setWeights(COURSE_ID, List.of(UpdateWeightsRequest.builder()
+            .eventType(EventType.CHAT_MESSAGE)
+            .weight(new BigDecimal("2.0"))
+            .build()));
+
+        InOrder inOrder = inOrder(participationWeightRepository, jdbcTemplate, leaderboard);
+        inOrder.verify(participationWeightRepository).saveAllAndFlush(anyList());
+        inOrder.verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(?, ?)"),
+            any(ResultSetExtractor.class), eq(SCORE_LOCK_NAMESPACE), eq(COURSE_ID.intValue()));
+        inOrder.verify(jdbcTemplate).update(startsWith("WITH per_type"), eq(COURSE_ID), eq(COURSE_ID));
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE assessment.participation_scores"), eq(COURSE_ID));
+        inOrder.verify(leaderboard).invalidate(COURSE_ID);
+    }
+}
@@ -0,0 +1,105 @@
+package com.eduforum.api.domain.assessment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PeerReviewAssigner
+ */
+class PeerReviewAssignerTest {
+
+    private final PeerReviewAssigner assigner = new PeerReviewAssigner();
+
+    @Test
+    @DisplayName("Every submission gets k distinct reviewers, nobody reviews themselves and loads are equal")
+    void assign_BalancedWithoutSelfReview() {
+        List<PeerReviewAssigner.Candidate> submissions = submissions(500);
+
+        PeerReviewAssigner.Result result = assigner.assign(submissions, 4, Map.of(), 7L);
+
+        assertThat(result.getPairs()).hasSize(2000);
+        Map<Long, Set<Long>> reviewersBySubmission = new HashMap<>();
+        Map<Long, Integer> load = new HashMap<>();
+        for (PeerReviewAssigner.Pair pair : result.getPairs()) {
+            assertThat(pair.getReviewerId()).isNotEqualTo(pair.getRevieweeId());
+            assertThat(reviewersBySubmission.computeIfAbsent(pair.getSubmissionId(), id -> new HashSet<>())
+                .add(pair.getReviewerId())).isTrue();
+            load.merge(pair.getReviewerId(), 1, Integer::sum);
+        }
+        assertThat(reviewersBySubmission).hasSize(500);
+        assertThat(load).hasSize(500);
+        assertThat(load.values()).containsOnly(4);
+    }
+
+    @Test
+    @DisplayName("The same seed reproduces the assignment regardless of input order")
+    void assign_DeterministicForSeed() {
+        List<PeerReviewAssigner.Candidate> submissions = submissions(100);
+        List<PeerReviewAssigner.Candidate> reversed = new ArrayList<>(submissions);
+        Collections.reverse(reversed);
+
+        List<String> first = describe(assigner.assign(submissions, 3, Map.of(), 42L));
+        List<String> second = describe(assigner.assign(reversed, 3, Map.of(), 42L));
+        List<String> other = describe(assigner.assign(submissions, 3, Map.of(), 43L));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("Same-cluster pairs are swapped away while loads stay equal")
+    void assign_AvoidsSameCluster() {
+        List<PeerReviewAssigner.Candidate> submissions = submissions(300);
+        Map<Long, Long> clusterOf = new HashMap<>();
+        for (PeerReviewAssigner.Candidate candidate : submissions) {
+            clusterOf.put(candidate.getStudentId(), candidate.getStudentId() % 4);
+        }
+
+        PeerReviewAssigner.Result result = assigner.assign(submissions, 3, clusterOf, 1L);
+
+        assertThat(result.getSameClusterPairs()).isZero();
+        Map<Long, Integer> load = new HashMap<>();
+        for (PeerReviewAssigner.Pair pair : result.getPairs()) {
+            assertThat(clusterOf.get(pair.getReviewerId())).isNotEqualTo(clusterOf.get(pair.getRevieweeId()));
+            load.merge(pair.getReviewerId(), 1, Integer::sum);
+        }
+        assertThat(load.values()).containsOnly(3);
+    }
+
+    @Test
+    @DisplayName("Reviews per submission are capped by the number of other authors")
+    void assign_CapsReviewsToClassSize() {
+        PeerReviewAssigner.Result result = assigner.assign(submissions(3), 5, Map.of(), 1L);
+
+        assertThat(result.getReviewsPerSubmission()).isEqualTo(2);
+        assertThat(result.getPairs()).hasSize(6);
+        assertThat(assigner.assign(submissions(1), 3, Map.of(), 1L).getPairs()).isEmpty();
+    }
+
+    private static List<PeerReviewAssigner.Candidate> submissions(int count) {
+        List<PeerReviewAssigner.Candidate> submissions = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            submissions.add(new PeerReviewAssigner.Candidate(1000 + i, i));
+        }
+        return submissions;
+    }
+
+    private static List<String> describe(PeerReviewAssigner.Result result) {
+        List<String> pairs = new ArrayList<>();
+        for (PeerReviewAssigner.Pair pair : result.getPairs()) {
+            pairs.add(pair.getSubmissionId() + ":" + pair.getReviewerId());
+        }
+        pairs.sort(null);
+        return pairs;
+    }
+}
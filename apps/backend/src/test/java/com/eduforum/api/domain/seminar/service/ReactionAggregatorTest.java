@@ -0,0 +1,102 @@
+package com.eduforum.api.domain.seminar.service;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import com.eduforum.api.domain.seminar.dto.ReactionSummaryResponse;
+import com.eduforum.api.domain.seminar.entity.ReactionType;
+import com.eduforum.api.domain.seminar.repository.ReactionCountRepository;
+import com.eduforum.api.domain.seminar.websocket.WebSocketEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReactionAggregator
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactionAggregatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ReactionCountRepository reactionCountRepository;
+
+    @Mock
+    private WebSocketEventPublisher eventPublisher;
+
+    private SeminarProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SeminarProperties();
+    }
+
+    @Test
+    @DisplayName("Closing windows broadcasts one summary per active room and nothing for quiet windows")
+    void closeWindows_BroadcastsOneSummaryPerRoom() {
+        ReactionAggregator aggregator = new ReactionAggregator(jdbcTemplate, reactionCountRepository, eventPublisher, properties);
+        aggregator.record(1L, ReactionType.CLAP);
+        aggregator.record(1L, ReactionType.CLAP);
+        aggregator.record(1L, ReactionType.HEART);
+        aggregator.record(2L, ReactionType.LAUGH);
+
+        aggregator.closeWindows();
+        aggregator.closeWindows();
+
+        ArgumentCaptor<ReactionSummaryResponse> captor = ArgumentCaptor.forClass(ReactionSummaryResponse.class);
+        verify(eventPublisher).broadcastReaction(eq(1L), isNull(), captor.capture());
+        verify(eventPublisher).broadcastReaction(eq(2L), isNull(), any(ReactionSummaryResponse.class));
+        verifyNoMoreInteractions(eventPublisher);
+
+        ReactionSummaryResponse summary = captor.getValue();
+        assertThat(summary.getTotal()).isEqualTo(3);
+        assertThat(summary.getCounts()).containsEntry(ReactionType.CLAP, 2).containsEntry(ReactionType.HEART, 1);
+        assertThat(aggregator.getRecent(1L, summary.getWindowStart())).containsExactly(summary);
+    }
+
+    @Test
+    @DisplayName("Reactions recorded while windows close and idle rooms are dropped are each counted once")
+    void record_ConcurrentWithClose_CountsEveryReactionOnce() {
+        // No history is kept, so the room is dropped whenever a window closes empty
+        properties.getReactions().setHistoryMinutes(0);
+        ReactionAggregator aggregator = new ReactionAggregator(jdbcTemplate, reactionCountRepository, eventPublisher, properties);
+        List<ReactionSummaryResponse> summaries = new ArrayList<>();
+        doAnswer(invocation -> summaries.add(invocation.getArgument(2)))
+            .when(eventPublisher).broadcastReaction(anyLong(), isNull(), any(ReactionSummaryResponse.class));
+
+        int threads = 4;
+        int perThread = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread recorder = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    aggregator.record(1L, ReactionType.values()[i % ReactionType.values().length]);
+                }
+                done.countDown();
+            });
+            recorder.start();
+        }
+        while (done.getCount() > 0) {
+            aggregator.closeWindows();
+        }
+        aggregator.closeWindows();
+
+        assertThat(summaries.stream().mapToInt(ReactionSummaryResponse::getTotal).sum()).isEqualTo(threads * perThread);
+    }
+}
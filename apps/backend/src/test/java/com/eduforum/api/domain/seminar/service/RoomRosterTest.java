@@ -0,0 +1,89 @@
+package com.eduforum.api.domain.seminar.service;
+
+import com.eduforum.api.domain.seminar.entity.ParticipantStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RoomRoster
+ */
+class RoomRosterTest {
+
+    @Test
+    @DisplayName("Joined members take seats until the room is full")
+    void tryAdmit_RespectsCapacity() {
+        RoomRoster roster = new RoomRoster(1L, 10L, 2, true);
+
+        assertThat(roster.tryAdmit(member(1L, ParticipantStatus.JOINED))).isTrue();
+        assertThat(roster.tryAdmit(member(2L, ParticipantStatus.JOINED))).isTrue();
+        assertThat(roster.tryAdmit(member(3L, ParticipantStatus.JOINED))).isFalse();
+        assertThat(roster.tryAdmit(member(4L, ParticipantStatus.WAITING))).isFalse();
+        assertThat(roster.getActiveCount()).isEqualTo(2);
+
+        roster.removeMember(1L);
+        assertThat(roster.isMember(1L)).isFalse();
+        assertThat(roster.tryAdmit(member(3L, ParticipantStatus.JOINED))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Duplicate admission is rejected without leaking a seat")
+    void tryAdmit_RejectsDuplicate() {
+        RoomRoster roster = new RoomRoster(1L, 10L, 5, true);
+
+        assertThat(roster.tryAdmit(member(1L, ParticipantStatus.JOINED))).isTrue();
+        assertThat(roster.tryAdmit(member(1L, ParticipantStatus.JOINED))).isFalse();
+        assertThat(roster.getActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Waiting members do not count toward active participants")
+    void load_CountsOnlyJoinedMembers() {
+        RoomRoster roster = new RoomRoster(1L, 10L, 5, true);
+
+        roster.load(member(1L, ParticipantStatus.JOINED));
+        roster.load(member(2L, ParticipantStatus.WAITING));
+        roster.load(member(1L, ParticipantStatus.JOINED));
+
+        assertThat(roster.getActiveCount()).isEqualTo(1);
+        assertThat(roster.isMember(2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Concurrent joins never exceed capacity")
+    void tryAdmit_ConcurrentJoins() throws InterruptedException {
+        RoomRoster roster = new RoomRoster(1L, 10L, 50, true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+
+        for (long userId = 1; userId <= 200; userId++) {
+            long id = userId;
+            executor.submit(() -> {
+                start.await();
+                if (roster.tryAdmit(member(id, ParticipantStatus.JOINED))) {
+                    admitted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted.get()).isEqualTo(50);
+        assertThat(roster.getActiveCount()).isEqualTo(50);
+        assertThat(roster.getMembers()).hasSize(50);
+    }
+
+    private RoomRoster.Member member(Long userId, ParticipantStatus status) {
+        return new RoomRoster.Member(userId, "User " + userId, status, false, false);
+    }
+}
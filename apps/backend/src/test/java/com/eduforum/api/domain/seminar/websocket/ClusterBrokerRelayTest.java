@@ -0,0 +1,192 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for cluster broker mode: two application contexts, each with
+ * its own in-memory broker and web server, connected by an in-process bus.
+ */
+class ClusterBrokerRelayTest {
+
+    private static final Long ROOM_ID = 42L;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private WebSocketStompClient stompClient;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryBrokerBus bus = new InMemoryBrokerBus();
+        nodeA = startNode("node-a", bus);
+        nodeB = startNode("node-b", bus);
+
+        stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Room events published on one node reach subscribers connected to another node")
+    void broadcastToRoom_DeliversAcrossNodes() throws Exception {
+        BlockingQueue<Map<String, Object>> received = subscribe(nodeB, "/topic/room/" + ROOM_ID);
+        WebSocketEventPublisher publisherA = nodeA.getBean(WebSocketEventPublisher.class);
+
+        Map<String, Object> message = publishUntilReceived(
+            () -> publisherA.broadcastChatMessage(ROOM_ID, Map.of("content", "hello")), received);
+
+        assertThat(message).isNotNull();
+        assertThat(message.get("eventType")).isEqualTo("CHAT_MESSAGE");
+        assertThat(((Number) message.get("roomId")).longValue()).isEqualTo(ROOM_ID);
+        assertThat(message.get("data")).isEqualTo(Map.of("content", "hello"));
+    }
+
+    @Test
+    @DisplayName("Events published on the subscriber's own node are delivered exactly once")
+    void broadcastToRoom_LocalEventNotEchoed() throws Exception {
+        BlockingQueue<Map<String, Object>> received = subscribe(nodeB, "/topic/room/" + ROOM_ID);
+        WebSocketEventPublisher publisherB = nodeB.getBean(WebSocketEventPublisher.class);
+
+        // Wait until the subscription is registered, then start from an empty queue
+        assertThat(publishUntilReceived(() -> publisherB.broadcastLayoutChanged(ROOM_ID, Map.of()), received)).isNotNull();
+        Thread.sleep(200);
+        received.clear();
+
+        publisherB.broadcastLayoutChanged(ROOM_ID, Map.of("layout", "grid"));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId, BrokerBus bus) {
+        return new SpringApplicationBuilder(NodeConfig.class)
+            .initializers(context -> context.getBeanFactory().registerSingleton("brokerBus", bus))
+            .properties(
+                "server.port=0",
+                "server.servlet.context-path=",
+                "spring.profiles.active=test",
+                "app.seminar.broker.mode=cluster",
+                "app.seminar.broker.cluster.node-id=" + nodeId)
+            .run();
+    }
+
+    @SuppressWarnings("unchecked")
+    private BlockingQueue<Map<String, Object>> subscribe(ConfigurableApplicationContext node, String destination)
+        throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        StompSession session = stompClient
+            .connectAsync("ws://localhost:" + port + "/ws/seminar", new StompSessionHandlerAdapter() {})
+            .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<Map<String, Object>> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<String, Object>) payload);
+            }
+        });
+        return received;
+    }
+
+    /**
+     * SUBSCRIBE is processed asynchronously, so keep publishing until the first message arrives
+     */
+    private Map<String, Object> publishUntilReceived(Runnable publish, BlockingQueue<Map<String, Object>> received)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            publish.run();
+            Map<String, Object> message = received.poll(200, TimeUnit.MILLISECONDS);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+        PropertyPlaceholderAutoConfiguration.class,
+        JacksonAutoConfiguration.class,
+        ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class,
+        WebSocketServletAutoConfiguration.class,
+        WebSocketMessagingAutoConfiguration.class
+    })
+    @EnableConfigurationProperties(SeminarProperties.class)
+    @Import({WebSocketConfig.class, WebSocketEventPublisher.class, ClusterBrokerRelay.class,
+        CompactFrameEncoder.class, CompactWireFormatSupport.class})
+    static class NodeConfig {
+    }
+
+    /**
+     * Bus shared by the two contexts in this JVM
+     */
+    static class InMemoryBrokerBus implements BrokerBus {
+
+        private final List<Consumer<BrokerEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(BrokerEnvelope envelope) {
+            listeners.forEach(listener -> listener.accept(envelope));
+        }
+
+        @Override
+        public void subscribe(Consumer<BrokerEnvelope> listener) {
+            listeners.add(listener);
+        }
+    }
+}
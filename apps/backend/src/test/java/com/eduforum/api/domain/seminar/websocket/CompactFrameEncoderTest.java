@@ -0,0 +1,127 @@
+package com.eduforum.api.domain.seminar.websocket;
+
+import com.eduforum.api.domain.seminar.config.SeminarProperties;
+import com.eduforum.api.domain.seminar.dto.ParticipantResponse;
+import com.eduforum.api.domain.seminar.dto.ReactionSummaryResponse;
+import com.eduforum.api.domain.seminar.dto.WebSocketMessage;
+import com.eduforum.api.domain.seminar.entity.ParticipantRole;
+import com.eduforum.api.domain.seminar.entity.ParticipantStatus;
+import com.eduforum.api.domain.seminar.entity.ReactionType;
+import com.eduforum.api.domain.seminar.entity.WebSocketEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CompactFrameEncoder
+ */
+class CompactFrameEncoderTest {
+
+    private static final Long ROOM_ID = 1L;
+
+    private ObjectMapper objectMapper;
+    private CompactFrameEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        SeminarProperties properties = new SeminarProperties();
+        properties.getWire().setKeyframeInterval(3);
+        encoder = new CompactFrameEncoder(objectMapper, properties);
+    }
+
+    @Test
+    @DisplayName("Hand raise after join carries only the changed fields")
+    void encode_HandRaisedIsDelta() throws Exception {
+        JsonNode joined = encode(WebSocketEventType.PARTICIPANT_JOINED, participant(false));
+        JsonNode raised = encode(WebSocketEventType.HAND_RAISED, participant(true));
+
+        assertThat(joined.get("e").asText()).isEqualTo("pj");
+        assertThat(joined.get("v").asInt()).isEqualTo(1);
+        assertThat(joined.get("d").get("m").asText()).isEqualTo("hong@example.com");
+        assertThat(joined.get("d").get("h").asInt()).isZero();
+
+        assertThat(raised.get("e").asText()).isEqualTo("hr");
+        assertThat(raised.get("v").asInt()).isEqualTo(2);
+        assertThat(raised.get("b").asInt()).isEqualTo(1);
+        assertThat(raised.get("d").size()).isEqualTo(2);
+        assertThat(raised.get("d").get("i").asLong()).isEqualTo(7L);
+        assertThat(raised.get("d").get("h").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Every keyframe-interval update is sent in full")
+    void encode_KeyframeInterval() throws Exception {
+        encode(WebSocketEventType.PARTICIPANT_JOINED, participant(false));
+        encode(WebSocketEventType.HAND_RAISED, participant(true));
+        JsonNode keyframe = encode(WebSocketEventType.HAND_LOWERED, participant(false));
+
+        assertThat(keyframe.get("v").asInt()).isEqualTo(3);
+        assertThat(keyframe.has("b")).isFalse();
+        assertThat(keyframe.get("d").get("n").asText()).isEqualTo("홍길동");
+    }
+
+    @Test
+    @DisplayName("Hand raise without a known previous state is sent in full")
+    void encode_HandRaisedWithoutBase() throws Exception {
+        JsonNode raised = encode(WebSocketEventType.HAND_RAISED, participant(true));
+
+        assertThat(raised.get("v").asInt()).isEqualTo(1);
+        assertThat(raised.has("b")).isFalse();
+        assertThat(raised.get("d").get("u").asLong()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("Reaction summaries drop the room ID and total")
+    void encode_ReactionSummary() throws Exception {
+        OffsetDateTime end = OffsetDateTime.parse("2024-03-01T10:00:00.250Z");
+        ReactionSummaryResponse summary = ReactionSummaryResponse.builder()
+            .roomId(ROOM_ID)
+            .counts(Map.of(ReactionType.CLAP, 42))
+            .total(42)
+            .windowStart(end.minusNanos(250_000_000))
+            .windowEnd(end)
+            .build();
+
+        JsonNode frame = encode(WebSocketEventType.REACTION, summary);
+
+        assertThat(frame.get("e").asText()).isEqualTo("rx");
+        assertThat(frame.get("d").has("r")).isFalse();
+        assertThat(frame.get("d").has("total")).isFalse();
+        assertThat(frame.get("d").get("c").get("CLAP").asInt()).isEqualTo(42);
+        assertThat(frame.get("d").get("we").asLong()).isEqualTo(end.toInstant().toEpochMilli());
+    }
+
+    private JsonNode encode(WebSocketEventType eventType, Object data) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(WebSocketMessage.create(eventType, ROOM_ID, null, data));
+        return objectMapper.readTree(encoder.encode(json));
+    }
+
+    private ParticipantResponse participant(boolean handRaised) {
+        return ParticipantResponse.builder()
+            .id(7L)
+            .userId(10L)
+            .userName("홍길동")
+            .userEmail("hong@example.com")
+            .role(ParticipantRole.PARTICIPANT)
+            .status(ParticipantStatus.JOINED)
+            .isHandRaised(handRaised)
+            .isMuted(false)
+            .isVideoOn(true)
+            .isScreenSharing(false)
+            .joinedAt(OffsetDateTime.parse("2024-03-01T09:00:00Z"))
+            .build();
+    }
+}